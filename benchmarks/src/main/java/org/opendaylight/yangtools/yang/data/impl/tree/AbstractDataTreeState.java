@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Common state of data tree benchmarks: a data tree holding {@link #listSize} items in the item list nested
+ * {@link #depth} containers deep.
+ */
+public abstract class AbstractDataTreeState {
+    @Param({ "100", "10000" })
+    public int listSize;
+
+    @Param({ "1", "4", "8" })
+    public int depth;
+
+    DataTree tree;
+    YangInstanceIdentifier listPath;
+    YangInstanceIdentifier[] itemPaths;
+    MapEntryNode[] items;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReactorException, DataValidationFailedException {
+        listPath = BenchmarkModel.itemListPath(depth);
+        itemPaths = BenchmarkModel.itemPaths(depth, listSize);
+        items = BenchmarkModel.itemEntries(listSize);
+
+        tree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(BenchmarkModel.createTestContext());
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(BenchmarkModel.NESTED_PATH, BenchmarkModel.nestedStructure(depth, items));
+        commit(mod);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tree = null;
+        itemPaths = null;
+        items = null;
+    }
+
+    final void commit(final DataTreeModification mod) throws DataValidationFailedException {
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+}
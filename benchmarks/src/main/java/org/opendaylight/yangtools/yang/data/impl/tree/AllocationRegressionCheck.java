@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import com.google.common.base.Strings;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link DataTreeAllocationBenchmark} with the GC profiler and compares the normalized allocation rate
+ * (bytes per operation) of each benchmark against the baseline recorded in {@value #BASELINE_RESOURCE}. The run fails
+ * if any benchmark allocates more than the baseline plus a relative threshold, which defaults to
+ * {@value #DEFAULT_THRESHOLD} and can be changed via the {@value #THRESHOLD_PROPERTY} system property.
+ *
+ * <p>
+ * Benchmarks which do not have a baseline fail the run as well, as do baseline entries which were not measured, so
+ * the check cannot silently pass on a stale or empty baseline. To record a new baseline, specify the target file via
+ * the {@value #RECORD_PROPERTY} system property and copy it over the checked-in resource. No comparison is made
+ * while recording.
+ *
+ * <p>
+ * Allocation rates are mostly independent of the hardware, but they do depend on the JVM, hence the baseline should
+ * be recorded with the same JVM version as is used to run the check.
+ */
+public final class AllocationRegressionCheck {
+    static final String BASELINE_RESOURCE = "/allocation-baseline.properties";
+    static final String THRESHOLD_PROPERTY = "allocation.threshold";
+    static final String RECORD_PROPERTY = "allocation.record";
+    static final String DEFAULT_THRESHOLD = "0.05";
+
+    private static final String ALLOC_RATE_NORM = "\u00B7gc.alloc.rate.norm";
+    private static final String LIST_SIZE = "1000";
+    private static final String DEPTH = "4";
+
+    private AllocationRegressionCheck() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static void main(final String... args) throws IOException, RunnerException {
+        final double threshold = Double.parseDouble(System.getProperty(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD));
+        final Options opt = new OptionsBuilder()
+            .include(".*" + DataTreeAllocationBenchmark.class.getSimpleName() + ".*")
+            .param("listSize", LIST_SIZE)
+            .param("depth", DEPTH)
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        final Map<String, Double> measured = allocationRates(new Runner(opt).run());
+
+        final String record = System.getProperty(RECORD_PROPERTY);
+        if (!Strings.isNullOrEmpty(record)) {
+            // Recording a new baseline, there is nothing to compare against
+            writeBaseline(record, measured);
+            return;
+        }
+
+        final List<String> regressions = compare(loadBaseline(), measured, threshold);
+        if (!regressions.isEmpty()) {
+            for (String regression : regressions) {
+                System.err.println(regression);
+            }
+            System.exit(1);
+        }
+    }
+
+    static Map<String, Double> allocationRates(final Collection<RunResult> results) {
+        final Map<String, Double> ret = new TreeMap<>();
+        for (RunResult result : results) {
+            final Result alloc = result.getAggregatedResult().getSecondaryResults().get(ALLOC_RATE_NORM);
+            if (alloc != null) {
+                ret.put(baselineKey(result.getParams()), alloc.getScore());
+            }
+        }
+        return ret;
+    }
+
+    static List<String> compare(final Properties baseline, final Map<String, Double> measured,
+            final double threshold) {
+        final List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> e : measured.entrySet()) {
+            final String value = baseline.getProperty(e.getKey());
+            if (value == null) {
+                regressions.add(String.format("%s allocates %.1f bytes/op, but has no baseline", e.getKey(),
+                    e.getValue()));
+                continue;
+            }
+
+            final double expected = Double.parseDouble(value);
+            final double limit = expected * (1 + threshold);
+            System.out.printf("%s: %.1f bytes/op, baseline %.1f bytes/op, limit %.1f bytes/op%n", e.getKey(),
+                e.getValue(), expected, limit);
+            if (e.getValue() > limit) {
+                regressions.add(String.format("%s allocates %.1f bytes/op, exceeding baseline %.1f by more than %.0f%%",
+                    e.getKey(), e.getValue(), expected, threshold * 100));
+            }
+        }
+        for (String key : baseline.stringPropertyNames()) {
+            if (!measured.containsKey(key)) {
+                regressions.add(String.format("%s has a baseline, but was not measured", key));
+            }
+        }
+        return regressions;
+    }
+
+    private static String baselineKey(final BenchmarkParams params) {
+        final String benchmark = params.getBenchmark();
+        final StringBuilder sb = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.') + 1));
+        for (String key : params.getParamsKeys()) {
+            sb.append('.').append(key).append('-').append(params.getParam(key));
+        }
+        return sb.toString();
+    }
+
+    private static Properties loadBaseline() throws IOException {
+        final Properties ret = new Properties();
+        try (InputStream in = AllocationRegressionCheck.class.getResourceAsStream(BASELINE_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Baseline " + BASELINE_RESOURCE + " not found");
+            }
+            ret.load(in);
+        }
+        return ret;
+    }
+
+    private static void writeBaseline(final String file, final Map<String, Double> measured) throws IOException {
+        final Properties props = new Properties();
+        for (Map.Entry<String, Double> e : measured.entrySet()) {
+            props.setProperty(e.getKey(), Long.toString(Math.round(e.getValue())));
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            props.store(out, "Allocation baseline in bytes/op, listSize=" + LIST_SIZE + ", depth=" + DEPTH);
+        }
+    }
+}
@@ -12,10 +12,21 @@ import org.opendaylight.yangtools.yang.parser.spi.source.SourceException;
 
 import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import com.google.common.base.Preconditions;
 import java.io.InputStream;
 import java.util.Collections;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.InstanceIdentifierBuilder;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
 /**
@@ -31,10 +42,15 @@ public class BenchmarkModel {
     public static final QName ID_QNAME = QName.create(TEST_QNAME, "id");
     public static final QName NAME_QNAME = QName.create(TEST_QNAME, "name");
     public static final QName VALUE_QNAME = QName.create(TEST_QNAME, "value");
+    public static final QName NESTED_QNAME = QName.create(TEST_QNAME, "nested");
+    public static final QName LEVEL_QNAME = QName.create(TEST_QNAME, "level");
+    public static final QName ITEM_QNAME = QName.create(TEST_QNAME, "item");
+    public static final int MAX_DEPTH = 8;
     private static final String DATASTORE_TEST_YANG = "/odl-datastore-test.yang";
 
     public static final YangInstanceIdentifier TEST_PATH = YangInstanceIdentifier.of(TEST_QNAME);
     public static final YangInstanceIdentifier OUTER_LIST_PATH = YangInstanceIdentifier.builder(TEST_PATH).node(OUTER_LIST_QNAME).build();
+    public static final YangInstanceIdentifier NESTED_PATH = YangInstanceIdentifier.of(NESTED_QNAME);
 
     public static final InputStream getDatastoreBenchmarkInputStream() {
         return getInputStream(DATASTORE_TEST_YANG);
@@ -52,4 +68,64 @@ public class BenchmarkModel {
         return schemaContext;
     }
 
+    /**
+     * Return the path to the item list at specified nesting depth.
+     *
+     * @param depth Number of nested containers, between 1 and {@link #MAX_DEPTH}
+     * @return Path to the item list
+     */
+    public static YangInstanceIdentifier itemListPath(final int depth) {
+        Preconditions.checkArgument(depth > 0 && depth <= MAX_DEPTH, "Unsupported depth %s", depth);
+        final InstanceIdentifierBuilder builder = YangInstanceIdentifier.builder(NESTED_PATH);
+        for (int i = 0; i < depth; ++i) {
+            builder.node(LEVEL_QNAME);
+        }
+        return builder.node(ITEM_QNAME).build();
+    }
+
+    public static YangInstanceIdentifier[] itemPaths(final int depth, final int count) {
+        final YangInstanceIdentifier listPath = itemListPath(depth);
+        final YangInstanceIdentifier[] paths = new YangInstanceIdentifier[count];
+        for (int i = 0; i < count; ++i) {
+            paths[i] = listPath.node(itemIdentifier(i));
+        }
+        return paths;
+    }
+
+    public static NodeIdentifierWithPredicates itemIdentifier(final int id) {
+        return new NodeIdentifierWithPredicates(ITEM_QNAME, ID_QNAME, id);
+    }
+
+    public static MapEntryNode[] itemEntries(final int count) {
+        final MapEntryNode[] entries = new MapEntryNode[count];
+        for (int i = 0; i < count; ++i) {
+            entries[i] = ImmutableNodes.mapEntryBuilder(ITEM_QNAME, ID_QNAME, i)
+                    .withChild(ImmutableNodes.leafNode(VALUE_QNAME, "value-" + i)).build();
+        }
+        return entries;
+    }
+
+    /**
+     * Create the nested container structure down to specified depth, with an item list at the deepest level.
+     *
+     * @param depth Number of nested containers, between 1 and {@link #MAX_DEPTH}
+     * @param entries Entries of the item list
+     * @return Top-level nested container
+     */
+    public static ContainerNode nestedStructure(final int depth, final MapEntryNode... entries) {
+        Preconditions.checkArgument(depth > 0 && depth <= MAX_DEPTH, "Unsupported depth %s", depth);
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = ImmutableNodes.mapNodeBuilder(ITEM_QNAME);
+        for (MapEntryNode entry : entries) {
+            list.withChild(entry);
+        }
+
+        DataContainerChild<?, ?> child = list.build();
+        for (int i = 0; i < depth; ++i) {
+            child = ImmutableContainerNodeBuilder.create().withNodeIdentifier(new NodeIdentifier(LEVEL_QNAME))
+                    .withChild(child).build();
+        }
+        return ImmutableContainerNodeBuilder.create().withNodeIdentifier(new NodeIdentifier(NESTED_QNAME))
+                .withChild(child).build();
+    }
+
 }
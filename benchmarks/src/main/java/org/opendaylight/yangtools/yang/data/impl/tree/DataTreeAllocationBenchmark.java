@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the InMemoryDataTree write, merge and commit paths, intended to be run with the GC profiler, which
+ * reports the number of bytes allocated by each operation. See {@link AllocationRegressionCheck}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class DataTreeAllocationBenchmark {
+
+    private static DataTreeModification writeItems(final AbstractDataTreeState state) {
+        final DataTreeModification mod = state.tree.takeSnapshot().newModification();
+        for (int i = 0; i < state.listSize; ++i) {
+            mod.write(state.itemPaths[i], state.items[i]);
+        }
+        return mod;
+    }
+
+    private static DataTreeModification mergeItems(final AbstractDataTreeState state) {
+        final DataTreeModification mod = state.tree.takeSnapshot().newModification();
+        for (int i = 0; i < state.listSize; ++i) {
+            mod.merge(state.itemPaths[i], state.items[i]);
+        }
+        return mod;
+    }
+
+    @Benchmark
+    public DataTreeModification write(final DataTreeState state) {
+        final DataTreeModification mod = writeItems(state);
+        mod.ready();
+        return mod;
+    }
+
+    @Benchmark
+    public DataTreeModification merge(final DataTreeState state) {
+        final DataTreeModification mod = mergeItems(state);
+        mod.ready();
+        return mod;
+    }
+
+    @Benchmark
+    public DataTreeCandidate writePrepare(final DataTreeState state) throws DataValidationFailedException {
+        final DataTreeModification mod = writeItems(state);
+        mod.ready();
+        state.tree.validate(mod);
+        return state.tree.prepare(mod);
+    }
+
+    // AbstractDataTreeState.commit() seals the modification itself
+    @Benchmark
+    public void writeCommit(final DataTreeState state) throws DataValidationFailedException {
+        state.commit(writeItems(state));
+    }
+
+    @Benchmark
+    public void mergeCommit(final DataTreeState state) throws DataValidationFailedException {
+        state.commit(mergeItems(state));
+    }
+}
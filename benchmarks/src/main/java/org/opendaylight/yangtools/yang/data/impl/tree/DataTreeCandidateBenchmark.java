@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of {@link DataTreeCandidate} processing, as done by data change listeners and replicas: full
+ * traversal of a candidate and its application to another modification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class DataTreeCandidateBenchmark {
+
+    /**
+     * A prepared candidate which deletes every other item and rewrites the rest.
+     */
+    @State(Scope.Thread)
+    public static class CandidateState {
+        DataTreeCandidate candidate;
+
+        @Setup(Level.Trial)
+        public void setup(final DataTreeState state) throws DataValidationFailedException {
+            final DataTreeModification mod = state.tree.takeSnapshot().newModification();
+            for (int i = 0; i < state.listSize; ++i) {
+                if (i % 2 == 0) {
+                    mod.delete(state.itemPaths[i]);
+                } else {
+                    mod.write(state.itemPaths[i], state.items[i]);
+                }
+            }
+            mod.ready();
+            state.tree.validate(mod);
+            candidate = state.tree.prepare(mod);
+        }
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + DataTreeCandidateBenchmark.class.getSimpleName() + ".*")
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static void traverse(final DataTreeCandidateNode node, final Blackhole blackhole) {
+        blackhole.consume(node.getModificationType());
+        blackhole.consume(node.getDataBefore());
+        blackhole.consume(node.getDataAfter());
+        for (DataTreeCandidateNode child : node.getChildNodes()) {
+            traverse(child, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void traverseCandidate(final CandidateState candidate, final Blackhole blackhole) {
+        traverse(candidate.candidate.getRootNode(), blackhole);
+    }
+
+    @Benchmark
+    public DataTreeModification applyCandidate(final DataTreeState state, final CandidateState candidate) {
+        final DataTreeModification mod = state.tree.takeSnapshot().newModification();
+        DataTreeCandidates.applyToModification(mod, candidate.candidate);
+        mod.ready();
+        return mod;
+    }
+}
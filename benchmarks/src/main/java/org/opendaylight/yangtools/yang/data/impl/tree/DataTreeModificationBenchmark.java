@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.CursorAwareDataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModificationCursor;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of modifications of a populated InMemoryDataTree. Each benchmark validates and prepares its
+ * modification, but does not commit it, so every invocation operates on the same data tree.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class DataTreeModificationBenchmark {
+
+    /**
+     * Replacement data for the whole populated subtree, with the value of each item changed.
+     */
+    @State(Scope.Thread)
+    public static class ReplacementState {
+        MapEntryNode[] items;
+        ContainerNode structure;
+
+        @Setup(Level.Trial)
+        public void setup(final DataTreeState state) {
+            items = new MapEntryNode[state.listSize];
+            for (int i = 0; i < state.listSize; ++i) {
+                items[i] = ImmutableNodes.mapEntryBuilder(BenchmarkModel.ITEM_QNAME, BenchmarkModel.ID_QNAME, i)
+                        .withChild(ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME, "replaced-" + i)).build();
+            }
+            structure = BenchmarkModel.nestedStructure(state.depth, items);
+        }
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + DataTreeModificationBenchmark.class.getSimpleName() + ".*")
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static DataTreeCandidate prepare(final AbstractDataTreeState state, final DataTreeModification mod)
+            throws DataValidationFailedException {
+        mod.ready();
+        state.tree.validate(mod);
+        return state.tree.prepare(mod);
+    }
+
+    @Benchmark
+    public DataTreeCandidate writeItems(final DataTreeState state) throws DataValidationFailedException {
+        final DataTreeModification mod = state.tree.takeSnapshot().newModification();
+        for (int i = 0; i < state.listSize; ++i) {
+            mod.write(state.itemPaths[i], state.items[i]);
+        }
+        return prepare(state, mod);
+    }
+
+    @Benchmark
+    public DataTreeCandidate mergeItems(final DataTreeState state) throws DataValidationFailedException {
+        final DataTreeModification mod = state.tree.takeSnapshot().newModification();
+        for (int i = 0; i < state.listSize; ++i) {
+            mod.merge(state.itemPaths[i], state.items[i]);
+        }
+        return prepare(state, mod);
+    }
+
+    @Benchmark
+    public DataTreeCandidate writeStructure(final DataTreeState state, final ReplacementState replacement)
+            throws DataValidationFailedException {
+        final DataTreeModification mod = state.tree.takeSnapshot().newModification();
+        mod.write(BenchmarkModel.NESTED_PATH, replacement.structure);
+        return prepare(state, mod);
+    }
+
+    @Benchmark
+    public DataTreeCandidate mergeStructure(final DataTreeState state, final ReplacementState replacement)
+            throws DataValidationFailedException {
+        final DataTreeModification mod = state.tree.takeSnapshot().newModification();
+        mod.merge(BenchmarkModel.NESTED_PATH, replacement.structure);
+        return prepare(state, mod);
+    }
+
+    @Benchmark
+    public DataTreeCandidate deleteItems(final DataTreeState state) throws DataValidationFailedException {
+        final DataTreeModification mod = state.tree.takeSnapshot().newModification();
+        for (int i = 0; i < state.listSize; ++i) {
+            mod.delete(state.itemPaths[i]);
+        }
+        return prepare(state, mod);
+    }
+
+    @Benchmark
+    public DataTreeCandidate cursorWriteItems(final DataTreeState state) throws DataValidationFailedException {
+        final CursorAwareDataTreeModification mod =
+                (CursorAwareDataTreeModification) state.tree.takeSnapshot().newModification();
+        try (DataTreeModificationCursor cursor = mod.createCursor(state.listPath)) {
+            for (int i = 0; i < state.listSize; ++i) {
+                cursor.write(state.itemPaths[i].getLastPathArgument(), state.items[i]);
+            }
+        }
+        return prepare(state, mod);
+    }
+
+    @Benchmark
+    public void snapshotAndModification(final DataTreeState state, final Blackhole blackhole) {
+        final DataTreeModification mod = state.tree.takeSnapshot().newModification();
+        mod.ready();
+        blackhole.consume(mod);
+    }
+}
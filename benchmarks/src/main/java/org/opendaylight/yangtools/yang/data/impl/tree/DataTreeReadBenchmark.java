@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import com.google.common.base.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of read access to an InMemoryDataTree: point reads of list entries, both single-threaded and with
+ * multiple concurrent readers, with and without a concurrent writer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class DataTreeReadBenchmark {
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + DataTreeReadBenchmark.class.getSimpleName() + ".*")
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    private static int randomItem(final AbstractDataTreeState state) {
+        return ThreadLocalRandom.current().nextInt(state.listSize);
+    }
+
+    @Benchmark
+    public Optional<NormalizedNode<?, ?>> readItem(final DataTreeState state) {
+        return state.tree.takeSnapshot().readNode(state.itemPaths[randomItem(state)]);
+    }
+
+    @Benchmark
+    public Optional<NormalizedNode<?, ?>> readList(final DataTreeState state) {
+        return state.tree.takeSnapshot().readNode(state.listPath);
+    }
+
+    @Benchmark
+    @Group("readConcurrently")
+    @GroupThreads(4)
+    public Optional<NormalizedNode<?, ?>> readItemConcurrently(final SharedDataTreeState state) {
+        return state.tree.takeSnapshot().readNode(state.itemPaths[randomItem(state)]);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(3)
+    public Optional<NormalizedNode<?, ?>> reader(final SharedDataTreeState state) {
+        return state.tree.takeSnapshot().readNode(state.itemPaths[randomItem(state)]);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public void writer(final SharedDataTreeState state) throws DataValidationFailedException {
+        final int item = randomItem(state);
+        final DataTreeModification mod = state.tree.takeSnapshot().newModification();
+        mod.write(state.itemPaths[item], state.items[item]);
+        state.commit(mod);
+    }
+}
@@ -57,6 +57,16 @@ public abstract class DurationStatisticsTracker {
         return new SynchronizedDurationStatsTracker();
     }
 
+    /**
+     * Create a {@link DurationStatisticsTracker} backed by a striped histogram, which performs well
+     * in very contended environments and provides percentile information.
+     *
+     * @return A new instance.
+     */
+    public static HistogramDurationStatisticsTracker createHistogram() {
+        return new HistogramDurationStatisticsTracker();
+    }
+
     /**
      * Add a duration to track.
      *
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.annotations.Beta;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A {@link DurationStatisticsTracker} backed by a {@link LatencyRecorder}, which provides percentile information via
+ * {@link #getSnapshot()}. Count and average are derived from the histogram, hence recording durations does not
+ * contend on shared fields. Only the shortest and longest durations, along with their timestamps, are tracked
+ * separately, which requires synchronization only when a new extreme is observed.
+ */
+@Beta
+public final class HistogramDurationStatisticsTracker extends DurationStatisticsTracker {
+    private static final AtomicReferenceFieldUpdater<HistogramDurationStatisticsTracker, DurationWithTime>
+        LONGEST_UPDATER = AtomicReferenceFieldUpdater.newUpdater(HistogramDurationStatisticsTracker.class,
+                DurationWithTime.class, "longest");
+    private static final AtomicReferenceFieldUpdater<HistogramDurationStatisticsTracker, DurationWithTime>
+        SHORTEST_UPDATER = AtomicReferenceFieldUpdater.newUpdater(HistogramDurationStatisticsTracker.class,
+                DurationWithTime.class, "shortest");
+
+    private final LatencyRecorder recorder = LatencyRecorder.create();
+    private volatile DurationWithTime longest = null;
+    private volatile DurationWithTime shortest = null;
+
+    HistogramDurationStatisticsTracker() {
+        // Hidden on purpose
+    }
+
+    @Override
+    public void addDuration(final long duration) {
+        recorder.record(duration);
+
+        DurationWithTime current = shortest;
+        if (current == null || duration < current.getDuration()) {
+            final DurationWithTime newObj = new DurationWithTime(duration, System.currentTimeMillis());
+            while (!SHORTEST_UPDATER.weakCompareAndSet(this, current, newObj)) {
+                current = shortest;
+                if (current != null && duration >= current.getDuration()) {
+                    break;
+                }
+            }
+        }
+
+        current = longest;
+        if (current == null || duration > current.getDuration()) {
+            final DurationWithTime newObj = new DurationWithTime(duration, System.currentTimeMillis());
+            while (!LONGEST_UPDATER.weakCompareAndSet(this, current, newObj)) {
+                current = longest;
+                if (current != null && duration <= current.getDuration()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public double getAverageDuration() {
+        return recorder.snapshot().getMean();
+    }
+
+    @Override
+    public long getTotalDurations() {
+        return recorder.snapshot().getTotalCount();
+    }
+
+    /**
+     * Returns a snapshot of the durations recorded since the last reset.
+     *
+     * @return A snapshot
+     */
+    public LatencySnapshot getSnapshot() {
+        return recorder.snapshot();
+    }
+
+    /**
+     * Returns a snapshot of the durations recorded since the last reset and resets all statistics.
+     *
+     * @return A snapshot
+     */
+    public synchronized LatencySnapshot getSnapshotAndReset() {
+        longest = null;
+        shortest = null;
+        return recorder.snapshotAndReset();
+    }
+
+    @Override
+    public synchronized void reset() {
+        // Synchronized is just to make sure we do not have concurrent resets
+        longest = null;
+        shortest = null;
+        recorder.reset();
+    }
+
+    @Override
+    protected DurationWithTime getLongest() {
+        return longest;
+    }
+
+    @Override
+    protected DurationWithTime getShortest() {
+        return shortest;
+    }
+}
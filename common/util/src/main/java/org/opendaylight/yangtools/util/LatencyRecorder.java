@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A recorder of non-negative durations, which maintains a high dynamic range histogram. Values are bucketed
+ * log-linearly: each power-of-two range is split into {@value #SUB_BUCKET_HALF_COUNT} linear sub-buckets, hence any
+ * recorded value is accurate to within about 6%, from single nanoseconds up to {@link Long#MAX_VALUE}.
+ *
+ * <p>
+ * Recording does not allocate and does not contend on a single location: the histogram is striped, with the stripe
+ * being selected based on the recording thread's identifier. Stripes are merged when a {@link LatencySnapshot} is
+ * taken, which is expected to happen infrequently.
+ *
+ * <p>
+ * Snapshots are not atomic with respect to concurrent recording: a value recorded while a snapshot is being taken may
+ * or may not be reflected in it, and {@link #snapshotAndReset()} guarantees only that each recorded value is accounted
+ * for in exactly one snapshot.
+ */
+@Beta
+public final class LatencyRecorder {
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+    // Per-stripe slots following the buckets
+    private static final int SUM = BUCKET_COUNT;
+    private static final int MIN = BUCKET_COUNT + 1;
+    private static final int MAX = BUCKET_COUNT + 2;
+    private static final int STRIPE_SIZE = BUCKET_COUNT + 3;
+
+    private static final int MAX_STRIPES = 16;
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+
+    private LatencyRecorder(final int stripeCount) {
+        stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; ++i) {
+            stripes[i] = new AtomicLongArray(STRIPE_SIZE);
+            stripes[i].set(MIN, Long.MAX_VALUE);
+        }
+        stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Create a new recorder, with the number of stripes based on the number of available processors.
+     *
+     * @return A new recorder
+     */
+    public static LatencyRecorder create() {
+        return create(Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES));
+    }
+
+    /**
+     * Create a new recorder with a specified number of stripes, which will be rounded up to the next power of two.
+     *
+     * @param stripeCount Requested number of stripes
+     * @return A new recorder
+     * @throws IllegalArgumentException if stripeCount is not positive
+     */
+    public static LatencyRecorder create(final int stripeCount) {
+        Preconditions.checkArgument(stripeCount > 0, "Stripe count %s is not positive", stripeCount);
+        final int highestBit = Integer.highestOneBit(stripeCount);
+        return new LatencyRecorder(highestBit == stripeCount ? stripeCount : highestBit << 1);
+    }
+
+    /**
+     * Record a duration.
+     *
+     * @param duration non-negative duration, usually in nanoseconds
+     */
+    public void record(final long duration) {
+        // Not using Preconditions to avoid boxing on the fast path
+        if (duration < 0) {
+            throw new IllegalArgumentException("Duration " + duration + " is negative");
+        }
+
+        final AtomicLongArray stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+        stripe.incrementAndGet(bucketIndex(duration));
+        stripe.addAndGet(SUM, duration);
+
+        long current = stripe.get(MIN);
+        while (duration < current && !stripe.compareAndSet(MIN, current, duration)) {
+            current = stripe.get(MIN);
+        }
+        current = stripe.get(MAX);
+        while (duration > current && !stripe.compareAndSet(MAX, current, duration)) {
+            current = stripe.get(MAX);
+        }
+    }
+
+    /**
+     * Return a snapshot of the values recorded since this recorder was created or last reset.
+     *
+     * @return A snapshot
+     */
+    public LatencySnapshot snapshot() {
+        return collect(false);
+    }
+
+    /**
+     * Return a snapshot of the values recorded since this recorder was created or last reset, and reset it.
+     *
+     * @return A snapshot
+     */
+    public LatencySnapshot snapshotAndReset() {
+        return collect(true);
+    }
+
+    /**
+     * Discard all recorded values.
+     */
+    public void reset() {
+        collect(true);
+    }
+
+    private LatencySnapshot collect(final boolean reset) {
+        final long[] counts = new long[BUCKET_COUNT];
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = 0;
+
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; ++i) {
+                counts[i] += reset ? stripe.getAndSet(i, 0) : stripe.get(i);
+            }
+            sum += reset ? stripe.getAndSet(SUM, 0) : stripe.get(SUM);
+            min = Math.min(min, reset ? stripe.getAndSet(MIN, Long.MAX_VALUE) : stripe.get(MIN));
+            max = Math.max(max, reset ? stripe.getAndSet(MAX, 0) : stripe.get(MAX));
+        }
+
+        return new LatencySnapshot(counts, sum, min, max);
+    }
+
+    /*
+     * Values smaller than SUB_BUCKET_COUNT map directly to their bucket. Larger values are shifted right until they
+     * fit into the upper half of the sub-bucket range, the shift selecting the group of SUB_BUCKET_HALF_COUNT buckets.
+     */
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        final int shift = Long.SIZE - SUB_BUCKET_BITS - Long.numberOfLeadingZeros(value);
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    static long lowestValue(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        return (long) (index % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT) << shift;
+    }
+
+    static long highestValue(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        return lowestValue(index) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.UnsignedLong;
+
+/**
+ * An immutable histogram of durations recorded by a {@link LatencyRecorder}. Percentile values are reported as the
+ * highest value equivalent to the bucket in which they fall, capped at the maximum recorded value.
+ */
+@Beta
+public final class LatencySnapshot {
+    /**
+     * A snapshot with no recorded values.
+     */
+    public static final LatencySnapshot EMPTY = new LatencySnapshot(new long[LatencyRecorder.BUCKET_COUNT], 0,
+        Long.MAX_VALUE, 0);
+
+    private final long[] counts;
+    private final long totalCount;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    LatencySnapshot(final long[] counts, final long sum, final long min, final long max) {
+        this.counts = counts;
+        this.sum = sum;
+
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        this.totalCount = total;
+
+        if (total != 0) {
+            this.min = min;
+            this.max = max;
+        } else {
+            this.min = 0;
+            this.max = 0;
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the smallest recorded value, or 0 if there are no recorded values.
+     */
+    public long getMinValue() {
+        return min;
+    }
+
+    /**
+     * Returns the largest recorded value, or 0 if there are no recorded values.
+     */
+    public long getMaxValue() {
+        return max;
+    }
+
+    /**
+     * Returns the arithmetic mean of recorded values, or 0 if there are no recorded values.
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : UnsignedLong.fromLongBits(sum).doubleValue() / totalCount;
+    }
+
+    /**
+     * Returns the value at or below which the specified percentage of recorded values fall.
+     *
+     * @param percentile Percentile, in range 0 to 100 inclusive
+     * @return Value at the percentile, or 0 if there are no recorded values
+     * @throws IllegalArgumentException if percentile is out of range
+     */
+    public long getValueAtPercentile(final double percentile) {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "Invalid percentile %s", percentile);
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        final long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; ++i) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.max(min, Math.min(max, LatencyRecorder.highestValue(i)));
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the median value.
+     */
+    public long getMedian() {
+        return getValueAtPercentile(50);
+    }
+
+    /**
+     * Returns the 99th percentile value.
+     */
+    public long get99thPercentile() {
+        return getValueAtPercentile(99);
+    }
+
+    /**
+     * Returns the 99.9th percentile value.
+     */
+    public long get999thPercentile() {
+        return getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("count", totalCount).add("min", min).add("mean", getMean())
+                .add("p50", getMedian()).add("p99", get99thPercentile()).add("p999", get999thPercentile())
+                .add("max", max).toString();
+    }
+}
@@ -7,6 +7,8 @@
  */
 package org.opendaylight.yangtools.util;
 
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
@@ -15,12 +17,22 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.opendaylight.yangtools.util.MapAdaptorStatistics.Representation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A simple layer on top of maps, which performs snapshot mediation and optimization of
  * what the underlying implementation is.
+ *
+ * <p>Instances are either static, in which case the implementation is selected purely by map size using fixed
+ * thresholds, or adaptive. An adaptive instance serves a single call site and tracks how often maps it has optimized
+ * are subsequently snapshotted. It then favors compact immutable representations for small maps, plain HashMaps for
+ * maps which are rarely modified, and TrieMaps only when the cost of copying maps on modification justifies them.
+ * Small maps are stored as {@link ImmutableOffsetMap}s only by instances which have opted in, as their key sets are
+ * retained globally. See {@link #getCallSiteInstance(String, boolean)}.
  */
 public final class MapAdaptor {
     public static final int DEFAULT_COPY_MAX_ITEMS = 100;
@@ -29,12 +41,25 @@ public final class MapAdaptor {
     public static final int DEFAULT_PERSIST_MIN_ITEMS = 50;
     public static final String PERSIST_MIN_ITEMS_PROP = "org.opendaylight.yangtools.util.mapadaptor.minpersist";
 
+    @Beta
+    public static final int DEFAULT_COMPACT_MAX_ITEMS = 8;
+    @Beta
+    public static final String COMPACT_MAX_ITEMS_PROP = "org.opendaylight.yangtools.util.mapadaptor.maxcompact";
+    @Beta
+    public static final String ADAPTIVE_PROP = "org.opendaylight.yangtools.util.mapadaptor.adaptive";
+
+    private static final int DEFAULT_SAMPLE_WINDOW = 1024;
     private static final Logger LOG = LoggerFactory.getLogger(MapAdaptor.class);
+    private static final ConcurrentMap<String, MapAdaptor> CALL_SITE_INSTANCES = new ConcurrentHashMap<>();
     private static final MapAdaptor DEFAULT_INSTANCE;
+    private static final boolean ADAPTIVE;
+    private static final int COMPACT_MAX_ITEMS;
 
+    private final MapAdaptorTracker tracker;
     private final boolean useSingleton;
     private final int persistMinItems;
     private final int copyMaxItems;
+    private final int compactMaxItems;
 
     static {
         DEFAULT_INSTANCE = new MapAdaptor(true,
@@ -42,6 +67,19 @@ public final class MapAdaptor {
                 getProperty(PERSIST_MIN_ITEMS_PROP, DEFAULT_PERSIST_MIN_ITEMS));
         LOG.debug("Configured HashMap/TrieMap cutoff at {}/{} entries",
                 DEFAULT_INSTANCE.persistMinItems, DEFAULT_INSTANCE.copyMaxItems);
+
+        COMPACT_MAX_ITEMS = getProperty(COMPACT_MAX_ITEMS_PROP, DEFAULT_COMPACT_MAX_ITEMS);
+        ADAPTIVE = getBooleanProperty(ADAPTIVE_PROP);
+        LOG.debug("Adaptive map selection is {}", ADAPTIVE ? "enabled" : "disabled");
+    }
+
+    private static boolean getBooleanProperty(final String name) {
+        try {
+            return Boolean.getBoolean(name);
+        } catch (Exception e) {
+            LOG.debug("Failed to get {}", name, e);
+            return false;
+        }
     }
 
     private static int getProperty(final String name, final int defaultValue) {
@@ -69,6 +107,17 @@ public final class MapAdaptor {
         this.useSingleton = useSingleton;
         this.copyMaxItems = copyMaxItems;
         this.persistMinItems = persistMinItems;
+        this.compactMaxItems = 0;
+        this.tracker = null;
+    }
+
+    private MapAdaptor(final MapAdaptorTracker tracker, final int compactMaxItems, final int copyMaxItems,
+            final int persistMinItems) {
+        this.tracker = Preconditions.checkNotNull(tracker);
+        this.useSingleton = true;
+        this.compactMaxItems = compactMaxItems;
+        this.copyMaxItems = copyMaxItems;
+        this.persistMinItems = persistMinItems;
     }
 
     /**
@@ -89,6 +138,132 @@ public final class MapAdaptor {
         return new MapAdaptor(useSingleton, copyMaxItems, persistMinItems);
     }
 
+    /**
+     * Return the instance serving a particular call site. If adaptive map selection has been enabled via the
+     * {@value #ADAPTIVE_PROP} system property, this method returns an adaptive instance, which is shared by all
+     * callers using the same call site name and whose statistics are reported by {@link #getCallSiteStatistics()}.
+     * Otherwise the default instance is returned. Callers which snapshot and optimize the same maps need to use the
+     * same call site name.
+     *
+     * <p>The returned instance does not use {@link ImmutableOffsetMap}s, hence it is suitable for maps keyed by
+     * arbitrary values, such as list entry keys. See {@link #getCallSiteInstance(String, boolean)}.
+     *
+     * @param callSite Call site name
+     * @return An instance serving the call site
+     */
+    @Beta
+    public static MapAdaptor getCallSiteInstance(final String callSite) {
+        return getCallSiteInstance(callSite, false);
+    }
+
+    /**
+     * Return the instance serving a particular call site, as {@link #getCallSiteInstance(String)} does, optionally
+     * storing small maps as {@link ImmutableOffsetMap}s. Offset maps share their key layout through a global cache,
+     * which retains every distinct set of keys it encounters. They should therefore be used only by call sites whose
+     * maps draw their keys from a small, fixed set, such as the NodeIdentifiers of a container's children.
+     *
+     * @param callSite Call site name
+     * @param compact True if small maps should be stored as offset maps
+     * @return An instance serving the call site
+     * @throws IllegalArgumentException if the call site has already been requested with a different compact setting
+     */
+    @Beta
+    public static MapAdaptor getCallSiteInstance(final String callSite, final boolean compact) {
+        Preconditions.checkNotNull(callSite);
+        if (!ADAPTIVE) {
+            return DEFAULT_INSTANCE;
+        }
+
+        final int compactMaxItems = compact ? COMPACT_MAX_ITEMS : 0;
+        MapAdaptor ret = CALL_SITE_INSTANCES.get(callSite);
+        if (ret == null) {
+            final MapAdaptor created = new MapAdaptor(new MapAdaptorTracker(callSite, DEFAULT_SAMPLE_WINDOW),
+                compactMaxItems, DEFAULT_INSTANCE.copyMaxItems, DEFAULT_INSTANCE.persistMinItems);
+            ret = CALL_SITE_INSTANCES.putIfAbsent(callSite, created);
+            if (ret == null) {
+                LOG.debug("Created adaptive instance for call site {}", callSite);
+                return created;
+            }
+        }
+
+        Preconditions.checkArgument(ret.compactMaxItems == compactMaxItems,
+            "Call site %s has been requested with conflicting compact setting", callSite);
+        return ret;
+    }
+
+    /**
+     * Create a new adaptive instance. Unlike instances returned by {@link #getCallSiteInstance(String)}, this instance
+     * is not shared and its statistics are available only via {@link #getStatistics()}.
+     *
+     * @param callSite Call site name, used for reporting
+     * @param compactMaxItems Maximum size of maps stored as {@link ImmutableOffsetMap}s
+     * @param copyMaxItems Number of entries copied per snapshot above which a TrieMap is created
+     * @param persistMinItems Number of entries copied per snapshot below which a TrieMap is not retained
+     * @return A new adaptive instance
+     */
+    @Beta
+    public static MapAdaptor getAdaptiveInstance(final String callSite, final int compactMaxItems,
+            final int copyMaxItems, final int persistMinItems) {
+        return getAdaptiveInstance(callSite, compactMaxItems, copyMaxItems, persistMinItems, DEFAULT_SAMPLE_WINDOW);
+    }
+
+    static MapAdaptor getAdaptiveInstance(final String callSite, final int compactMaxItems, final int copyMaxItems,
+            final int persistMinItems, final int sampleWindow) {
+        Preconditions.checkArgument(compactMaxItems >= 0, "compactMaxItems has to be a non-negative integer");
+        Preconditions.checkArgument(copyMaxItems >= 0, "copyMaxItems has to be a non-negative integer");
+        Preconditions.checkArgument(persistMinItems >= 0, "persistMinItems has to be a positive integer");
+        Preconditions.checkArgument(persistMinItems <= copyMaxItems,
+                "persistMinItems must be less than or equal to copyMaxItems");
+        return new MapAdaptor(new MapAdaptorTracker(callSite, sampleWindow), compactMaxItems, copyMaxItems,
+            persistMinItems);
+    }
+
+    /**
+     * Return statistics of all adaptive instances returned by {@link #getCallSiteInstance(String)}.
+     *
+     * @return Statistics indexed by call site name. The map is empty if adaptive map selection is disabled.
+     */
+    @Beta
+    public static Map<String, MapAdaptorStatistics> getCallSiteStatistics() {
+        final ImmutableMap.Builder<String, MapAdaptorStatistics> b = ImmutableMap.builder();
+        for (Entry<String, MapAdaptor> e : CALL_SITE_INSTANCES.entrySet()) {
+            b.put(e.getKey(), e.getValue().tracker.toStatistics());
+        }
+        return b.build();
+    }
+
+    /**
+     * Check whether this instance selects map implementations based on observed access patterns.
+     *
+     * @return True if this is an adaptive instance.
+     */
+    @Beta
+    public boolean isAdaptive() {
+        return tracker != null;
+    }
+
+    /**
+     * Return statistics of this instance.
+     *
+     * @return Statistics, or absent if this instance is not adaptive.
+     */
+    @Beta
+    public Optional<MapAdaptorStatistics> getStatistics() {
+        return tracker == null ? Optional.<MapAdaptorStatistics>absent() : Optional.of(tracker.toStatistics());
+    }
+
+    /*
+     * Adaptive thresholds are expressed in terms of the expected number of entries copied per optimized map, which is
+     * its size multiplied by the observed mutation rate. With a mutation rate of 1, these match the static thresholds.
+     */
+    private boolean createTrie(final int size) {
+        return size >= persistMinItems && size * tracker.getMutationRate() > copyMaxItems;
+    }
+
+    private boolean retainTrie(final int size) {
+        return size >= persistMinItems && size * tracker.getMutationRate() >= persistMinItems;
+    }
+
     /**
      * Creates an initial snapshot. The backing map is selected according to
      * the expected size.
@@ -98,7 +273,8 @@ public final class MapAdaptor {
      */
     public <K, V> Map<K, V> initialSnapshot(final int expectedSize) {
         Preconditions.checkArgument(expectedSize >= 0);
-        if (expectedSize > persistMinItems) {
+        if (expectedSize > persistMinItems
+                && (tracker == null || expectedSize * tracker.getMutationRate() > persistMinItems)) {
             return new ReadWriteTrieMap<>();
         }
 
@@ -114,8 +290,22 @@ public final class MapAdaptor {
     /**
      * Input is treated is supposed to be left unmodified, result must be mutable.
      */
-    @SuppressWarnings("static-method")
     public <K, V> Map<K, V> takeSnapshot(final Map<K, V> input) {
+        if (tracker != null) {
+            tracker.snapshotTaken();
+
+            // Both of these implement cheap copy-on-write snapshots, but they go through the offset map cache, hence
+            // we use them only if we are allowed to create offset maps
+            if (compactMaxItems != 0) {
+                if (input instanceof ImmutableOffsetMap) {
+                    return ((ImmutableOffsetMap<K, V>) input).toModifiableMap();
+                }
+                if (input instanceof SharedSingletonMap) {
+                    return ((SharedSingletonMap<K, V>) input).toModifiableMap();
+                }
+            }
+        }
+
         if (input instanceof ReadOnlyTrieMap) {
             return ((ReadOnlyTrieMap<K, V>)input).toReadWrite();
         }
@@ -174,6 +364,9 @@ public final class MapAdaptor {
         if (input instanceof ReadOnlyTrieMap) {
             LOG.warn("Optimizing read-only map {}", input);
         }
+        if (tracker != null) {
+            return optimizeAdaptive(input);
+        }
 
         final int size = input.size();
 
@@ -234,4 +427,45 @@ public final class MapAdaptor {
         LOG.trace("Read-only TrieMap is {}", ret);
         return ret;
     }
+
+    private <K, V> Map<K, V> optimizeAdaptive(final Map<K, V> input) {
+        final int size = input.size();
+        final Representation representation;
+        final Map<K, V> ret;
+
+        if (size == 0) {
+            representation = Representation.EMPTY;
+            ret = ImmutableMap.of();
+        } else if (input instanceof ReadWriteTrieMap && retainTrie(size)) {
+            representation = Representation.TRIE_MAP;
+            ret = ((ReadWriteTrieMap<K, V>)input).toReadOnly();
+        } else if (size == 1) {
+            representation = Representation.SINGLETON;
+            ret = SharedSingletonMap.unorderedCopyOf(input);
+        } else if (size <= compactMaxItems) {
+            /*
+             * Favor footprint: small maps share their key layout with other maps with the same keys and their
+             * snapshots copy only the value array, and only when they are actually modified.
+             */
+            representation = Representation.OFFSET_MAP;
+            ret = ImmutableOffsetMap.unorderedCopyOf(input);
+        } else if (createTrie(size)) {
+            representation = Representation.TRIE_MAP;
+            if (input instanceof ReadWriteTrieMap) {
+                ret = ((ReadWriteTrieMap<K, V>)input).toReadOnly();
+            } else {
+                final TrieMap<K, V> map = new TrieMap<>();
+                map.putAll(input);
+                ret = new ReadOnlyTrieMap<>(map, size);
+            }
+        } else {
+            // Favor access speed: either the map is small, or it is rarely copied
+            representation = Representation.HASH_MAP;
+            ret = input instanceof HashMap ? input : new HashMap<>(input);
+        }
+
+        tracker.optimized(representation, size);
+        LOG.trace("Optimized input {} ({} entries) to {}", input, size, representation);
+        return ret;
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.MoreObjects.ToStringHelper;
+import com.google.common.base.Preconditions;
+
+/**
+ * A point-in-time view of the decisions made by an adaptive {@link MapAdaptor}.
+ */
+@Beta
+public final class MapAdaptorStatistics {
+    /**
+     * Map representations selected by {@link MapAdaptor#optimize(java.util.Map)}.
+     */
+    public enum Representation {
+        /**
+         * Shared empty map.
+         */
+        EMPTY,
+        /**
+         * Single-entry map.
+         */
+        SINGLETON,
+        /**
+         * {@link ImmutableOffsetMap}, sharing its key layout with other maps with the same keys.
+         */
+        OFFSET_MAP,
+        /**
+         * {@link java.util.HashMap}, copied on modification.
+         */
+        HASH_MAP,
+        /**
+         * TrieMap, which supports constant-time snapshots.
+         */
+        TRIE_MAP,
+    }
+
+    private final String callSite;
+    private final long[] decisions;
+    private final long snapshotCount;
+    private final long optimizedEntries;
+    private final double mutationRate;
+
+    MapAdaptorStatistics(final String callSite, final long[] decisions, final long snapshotCount,
+            final long optimizedEntries, final double mutationRate) {
+        Preconditions.checkArgument(decisions.length == Representation.values().length);
+        this.callSite = Preconditions.checkNotNull(callSite);
+        this.decisions = decisions;
+        this.snapshotCount = snapshotCount;
+        this.optimizedEntries = optimizedEntries;
+        this.mutationRate = mutationRate;
+    }
+
+    /**
+     * Returns the name of the call site this adaptor serves.
+     *
+     * @return Call site name
+     */
+    public String getCallSite() {
+        return callSite;
+    }
+
+    /**
+     * Returns the number of times a particular representation has been selected.
+     *
+     * @param representation Map representation
+     * @return Number of times the representation has been selected
+     */
+    public long getDecisionCount(final Representation representation) {
+        return decisions[representation.ordinal()];
+    }
+
+    /**
+     * Returns the number of maps which have been optimized.
+     *
+     * @return Number of optimized maps
+     */
+    public long getOptimizeCount() {
+        long ret = 0;
+        for (long d : decisions) {
+            ret += d;
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the number of mutable snapshots which have been taken.
+     *
+     * @return Number of snapshots
+     */
+    public long getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    /**
+     * Returns the mean number of entries in optimized maps.
+     *
+     * @return Mean map size, or 0 if no maps have been optimized
+     */
+    public double getMeanSize() {
+        final long count = getOptimizeCount();
+        return count == 0 ? 0 : (double) optimizedEntries / count;
+    }
+
+    /**
+     * Returns the mutation rate currently used to make decisions, which is the number of snapshots taken per optimized
+     * map, as observed over the most recent sampling window. A freshly-created adaptor assumes a rate of 1, which
+     * matches the behavior of a non-adaptive {@link MapAdaptor}.
+     *
+     * @return Current mutation rate estimate
+     */
+    public double getMutationRate() {
+        return mutationRate;
+    }
+
+    @Override
+    public String toString() {
+        final ToStringHelper helper = MoreObjects.toStringHelper(this).add("callSite", callSite)
+                .add("snapshots", snapshotCount).add("mutationRate", mutationRate).add("meanSize", getMeanSize());
+        for (Representation r : Representation.values()) {
+            helper.add(r.name(), decisions[r.ordinal()]);
+        }
+        return helper.toString();
+    }
+}
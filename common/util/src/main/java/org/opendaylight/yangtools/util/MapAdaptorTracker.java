@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import org.opendaylight.yangtools.util.MapAdaptorStatistics.Representation;
+
+/**
+ * Access pattern statistics of a single adaptive {@link MapAdaptor}. The mutation rate is re-estimated at the end of
+ * each sampling window, so the adaptor follows changes in the access pattern without being swayed by short bursts.
+ * Updates are not synchronized with each other, hence concurrent users may observe slightly inconsistent counts, which
+ * is acceptable for the purposes of picking a map implementation.
+ */
+final class MapAdaptorTracker {
+    private static final AtomicIntegerFieldUpdater<MapAdaptorTracker> WINDOW_OPTIMIZED_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(MapAdaptorTracker.class, "windowOptimized");
+    private static final AtomicIntegerFieldUpdater<MapAdaptorTracker> WINDOW_SNAPSHOTS_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(MapAdaptorTracker.class, "windowSnapshots");
+    private static final AtomicLongFieldUpdater<MapAdaptorTracker> SNAPSHOTS_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(MapAdaptorTracker.class, "snapshots");
+    private static final AtomicLongFieldUpdater<MapAdaptorTracker> ENTRIES_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(MapAdaptorTracker.class, "optimizedEntries");
+
+    private final AtomicLongArray decisions = new AtomicLongArray(Representation.values().length);
+    private final String callSite;
+    private final int sampleWindow;
+
+    private volatile int windowOptimized;
+    private volatile int windowSnapshots;
+    private volatile long snapshots;
+    private volatile long optimizedEntries;
+    private volatile float mutationRate = 1.0f;
+
+    MapAdaptorTracker(final String callSite, final int sampleWindow) {
+        Preconditions.checkArgument(sampleWindow > 0, "Sample window has to be positive");
+        this.callSite = Preconditions.checkNotNull(callSite);
+        this.sampleWindow = sampleWindow;
+    }
+
+    float getMutationRate() {
+        return mutationRate;
+    }
+
+    void snapshotTaken() {
+        SNAPSHOTS_UPDATER.incrementAndGet(this);
+        WINDOW_SNAPSHOTS_UPDATER.incrementAndGet(this);
+    }
+
+    void optimized(final Representation representation, final int size) {
+        decisions.incrementAndGet(representation.ordinal());
+        ENTRIES_UPDATER.addAndGet(this, size);
+
+        // Exactly one thread observes the window filling up
+        if (WINDOW_OPTIMIZED_UPDATER.incrementAndGet(this) == sampleWindow) {
+            final int windowSnaps = WINDOW_SNAPSHOTS_UPDATER.getAndSet(this, 0);
+            mutationRate = (float) windowSnaps / sampleWindow;
+            WINDOW_OPTIMIZED_UPDATER.addAndGet(this, -sampleWindow);
+        }
+    }
+
+    MapAdaptorStatistics toStatistics() {
+        final long[] counts = new long[decisions.length()];
+        for (int i = 0; i < counts.length; ++i) {
+            counts[i] = decisions.get(i);
+        }
+        return new MapAdaptorStatistics(callSite, counts, snapshots, optimizedEntries, mutationRate);
+    }
+}
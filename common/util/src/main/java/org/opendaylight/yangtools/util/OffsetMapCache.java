@@ -7,12 +7,15 @@
  */
 package org.opendaylight.yangtools.util;
 
+import com.google.common.annotations.Beta;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Verify;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
@@ -23,14 +26,41 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Global cache of key-to-offset maps shared by {@link ImmutableOffsetMap}s and {@link MutableOffsetMap}s. There are
+ * two caches, one for ordered and one for unordered maps. Each of them is bounded by the total number of keys held in
+ * its offset maps and evicts least recently used entries once that bound is exceeded. Evicting an entry does not
+ * affect existing maps, it only means maps created afterwards will not share offsets with them.
+ *
+ * <p>The bound is controlled by the {@value #MAX_WEIGHT_PROP} system property, the number of lock stripes by
+ * the {@value #CONCURRENCY_PROP} system property.
+ */
+@Beta
+public final class OffsetMapCache {
+    public static final long DEFAULT_MAX_WEIGHT = 262144;
+    public static final String MAX_WEIGHT_PROP = "org.opendaylight.yangtools.util.offsetmap.maxweight";
+    public static final String CONCURRENCY_PROP = "org.opendaylight.yangtools.util.offsetmap.concurrency";
+
+    private static final Logger LOG = LoggerFactory.getLogger(OffsetMapCache.class);
+    private static final Weigher<Object, Map<?, Integer>> WEIGHER = new Weigher<Object, Map<?, Integer>>() {
+        @Override
+        public int weigh(final Object key, final Map<?, Integer> value) {
+            return value.size();
+        }
+    };
+    private static final long MAX_WEIGHT = getProperty(MAX_WEIGHT_PROP, DEFAULT_MAX_WEIGHT);
+    private static final int CONCURRENCY = (int) getProperty(CONCURRENCY_PROP,
+        Math.max(4, Runtime.getRuntime().availableProcessors()));
 
-final class OffsetMapCache {
     /*
      * Cache for offsets where order matters. The key is a List, which defines the iteration order. Since we want
      * to retain this order, it is okay to use a simple LoadingCache.
      */
     private static final LoadingCache<List<?>, Map<?, Integer>> ORDERED_CACHE =
-            CacheBuilder.newBuilder().weakValues().build(new CacheLoader<List<?>, Map<?, Integer>>() {
+            newBuilder().build(new CacheLoader<List<?>, Map<?, Integer>>() {
                 @Override
                 public Map<?, Integer> load(final List<?> key) {
                     return createMap(key);
@@ -47,13 +77,104 @@ final class OffsetMapCache {
      * we construct the map and put it conditionally with Map.keySet() as the key. This will detect concurrent loading
      * and also lead to the cache and the map sharing the same Set.
      */
-    private static final Cache<Set<?>, Map<?, Integer>> UNORDERED_CACHE =
-            CacheBuilder.newBuilder().weakValues().build();
+    private static final Cache<Set<?>, Map<?, Integer>> UNORDERED_CACHE = newBuilder().build();
+
+    static {
+        LOG.debug("Offset map caches limited to {} keys each, concurrency level {}", MAX_WEIGHT, CONCURRENCY);
+    }
 
     private OffsetMapCache() {
         throw new UnsupportedOperationException();
     }
 
+    private static CacheBuilder<Object, Map<?, Integer>> newBuilder() {
+        return CacheBuilder.newBuilder().concurrencyLevel(CONCURRENCY).maximumWeight(MAX_WEIGHT).weigher(WEIGHER)
+                .recordStats();
+    }
+
+    private static long getProperty(final String name, final long defaultValue) {
+        try {
+            final String p = System.getProperty(name);
+            if (p != null) {
+                try {
+                    final long pl = Long.parseLong(p);
+                    if (pl <= 0) {
+                        LOG.warn("Ignoring illegal value of {}: has to be a positive number", name);
+                    } else {
+                        return pl;
+                    }
+                } catch (NumberFormatException e) {
+                    LOG.warn("Ignoring non-numerical value of {}", name, e);
+                }
+            }
+        } catch (Exception e) {
+            LOG.debug("Failed to get {}", name, e);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Return statistics of the cache used by ordered maps. Hits and misses are counted on each map instantiation,
+     * evictions include entries removed to keep the cache within its bounds.
+     *
+     * @return Ordered cache statistics
+     */
+    public static CacheStats getOrderedCacheStats() {
+        return ORDERED_CACHE.stats();
+    }
+
+    /**
+     * Return statistics of the cache used by unordered maps. Hits and misses are counted on each map instantiation,
+     * evictions include entries removed to keep the cache within its bounds.
+     *
+     * @return Unordered cache statistics
+     */
+    public static CacheStats getUnorderedCacheStats() {
+        return UNORDERED_CACHE.stats();
+    }
+
+    /**
+     * Return the number of key sets currently held in the ordered cache.
+     *
+     * @return Approximate number of cache entries
+     */
+    public static long getOrderedCacheSize() {
+        return ORDERED_CACHE.size();
+    }
+
+    /**
+     * Return the number of key sets currently held in the unordered cache.
+     *
+     * @return Approximate number of cache entries
+     */
+    public static long getUnorderedCacheSize() {
+        return UNORDERED_CACHE.size();
+    }
+
+    /**
+     * Pre-populate the unordered cache with offsets for specified key sets, so that maps with these keys share
+     * offsets from the start. Key sets with fewer than two keys are ignored, as maps of such sizes do not use offsets.
+     *
+     * @param keySets Key sets to populate
+     * @return Number of key sets which were not present in the cache
+     */
+    public static int warmUp(final Iterable<? extends Collection<?>> keySets) {
+        int ret = 0;
+        for (Collection<?> keys : keySets) {
+            if (keys.size() > 1) {
+                // Bypass unorderedOffsets(), so we do not skew the statistics
+                final Set<?> set = keys instanceof Set ? (Set<?>) keys : ImmutableSet.copyOf(keys);
+                final Map<?, Integer> newMap = createMap(set);
+                if (UNORDERED_CACHE.asMap().putIfAbsent(newMap.keySet(), newMap) == null) {
+                    ret++;
+                }
+            }
+        }
+
+        LOG.debug("Pre-populated {} key sets", ret);
+        return ret;
+    }
+
     @VisibleForTesting
     static void invalidateCache() {
         ORDERED_CACHE.invalidateAll();
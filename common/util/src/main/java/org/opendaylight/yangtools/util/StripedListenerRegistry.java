@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.UnmodifiableIterator;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.Arrays;
+import java.util.EventListener;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import org.opendaylight.yangtools.concepts.AbstractObjectRegistration;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManager.Invoker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A listener registry optimized for frequent iteration with concurrent registration and unregistration. Registrations
+ * are held in a number of stripes, each of which is an immutable array replaced via compare-and-set on each
+ * modification. Modifications from different threads are spread across stripes, reducing both contention and the size
+ * of the array copied. Iteration reads each stripe's array once and does not need to synchronize with modifications,
+ * hence {@link #forEach(Consumer)} and {@link #notifyListeners(Invoker, Object)} do not allocate any objects.
+ *
+ * <p>Listeners registered or unregistered while an iteration is in progress may or may not be observed by it.
+ *
+ * @param <T> Listener type
+ */
+@Beta
+public final class StripedListenerRegistry<T extends EventListener> implements Iterable<ListenerRegistration<T>> {
+    private static final Logger LOG = LoggerFactory.getLogger(StripedListenerRegistry.class);
+    private static final int MAX_STRIPES = 16;
+    private static final ListenerRegistration<?>[] EMPTY = new ListenerRegistration<?>[0];
+
+    private final AtomicReferenceArray<ListenerRegistration<?>[]> stripes;
+    private final int mask;
+
+    private StripedListenerRegistry(final int stripeCount) {
+        stripes = new AtomicReferenceArray<>(stripeCount);
+        for (int i = 0; i < stripeCount; ++i) {
+            stripes.set(i, EMPTY);
+        }
+        mask = stripeCount - 1;
+    }
+
+    /**
+     * Create a new registry with a stripe count derived from the number of available processors.
+     *
+     * @return A new registry
+     */
+    public static <T extends EventListener> StripedListenerRegistry<T> create() {
+        return create(Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Create a new registry with specified minimum number of stripes. The actual number of stripes is rounded up to
+     * the nearest power of two.
+     *
+     * @param stripes Minimum number of stripes
+     * @return A new registry
+     * @throws IllegalArgumentException if stripes is not positive
+     */
+    public static <T extends EventListener> StripedListenerRegistry<T> create(final int stripes) {
+        Preconditions.checkArgument(stripes > 0, "Stripe count has to be positive, not %s", stripes);
+        return new StripedListenerRegistry<>(stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1);
+    }
+
+    public Iterable<ListenerRegistration<T>> getListeners() {
+        return this;
+    }
+
+    public ListenerRegistration<T> register(final T listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener should not be null.");
+        }
+        return registerWithType(listener);
+    }
+
+    public <L extends T> ListenerRegistration<L> registerWithType(final L listener) {
+        Preconditions.checkNotNull(listener);
+        final RegistrationImpl<L> ret = new RegistrationImpl<>(listener,
+            (int) Thread.currentThread().getId() & mask);
+        ListenerRegistration<?>[] current;
+        ListenerRegistration<?>[] next;
+        do {
+            current = stripes.get(ret.stripe);
+            next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = ret;
+        } while (!stripes.compareAndSet(ret.stripe, current, next));
+        return ret;
+    }
+
+    private void remove(final RegistrationImpl<?> registration) {
+        ListenerRegistration<?>[] current;
+        ListenerRegistration<?>[] next;
+        do {
+            current = stripes.get(registration.stripe);
+            final int offset = indexOf(current, registration);
+            if (offset == -1) {
+                return;
+            }
+
+            if (current.length == 1) {
+                next = EMPTY;
+            } else {
+                next = new ListenerRegistration<?>[current.length - 1];
+                System.arraycopy(current, 0, next, 0, offset);
+                System.arraycopy(current, offset + 1, next, offset, next.length - offset);
+            }
+        } while (!stripes.compareAndSet(registration.stripe, current, next));
+    }
+
+    private static int indexOf(final ListenerRegistration<?>[] array, final ListenerRegistration<?> registration) {
+        for (int i = 0; i < array.length; ++i) {
+            if (array[i] == registration) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return the number of registered listeners.
+     *
+     * @return Number of registered listeners
+     */
+    public int size() {
+        int ret = 0;
+        for (int i = 0; i < stripes.length(); ++i) {
+            ret += stripes.get(i).length;
+        }
+        return ret;
+    }
+
+    public boolean isEmpty() {
+        for (int i = 0; i < stripes.length(); ++i) {
+            if (stripes.get(i).length != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<ListenerRegistration<T>> iterator() {
+        return new UnmodifiableIterator<ListenerRegistration<T>>() {
+            private ListenerRegistration<?>[] current = stripes.get(0);
+            private int stripe;
+            private int offset;
+
+            @Override
+            public boolean hasNext() {
+                while (offset == current.length) {
+                    if (stripe == mask) {
+                        return false;
+                    }
+                    current = stripes.get(++stripe);
+                    offset = 0;
+                }
+                return true;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public ListenerRegistration<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (ListenerRegistration<T>) current[offset++];
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(final Consumer<? super ListenerRegistration<T>> action) {
+        for (int i = 0; i < stripes.length(); ++i) {
+            for (ListenerRegistration<?> reg : stripes.get(i)) {
+                action.accept((ListenerRegistration<T>) reg);
+            }
+        }
+    }
+
+    /**
+     * Invoke all registered listeners with a notification in the calling thread. Exceptions thrown by listeners are
+     * logged and do not prevent other listeners from being invoked.
+     *
+     * @param invoker Listener invoker
+     * @param notification Notification to deliver
+     */
+    public <N> void notifyListeners(final Invoker<? super T, N> invoker, final N notification) {
+        for (int i = 0; i < stripes.length(); ++i) {
+            final ListenerRegistration<?>[] stripe = stripes.get(i);
+            notifyListeners(invoker, notification, stripe, 0, stripe.length);
+        }
+    }
+
+    /**
+     * Invoke all registered listeners with a notification. If there are more than parallelThreshold listeners, they
+     * are split into batches of at most parallelThreshold listeners, which are invoked via the specified executor.
+     * Batches rejected by the executor are invoked in the calling thread. Otherwise all listeners are invoked in the
+     * calling thread. Exceptions thrown by listeners are logged and do not prevent other listeners from being invoked.
+     *
+     * @param invoker Listener invoker
+     * @param notification Notification to deliver
+     * @param executor Executor to use for batches
+     * @param parallelThreshold Maximum number of listeners invoked by a single thread
+     * @return A future which completes once all listeners have been invoked
+     * @throws IllegalArgumentException if parallelThreshold is not positive
+     */
+    public <N> ListenableFuture<Void> notifyListeners(final Invoker<? super T, N> invoker, final N notification,
+            final Executor executor, final int parallelThreshold) {
+        Preconditions.checkArgument(parallelThreshold > 0, "Threshold has to be positive, not %s", parallelThreshold);
+        Preconditions.checkNotNull(executor);
+
+        final ListenerRegistration<?>[] snapshot = snapshot();
+        if (snapshot.length <= parallelThreshold) {
+            notifyListeners(invoker, notification, snapshot, 0, snapshot.length);
+            return Futures.immediateFuture(null);
+        }
+
+        final int batches = (snapshot.length + parallelThreshold - 1) / parallelThreshold;
+        final AtomicInteger remaining = new AtomicInteger(batches);
+        final SettableFuture<Void> ret = SettableFuture.create();
+        for (int i = 0; i < batches; ++i) {
+            final int from = i * parallelThreshold;
+            final int to = Math.min(from + parallelThreshold, snapshot.length);
+            final Runnable batch = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        notifyListeners(invoker, notification, snapshot, from, to);
+                    } finally {
+                        if (remaining.decrementAndGet() == 0) {
+                            ret.set(null);
+                        }
+                    }
+                }
+            };
+
+            try {
+                executor.execute(batch);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Executor {} rejected notification batch, running it directly", executor, e);
+                batch.run();
+            }
+        }
+
+        return ret;
+    }
+
+    private ListenerRegistration<?>[] snapshot() {
+        final ListenerRegistration<?>[][] arrays = new ListenerRegistration<?>[stripes.length()][];
+        int size = 0;
+        for (int i = 0; i < arrays.length; ++i) {
+            arrays[i] = stripes.get(i);
+            size += arrays[i].length;
+        }
+
+        final ListenerRegistration<?>[] ret = new ListenerRegistration<?>[size];
+        int offset = 0;
+        for (ListenerRegistration<?>[] array : arrays) {
+            System.arraycopy(array, 0, ret, offset, array.length);
+            offset += array.length;
+        }
+        return ret;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, N> void notifyListeners(final Invoker<? super T, N> invoker, final N notification,
+            final ListenerRegistration<?>[] registrations, final int from, final int to) {
+        for (int i = from; i < to; ++i) {
+            final T listener = (T) registrations[i].getInstance();
+            try {
+                invoker.invokeListener(listener, notification);
+            } catch (RuntimeException e) {
+                LOG.error("Error notifying listener {} with {}", listener, notification, e);
+            }
+        }
+    }
+
+    private final class RegistrationImpl<P extends EventListener> extends AbstractObjectRegistration<P>
+            implements ListenerRegistration<P> {
+        final int stripe;
+
+        RegistrationImpl(final P instance, final int stripe) {
+            super(instance);
+            this.stripe = stripe;
+        }
+
+        @Override
+        protected void removeRegistration() {
+            remove(this);
+        }
+    }
+}
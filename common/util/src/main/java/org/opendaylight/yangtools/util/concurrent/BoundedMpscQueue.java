@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free multi-producer/single-consumer queue backed by a ring buffer. Producers claim a slot by
+ * advancing the producer index and then publish the element into it. The single consumer takes elements in order,
+ * clearing each slot before releasing it to producers.
+ *
+ * <p>
+ * {@link #offer(Object)} may be invoked from any thread, while {@link #poll()} may only be invoked by a single
+ * thread at a time.
+ *
+ * @param <E> the element type
+ */
+final class BoundedMpscQueue<E> {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<BoundedMpscQueue> PRODUCER_INDEX_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(BoundedMpscQueue.class, "producerIndex");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<BoundedMpscQueue> CONSUMER_INDEX_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(BoundedMpscQueue.class, "consumerIndex");
+
+    private final AtomicReferenceArray<E> buffer;
+    private final int capacity;
+    private final int mask;
+
+    private volatile long producerIndex;
+    private volatile long consumerIndex;
+
+    BoundedMpscQueue(final int capacity) {
+        Preconditions.checkArgument(capacity > 0 && capacity <= 1 << 30, "Invalid capacity %s", capacity);
+        this.capacity = capacity;
+
+        // Round the buffer size up to a power of two, so slots can be located via a mask
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        buffer = new AtomicReferenceArray<>(Math.max(size, 1));
+        mask = buffer.length() - 1;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Attempt to enqueue an element.
+     *
+     * @param element Element to enqueue
+     * @return True if the element was enqueued, false if the queue is full
+     */
+    boolean offer(final E element) {
+        Preconditions.checkNotNull(element);
+
+        long index;
+        do {
+            index = producerIndex;
+            if (index - consumerIndex >= capacity) {
+                return false;
+            }
+        } while (!PRODUCER_INDEX_UPDATER.compareAndSet(this, index, index + 1));
+
+        buffer.set((int) index & mask, element);
+        return true;
+    }
+
+    /**
+     * Dequeue the next element. Must be invoked only by the consumer.
+     *
+     * @return Next element, or null if the queue is empty
+     */
+    E poll() {
+        final long index = consumerIndex;
+        final int offset = (int) index & mask;
+        E element = buffer.get(offset);
+        if (element == null) {
+            if (index == producerIndex) {
+                return null;
+            }
+
+            // A producer has claimed the slot, but has not published the element yet
+            do {
+                element = buffer.get(offset);
+            } while (element == null);
+        }
+
+        buffer.lazySet(offset, null);
+        CONSUMER_INDEX_UPDATER.lazySet(this, index + 1);
+        return element;
+    }
+
+    /**
+     * Check whether there are any elements in the queue, including those which are being published.
+     *
+     * @return True if the queue is empty
+     */
+    boolean isEmpty() {
+        return consumerIndex == producerIndex;
+    }
+
+    /**
+     * Return the approximate number of elements in the queue.
+     *
+     * @return Number of elements in the queue
+     */
+    int size() {
+        // Read the consumer index first, so a concurrent poll() cannot make the result negative
+        final long consumer = consumerIndex;
+        return (int) Math.min(producerIndex - consumer, capacity);
+    }
+}
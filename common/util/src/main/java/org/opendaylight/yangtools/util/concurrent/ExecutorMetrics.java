@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import org.opendaylight.yangtools.util.LatencySnapshot;
+
+/**
+ * Runtime metrics exposed by an executor. All durations are reported in nanoseconds.
+ */
+@Beta
+public interface ExecutorMetrics {
+    /**
+     * Returns a snapshot of the time tasks spent queued before they started executing.
+     *
+     * @return Queue wait time snapshot
+     */
+    LatencySnapshot getQueueWaitTime();
+
+    /**
+     * Returns a snapshot of the time tasks spent executing.
+     *
+     * @return Execution time snapshot
+     */
+    LatencySnapshot getExecutionTime();
+
+    /**
+     * Returns the number of tasks which could not be queued because the executor was at capacity. This includes
+     * tasks which were subsequently run by the submitting thread.
+     *
+     * @return Rejected task count
+     */
+    long getRejectedTaskCount();
+
+    /**
+     * Resets queue wait and execution time statistics, as well as the rejected task count.
+     */
+    void resetMetrics();
+}
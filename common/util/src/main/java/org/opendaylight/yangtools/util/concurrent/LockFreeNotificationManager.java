@@ -0,0 +1,432 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import org.opendaylight.yangtools.util.LatencyRecorder;
+import org.opendaylight.yangtools.util.LatencySnapshot;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManager.BatchedInvoker;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManager.Invoker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link NotificationManager} with the same semantics as {@link QueuedNotificationManager}, which does not use
+ * locks on the submission path. Each listener has a bounded multi-producer/single-consumer ring buffer and an atomic
+ * state, which tracks whether a dispatch task for the listener is scheduled. The task is submitted to the executor
+ * only when a notification arrives while it is not scheduled and it exits as soon as it drains the queue, hence no
+ * executor thread ever waits for notifications to arrive.
+ *
+ * <p>
+ * As with {@link QueuedNotificationManager}, per-listener state is only retained while there are pending
+ * notifications. If a listener's queue is full, the submitting thread waits for the listener to make progress, for
+ * up to 10 minutes, after which the notification is dropped.
+ *
+ * @param <L> the listener type
+ * @param <N> the notification type
+ */
+@Beta
+public class LockFreeNotificationManager<L, N> implements NotificationManager<L, N> {
+    private static final Logger LOG = LoggerFactory.getLogger(LockFreeNotificationManager.class);
+
+    /**
+     * Maximum time a submitter waits for a full queue to drain, in minutes. A warning is logged each minute.
+     */
+    private static final int MAX_NOTIFICATION_OFFER_MINUTES = 10;
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /*
+     * ListenerQueue state: the lowest bit indicates that the dispatch task is scheduled, the remaining bits count
+     * the submitters which are currently enqueuing notifications. A queue can only be retired when it is empty,
+     * its task is not scheduled and there are no active submitters, i.e. the state is zero.
+     */
+    private static final int SCHEDULED = 1;
+    private static final int SUBMITTER = 2;
+    private static final int RETIRED = Integer.MIN_VALUE;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<ListenerQueue> STATE_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(ListenerQueue.class, "state");
+
+    private final ConcurrentMap<ListenerKey<L>, ListenerQueue<L, N>> listenerQueues = new ConcurrentHashMap<>();
+    private final Invoker<L, N> listenerInvoker;
+    private final BatchedInvoker<L, N> batchedInvoker;
+    private final int maxBatchSize;
+    private final LatencyRecorder invocationLatency = LatencyRecorder.create();
+    private final Executor executor;
+    private final int maxQueueCapacity;
+    private final String name;
+
+    /**
+     * Constructor.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param listenerInvoker the {@link Invoker} to use for invoking listeners
+     * @param maxQueueCapacity the capacity of each listener queue
+     * @param name the name of this instance for logging info
+     */
+    public LockFreeNotificationManager(final Executor executor, final Invoker<L, N> listenerInvoker,
+            final int maxQueueCapacity, final String name) {
+        this(executor, Preconditions.checkNotNull(listenerInvoker), null, maxQueueCapacity, 1, name);
+    }
+
+    /**
+     * Constructor for a manager which invokes listeners with batches of notifications. A dispatch task hands
+     * the listener everything which has been queued by the time it runs, up to maxBatchSize notifications at once.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param batchedInvoker the {@link BatchedInvoker} to use for invoking listeners
+     * @param maxQueueCapacity the capacity of each listener queue
+     * @param maxBatchSize the maximum number of notifications in a batch
+     * @param name the name of this instance for logging info
+     */
+    public LockFreeNotificationManager(final Executor executor, final BatchedInvoker<L, N> batchedInvoker,
+            final int maxQueueCapacity, final int maxBatchSize, final String name) {
+        this(executor, null, Preconditions.checkNotNull(batchedInvoker), maxQueueCapacity, maxBatchSize, name);
+    }
+
+    private LockFreeNotificationManager(final Executor executor, final Invoker<L, N> listenerInvoker,
+            final BatchedInvoker<L, N> batchedInvoker, final int maxQueueCapacity, final int maxBatchSize,
+            final String name) {
+        this.executor = Preconditions.checkNotNull(executor);
+        this.listenerInvoker = listenerInvoker;
+        this.batchedInvoker = batchedInvoker;
+        Preconditions.checkArgument(maxQueueCapacity > 0, "maxQueueCapacity must be > 0 ");
+        this.maxQueueCapacity = maxQueueCapacity;
+        Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be > 0 ");
+        this.maxBatchSize = maxBatchSize;
+        this.name = Preconditions.checkNotNull(name);
+    }
+
+    @Override
+    public void submitNotification(final L listener, final N notification) throws RejectedExecutionException {
+        if (notification == null) {
+            return;
+        }
+
+        submitNotifications(listener, Collections.singletonList(notification));
+    }
+
+    @Override
+    public void submitNotifications(final L listener, final Iterable<N> notifications)
+            throws RejectedExecutionException {
+        if (notifications == null || listener == null) {
+            return;
+        }
+
+        LOG.trace("{}: submitNotifications for listener {}: {}", name, listener, notifications);
+
+        final ListenerQueue<L, N> queue = enterQueue(new ListenerKey<>(listener));
+        try {
+            for (N notification : notifications) {
+                if (!queue.offer(notification)) {
+                    break;
+                }
+            }
+        } finally {
+            queue.exit();
+        }
+    }
+
+    private ListenerQueue<L, N> enterQueue(final ListenerKey<L> key) {
+        while (true) {
+            ListenerQueue<L, N> queue = listenerQueues.get(key);
+            if (queue == null) {
+                final ListenerQueue<L, N> newQueue = new ListenerQueue<>(this, key);
+                queue = listenerQueues.putIfAbsent(key, newQueue);
+                if (queue == null) {
+                    queue = newQueue;
+                }
+            }
+
+            if (queue.enter()) {
+                return queue;
+            }
+
+            // The queue has been retired, make sure it is gone and retry
+            listenerQueues.remove(key, queue);
+        }
+    }
+
+    /**
+     * Returns {@link ListenerNotificationQueueStats} instances for each listener which has pending notifications.
+     */
+    public List<ListenerNotificationQueueStats> getListenerNotificationQueueStats() {
+        final List<ListenerNotificationQueueStats> statsList = new ArrayList<>(listenerQueues.size());
+        for (ListenerQueue<L, N> queue : listenerQueues.values()) {
+            statsList.add(new ListenerNotificationQueueStats(queue.listenerKey.toString(), queue.queue.size()));
+        }
+        return statsList;
+    }
+
+    /**
+     * Returns the maximum listener queue capacity.
+     */
+    public int getMaxQueueCapacity() {
+        return maxQueueCapacity;
+    }
+
+    /**
+     * Returns the maximum number of notifications passed to a {@link BatchedInvoker} at once.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Returns a snapshot of the time spent invoking listeners, in nanoseconds.
+     */
+    public LatencySnapshot getListenerInvocationLatency() {
+        return invocationLatency.snapshot();
+    }
+
+    /**
+     * Returns a snapshot of the time spent invoking listeners, in nanoseconds, and resets it.
+     */
+    public LatencySnapshot getListenerInvocationLatencyAndReset() {
+        return invocationLatency.snapshotAndReset();
+    }
+
+    /**
+     * Returns the {@link Executor} to used for notification tasks.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    void notifyListener(final ListenerKey<L> listenerKey, final N notification) {
+        LOG.debug("{}: Invoking listener {} with notification: {}", name, listenerKey, notification);
+
+        final long start = System.nanoTime();
+        try {
+            listenerInvoker.invokeListener(listenerKey.getListener(), notification);
+        } catch (RuntimeException e) {
+            // We'll let a RuntimeException from the listener slide and keep sending any remaining notifications.
+            LOG.error("{}: Error notifying listener {}", name, listenerKey, e);
+        } finally {
+            invocationLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    void notifyListener(final ListenerKey<L> listenerKey, final List<N> notifications) {
+        LOG.debug("{}: Invoking listener {} with {} notifications: {}", name, listenerKey, notifications.size(),
+            notifications);
+
+        final long start = System.nanoTime();
+        try {
+            batchedInvoker.invokeListener(listenerKey.getListener(), notifications);
+        } catch (RuntimeException e) {
+            // We'll let a RuntimeException from the listener slide and keep sending any remaining notifications.
+            LOG.error("{}: Error notifying listener {}", name, listenerKey, e);
+        } finally {
+            invocationLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Notification queue and dispatch task of a single listener.
+     */
+    private static final class ListenerQueue<L, N> implements Runnable {
+        private final LockFreeNotificationManager<L, N> manager;
+        private final BoundedMpscQueue<N> queue;
+        private final ListenerKey<L> listenerKey;
+
+        private volatile int state;
+
+        ListenerQueue(final LockFreeNotificationManager<L, N> manager, final ListenerKey<L> listenerKey) {
+            this.manager = manager;
+            this.listenerKey = listenerKey;
+            this.queue = new BoundedMpscQueue<>(manager.maxQueueCapacity);
+        }
+
+        /**
+         * Register a submitter.
+         *
+         * @return False if this queue has been retired and cannot accept notifications.
+         */
+        boolean enter() {
+            int current;
+            do {
+                current = state;
+                if (current == RETIRED) {
+                    return false;
+                }
+            } while (!STATE_UPDATER.compareAndSet(this, current, current + SUBMITTER));
+            return true;
+        }
+
+        void exit() {
+            if (STATE_UPDATER.addAndGet(this, -SUBMITTER) == 0 && queue.isEmpty()) {
+                /*
+                 * We were the last submitter and have not left anything for the dispatch task. It may have drained
+                 * the queue and failed to retire it while we were active, hence retirement falls to us.
+                 */
+                tryRetire();
+            }
+        }
+
+        /**
+         * Retire this queue if it is idle, i.e. its task is not scheduled and there are no active submitters, and
+         * remove it from the manager. Callers need to make sure the queue is empty.
+         */
+        private void tryRetire() {
+            if (STATE_UPDATER.compareAndSet(this, 0, RETIRED)) {
+                manager.listenerQueues.remove(listenerKey, this);
+            }
+        }
+
+        /**
+         * Enqueue a notification, waiting for space to become available if the queue is full.
+         *
+         * @return False if the thread was interrupted while waiting.
+         */
+        boolean offer(final N notification) {
+            if (!queue.offer(notification)) {
+                // Make sure the queue is being drained and wait for it to make progress
+                schedule();
+                if (!awaitOffer(notification)) {
+                    return false;
+                }
+            }
+
+            schedule();
+            return true;
+        }
+
+        private boolean awaitOffer(final N notification) {
+            final long start = System.nanoTime();
+            long nextWarning = start + TimeUnit.MINUTES.toNanos(1);
+            int attempts = 1;
+            long backoff = MIN_BACKOFF_NANOS;
+
+            while (!queue.offer(notification)) {
+                if (Thread.interrupted()) {
+                    // Somebody's probably telling us to quit.
+                    LOG.debug("{}: Interrupted trying to add to {} listener's queue", manager.name, listenerKey);
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+
+                final long now = System.nanoTime();
+                if (now - nextWarning >= 0) {
+                    if (attempts >= MAX_NOTIFICATION_OFFER_MINUTES) {
+                        LOG.warn("{}: Failed to offer a notification to the queue for listener {}. Exceeded max "
+                                + "allowable wait of {} minutes; the listener is likely in an unrecoverable state "
+                                + "(deadlock or endless loop).", manager.name, listenerKey,
+                                MAX_NOTIFICATION_OFFER_MINUTES);
+                        return true;
+                    }
+
+                    LOG.warn("{}: Timed out trying to offer a notification to the queue for listener {} on attempt "
+                            + "{} of {}. The queue has reached its capacity of {}", manager.name, listenerKey, attempts,
+                            MAX_NOTIFICATION_OFFER_MINUTES, queue.capacity());
+                    nextWarning = now + TimeUnit.MINUTES.toNanos(1);
+                    attempts++;
+                }
+
+                LockSupport.parkNanos(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            }
+            return true;
+        }
+
+        /**
+         * Ensure the dispatch task is scheduled.
+         */
+        private void schedule() {
+            if (trySchedule()) {
+                LOG.debug("{}: Submitting dispatch task for listener {}", manager.name, listenerKey);
+                try {
+                    manager.executor.execute(this);
+                } catch (RuntimeException e) {
+                    unschedule();
+                    throw e;
+                }
+            }
+        }
+
+        private boolean trySchedule() {
+            int current;
+            do {
+                current = state;
+                if ((current & SCHEDULED) != 0) {
+                    return false;
+                }
+            } while (!STATE_UPDATER.compareAndSet(this, current, current | SCHEDULED));
+            return true;
+        }
+
+        private void unschedule() {
+            int current;
+            do {
+                current = state;
+            } while (!STATE_UPDATER.compareAndSet(this, current, current & ~SCHEDULED));
+        }
+
+        private void dispatchBatches() {
+            N notification = queue.poll();
+            while (notification != null) {
+                final List<N> batch = new ArrayList<>(Math.min(manager.maxBatchSize, queue.size() + 1));
+                do {
+                    batch.add(notification);
+                    notification = queue.poll();
+                } while (notification != null && batch.size() < manager.maxBatchSize);
+
+                manager.notifyListener(listenerKey, batch);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    if (manager.batchedInvoker != null) {
+                        dispatchBatches();
+                    } else {
+                        N notification;
+                        while ((notification = queue.poll()) != null) {
+                            manager.notifyListener(listenerKey, notification);
+                        }
+                    }
+
+                    // Clear the scheduled flag before checking the queue again: any notification enqueued after
+                    // the check will see the flag cleared and schedule a new task.
+                    unschedule();
+                    if (queue.isEmpty()) {
+                        // Retire the queue unless there are active submitters, which will retire it on exit, or
+                        // a new task has been scheduled
+                        tryRetire();
+                        return;
+                    }
+
+                    // A notification arrived, continue unless a new task has already been scheduled
+                    if (!trySchedule()) {
+                        return;
+                    }
+                }
+            } catch (Error e) {
+                // A JVM Error is severe - best practice is to throw them up the chain. Pending notifications will be
+                // dispatched when the next notification is submitted.
+                unschedule();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Policy governing what a {@link QueuedNotificationManager} does with a notification submitted for a listener whose
+ * queue is full. With the exception of {@link #block()}, which is the default, none of the policies ever block
+ * the submitting thread, hence a slow listener cannot stall the code path which publishes notifications.
+ *
+ * @param <N> the notification type
+ */
+@Beta
+public final class NotificationOverflowPolicy<N> {
+    /**
+     * Action taken when a listener's queue is full.
+     */
+    public enum Action {
+        /**
+         * Wait for the listener to make progress, for up to 10 minutes, after which the notification is dropped.
+         */
+        BLOCK,
+        /**
+         * Drop the oldest queued notification to make room for the new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Drop the new notification.
+         */
+        DROP_NEWEST,
+        /**
+         * Replace a queued notification with the same key with the new notification, which is moved to the tail of
+         * the queue. If there is no such notification, the oldest queued notification is dropped.
+         */
+        COALESCE,
+        /**
+         * Append the notification to an unbounded overflow buffer, which is drained into the queue as the listener
+         * makes progress. Notification order is preserved.
+         */
+        SPILL,
+        /**
+         * Reject the notification by throwing a {@link java.util.concurrent.RejectedExecutionException}.
+         */
+        FAIL_FAST,
+    }
+
+    private static final NotificationOverflowPolicy<Object> BLOCK =
+            new NotificationOverflowPolicy<>(Action.BLOCK, null);
+    private static final NotificationOverflowPolicy<Object> DROP_OLDEST =
+            new NotificationOverflowPolicy<>(Action.DROP_OLDEST, null);
+    private static final NotificationOverflowPolicy<Object> DROP_NEWEST =
+            new NotificationOverflowPolicy<>(Action.DROP_NEWEST, null);
+    private static final NotificationOverflowPolicy<Object> SPILL =
+            new NotificationOverflowPolicy<>(Action.SPILL, null);
+    private static final NotificationOverflowPolicy<Object> FAIL_FAST =
+            new NotificationOverflowPolicy<>(Action.FAIL_FAST, null);
+
+    private final Action action;
+    private final Function<? super N, ?> coalesceKey;
+
+    private NotificationOverflowPolicy(final Action action, final Function<? super N, ?> coalesceKey) {
+        this.action = action;
+        this.coalesceKey = coalesceKey;
+    }
+
+    /**
+     * Return a policy which blocks the submitting thread until there is room in the queue.
+     *
+     * @param <N> the notification type
+     * @return A blocking policy
+     */
+    @SuppressWarnings("unchecked")
+    public static <N> NotificationOverflowPolicy<N> block() {
+        return (NotificationOverflowPolicy<N>) BLOCK;
+    }
+
+    /**
+     * Return a policy which drops the oldest queued notification.
+     *
+     * @param <N> the notification type
+     * @return A drop-oldest policy
+     */
+    @SuppressWarnings("unchecked")
+    public static <N> NotificationOverflowPolicy<N> dropOldest() {
+        return (NotificationOverflowPolicy<N>) DROP_OLDEST;
+    }
+
+    /**
+     * Return a policy which drops the notification being submitted.
+     *
+     * @param <N> the notification type
+     * @return A drop-newest policy
+     */
+    @SuppressWarnings("unchecked")
+    public static <N> NotificationOverflowPolicy<N> dropNewest() {
+        return (NotificationOverflowPolicy<N>) DROP_NEWEST;
+    }
+
+    /**
+     * Return a policy which replaces a queued notification having the same key.
+     *
+     * @param keyFunction function which extracts the coalescing key from a notification
+     * @param <N> the notification type
+     * @return A coalescing policy
+     */
+    public static <N> NotificationOverflowPolicy<N> coalesceBy(final Function<? super N, ?> keyFunction) {
+        return new NotificationOverflowPolicy<>(Action.COALESCE, Preconditions.checkNotNull(keyFunction));
+    }
+
+    /**
+     * Return a policy which spills notifications into an unbounded overflow buffer.
+     *
+     * @param <N> the notification type
+     * @return A spilling policy
+     */
+    @SuppressWarnings("unchecked")
+    public static <N> NotificationOverflowPolicy<N> spill() {
+        return (NotificationOverflowPolicy<N>) SPILL;
+    }
+
+    /**
+     * Return a policy which rejects the notification being submitted.
+     *
+     * @param <N> the notification type
+     * @return A fail-fast policy
+     */
+    @SuppressWarnings("unchecked")
+    public static <N> NotificationOverflowPolicy<N> failFast() {
+        return (NotificationOverflowPolicy<N>) FAIL_FAST;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    Object coalesceKey(final N notification) {
+        return coalesceKey.apply(notification);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).omitNullValues().add("action", action).add("key", coalesceKey)
+                .toString();
+    }
+}
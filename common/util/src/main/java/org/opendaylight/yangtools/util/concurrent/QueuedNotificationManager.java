@@ -8,20 +8,30 @@
 
 package org.opendaylight.yangtools.util.concurrent;
 
+import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.yangtools.util.LatencyRecorder;
+import org.opendaylight.yangtools.util.LatencySnapshot;
+import org.opendaylight.yangtools.util.concurrent.NotificationOverflowPolicy.Action;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,6 +47,9 @@ import org.slf4j.LoggerFactory;
  * dispatched are appended to the existing queue. When all notifications have been dispatched, the
  * queue and task are discarded.
  *
+ * <p>What happens when a listener's queue is full is governed by a {@link NotificationOverflowPolicy}.
+ * By default the submitting thread waits for the listener to make progress.
+ *
  * @author Thomas Pantelis
  *
  * @param <L> the listener type
@@ -63,6 +76,26 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
         void invokeListener( L listener, N notification );
     }
 
+    /**
+     * Interface implemented by clients that invoke listeners with batches of notifications. A batch
+     * holds the notifications which were queued for a listener at the time it is dispatched, up to
+     * the configured maximum batch size, in the order they were submitted.
+     *
+     * @param <L> the listener type
+     * @param <N> the notification type
+     */
+    @Beta
+    public interface BatchedInvoker<L,N> {
+
+        /**
+         * Called to invoke a listener with a batch of notifications.
+         *
+         * @param listener the listener to invoke
+         * @param notifications the notifications to send, never empty
+         */
+        void invokeListener( L listener, List<N> notifications );
+    }
+
     private static final Logger LOG = LoggerFactory.getLogger( QueuedNotificationManager.class );
 
     /**
@@ -71,8 +104,23 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
      */
     private static final int MAX_NOTIFICATION_OFFER_ATTEMPTS = 10;
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<QueuedNotificationManager> OVERFLOWED_UPDATER =
+            AtomicLongFieldUpdater.newUpdater( QueuedNotificationManager.class, "overflowedNotifications" );
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<QueuedNotificationManager> DROPPED_UPDATER =
+            AtomicLongFieldUpdater.newUpdater( QueuedNotificationManager.class, "droppedNotifications" );
+
     private final Executor executor;
     private final Invoker<L,N> listenerInvoker;
+    private final BatchedInvoker<L,N> batchedInvoker;
+    private final int maxBatchSize;
+    private final NotificationOverflowPolicy<N> overflowPolicy;
+
+    private final LatencyRecorder invocationLatency = LatencyRecorder.create();
+
+    private volatile long overflowedNotifications;
+    private volatile long droppedNotifications;
 
     private final ConcurrentMap<ListenerKey<L>,NotificationTask>
                                                           listenerCache = new ConcurrentHashMap<>();
@@ -90,10 +138,72 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
      */
     public QueuedNotificationManager( Executor executor, Invoker<L,N> listenerInvoker,
             int maxQueueCapacity, String name ) {
+        this( executor, listenerInvoker, maxQueueCapacity, NotificationOverflowPolicy.<N>block(),
+              name );
+    }
+
+    /**
+     * Constructor for a manager with a specific overflow policy.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param listenerInvoker the {@link Invoker} to use for invoking listeners
+     * @param maxQueueCapacity the capacity of each listener queue
+     * @param overflowPolicy the {@link NotificationOverflowPolicy} applied when a listener queue is full
+     * @param name the name of this instance for logging info
+     */
+    @Beta
+    public QueuedNotificationManager( Executor executor, Invoker<L,N> listenerInvoker,
+            int maxQueueCapacity, NotificationOverflowPolicy<N> overflowPolicy, String name ) {
+        this( executor, Preconditions.checkNotNull( listenerInvoker ), null, maxQueueCapacity, 1,
+              overflowPolicy, name );
+    }
+
+    /**
+     * Constructor for a manager which invokes listeners with batches of notifications.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param batchedInvoker the {@link BatchedInvoker} to use for invoking listeners
+     * @param maxQueueCapacity the capacity of each listener queue
+     * @param maxBatchSize the maximum number of notifications in a batch
+     * @param name the name of this instance for logging info
+     */
+    @Beta
+    public QueuedNotificationManager( Executor executor, BatchedInvoker<L,N> batchedInvoker,
+            int maxQueueCapacity, int maxBatchSize, String name ) {
+        this( executor, batchedInvoker, maxQueueCapacity, maxBatchSize,
+              NotificationOverflowPolicy.<N>block(), name );
+    }
+
+    /**
+     * Constructor for a manager which invokes listeners with batches of notifications and has
+     * a specific overflow policy.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param batchedInvoker the {@link BatchedInvoker} to use for invoking listeners
+     * @param maxQueueCapacity the capacity of each listener queue
+     * @param maxBatchSize the maximum number of notifications in a batch
+     * @param overflowPolicy the {@link NotificationOverflowPolicy} applied when a listener queue is full
+     * @param name the name of this instance for logging info
+     */
+    @Beta
+    public QueuedNotificationManager( Executor executor, BatchedInvoker<L,N> batchedInvoker,
+            int maxQueueCapacity, int maxBatchSize, NotificationOverflowPolicy<N> overflowPolicy,
+            String name ) {
+        this( executor, null, Preconditions.checkNotNull( batchedInvoker ), maxQueueCapacity,
+              maxBatchSize, overflowPolicy, name );
+    }
+
+    private QueuedNotificationManager( Executor executor, Invoker<L,N> listenerInvoker,
+            BatchedInvoker<L,N> batchedInvoker, int maxQueueCapacity, int maxBatchSize,
+            NotificationOverflowPolicy<N> overflowPolicy, String name ) {
         this.executor = Preconditions.checkNotNull( executor );
-        this.listenerInvoker = Preconditions.checkNotNull( listenerInvoker );
+        this.listenerInvoker = listenerInvoker;
+        this.batchedInvoker = batchedInvoker;
         Preconditions.checkArgument( maxQueueCapacity > 0, "maxQueueCapacity must be > 0 " );
         this.maxQueueCapacity = maxQueueCapacity;
+        Preconditions.checkArgument( maxBatchSize > 0, "maxBatchSize must be > 0 " );
+        this.maxBatchSize = maxBatchSize;
+        this.overflowPolicy = Preconditions.checkNotNull( overflowPolicy );
         this.name = Preconditions.checkNotNull( name );
     }
 
@@ -134,11 +244,12 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
         // add our notifications to an existing NotificationTask. Eventually one or the other
         // will occur.
 
+        Iterable<N> pending = notifications;
         try {
             while (true) {
                 NotificationTask existingTask = listenerCache.get( key );
 
-                if (existingTask == null || !existingTask.submitNotifications( notifications )) {
+                if (existingTask == null || !existingTask.submitNotifications( pending )) {
 
                     // Either there's no existing task or we couldn't add our notifications to the
                     // existing one because it's in the process of exiting and removing itself from
@@ -149,21 +260,40 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
                     // notification ordering. In any case loop back up and try again.
 
                     if (newNotificationTask == null) {
-                        newNotificationTask = new NotificationTask( key, notifications );
+                        newNotificationTask = new NotificationTask( key );
                     }
 
                     existingTask = listenerCache.putIfAbsent( key, newNotificationTask );
                     if (existingTask == null) {
 
-                        // We were able to put our new task - now submit it to the executor and
-                        // we're done. If it throws a RejectedxecutionException, let that propagate
-                        // to the caller.
+                        // We were able to put our new task. Only now queue our notifications, so
+                        // the overflow policy is not applied to a task which is then discarded,
+                        // and submit the task to the executor. If either throws a
+                        // RejectedExecutionException, remove the task and let that propagate to
+                        // the caller.
+
+                        final List<N> remaining;
+                        try {
+                            remaining = newNotificationTask.offerInitialNotifications( pending );
+
+                            LOG.debug( "{}: Submitting NotificationTask for listener {}",
+                                       name, listener.toString() );
+
+                            executor.execute( newNotificationTask );
+                        } catch (RuntimeException e) {
+                            listenerCache.remove( key, newNotificationTask );
+                            throw e;
+                        }
+
+                        if (remaining == null) {
+                            break;
+                        }
 
-                        LOG.debug( "{}: Submitting NotificationTask for listener {}",
-                                   name, listener.toString() );
+                        // Some notifications have to wait for room in the queue, which is only
+                        // made by the running task. Loop back up to submit them to it.
 
-                        executor.execute( newNotificationTask );
-                        break;
+                        pending = remaining;
+                        newNotificationTask = null;
                     }
                 } else {
 
@@ -195,7 +325,7 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
         List<ListenerNotificationQueueStats> statsList = new ArrayList<>( listenerCache.size() );
         for (NotificationTask task: listenerCache.values()) {
             statsList.add( new ListenerNotificationQueueStats(
-                    task.listenerKey.toString(), task.notificationQueue.size() ) );
+                    task.listenerKey.toString(), task.size() ) );
         }
 
         return statsList ;
@@ -209,53 +339,56 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
     }
 
     /**
-     * Returns the {@link Executor} to used for notification tasks.
+     * Returns the maximum number of notifications passed to a {@link BatchedInvoker} at once.
      */
-    public Executor getExecutor() {
-        return executor;
+    public int getMaxBatchSize() {
+        return maxBatchSize;
     }
 
     /**
-     * Used as the listenerCache map key. We key by listener reference identity hashCode/equals.
-     * Since we don't know anything about the listener class implementations and we're mixing
-     * multiple listener class instances in the same map, this avoids any potential issue with an
-     * equals implementation that just blindly casts the other Object to compare instead of checking
-     * for instanceof.
+     * Returns the {@link NotificationOverflowPolicy} applied when a listener queue is full.
      */
-    private static class ListenerKey<L> {
-
-        private final L listener;
-
-        ListenerKey( L listener ) {
-            this.listener = listener;
-        }
+    public NotificationOverflowPolicy<N> getOverflowPolicy() {
+        return overflowPolicy;
+    }
 
-        L getListener() {
-            return listener;
-        }
+    /**
+     * Returns the number of notifications which were submitted while the listener's queue was full.
+     */
+    public long getOverflowedNotificationCount() {
+        return overflowedNotifications;
+    }
 
-        @Override
-        public int hashCode() {
-            return System.identityHashCode( listener );
-        }
+    /**
+     * Returns the number of notifications which were dropped, coalesced or rejected because the
+     * listener's queue was full.
+     */
+    public long getDroppedNotificationCount() {
+        return droppedNotifications;
+    }
 
-        @Override
-        public boolean equals( Object obj ) {
-            if (obj == this) {
-                return true;
-            }
-            if (!(obj instanceof ListenerKey<?>)) {
-                return false;
-            }
+    /**
+     * Returns a snapshot of the time spent invoking listeners, in nanoseconds. Each invocation
+     * is recorded, regardless of whether it delivers a single notification or a batch.
+     */
+    @Beta
+    public LatencySnapshot getListenerInvocationLatency() {
+        return invocationLatency.snapshot();
+    }
 
-            ListenerKey<?> other = (ListenerKey<?>) obj;
-            return listener == other.listener;
-        }
+    /**
+     * Returns a snapshot of the time spent invoking listeners, in nanoseconds, and resets it.
+     */
+    @Beta
+    public LatencySnapshot getListenerInvocationLatencyAndReset() {
+        return invocationLatency.snapshotAndReset();
+    }
 
-        @Override
-        public String toString() {
-            return listener.toString();
-        }
+    /**
+     * Returns the {@link Executor} to used for notification tasks.
+     */
+    public Executor getExecutor() {
+        return executor;
     }
 
     /**
@@ -266,6 +399,13 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
 
         private final BlockingQueue<N> notificationQueue;
 
+        /**
+         * Unbounded buffer of notifications which did not fit into the queue, used with
+         * {@link Action#SPILL} only. While it is not empty, new notifications are appended to it
+         * to preserve ordering.
+         */
+        private final Queue<N> spilledNotifications;
+
         private volatile boolean done = false;
 
         @GuardedBy("queuingLock")
@@ -275,13 +415,50 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
 
         private final ListenerKey<L> listenerKey;
 
-        NotificationTask( ListenerKey<L> listenerKey, Iterable<N> notifications ) {
+        NotificationTask( ListenerKey<L> listenerKey ) {
 
             this.listenerKey = listenerKey;
             this.notificationQueue = new LinkedBlockingQueue<>( maxQueueCapacity );
+            this.spilledNotifications = overflowPolicy.getAction() == Action.SPILL
+                    ? new ConcurrentLinkedQueue<>() : null;
+        }
 
-            for (N notification: notifications) {
-                this.notificationQueue.add( notification );
+        int size() {
+            return spilledNotifications == null ? notificationQueue.size()
+                    : notificationQueue.size() + spilledNotifications.size();
+        }
+
+        /**
+         * Queue the first notifications of a task which has been installed in the cache, but not
+         * yet submitted to the executor. Nothing drains the queue at this point, hence this method
+         * never waits for room in it.
+         *
+         * @return notifications which have to wait for room in the queue, or null if there are none
+         */
+        List<N> offerInitialNotifications( Iterable<N> notifications ) {
+
+            queuingLock.lock();
+            try {
+
+                if (overflowPolicy.getAction() != Action.BLOCK) {
+                    offerNotifications( notifications );
+                    return null;
+                }
+
+                List<N> remaining = null;
+                for (N notification: notifications) {
+                    if (remaining == null && notificationQueue.offer( notification )) {
+                        continue;
+                    }
+                    if (remaining == null) {
+                        remaining = new ArrayList<>();
+                    }
+                    remaining.add( notification );
+                }
+                return remaining;
+
+            } finally {
+                queuingLock.unlock();
             }
         }
 
@@ -297,45 +474,20 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
                     return false;
                 }
 
-                for (N notification: notifications) {
-                    boolean notificationOfferAttemptSuccess = false;
-                    // The offer is attempted for up to 10 minutes, with a status message printed each minute
-                    for (int notificationOfferAttempts = 0;
-                         notificationOfferAttempts < MAX_NOTIFICATION_OFFER_ATTEMPTS; notificationOfferAttempts++) {
-
-                        // Try to offer for up to a minute and log a message if it times out.
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug( "{}: Offering notification to the queue for listener {}: {}",
-                                       name, listenerKey.toString(), notification );
-                        }
+                // Set the queuedNotifications flag to tell #run that we're queueing notifications
+                // and not to exit yet, even if it thinks the queue is empty at this point. This
+                // is done up front as the overflow policy may reject some of the notifications.
 
-                        if (notificationOfferAttemptSuccess = notificationQueue.offer(
-                                notification, 1, TimeUnit.MINUTES)) {
-                            break;
-                        }
+                queuedNotifications = true;
 
-                        LOG.warn(
-                                "{}: Timed out trying to offer a notification to the queue for listener {} "
-                                        + "on attempt {} of {}. " + "The queue has reached its capacity of {}",
-                                name, listenerKey.toString(), notificationOfferAttempts,
-                                MAX_NOTIFICATION_OFFER_ATTEMPTS, maxQueueCapacity);
-                    }
-                    if (!notificationOfferAttemptSuccess) {
-                        LOG.warn(
-                                "{}: Failed to offer a notification to the queue for listener {}. "
-                                        + "Exceeded max allowable attempts of {} in {} minutes; the listener "
-                                        + "is likely in an unrecoverable state (deadlock or endless loop).",
-                                name, listenerKey.toString(), MAX_NOTIFICATION_OFFER_ATTEMPTS,
-                                MAX_NOTIFICATION_OFFER_ATTEMPTS);
+                if (overflowPolicy.getAction() == Action.BLOCK) {
+                    for (N notification: notifications) {
+                        offerNotificationWaiting( notification );
                     }
+                } else {
+                    offerNotifications( notifications );
                 }
 
-                // Set the queuedNotifications flag to tell #run that we've just queued
-                // notifications and not to exit yet, even if it thinks the queue is empty at this
-                // point.
-
-                queuedNotifications = true;
-
             } finally {
                 queuingLock.unlock();
             }
@@ -343,6 +495,155 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
             return true;
         }
 
+        private void offerNotificationWaiting( N notification ) throws InterruptedException {
+
+            boolean notificationOfferAttemptSuccess = false;
+            // The offer is attempted for up to 10 minutes, with a status message printed each minute
+            for (int notificationOfferAttempts = 0;
+                 notificationOfferAttempts < MAX_NOTIFICATION_OFFER_ATTEMPTS; notificationOfferAttempts++) {
+
+                // Try to offer for up to a minute and log a message if it times out.
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug( "{}: Offering notification to the queue for listener {}: {}",
+                               name, listenerKey.toString(), notification );
+                }
+
+                if (notificationOfferAttemptSuccess = notificationQueue.offer(
+                        notification, 1, TimeUnit.MINUTES)) {
+                    break;
+                }
+
+                LOG.warn(
+                        "{}: Timed out trying to offer a notification to the queue for listener {} "
+                                + "on attempt {} of {}. " + "The queue has reached its capacity of {}",
+                        name, listenerKey.toString(), notificationOfferAttempts,
+                        MAX_NOTIFICATION_OFFER_ATTEMPTS, maxQueueCapacity);
+            }
+            if (!notificationOfferAttemptSuccess) {
+                LOG.warn(
+                        "{}: Failed to offer a notification to the queue for listener {}. "
+                                + "Exceeded max allowable attempts of {} in {} minutes; the listener "
+                                + "is likely in an unrecoverable state (deadlock or endless loop).",
+                        name, listenerKey.toString(), MAX_NOTIFICATION_OFFER_ATTEMPTS,
+                        MAX_NOTIFICATION_OFFER_ATTEMPTS);
+            }
+        }
+
+        /**
+         * Queue notifications without waiting, applying the overflow policy if the queue is full.
+         * With {@link Action#FAIL_FAST} the notifications are either all queued or all rejected.
+         */
+        private void offerNotifications( Iterable<N> notifications ) {
+
+            if (overflowPolicy.getAction() == Action.FAIL_FAST) {
+
+                // Queuing is serialized by the queuingLock and #run only removes notifications,
+                // hence if the batch fits now, it will fit once we get to offer it.
+
+                final int size = Iterables.size( notifications );
+                final int free = notificationQueue.remainingCapacity();
+                if (size > free) {
+                    OVERFLOWED_UPDATER.addAndGet( QueuedNotificationManager.this, size - free );
+                    DROPPED_UPDATER.addAndGet( QueuedNotificationManager.this, size );
+                    throw new RejectedExecutionException( String.format(
+                            "%s: The queue for listener %s has room for %s of %s notifications, its capacity is %s",
+                            name, listenerKey.toString(), free, size, maxQueueCapacity ) );
+                }
+            }
+
+            for (N notification: notifications) {
+                offerNotification( notification );
+            }
+        }
+
+        /**
+         * Queue a notification without waiting, applying the overflow policy if the queue is full.
+         */
+        private void offerNotification( N notification ) {
+
+            if (spilledNotifications != null && !spilledNotifications.isEmpty()) {
+                OVERFLOWED_UPDATER.incrementAndGet( QueuedNotificationManager.this );
+                spilledNotifications.add( notification );
+                return;
+            }
+
+            if (notificationQueue.offer( notification )) {
+                return;
+            }
+
+            OVERFLOWED_UPDATER.incrementAndGet( QueuedNotificationManager.this );
+
+            switch (overflowPolicy.getAction()) {
+                case DROP_OLDEST:
+                    dropNotification( notificationQueue.poll() );
+                    break;
+                case DROP_NEWEST:
+                    dropNotification( notification );
+                    return;
+                case COALESCE:
+                    coalesceNotification( notification );
+                    break;
+                case SPILL:
+                    spilledNotifications.add( notification );
+                    return;
+                case FAIL_FAST:
+                    DROPPED_UPDATER.incrementAndGet( QueuedNotificationManager.this );
+                    throw new RejectedExecutionException( String.format(
+                            "%s: The queue for listener %s has reached its capacity of %s",
+                            name, listenerKey.toString(), maxQueueCapacity ) );
+                default:
+                    throw new IllegalStateException( "Unhandled overflow action " +
+                            overflowPolicy.getAction() );
+            }
+
+            // Queuing is serialized by the queuingLock and #run only removes notifications, hence
+            // there is room for the notification now.
+
+            if (!notificationQueue.offer( notification )) {
+                dropNotification( notification );
+            }
+        }
+
+        private void coalesceNotification( N notification ) {
+
+            // Remove the first queued notification with the same key. If there is none, drop the
+            // oldest one instead.
+
+            Object key = overflowPolicy.coalesceKey( notification );
+            Iterator<N> it = notificationQueue.iterator();
+            while (it.hasNext()) {
+                N queued = it.next();
+                if (Objects.equals( key, overflowPolicy.coalesceKey( queued ) )) {
+                    it.remove();
+                    dropNotification( queued );
+                    return;
+                }
+            }
+
+            dropNotification( notificationQueue.poll() );
+        }
+
+        private void dropNotification( N notification ) {
+
+            if (notification != null) {
+                DROPPED_UPDATER.incrementAndGet( QueuedNotificationManager.this );
+                LOG.debug( "{}: Dropped notification for listener {}: {}",
+                           name, listenerKey.toString(), notification );
+            }
+        }
+
+        /**
+         * Move spilled notifications into the queue for as long as there is room.
+         */
+        private void unspillNotifications() {
+
+            N notification;
+            while ((notification = spilledNotifications.peek()) != null &&
+                    notificationQueue.offer( notification )) {
+                spilledNotifications.poll();
+            }
+        }
+
         @Override
         public void run() {
 
@@ -351,6 +652,10 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
 
                 while (true) {
 
+                    if (spilledNotifications != null) {
+                        unspillNotifications();
+                    }
+
                     // Get the notification at the head of the queue, waiting a little bit for one
                     // to get offered.
 
@@ -386,7 +691,11 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
                         }
                     }
 
-                    notifyListener( notification );
+                    if (batchedInvoker != null) {
+                        notifyListener( drainBatch( notification ) );
+                    } else {
+                        notifyListener( notification );
+                    }
                 }
             } catch (InterruptedException e) {
 
@@ -402,21 +711,60 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
             }
         }
 
+        private List<N> drainBatch( N first ) {
+
+            if (first == null) {
+                return Collections.emptyList();
+            }
+
+            // Take whatever else has been queued, up to the batch size.
+
+            List<N> batch = new ArrayList<>( Math.min( maxBatchSize,
+                    notificationQueue.size() + 1 ) );
+            batch.add( first );
+            notificationQueue.drainTo( batch, maxBatchSize - 1 );
+            return batch;
+        }
+
         private void notifyListener( N notification ) {
 
             if (notification == null) {
                 return;
             }
 
+            if (LOG.isDebugEnabled()) {
+                LOG.debug( "{}: Invoking listener {} with notification: {}",
+                           name, listenerKey.toString(), notification );
+            }
+
+            invokeListener( notification, null );
+        }
+
+        private void notifyListener( List<N> notifications ) {
+
+            if (notifications.isEmpty()) {
+                return;
+            }
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug( "{}: Invoking listener {} with {} notifications: {}",
+                           name, listenerKey.toString(), notifications.size(), notifications );
+            }
+
+            invokeListener( null, notifications );
+        }
+
+        private void invokeListener( N notification, List<N> notifications ) {
+
+            final long start = System.nanoTime();
             try {
 
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug( "{}: Invoking listener {} with notification: {}",
-                               name, listenerKey.toString(), notification );
+                if (notifications != null) {
+                    batchedInvoker.invokeListener( listenerKey.getListener(), notifications );
+                } else {
+                    listenerInvoker.invokeListener( listenerKey.getListener(), notification );
                 }
 
-                listenerInvoker.invokeListener( listenerKey.getListener(), notification );
-
             } catch (RuntimeException e ) {
 
                 // We'll let a RuntimeException from the listener slide and keep sending any
@@ -432,6 +780,8 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
 
                 done = true;
                 throw e;
+            } finally {
+                invocationLatency.record( System.nanoTime() - start );
             }
         }
     }
@@ -8,8 +8,12 @@
 
 package org.opendaylight.yangtools.util.concurrent;
 
+import com.google.common.annotations.Beta;
+import com.google.common.base.Supplier;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Factory methods for creating {@link ExecutorService} instances with specific configurations.
@@ -18,6 +22,8 @@ import java.util.concurrent.TimeUnit;
  */
 public final class SpecialExecutors {
 
+    private static final Logger LOG = LoggerFactory.getLogger( SpecialExecutors.class );
+
     private SpecialExecutors() {
     }
 
@@ -133,6 +139,119 @@ public final class SpecialExecutors {
         return executor;
     }
 
+    /**
+     * Creates an ExecutorService with bounded capacity which is backed by a work-stealing pool. Tasks
+     * submitted from different threads are placed on separate queues, from which idle threads steal
+     * work, hence submitters and workers do not contend on a single queue lock. This makes it
+     * suitable for executors which receive tasks from many threads, such as notification executors.
+     *
+     * <p>At most maximumPoolSize threads execute tasks concurrently and at most maximumQueueSize
+     * tasks wait for a thread. If this capacity is reached, subsequent tasks will be rejected.
+     *
+     * <p>The returned executor implements {@link ExecutorMetrics}, exposing queue wait time, execution
+     * time and rejection count.
+     *
+     * @param maximumPoolSize
+     *            the maximum number of threads to allow in the pool.
+     * @param maximumQueueSize
+     *            the maximum number of tasks waiting for a thread.
+     * @param threadPrefix
+     *            the name prefix for threads created by this executor.
+     * @return a new ExecutorService with the specified configuration.
+     */
+    @Beta
+    public static WorkStealingThreadPoolExecutor newBoundedWorkStealingPool( int maximumPoolSize,
+            int maximumQueueSize, String threadPrefix ) {
+        return new WorkStealingThreadPoolExecutor( maximumPoolSize, maximumQueueSize, threadPrefix,
+                false );
+    }
+
+    /**
+     * Creates an ExecutorService similar to {@link #newBoundedWorkStealingPool } except that it
+     * handles rejected tasks by running them in the same thread as the caller. Therefore if the
+     * capacity is reached, the caller submitting the task will be blocked until the task completes.
+     * In this manner, tasks are never rejected.
+     *
+     * @param maximumPoolSize
+     *            the maximum number of threads to allow in the pool.
+     * @param maximumQueueSize
+     *            the maximum number of tasks waiting for a thread.
+     * @param threadPrefix
+     *            the name prefix for threads created by this executor.
+     * @return a new ExecutorService with the specified configuration.
+     */
+    @Beta
+    public static WorkStealingThreadPoolExecutor newBlockingBoundedWorkStealingPool(
+            int maximumPoolSize, int maximumQueueSize, String threadPrefix ) {
+        return new WorkStealingThreadPoolExecutor( maximumPoolSize, maximumQueueSize, threadPrefix,
+                true );
+    }
+
+    /**
+     * Checks whether the running JVM supports virtual threads, in which case
+     * {@link #newBoundedVirtualThreadExecutor } creates executors backed by them.
+     *
+     * @return true if virtual threads are supported.
+     */
+    @Beta
+    public static boolean isVirtualThreadSupported() {
+        return VirtualThreadExecutor.isSupported();
+    }
+
+    /**
+     * Creates an ExecutorService which runs tasks in virtual threads, with at most
+     * maximumConcurrency tasks executing concurrently. Tasks are started in the order they were
+     * submitted. Tasks waiting to execute do not occupy any threads, hence this executor is suitable for callbacks which block, for example
+     * on I/O, without having to size a thread pool for the worst case. If maximumQueueSize tasks
+     * are already waiting, subsequent tasks will be rejected.
+     *
+     * <p>If the JVM does not support virtual threads, this method falls back to
+     * {@link #newBoundedCachedThreadPool } with the same parameters.
+     *
+     * @param maximumConcurrency
+     *            the maximum number of tasks to execute concurrently.
+     * @param maximumQueueSize
+     *            the maximum number of tasks waiting to execute.
+     * @param threadPrefix
+     *            the name prefix for threads created by this executor.
+     * @return a new ExecutorService with the specified configuration.
+     */
+    @Beta
+    public static ExecutorService newBoundedVirtualThreadExecutor( int maximumConcurrency,
+            int maximumQueueSize, String threadPrefix ) {
+        if (VirtualThreadExecutor.isSupported()) {
+            return VirtualThreadExecutor.create( maximumConcurrency, maximumQueueSize, threadPrefix );
+        }
+
+        LOG.debug( "Virtual threads are not supported, using a cached thread pool for {}",
+                   threadPrefix );
+        return newBoundedCachedThreadPool( maximumConcurrency, maximumQueueSize, threadPrefix );
+    }
+
+    /**
+     * Creates a {@link DeadlockDetectingListeningExecutorService} backed by an executor created by
+     * {@link #newBoundedVirtualThreadExecutor }. Futures returned by the executor detect blocking
+     * calls to their <code>get</code> methods from tasks running on the same executor.
+     *
+     * @param maximumConcurrency
+     *            the maximum number of tasks to execute concurrently.
+     * @param maximumQueueSize
+     *            the maximum number of tasks waiting to execute.
+     * @param threadPrefix
+     *            the name prefix for threads created by this executor.
+     * @param deadlockExceptionSupplier
+     *            Supplier that returns an Exception instance to set as the cause of the
+     *            ExecutionException when a deadlock is detected.
+     * @return a new DeadlockDetectingListeningExecutorService with the specified configuration.
+     */
+    @Beta
+    public static DeadlockDetectingListeningExecutorService newDeadlockDetectingVirtualThreadExecutor(
+            int maximumConcurrency, int maximumQueueSize, String threadPrefix,
+            Supplier<Exception> deadlockExceptionSupplier ) {
+        return new DeadlockDetectingListeningExecutorService( newBoundedVirtualThreadExecutor(
+                maximumConcurrency, maximumQueueSize, threadPrefix ), deadlockExceptionSupplier );
+    }
+
     /**
      * Creates an ExecutorService that uses a single worker thread operating off a bounded queue
      * with the specified capacity. Tasks are guaranteed to execute sequentially, and no more than
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An executor which runs tasks in virtual threads, limiting the number of tasks executing concurrently via
+ * a {@link Semaphore}. Submitted tasks are queued in FIFO order. A virtual thread is started whenever a permit is
+ * available and it keeps executing queued tasks until the queue is empty, hence tasks are started in the order they
+ * were submitted and waiting tasks do not tie up any threads. Virtual threads are accessed reflectively, so this class
+ * can be loaded on JVMs which do not support them, in which case {@link #isSupported()} returns false and instances
+ * cannot be created.
+ *
+ * <p>See {@link SpecialExecutors#newBoundedVirtualThreadExecutor} for more details.
+ */
+final class VirtualThreadExecutor extends AbstractExecutorService {
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadExecutor.class);
+    private static final AtomicIntegerFieldUpdater<VirtualThreadExecutor> PENDING_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(VirtualThreadExecutor.class, "pendingTasks");
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builder.getMethod("name", String.class, long.class);
+            builderFactory = builder.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+
+            // Make sure virtual threads are actually enabled
+            ofVirtual.invoke(null);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException
+                | InvocationTargetException e) {
+            LOG.debug("Virtual threads are not available", e);
+            ofVirtual = null;
+        }
+
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final String threadPrefix;
+    private final int maximumConcurrency;
+    private final int maximumQueueSize;
+    private final int maximumPendingTasks;
+
+    private volatile int pendingTasks;
+
+    private VirtualThreadExecutor(final ExecutorService delegate, final int maximumConcurrency,
+            final int maximumQueueSize, final String threadPrefix) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maximumConcurrency);
+        this.maximumConcurrency = maximumConcurrency;
+        this.maximumQueueSize = maximumQueueSize;
+        this.maximumPendingTasks = (int) Math.min(Integer.MAX_VALUE, (long) maximumConcurrency + maximumQueueSize);
+        this.threadPrefix = threadPrefix;
+    }
+
+    /**
+     * Check whether the running JVM supports virtual threads.
+     *
+     * @return True if virtual threads are supported.
+     */
+    static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Create a new executor.
+     *
+     * @param maximumConcurrency the maximum number of tasks executing concurrently
+     * @param maximumQueueSize the maximum number of tasks waiting to execute
+     * @param threadPrefix the name prefix for threads created by this executor
+     * @return A new executor
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    static VirtualThreadExecutor create(final int maximumConcurrency, final int maximumQueueSize,
+            final String threadPrefix) {
+        Preconditions.checkArgument(maximumConcurrency > 0, "maximumConcurrency must be > 0");
+        Preconditions.checkArgument(maximumQueueSize >= 0, "maximumQueueSize must be >= 0");
+        Preconditions.checkNotNull(threadPrefix);
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+        }
+
+        final ExecutorService delegate;
+        try {
+            final Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), threadPrefix + "-", 0L);
+            final ThreadFactory factory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            delegate = (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Failed to instantiate virtual thread executor", e);
+        }
+
+        return new VirtualThreadExecutor(delegate, maximumConcurrency, maximumQueueSize, threadPrefix);
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        Preconditions.checkNotNull(command);
+        if (delegate.isShutdown() || !tryReserve()) {
+            throw new RejectedExecutionException("Task " + command + " rejected from " + this);
+        }
+
+        queue.add(command);
+        try {
+            startWorker();
+        } catch (RejectedExecutionException e) {
+            // We have been shut down concurrently. If the task has already been picked up by a worker, it will execute.
+            if (queue.remove(command)) {
+                PENDING_UPDATER.decrementAndGet(this);
+                throw new RejectedExecutionException("Task " + command + " rejected from " + this, e);
+            }
+        }
+    }
+
+    private void startWorker() {
+        if (!queue.isEmpty() && permits.tryAcquire()) {
+            try {
+                delegate.execute(new Worker());
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Holds a permit and executes queued tasks until the queue is empty.
+     */
+    private final class Worker implements Runnable {
+        @Override
+        public void run() {
+            boolean holdsPermit = true;
+            try {
+                do {
+                    Runnable task;
+                    while ((task = queue.poll()) != null) {
+                        runTask(task);
+                    }
+
+                    permits.release();
+                    holdsPermit = false;
+
+                    // A task may have been queued after our last poll, but before we released the permit, in which
+                    // case its submitter did not get a permit and relies on us to execute it.
+                    holdsPermit = !queue.isEmpty() && permits.tryAcquire();
+                } while (holdsPermit);
+            } finally {
+                if (holdsPermit) {
+                    // A task has thrown an Error, let another worker take over the queue
+                    permits.release();
+                    try {
+                        startWorker();
+                    } catch (RejectedExecutionException e) {
+                        LOG.warn("{}: Failed to resume executing {} queued tasks", threadPrefix, queue.size(), e);
+                    }
+                }
+            }
+        }
+
+        private void runTask(final Runnable task) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOG.warn("{}: Task {} failed", threadPrefix, task, e);
+            } finally {
+                PENDING_UPDATER.decrementAndGet(VirtualThreadExecutor.this);
+            }
+        }
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = pendingTasks;
+            if (current >= maximumPendingTasks) {
+                return false;
+            }
+        } while (!PENDING_UPDATER.compareAndSet(this, current, current + 1));
+        return true;
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        // Take the queued tasks first, so workers do not pick them up once they are interrupted
+        final List<Runnable> ret = new ArrayList<>();
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            ret.add(task);
+            PENDING_UPDATER.decrementAndGet(this);
+        }
+
+        ret.addAll(delegate.shutdownNow());
+        return ret;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("Thread Prefix", threadPrefix)
+                .add("Max Concurrency", maximumConcurrency)
+                .add("Active Task Count", maximumConcurrency - permits.availablePermits())
+                .add("Pending Task Count", pendingTasks)
+                .add("Queued Task Count", queue.size())
+                .add("Max Queue Size", maximumQueueSize).toString();
+    }
+}
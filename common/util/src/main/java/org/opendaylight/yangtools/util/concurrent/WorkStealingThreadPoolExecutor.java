@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import org.opendaylight.yangtools.util.LatencyRecorder;
+import org.opendaylight.yangtools.util.LatencySnapshot;
+
+/**
+ * An executor backed by a {@link ForkJoinPool} operating in FIFO mode, with the same bounded semantics as
+ * {@link FastThreadPoolExecutor}. Tasks submitted from outside of the pool are placed onto submission queues selected
+ * by the submitting thread, and idle workers steal work from each other, hence unlike a {@link FastThreadPoolExecutor}
+ * there is no single queue lock shared by all submitters and workers.
+ *
+ * <p>The executor accepts at most maximumPoolSize + maximumQueueSize tasks which have not completed. Additional tasks
+ * are either rejected with a {@link RejectedExecutionException}, or executed by the submitting thread, depending on
+ * how the executor was constructed.
+ *
+ * <p>See {@link SpecialExecutors#newBoundedWorkStealingPool} for more details.
+ */
+@Beta
+public class WorkStealingThreadPoolExecutor extends AbstractExecutorService implements ExecutorMetrics {
+    private static final AtomicIntegerFieldUpdater<WorkStealingThreadPoolExecutor> PENDING_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(WorkStealingThreadPoolExecutor.class, "pendingTasks");
+    private static final AtomicLongFieldUpdater<WorkStealingThreadPoolExecutor> REJECTED_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(WorkStealingThreadPoolExecutor.class, "rejectedTasks");
+    private static final AtomicIntegerFieldUpdater<MeteredTask> CLAIMED_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(MeteredTask.class, "claimed");
+
+    private final LatencyRecorder queueWaitTime = LatencyRecorder.create();
+    private final LatencyRecorder executionTime = LatencyRecorder.create();
+    private final ForkJoinPool pool;
+
+    /**
+     * Tasks which have been submitted to the pool, but have not started executing. ForkJoinPool.shutdownNow() does
+     * not report tasks it discards, hence we need to track them ourselves.
+     */
+    private final Set<MeteredTask> waitingTasks = ConcurrentHashMap.newKeySet();
+    private final String threadPrefix;
+    private final int maximumPoolSize;
+    private final int maximumQueueSize;
+    private final int maximumPendingTasks;
+    private final boolean callerRuns;
+
+    private volatile int pendingTasks;
+    private volatile long rejectedTasks;
+
+    /**
+     * Constructs a WorkStealingThreadPoolExecutor instance.
+     *
+     * @param maximumPoolSize
+     *            the maximum number of threads to allow in the pool.
+     * @param maximumQueueSize
+     *            the maximum number of tasks waiting for a thread.
+     * @param threadPrefix
+     *            the name prefix for threads created by this executor.
+     * @param callerRuns
+     *            if true, tasks which exceed the capacity are run by the submitting thread, otherwise they are
+     *            rejected.
+     */
+    public WorkStealingThreadPoolExecutor(final int maximumPoolSize, final int maximumQueueSize,
+            final String threadPrefix, final boolean callerRuns) {
+        Preconditions.checkArgument(maximumPoolSize > 0, "maximumPoolSize must be > 0");
+        Preconditions.checkArgument(maximumQueueSize >= 0, "maximumQueueSize must be >= 0");
+        this.maximumPoolSize = maximumPoolSize;
+        this.maximumQueueSize = maximumQueueSize;
+        this.maximumPendingTasks = (int) Math.min(Integer.MAX_VALUE, (long) maximumPoolSize + maximumQueueSize);
+        this.threadPrefix = Preconditions.checkNotNull(threadPrefix);
+        this.callerRuns = callerRuns;
+
+        final AtomicInteger threadCounter = new AtomicInteger();
+        pool = new ForkJoinPool(maximumPoolSize, new ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+                final ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) {
+                    // Constructor is protected
+                };
+                thread.setName(threadPrefix + "-" + threadCounter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, null, true);
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        Preconditions.checkNotNull(command);
+
+        if (!tryReserve()) {
+            REJECTED_UPDATER.incrementAndGet(this);
+            if (!callerRuns) {
+                throw new RejectedExecutionException("Task " + command + " rejected from " + this);
+            }
+
+            // Mirrors ThreadPoolExecutor.CallerRunsPolicy: the task is discarded if we have been shut down
+            if (!pool.isShutdown()) {
+                command.run();
+            }
+            return;
+        }
+
+        final MeteredTask task = new MeteredTask(command);
+        waitingTasks.add(task);
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            waitingTasks.remove(task);
+            PENDING_UPDATER.decrementAndGet(this);
+            REJECTED_UPDATER.incrementAndGet(this);
+            throw e;
+        }
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = pendingTasks;
+            if (current >= maximumPendingTasks) {
+                return false;
+            }
+        } while (!PENDING_UPDATER.compareAndSet(this, current, current + 1));
+        return true;
+    }
+
+    /**
+     * Returns the number of tasks which have been submitted, but have not completed yet.
+     */
+    public int getPendingTaskCount() {
+        return pendingTasks;
+    }
+
+    /**
+     * Returns the number of tasks which are waiting for a thread.
+     */
+    public long getQueueSize() {
+        return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public int getMaximumQueueSize() {
+        return maximumQueueSize;
+    }
+
+    @Override
+    public LatencySnapshot getQueueWaitTime() {
+        return queueWaitTime.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getExecutionTime() {
+        return executionTime.snapshot();
+    }
+
+    @Override
+    public long getRejectedTaskCount() {
+        return rejectedTasks;
+    }
+
+    @Override
+    public void resetMetrics() {
+        queueWaitTime.reset();
+        executionTime.reset();
+        rejectedTasks = 0;
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Attempts to stop all executing tasks and discards all waiting tasks. Unlike {@link ForkJoinPool#shutdownNow()},
+     * this method returns the tasks which have never commenced execution, in the order in which they were submitted.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        pool.shutdownNow();
+
+        // Workers may still be picking up tasks, hence claim each task before reporting it
+        final List<MeteredTask> discarded = new ArrayList<>();
+        for (MeteredTask task : waitingTasks) {
+            if (task.claim()) {
+                waitingTasks.remove(task);
+                PENDING_UPDATER.decrementAndGet(this);
+                discarded.add(task);
+            }
+        }
+        discarded.sort(Comparator.comparingLong(task -> task.submitted));
+
+        final List<Runnable> ret = new ArrayList<>(discarded.size());
+        for (MeteredTask task : discarded) {
+            ret.add(task.delegate);
+        }
+        return ret;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return pool.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return pool.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return pool.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("Thread Prefix", threadPrefix)
+                .add("Current Thread Pool Size", pool.getPoolSize())
+                .add("Max Thread Pool Size", maximumPoolSize)
+                .add("Current Queue Size", getQueueSize())
+                .add("Max Queue Size", maximumQueueSize)
+                .add("Active Thread Count", pool.getActiveThreadCount())
+                .add("Steal Count", pool.getStealCount())
+                .add("Rejected Task Count", rejectedTasks)
+                .add("Queue Wait Time", queueWaitTime.snapshot())
+                .add("Execution Time", executionTime.snapshot()).toString();
+    }
+
+    private final class MeteredTask implements Runnable {
+        private final Runnable delegate;
+        private final long submitted = System.nanoTime();
+
+        // Set by whoever gets to the task first, either a worker running it or shutdownNow() discarding it. Not
+        // private, so that the field updater can access it.
+        volatile int claimed;
+
+        MeteredTask(final Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        boolean claim() {
+            return CLAIMED_UPDATER.compareAndSet(this, 0, 1);
+        }
+
+        @Override
+        public void run() {
+            if (!claim()) {
+                // Discarded by shutdownNow()
+                return;
+            }
+            waitingTasks.remove(this);
+
+            final long started = System.nanoTime();
+            queueWaitTime.record(started - submitted);
+            try {
+                delegate.run();
+            } finally {
+                executionTime.record(System.nanoTime() - started);
+                PENDING_UPDATER.decrementAndGet(WorkStealingThreadPoolExecutor.this);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
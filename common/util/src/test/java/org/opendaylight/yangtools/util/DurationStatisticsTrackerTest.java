@@ -21,8 +21,22 @@ public class DurationStatisticsTrackerTest {
 
     @Test
     public void test() {
+        verifyTracker(DurationStatisticsTracker.createConcurrent());
+    }
+
+    @Test
+    public void testHistogram() {
+        final HistogramDurationStatisticsTracker tracker = DurationStatisticsTracker.createHistogram();
+        verifyTracker(tracker);
+
+        final LatencySnapshot snapshot = tracker.getSnapshotAndReset();
+        assertEquals("getTotalCount", 1, snapshot.getTotalCount());
+        assertEquals("getMedian", 10000, snapshot.getMedian());
+        assertEquals("getTotalDurations", 0, tracker.getTotalDurations());
+        assertEquals("getLongestDuration", 0, tracker.getLongestDuration());
+    }
 
-        DurationStatisticsTracker tracker = DurationStatisticsTracker.createConcurrent();
+    private static void verifyTracker(final DurationStatisticsTracker tracker) {
 
         tracker.addDuration(10000);
         assertEquals("getTotalDurations", 1, tracker.getTotalDurations());
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class LatencyRecorderTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[] { 0, 1, 31, 32, 33, 63, 64, 1000, 123456789, Long.MAX_VALUE / 3,
+                Long.MAX_VALUE }) {
+            final int index = LatencyRecorder.bucketIndex(value);
+            assertTrue(index < LatencyRecorder.BUCKET_COUNT);
+            assertTrue(value >= LatencyRecorder.lowestValue(index));
+            assertTrue(value <= LatencyRecorder.highestValue(index));
+
+            // Relative error is bounded by the sub-bucket resolution
+            final long width = LatencyRecorder.highestValue(index) - LatencyRecorder.lowestValue(index);
+            assertTrue(width <= value / LatencyRecorder.SUB_BUCKET_HALF_COUNT);
+        }
+
+        // Buckets are contiguous
+        for (int i = 1; i < LatencyRecorder.BUCKET_COUNT; ++i) {
+            assertEquals(LatencyRecorder.highestValue(i - 1) + 1, LatencyRecorder.lowestValue(i));
+        }
+        assertEquals(Long.MAX_VALUE, LatencyRecorder.highestValue(LatencyRecorder.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyRecorder recorder = LatencyRecorder.create(1);
+        for (int i = 1; i <= 1000; ++i) {
+            recorder.record(i * 1000L);
+        }
+
+        final LatencySnapshot snapshot = recorder.snapshot();
+        assertEquals(1000, snapshot.getTotalCount());
+        assertEquals(1000, snapshot.getMinValue());
+        assertEquals(1000000, snapshot.getMaxValue());
+        assertEquals(500500.0, snapshot.getMean(), 0.1);
+        assertWithin(1000, snapshot.getValueAtPercentile(0));
+        assertEquals(1000000, snapshot.getValueAtPercentile(100));
+        assertWithin(500000, snapshot.getMedian());
+        assertWithin(990000, snapshot.get99thPercentile());
+        assertWithin(999000, snapshot.get999thPercentile());
+    }
+
+    @Test
+    public void testReset() {
+        final LatencyRecorder recorder = LatencyRecorder.create();
+        assertEquals(0, recorder.snapshot().getTotalCount());
+        assertEquals(0, recorder.snapshot().getMedian());
+
+        recorder.record(5);
+        recorder.record(7);
+        final LatencySnapshot snapshot = recorder.snapshotAndReset();
+        assertEquals(2, snapshot.getTotalCount());
+        assertEquals(5, snapshot.getMinValue());
+        assertEquals(7, snapshot.getMaxValue());
+
+        final LatencySnapshot empty = recorder.snapshot();
+        assertEquals(0, empty.getTotalCount());
+        assertEquals(0, empty.getMinValue());
+        assertEquals(0, empty.getMaxValue());
+
+        recorder.record(3);
+        recorder.reset();
+        assertEquals(0, recorder.snapshot().getTotalCount());
+        assertEquals(0, LatencySnapshot.EMPTY.getTotalCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeDuration() {
+        LatencyRecorder.create().record(-1);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        final LatencyRecorder recorder = LatencyRecorder.create(4);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; ++i) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 1; j <= 10000; ++j) {
+                        recorder.record(j);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        final LatencySnapshot snapshot = recorder.snapshot();
+        assertEquals(80000, snapshot.getTotalCount());
+        assertEquals(1, snapshot.getMinValue());
+        assertEquals(10000, snapshot.getMaxValue());
+        assertEquals(5000.5, snapshot.getMean(), 0.1);
+    }
+
+    private static void assertWithin(final long expected, final long actual) {
+        assertTrue("Expected " + expected + ", actual " + actual,
+            Math.abs(expected - actual) <= expected / LatencyRecorder.SUB_BUCKET_HALF_COUNT);
+    }
+}
@@ -8,6 +8,7 @@
 package org.opendaylight.yangtools.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -19,6 +20,7 @@ import java.util.Map;
 import java.util.TreeMap;
 import org.junit.Before;
 import org.junit.Test;
+import org.opendaylight.yangtools.util.MapAdaptorStatistics.Representation;
 
 public class MapAdaptorTest {
     private MapAdaptor adaptor;
@@ -145,4 +147,143 @@ public class MapAdaptorTest {
         assertEquals(HashMap.class, opt2.getClass());
         assertEquals(4, opt2.size());
     }
+
+    @Test
+    public void testAdaptiveSmallMaps() {
+        final MapAdaptor adaptive = MapAdaptor.getAdaptiveInstance("small", 4, 10, 5);
+        assertTrue(adaptive.isAdaptive());
+        assertFalse(adaptor.isAdaptive());
+        assertFalse(adaptor.getStatistics().isPresent());
+
+        final Map<String, String> input = new HashMap<>();
+        assertSame(ImmutableMap.of(), adaptive.optimize(input));
+
+        input.put("a", "a");
+        final Map<String, String> opt1 = adaptive.optimize(input);
+        assertTrue(opt1 instanceof SharedSingletonMap);
+        assertEquals(input, opt1);
+
+        final Map<String, String> snap1 = adaptive.takeSnapshot(opt1);
+        assertTrue(snap1 instanceof MutableOffsetMap);
+        snap1.put("b", "b");
+        snap1.put("c", "c");
+        assertEquals(1, opt1.size());
+
+        final Map<String, String> opt2 = adaptive.optimize(snap1);
+        assertTrue(opt2 instanceof ImmutableOffsetMap);
+        assertEquals(snap1, opt2);
+
+        final Map<String, String> snap2 = adaptive.takeSnapshot(opt2);
+        assertTrue(snap2 instanceof MutableOffsetMap);
+        snap2.remove("a");
+        assertEquals(3, opt2.size());
+        assertEquals(2, snap2.size());
+
+        final MapAdaptorStatistics stats = adaptive.getStatistics().get();
+        assertEquals("small", stats.getCallSite());
+        assertEquals(3, stats.getOptimizeCount());
+        assertEquals(2, stats.getSnapshotCount());
+        assertEquals(1, stats.getDecisionCount(Representation.EMPTY));
+        assertEquals(1, stats.getDecisionCount(Representation.SINGLETON));
+        assertEquals(1, stats.getDecisionCount(Representation.OFFSET_MAP));
+        assertEquals(0, stats.getDecisionCount(Representation.HASH_MAP));
+        assertEquals(4.0 / 3, stats.getMeanSize(), 0.0001);
+    }
+
+    @Test
+    public void testAdaptiveWithoutOffsetMaps() {
+        final MapAdaptor adaptive = MapAdaptor.getAdaptiveInstance("keyed", 0, 10, 5);
+
+        final Map<String, String> input = new HashMap<>();
+        input.put("a", "a");
+        final Map<String, String> opt1 = adaptive.optimize(input);
+        assertTrue(opt1 instanceof SharedSingletonMap);
+
+        // Snapshots do not go through the offset map cache
+        final Map<String, String> snap1 = adaptive.takeSnapshot(opt1);
+        assertEquals(HashMap.class, snap1.getClass());
+        snap1.put("b", "b");
+        snap1.put("c", "c");
+
+        final Map<String, String> opt2 = adaptive.optimize(snap1);
+        assertEquals(HashMap.class, opt2.getClass());
+        assertEquals(snap1, opt2);
+
+        final MapAdaptorStatistics stats = adaptive.getStatistics().get();
+        assertEquals(0, stats.getDecisionCount(Representation.OFFSET_MAP));
+        assertEquals(1, stats.getDecisionCount(Representation.HASH_MAP));
+    }
+
+    @Test
+    public void testCallSiteInstance() {
+        // Adaptive selection is disabled by default
+        assertSame(MapAdaptor.getDefaultInstance(), MapAdaptor.getCallSiteInstance("call-site"));
+        assertSame(MapAdaptor.getDefaultInstance(), MapAdaptor.getCallSiteInstance("call-site", true));
+    }
+
+    @Test
+    public void testAdaptiveReadMostly() {
+        final MapAdaptor adaptive = MapAdaptor.getAdaptiveInstance("read-mostly", 4, 10, 5, 4);
+        final Map<String, String> input = alphabet();
+
+        // No mutation history: behaves like the static adaptor
+        assertEquals(1.0, adaptive.getStatistics().get().getMutationRate(), 0);
+        assertEquals(ReadOnlyTrieMap.class, adaptive.optimize(input).getClass());
+
+        // Fill the sample window without any snapshots, so the maps are deemed read-only
+        for (int i = 0; i < 3; ++i) {
+            adaptive.optimize(input);
+        }
+        assertEquals(0.0, adaptive.getStatistics().get().getMutationRate(), 0);
+
+        final Map<String, String> opt = adaptive.optimize(input);
+        assertEquals(HashMap.class, opt.getClass());
+        assertEquals(input, opt);
+
+        // Even a TrieMap is not retained
+        final Map<String, String> trie = new ReadWriteTrieMap<>();
+        trie.putAll(input);
+        assertEquals(HashMap.class, adaptive.optimize(trie).getClass());
+
+        final MapAdaptorStatistics stats = adaptive.getStatistics().get();
+        assertEquals(4, stats.getDecisionCount(Representation.TRIE_MAP));
+        assertEquals(2, stats.getDecisionCount(Representation.HASH_MAP));
+        assertEquals(26.0, stats.getMeanSize(), 0);
+    }
+
+    @Test
+    public void testAdaptiveWriteHeavy() {
+        final MapAdaptor adaptive = MapAdaptor.getAdaptiveInstance("write-heavy", 4, 60, 20, 4);
+        final Map<String, String> input = alphabet();
+
+        // 26 entries is well below the static cutoff
+        Map<String, String> opt = adaptive.optimize(input);
+        assertEquals(HashMap.class, opt.getClass());
+
+        // Each map gets snapshotted 3 times on average, hence we expect to copy 78 entries per map
+        for (int i = 0; i < 3; ++i) {
+            for (int j = 0; j < 4; ++j) {
+                adaptive.takeSnapshot(opt);
+            }
+            opt = adaptive.optimize(input);
+        }
+        assertEquals(3.0, adaptive.getStatistics().get().getMutationRate(), 0);
+
+        opt = adaptive.optimize(input);
+        assertEquals(ReadOnlyTrieMap.class, opt.getClass());
+
+        final Map<String, String> snap = adaptive.takeSnapshot(opt);
+        assertEquals(ReadWriteTrieMap.class, snap.getClass());
+        assertTrue(adaptive.initialSnapshot(26) instanceof ReadWriteTrieMap);
+        assertTrue(adaptor.initialSnapshot(4) instanceof HashMap);
+    }
+
+    private static Map<String, String> alphabet() {
+        final Map<String, String> ret = new TreeMap<>();
+        for (char c = 'a'; c <= 'z'; ++c) {
+            final String s = String.valueOf(c);
+            ret.put(s, s);
+        }
+        return ret;
+    }
 }
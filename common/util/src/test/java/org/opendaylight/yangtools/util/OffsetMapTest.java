@@ -15,7 +15,10 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import java.io.ByteArrayInputStream;
@@ -765,4 +768,40 @@ public class OffsetMapTest {
 
         assertEquals(source, result);
     }
+
+    @Test
+    public void testCacheStatistics() {
+        final CacheStats before = OffsetMapCache.getUnorderedCacheStats();
+        final ImmutableOffsetMap<String, String> first = unorderedMap();
+        final ImmutableOffsetMap<String, String> second = unorderedMap();
+        assertSame(first.offsets(), second.offsets());
+
+        final CacheStats delta = OffsetMapCache.getUnorderedCacheStats().minus(before);
+        assertEquals(1, delta.missCount());
+        assertEquals(1, delta.hitCount());
+        assertEquals(1, OffsetMapCache.getUnorderedCacheSize());
+
+        final CacheStats orderedBefore = OffsetMapCache.getOrderedCacheStats();
+        createMap();
+        createMap();
+        final CacheStats orderedDelta = OffsetMapCache.getOrderedCacheStats().minus(orderedBefore);
+        assertEquals(1, orderedDelta.missCount());
+        assertEquals(1, orderedDelta.hitCount());
+        assertEquals(1, OffsetMapCache.getOrderedCacheSize());
+    }
+
+    @Test
+    public void testWarmUp() {
+        assertEquals(2, OffsetMapCache.warmUp(ImmutableList.of(twoEntryMap.keySet(),
+            ImmutableList.of("k1", "k2", "k3", "k3"), ImmutableSet.of("k1"))));
+        assertEquals(2, OffsetMapCache.getUnorderedCacheSize());
+
+        // Already present
+        assertEquals(0, OffsetMapCache.warmUp(ImmutableList.of(ImmutableSet.of("k2", "k1"))));
+
+        final CacheStats before = OffsetMapCache.getUnorderedCacheStats();
+        unorderedMap();
+        ImmutableOffsetMap.unorderedCopyOf(threeEntryMap);
+        assertEquals(2, OffsetMapCache.getUnorderedCacheStats().minus(before).hitCount());
+    }
 }
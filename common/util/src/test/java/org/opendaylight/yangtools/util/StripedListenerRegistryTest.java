@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.EventListener;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.Test;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManager.Invoker;
+
+public class StripedListenerRegistryTest {
+    private static class TestListener implements EventListener {
+        final AtomicInteger count = new AtomicInteger();
+        final Set<String> threads = new HashSet<>();
+
+        void onNotification(final int value) {
+            count.addAndGet(value);
+            synchronized (threads) {
+                threads.add(Thread.currentThread().getName());
+            }
+        }
+    }
+
+    private static final Invoker<TestListener, Integer> INVOKER = new Invoker<TestListener, Integer>() {
+        @Override
+        public void invokeListener(final TestListener listener, final Integer notification) {
+            listener.onNotification(notification);
+        }
+    };
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegisterNull() {
+        StripedListenerRegistry.<TestListener>create().register(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testRegisterWithTypeNull() {
+        StripedListenerRegistry.<TestListener>create().registerWithType(null);
+    }
+
+    @Test
+    public void testRegisterUnregister() {
+        final StripedListenerRegistry<TestListener> registry = StripedListenerRegistry.create(3);
+        assertTrue(registry.isEmpty());
+        assertTrue(Iterables.isEmpty(registry.getListeners()));
+
+        final TestListener first = new TestListener();
+        final TestListener second = new TestListener();
+        final ListenerRegistration<TestListener> firstReg = registry.register(first);
+        final ListenerRegistration<TestListener> secondReg = registry.register(second);
+        assertEquals(2, registry.size());
+        assertFalse(registry.isEmpty());
+        assertEquals(ImmutableSet.of(firstReg, secondReg), ImmutableSet.copyOf(registry));
+
+        firstReg.close();
+        assertEquals(1, registry.size());
+        assertEquals(secondReg, Iterables.getOnlyElement(registry));
+
+        // Double close is harmless
+        firstReg.close();
+        secondReg.close();
+        assertTrue(registry.isEmpty());
+    }
+
+    @Test
+    public void testNotifyListeners() {
+        final StripedListenerRegistry<TestListener> registry = StripedListenerRegistry.create();
+        final TestListener listener = new TestListener();
+        registry.register(listener);
+        registry.register(new TestListener() {
+            @Override
+            void onNotification(final int value) {
+                throw new IllegalStateException("Mock failure");
+            }
+        });
+        registry.register(listener);
+
+        registry.notifyListeners(INVOKER, 5);
+        assertEquals(10, listener.count.get());
+
+        final List<ListenerRegistration<TestListener>> seen = new ArrayList<>();
+        registry.forEach(new Consumer<ListenerRegistration<TestListener>>() {
+            @Override
+            public void accept(final ListenerRegistration<TestListener> reg) {
+                seen.add(reg);
+            }
+        });
+        assertEquals(3, seen.size());
+    }
+
+    @Test(timeout = 10000)
+    public void testParallelNotify() throws Exception {
+        final StripedListenerRegistry<TestListener> registry = StripedListenerRegistry.create();
+        final List<TestListener> listeners = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            final TestListener listener = new TestListener();
+            listeners.add(listener);
+            registry.register(listener);
+        }
+
+        // Below threshold: invoked inline
+        final ListenableFuture<Void> inline = registry.notifyListeners(INVOKER, 1, MoreExecutors.directExecutor(),
+            10);
+        assertTrue(inline.isDone());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            registry.notifyListeners(INVOKER, 2, executor, 3).get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final Set<String> threads = new HashSet<>();
+        for (TestListener l : listeners) {
+            assertEquals(3, l.count.get());
+            threads.addAll(l.threads);
+        }
+        assertTrue(threads.size() > 1);
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentRegistration() throws Exception {
+        final StripedListenerRegistry<TestListener> registry = StripedListenerRegistry.create(4);
+        final int threadCount = 8;
+        final int perThread = 1000;
+        final CountDownLatch done = new CountDownLatch(threadCount);
+        final List<ListenerRegistration<TestListener>> retained = new ArrayList<>();
+
+        for (int t = 0; t < threadCount; ++t) {
+            new Thread() {
+                @Override
+                public void run() {
+                    final List<ListenerRegistration<TestListener>> regs = new ArrayList<>();
+                    for (int i = 0; i < perThread; ++i) {
+                        regs.add(registry.register(new TestListener()));
+                        // Keep iterating while modifying
+                        registry.notifyListeners(INVOKER, 0);
+                    }
+                    for (int i = 0; i < perThread; i += 2) {
+                        regs.get(i).close();
+                    }
+                    synchronized (retained) {
+                        for (int i = 1; i < perThread; i += 2) {
+                            retained.add(regs.get(i));
+                        }
+                    }
+                    done.countDown();
+                }
+            }.start();
+        }
+
+        done.await();
+        assertEquals(threadCount * perThread / 2, registry.size());
+        assertEquals(ImmutableSet.copyOf(retained), ImmutableSet.copyOf(registry));
+    }
+}
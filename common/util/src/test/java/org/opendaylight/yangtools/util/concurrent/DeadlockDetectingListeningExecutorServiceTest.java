@@ -216,6 +216,16 @@ public class DeadlockDetectingListeningExecutorServiceTest {
         assertEquals( "Caught exception type", TestDeadlockException.class, caughtEx.get().getClass() );
     }
 
+    @Test
+    public void testBlockingSubmitOnVirtualThreadExecutor() throws Exception {
+
+        executor = SpecialExecutors.newDeadlockDetectingVirtualThreadExecutor( 1, 100, "TestPool",
+                DEADLOCK_EXECUTOR_SUPPLIER );
+
+        testBlockingSubmitOnExecutorThread( SUBMIT, SUBMIT_CALLABLE );
+        testBlockingSubmitOnExecutorThread( EXECUTE, SUBMIT_RUNNABLE );
+    }
+
     @Test
     public void testListenableFutureCallbackWithExecutor() throws InterruptedException {
 
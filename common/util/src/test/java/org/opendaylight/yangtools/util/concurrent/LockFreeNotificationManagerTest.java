@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManagerTest.TestBatchedNotifier;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManagerTest.TestListener;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManagerTest.TestNotifier;
+
+/**
+ * Unit tests for LockFreeNotificationManager.
+ */
+public class LockFreeNotificationManagerTest {
+
+    private ExecutorService queueExecutor;
+
+    @After
+    public void tearDown() {
+        if (queueExecutor != null) {
+            queueExecutor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testNotificationsWithSingleListener() {
+        queueExecutor = Executors.newFixedThreadPool(2);
+        final LockFreeNotificationManager<TestListener<Integer>, Integer> manager =
+                new LockFreeNotificationManager<>(queueExecutor, new TestNotifier<>(), 10, "TestMgr");
+
+        final int initialCount = 6;
+        final int nNotifications = 100;
+
+        final TestListener<Integer> listener = new TestListener<>(nNotifications, 1);
+        listener.sleepTime = 20;
+
+        manager.submitNotifications(listener, Arrays.asList(1, 2));
+        manager.submitNotification(listener, 3);
+        manager.submitNotifications(listener, Arrays.asList(4, 5));
+        manager.submitNotification(listener, 6);
+
+        manager.submitNotifications(null, Collections.emptyList());
+        manager.submitNotifications(listener, null);
+        manager.submitNotification(listener, null);
+
+        Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+
+        listener.sleepTime = 0;
+
+        final List<Integer> expNotifications = Lists.newArrayListWithCapacity(nNotifications);
+        expNotifications.addAll(Arrays.asList(1, 2, 3, 4, 5, 6));
+        for (int i = 1; i <= nNotifications - initialCount; i++) {
+            final Integer v = Integer.valueOf(initialCount + i);
+            expNotifications.add(v);
+            manager.submitNotification(listener, v);
+        }
+
+        listener.verifyNotifications(expNotifications);
+    }
+
+    @Test(timeout = 10000)
+    public void testFullQueueWaitsForListener() {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final LockFreeNotificationManager<TestListener<Integer>, Integer> manager =
+                new LockFreeNotificationManager<>(queueExecutor, new TestNotifier<>(), 2, "TestMgr");
+
+        final TestListener<Integer> listener = new TestListener<>(20, 1);
+        listener.sleepTime = 5;
+
+        final List<Integer> expNotifications = Lists.newArrayList();
+        for (int i = 1; i <= 20; i++) {
+            expNotifications.add(i);
+        }
+
+        // Submitting more notifications than the queue can hold in one go must not deadlock
+        manager.submitNotifications(listener, expNotifications);
+        listener.verifyNotifications(expNotifications);
+    }
+
+    @Test(timeout = 10000)
+    public void testQueueRetiredWhenDrained() {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final LockFreeNotificationManager<TestListener<Integer>, Integer> manager =
+                new LockFreeNotificationManager<>(queueExecutor, new TestNotifier<>(), 10, "TestMgr");
+
+        final TestListener<Integer> listener = new TestListener<>(3, 1);
+        manager.submitNotifications(listener, Arrays.asList(1, 2, 3));
+        listener.verifyNotifications(Arrays.asList(1, 2, 3));
+
+        while (!manager.getListenerNotificationQueueStats().isEmpty()) {
+            Uninterruptibles.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
+        }
+
+        // A new queue is created for subsequent notifications
+        listener.reset(2);
+        manager.submitNotifications(listener, Arrays.asList(4, 5));
+        listener.verifyNotifications(Arrays.asList(4, 5));
+    }
+
+    @Test(timeout = 10000)
+    public void testQueueRetiredBySubmitter() {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final LockFreeNotificationManager<TestListener<Integer>, Integer> manager =
+                new LockFreeNotificationManager<>(queueExecutor, new TestNotifier<>(), 10, "TestMgr");
+        final TestListener<Integer> listener = new TestListener<>(1, 1);
+
+        // A submitter which does not enqueue anything must not leave its queue behind
+        manager.submitNotifications(listener, Collections.emptyList());
+        assertEquals(0, manager.getListenerNotificationQueueStats().size());
+
+        // The dispatch task drains the queue while the submitter is still active, hence it cannot retire it
+        manager.submitNotifications(listener, () -> new Iterator<Integer>() {
+            private boolean done;
+
+            @Override
+            public boolean hasNext() {
+                if (done) {
+                    listener.verifyNotifications(Collections.singletonList(1));
+                    Uninterruptibles.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                done = true;
+                return 1;
+            }
+        });
+
+        // ... and the submitter retires it on its way out
+        assertEquals(0, manager.getListenerNotificationQueueStats().size());
+    }
+
+    @Test(timeout = 10000)
+    public void testBatchedNotifications() {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final TestBatchedNotifier<Integer> notifier = new TestBatchedNotifier<>();
+        final LockFreeNotificationManager<TestListener<Integer>, Integer> manager =
+                new LockFreeNotificationManager<>(queueExecutor, notifier, 32, 4, "TestMgr");
+        assertEquals(4, manager.getMaxBatchSize());
+
+        final TestListener<Integer> listener = new TestListener<>(20, 1);
+        listener.sleepTime = 10;
+
+        final List<Integer> expNotifications = Lists.newArrayList();
+        for (int i = 1; i <= 20; i++) {
+            expNotifications.add(i);
+        }
+
+        // Notifications queue up while the listener is busy and are then delivered in batches
+        manager.submitNotifications(listener, expNotifications);
+
+        listener.verifyNotifications(expNotifications);
+        notifier.verifyBatchSizes(4);
+    }
+
+    @Test
+    public void testNotificationsWithMultipleListeners() {
+        final int nListeners = 10;
+        queueExecutor = Executors.newFixedThreadPool(nListeners);
+        final ExecutorService stagingExecutor = Executors.newFixedThreadPool(nListeners);
+        final LockFreeNotificationManager<TestListener<Integer>, Integer> manager =
+                new LockFreeNotificationManager<>(queueExecutor, new TestNotifier<>(), 5000, "TestMgr");
+
+        final int nNotifications = 100000;
+
+        System.out.println("Testing " + nListeners + " listeners with " + nNotifications + " notifications each...");
+
+        final Integer[] notifications = new Integer[nNotifications];
+        for (int i = 1; i <= nNotifications; i++) {
+            notifications[i - 1] = Integer.valueOf(i);
+        }
+
+        final Stopwatch stopWatch = Stopwatch.createStarted();
+
+        final List<TestListener<Integer>> listeners = Lists.newArrayList();
+        for (int i = 1; i <= nListeners; i++) {
+            final TestListener<Integer> listener = new TestListener<>(nNotifications, i);
+            listeners.add(listener);
+
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 1; j <= nNotifications; j++) {
+                        final Integer n = notifications[j - 1];
+                        stagingExecutor.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                manager.submitNotification(listener, n);
+                            }
+                        });
+                    }
+                }
+            }).start();
+        }
+
+        try {
+            for (TestListener<Integer> listener : listeners) {
+                listener.verifyNotifications();
+                System.out.println(listener.name + " succeeded");
+            }
+        } finally {
+            stagingExecutor.shutdownNow();
+        }
+
+        stopWatch.stop();
+
+        System.out.println("Elapsed time: " + stopWatch);
+        System.out.println(queueExecutor);
+    }
+
+    @Test(timeout = 10000)
+    public void testNotificationsWithListenerRuntimeEx() {
+        queueExecutor = Executors.newFixedThreadPool(1);
+        final LockFreeNotificationManager<TestListener<Integer>, Integer> manager =
+                new LockFreeNotificationManager<>(queueExecutor, new TestNotifier<>(), 10, "TestMgr");
+
+        final TestListener<Integer> listener = new TestListener<>(2, 1);
+        listener.runtimeEx = new RuntimeException("mock");
+
+        manager.submitNotification(listener, 1);
+        manager.submitNotification(listener, 2);
+
+        listener.verifyNotifications();
+    }
+
+    @Test(timeout = 10000)
+    public void testNotificationsWithListenerJVMError() {
+        final CountDownLatch errorCaughtLatch = new CountDownLatch(1);
+        queueExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>()) {
+            @Override
+            public void execute(final Runnable command) {
+                super.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            command.run();
+                        } catch (Error e) {
+                            errorCaughtLatch.countDown();
+                        }
+                    }
+                });
+            }
+        };
+
+        final LockFreeNotificationManager<TestListener<Integer>, Integer> manager =
+                new LockFreeNotificationManager<>(queueExecutor, new TestNotifier<>(), 10, "TestMgr");
+
+        final TestListener<Integer> listener = new TestListener<>(2, 1);
+        listener.jvmError = new Error("mock");
+
+        manager.submitNotification(listener, 1);
+
+        assertEquals("JVM Error caught", true, Uninterruptibles.awaitUninterruptibly(errorCaughtLatch, 5,
+            TimeUnit.SECONDS));
+
+        manager.submitNotification(listener, 2);
+
+        listener.verifyNotifications();
+    }
+}
@@ -9,8 +9,10 @@
 package org.opendaylight.yangtools.util.concurrent;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import com.google.common.base.Function;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.Uninterruptibles;
@@ -21,6 +23,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import org.junit.After;
@@ -132,6 +135,53 @@ public class QueuedNotificationManagerTest {
         }
     }
 
+    static class TestBatchedNotifier<N> implements QueuedNotificationManager.BatchedInvoker<TestListener<N>,N> {
+
+        final List<Integer> batchSizes = Collections.synchronizedList( Lists.newArrayList() );
+
+        @Override
+        public void invokeListener( TestListener<N> listener, List<N> notifications ) {
+            batchSizes.add( notifications.size() );
+            for (N notification : notifications) {
+                listener.onNotification( notification );
+            }
+        }
+
+        void verifyBatchSizes( int maxBatchSize ) {
+            int max = 0;
+            for (int size : batchSizes) {
+                assertTrue( "Empty batch", size > 0 );
+                max = Math.max( max, size );
+            }
+
+            assertTrue( "Batch size " + max + " exceeds " + maxBatchSize, max <= maxBatchSize );
+            assertTrue( "Notifications were not batched", max > 1 );
+        }
+    }
+
+    /**
+     * Notifier which blocks in the first invocation until released, so that notifications back up.
+     */
+    static class BlockingNotifier<N> extends TestNotifier<N> {
+
+        final CountDownLatch blocked = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+
+        @Override
+        public void invokeListener( TestListener<N> listener, N notification ) {
+            blocked.countDown();
+            Uninterruptibles.awaitUninterruptibly( release );
+            super.invokeListener( listener, notification );
+        }
+    }
+
+    private static final Function<Integer, Integer> PARITY = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply( Integer input ) {
+            return input % 2;
+        }
+    };
+
     private ExecutorService queueExecutor;
 
     @After
@@ -295,4 +345,193 @@ public class QueuedNotificationManagerTest {
 
         listener.verifyNotifications();
     }
+
+    @Test(timeout=10000)
+    public void testBatchedNotifications() {
+
+        queueExecutor = Executors.newFixedThreadPool( 1 );
+        TestBatchedNotifier<Integer> notifier = new TestBatchedNotifier<>();
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager =
+                new QueuedNotificationManager<>( queueExecutor, notifier, 20, 4, "TestMgr" );
+        assertEquals( 4, manager.getMaxBatchSize() );
+
+        TestListener<Integer> listener = new TestListener<>( 20, 1 );
+        listener.sleepTime = 10;
+
+        List<Integer> expNotifications = Lists.newArrayList();
+        for (int i = 1; i <= 20; i++) {
+            expNotifications.add( i );
+        }
+
+        // Notifications queue up while the listener is busy and are then delivered in batches
+        manager.submitNotifications( listener, expNotifications );
+
+        listener.verifyNotifications( expNotifications );
+        notifier.verifyBatchSizes( 4 );
+    }
+
+    private QueuedNotificationManager<TestListener<Integer>, Integer> testOverflow(
+            NotificationOverflowPolicy<Integer> policy, List<Integer> submitted,
+            List<Integer> expected ) {
+
+        queueExecutor = Executors.newFixedThreadPool( 1 );
+        BlockingNotifier<Integer> notifier = new BlockingNotifier<>();
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager =
+                new QueuedNotificationManager<>( queueExecutor, notifier, 2, policy, "TestMgr" );
+        assertEquals( policy, manager.getOverflowPolicy() );
+
+        List<Integer> expNotifications = Lists.newArrayList( 0 );
+        expNotifications.addAll( expected );
+        TestListener<Integer> listener = new TestListener<>( expNotifications.size(), 1 );
+
+        // Wait for the first notification to be picked up so the queue is empty when we start
+        manager.submitNotification( listener, 0 );
+        Uninterruptibles.awaitUninterruptibly( notifier.blocked );
+
+        try {
+            for (Integer notification : submitted) {
+                manager.submitNotification( listener, notification );
+            }
+        } finally {
+            notifier.release.countDown();
+        }
+
+        listener.verifyNotifications( expNotifications );
+        return manager;
+    }
+
+    @Test(timeout=10000)
+    public void testOverflowDropNewest() {
+
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager = testOverflow(
+                NotificationOverflowPolicy.<Integer>dropNewest(), Arrays.asList( 1, 2, 3, 4 ),
+                Arrays.asList( 1, 2 ) );
+
+        assertEquals( 2, manager.getOverflowedNotificationCount() );
+        assertEquals( 2, manager.getDroppedNotificationCount() );
+    }
+
+    @Test(timeout=10000)
+    public void testOverflowDropOldest() {
+
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager = testOverflow(
+                NotificationOverflowPolicy.<Integer>dropOldest(), Arrays.asList( 1, 2, 3, 4 ),
+                Arrays.asList( 3, 4 ) );
+
+        assertEquals( 2, manager.getOverflowedNotificationCount() );
+        assertEquals( 2, manager.getDroppedNotificationCount() );
+    }
+
+    @Test(timeout=10000)
+    public void testOverflowCoalesce() {
+
+        // 3 replaces 1, 5 replaces 3
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager = testOverflow(
+                NotificationOverflowPolicy.coalesceBy( PARITY ), Arrays.asList( 1, 2, 3, 5 ),
+                Arrays.asList( 2, 5 ) );
+
+        assertEquals( 2, manager.getOverflowedNotificationCount() );
+        assertEquals( 2, manager.getDroppedNotificationCount() );
+    }
+
+    @Test(timeout=10000)
+    public void testOverflowSpill() {
+
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager = testOverflow(
+                NotificationOverflowPolicy.<Integer>spill(), Arrays.asList( 1, 2, 3, 4, 5, 6 ),
+                Arrays.asList( 1, 2, 3, 4, 5, 6 ) );
+
+        assertEquals( 4, manager.getOverflowedNotificationCount() );
+        assertEquals( 0, manager.getDroppedNotificationCount() );
+    }
+
+    @Test(timeout=10000)
+    public void testOverflowFailFast() {
+
+        queueExecutor = Executors.newFixedThreadPool( 1 );
+        BlockingNotifier<Integer> notifier = new BlockingNotifier<>();
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager =
+                new QueuedNotificationManager<>( queueExecutor, notifier, 2,
+                        NotificationOverflowPolicy.<Integer>failFast(), "TestMgr" );
+
+        TestListener<Integer> listener = new TestListener<>( 3, 1 );
+        manager.submitNotification( listener, 0 );
+        Uninterruptibles.awaitUninterruptibly( notifier.blocked );
+
+        manager.submitNotifications( listener, Arrays.asList( 1, 2 ) );
+        try {
+            manager.submitNotification( listener, 3 );
+            fail( "Expected RejectedExecutionException" );
+        } catch (RejectedExecutionException e) {
+            // Expected
+        } finally {
+            notifier.release.countDown();
+        }
+
+        listener.verifyNotifications( Arrays.asList( 0, 1, 2 ) );
+        assertEquals( 1, manager.getOverflowedNotificationCount() );
+        assertEquals( 1, manager.getDroppedNotificationCount() );
+    }
+
+    @Test(timeout=10000)
+    public void testOverflowFailFastBatch() {
+
+        queueExecutor = Executors.newFixedThreadPool( 1 );
+        BlockingNotifier<Integer> notifier = new BlockingNotifier<>();
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager =
+                new QueuedNotificationManager<>( queueExecutor, notifier, 2,
+                        NotificationOverflowPolicy.<Integer>failFast(), "TestMgr" );
+
+        TestListener<Integer> listener = new TestListener<>( 2, 1 );
+        manager.submitNotification( listener, 0 );
+        Uninterruptibles.awaitUninterruptibly( notifier.blocked );
+
+        // Only one of the two notifications fits, the batch has to be rejected as a whole
+        manager.submitNotification( listener, 1 );
+        try {
+            manager.submitNotifications( listener, Arrays.asList( 2, 3 ) );
+            fail( "Expected RejectedExecutionException" );
+        } catch (RejectedExecutionException e) {
+            // Expected
+        } finally {
+            notifier.release.countDown();
+        }
+
+        listener.verifyNotifications( Arrays.asList( 0, 1 ) );
+        assertEquals( 1, manager.getOverflowedNotificationCount() );
+        assertEquals( 2, manager.getDroppedNotificationCount() );
+    }
+
+    @Test(timeout=10000)
+    public void testNewTaskOverflowDropNewest() {
+
+        queueExecutor = Executors.newFixedThreadPool( 1 );
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager =
+                new QueuedNotificationManager<>( queueExecutor, new TestNotifier<>(), 2,
+                        NotificationOverflowPolicy.<Integer>dropNewest(), "TestMgr" );
+
+        // The task is not running yet when the batch is queued, hence it overflows deterministically
+        TestListener<Integer> listener = new TestListener<>( 2, 1 );
+        manager.submitNotifications( listener, Arrays.asList( 1, 2, 3, 4 ) );
+
+        listener.verifyNotifications( Arrays.asList( 1, 2 ) );
+        assertEquals( 2, manager.getOverflowedNotificationCount() );
+        assertEquals( 2, manager.getDroppedNotificationCount() );
+    }
+
+    @Test(timeout=10000)
+    public void testNewTaskBatchExceedingCapacity() {
+
+        queueExecutor = Executors.newFixedThreadPool( 1 );
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager =
+                new QueuedNotificationManager<>( queueExecutor, new TestNotifier<>(), 2, "TestMgr" );
+
+        // The submitter waits for the new task to make room in its queue
+        List<Integer> expNotifications = Arrays.asList( 1, 2, 3, 4, 5, 6, 7, 8 );
+        TestListener<Integer> listener = new TestListener<>( expNotifications.size(), 1 );
+        manager.submitNotifications( listener, expNotifications );
+
+        listener.verifyNotifications( expNotifications );
+        assertEquals( 0, manager.getOverflowedNotificationCount() );
+    }
 }
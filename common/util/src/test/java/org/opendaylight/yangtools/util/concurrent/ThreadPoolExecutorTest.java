@@ -8,9 +8,13 @@
 package org.opendaylight.yangtools.util.concurrent;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -18,6 +22,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.After;
@@ -94,6 +99,204 @@ public class ThreadPoolExecutorTest {
                 1000, null, 10 );
     }
 
+    @Test
+    public void testWorkStealingPoolExecution() throws Exception {
+
+        WorkStealingThreadPoolExecutor pool =
+                SpecialExecutors.newBoundedWorkStealingPool( 50, 100000, "TestPool" );
+        testThreadPoolExecution( pool, 100000, "TestPool", 0 );
+
+        assertEquals( "getRejectedTaskCount", 0, pool.getRejectedTaskCount() );
+        assertEquals( "Queue wait time count", 100000, pool.getQueueWaitTime().getTotalCount() );
+
+        // Execution time is recorded after the task has signalled completion
+        while (pool.getExecutionTime().getTotalCount() < 100000) {
+            Thread.yield();
+        }
+
+        pool.resetMetrics();
+        assertEquals( "Execution time count", 0, pool.getExecutionTime().getTotalCount() );
+    }
+
+    @Test
+    public void testWorkStealingPoolRejectingTask() throws Exception {
+
+        WorkStealingThreadPoolExecutor pool =
+                SpecialExecutors.newBoundedWorkStealingPool( 1, 1, "TestPool" );
+        executor = pool;
+
+        CountDownLatch blockLatch = new CountDownLatch( 1 );
+        executor.execute( new Task( null, blockLatch ) );
+        executor.execute( new Task( null, blockLatch ) );
+
+        try {
+            executor.execute( new Task( null, blockLatch ) );
+            fail( "Expected RejectedExecutionException" );
+        } catch (RejectedExecutionException e) {
+            // Expected
+        } finally {
+            blockLatch.countDown();
+        }
+
+        assertEquals( "getRejectedTaskCount", 1, pool.getRejectedTaskCount() );
+
+        pool.resetMetrics();
+        assertEquals( "getRejectedTaskCount", 0, pool.getRejectedTaskCount() );
+    }
+
+    @Test
+    public void testWorkStealingPoolShutdownNow() throws Exception {
+
+        WorkStealingThreadPoolExecutor pool =
+                SpecialExecutors.newBoundedWorkStealingPool( 1, 10, "TestPool" );
+        executor = pool;
+
+        final CountDownLatch startedLatch = new CountDownLatch( 1 );
+        final CountDownLatch blockLatch = new CountDownLatch( 1 );
+        executor.execute( new Runnable() {
+            @Override
+            public void run() {
+                startedLatch.countDown();
+                Uninterruptibles.awaitUninterruptibly( blockLatch );
+            }
+        } );
+        assertTrue( "Blocking task started", startedLatch.await( 5, TimeUnit.SECONDS ) );
+
+        final List<Runnable> waiting = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    fail( "Task should have been discarded" );
+                }
+            };
+            waiting.add( task );
+            executor.execute( task );
+        }
+        assertEquals( "getPendingTaskCount", 4, pool.getPendingTaskCount() );
+
+        assertEquals( "Discarded tasks", waiting, pool.shutdownNow() );
+        assertEquals( "getPendingTaskCount", 1, pool.getPendingTaskCount() );
+
+        blockLatch.countDown();
+        assertTrue( "Executor terminated", pool.awaitTermination( 5, TimeUnit.SECONDS ) );
+        assertEquals( "getPendingTaskCount", 0, pool.getPendingTaskCount() );
+    }
+
+    @Test
+    public void testBlockingWorkStealingPoolExecution() throws Exception {
+
+        testThreadPoolExecution(
+                SpecialExecutors.newBlockingBoundedWorkStealingPool( 2, 1, "TestPool" ),
+                1000, null, 10 );
+    }
+
+    @Test
+    public void testVirtualThreadExecution() throws Exception {
+
+        testThreadPoolExecution(
+                SpecialExecutors.newBoundedVirtualThreadExecutor( 10, 100000, "TestPool" ),
+                100000, "TestPool", 0 );
+    }
+
+    @Test
+    public void testVirtualThreadConcurrencyLimit() throws Exception {
+
+        executor = SpecialExecutors.newBoundedVirtualThreadExecutor( 2, 100, "TestPool" );
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch tasksRunLatch = new CountDownLatch( 20 );
+        for (int i = 0; i < 20; i++) {
+            executor.execute( new Runnable() {
+                @Override
+                public void run() {
+                    final int current = running.incrementAndGet();
+                    int max;
+                    do {
+                        max = maxRunning.get();
+                    } while (current > max && !maxRunning.compareAndSet( max, current ));
+
+                    Uninterruptibles.sleepUninterruptibly( 5, TimeUnit.MILLISECONDS );
+                    running.decrementAndGet();
+                    tasksRunLatch.countDown();
+                }
+            } );
+        }
+
+        assertTrue( "Tasks did not complete", tasksRunLatch.await( 5, TimeUnit.SECONDS ) );
+        assertTrue( "Concurrency limit exceeded: " + maxRunning.get(), maxRunning.get() <= 2 );
+    }
+
+    @Test
+    public void testVirtualThreadExecutionOrder() throws Exception {
+
+        executor = SpecialExecutors.newBoundedVirtualThreadExecutor( 1, 100, "TestPool" );
+
+        // Keep submitting while earlier tasks execute, so later tasks compete with the waiting ones for a permit
+        final CountDownLatch tasksRunLatch = new CountDownLatch( 100 );
+        final List<Integer> executed = new ArrayList<>();
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final int index = i;
+            expected.add( index );
+            executor.execute( new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (executed) {
+                        executed.add( index );
+                    }
+                    // Busy-wait, so newly-submitted tasks get scheduled while we hold the permit
+                    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( 1 );
+                    while (System.nanoTime() < deadline) {
+                        // Spin
+                    }
+                    tasksRunLatch.countDown();
+                }
+            } );
+            Uninterruptibles.sleepUninterruptibly( 500, TimeUnit.MICROSECONDS );
+        }
+
+        assertTrue( "Tasks did not complete", tasksRunLatch.await( 5, TimeUnit.SECONDS ) );
+        synchronized (executed) {
+            assertEquals( "Execution order", expected, executed );
+        }
+    }
+
+    @Test
+    public void testVirtualThreadShutdownNow() throws Exception {
+
+        executor = SpecialExecutors.newBoundedVirtualThreadExecutor( 1, 10, "TestPool" );
+
+        final CountDownLatch startedLatch = new CountDownLatch( 1 );
+        final CountDownLatch blockLatch = new CountDownLatch( 1 );
+        executor.execute( new Runnable() {
+            @Override
+            public void run() {
+                startedLatch.countDown();
+                Uninterruptibles.awaitUninterruptibly( blockLatch );
+            }
+        } );
+        assertTrue( "Blocking task started", startedLatch.await( 5, TimeUnit.SECONDS ) );
+
+        final List<Runnable> waiting = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    fail( "Task should have been discarded" );
+                }
+            };
+            waiting.add( task );
+            executor.execute( task );
+        }
+
+        assertEquals( "Discarded tasks", waiting, executor.shutdownNow() );
+
+        blockLatch.countDown();
+        assertTrue( "Executor terminated", executor.awaitTermination( 5, TimeUnit.SECONDS ) );
+    }
+
     void testThreadPoolExecution( final ExecutorService executor,
             final int numTasksToRun, final String expThreadPrefix, final long taskDelay ) throws Exception {
 
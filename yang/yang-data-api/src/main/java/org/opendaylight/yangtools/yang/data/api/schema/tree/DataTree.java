@@ -7,6 +7,7 @@
  */
 package org.opendaylight.yangtools.yang.data.api.schema.tree;
 
+import com.google.common.annotations.Beta;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
@@ -37,6 +38,28 @@ public interface DataTree extends DataTreeTip {
      */
     void commit(DataTreeCandidate candidate);
 
+    /**
+     * Commit a data tree candidate, optimistically rebasing it onto the current state of the tree if other
+     * candidates have been committed since it was prepared. The rebase succeeds if the modification from which
+     * the candidate was prepared does not conflict with the changes committed in the meantime, in which case it
+     * is reapplied onto the current state. Once a candidate has been rebased, the original candidate must not
+     * be used anymore.
+     *
+     * <p>
+     * The default implementation does not support rebasing and defers to {@link #commit(DataTreeCandidate)}.
+     *
+     * @param candidate data tree candidate
+     * @return The candidate which has actually been committed, which is either the original candidate or its
+     *         rebased equivalent.
+     * @throws DataValidationFailedException if the candidate conflicts with changes committed since it was
+     *         prepared
+     */
+    @Beta
+    default DataTreeCandidate rebaseAndCommit(final DataTreeCandidate candidate) throws DataValidationFailedException {
+        commit(candidate);
+        return candidate;
+    }
+
     /**
      * Get the root path of this data tree.
      *
@@ -19,6 +19,8 @@ import org.opendaylight.yangtools.concepts.Immutable;
  * <li>treeType</li>
  * <li>enable/disable unique indexes and unique constraint validation</li>
  * <li>enable/disable mandatory nodes validation</li>
+ * <li>threshold for applying child modifications in parallel</li>
+ * <li>threshold for storing node children in a persistent structure</li>
  * </ul>
  *
  * TreeConfig can be easily extended in order to support further data tree
@@ -36,19 +38,24 @@ import org.opendaylight.yangtools.concepts.Immutable;
 @Beta
 public class DataTreeConfiguration implements Immutable {
     public static final DataTreeConfiguration DEFAULT_CONFIGURATION = new DataTreeConfiguration(TreeType.CONFIGURATION,
-            false, true);
+            false, true, 0, 0);
     public static final DataTreeConfiguration DEFAULT_OPERATIONAL = new DataTreeConfiguration(TreeType.OPERATIONAL,
-            false, true);
+            false, true, 0, 0);
 
     private final TreeType treeType;
     private final boolean uniqueIndexes;
     private final boolean mandatoryNodesValidation;
+    private final int parallelApplyThreshold;
+    private final int persistentChildrenThreshold;
 
     private DataTreeConfiguration(final TreeType treeType, final boolean uniqueIndexes,
-            final boolean mandatoryNodesValidation) {
+            final boolean mandatoryNodesValidation, final int parallelApplyThreshold,
+            final int persistentChildrenThreshold) {
         this.treeType = Preconditions.checkNotNull(treeType);
         this.uniqueIndexes = uniqueIndexes;
         this.mandatoryNodesValidation = mandatoryNodesValidation;
+        this.parallelApplyThreshold = parallelApplyThreshold;
+        this.persistentChildrenThreshold = persistentChildrenThreshold;
     }
 
     public TreeType getTreeType() {
@@ -63,6 +70,27 @@ public class DataTreeConfiguration implements Immutable {
         return mandatoryNodesValidation;
     }
 
+    /**
+     * Return the minimum number of child modifications of a single node, which triggers them to be applied
+     * in parallel. A value of zero indicates modifications are always applied sequentially.
+     *
+     * @return Parallel apply threshold, non-negative.
+     */
+    public int getParallelApplyThreshold() {
+        return parallelApplyThreshold;
+    }
+
+    /**
+     * Return the minimum number of children of a single node, which causes them to be tracked in a persistent
+     * hash trie. Such nodes can be modified without copying all of their children. A value of zero indicates
+     * the default representation is used.
+     *
+     * @return Persistent children threshold, non-negative.
+     */
+    public int getPersistentChildrenThreshold() {
+        return persistentChildrenThreshold;
+    }
+
     public static DataTreeConfiguration getDefault(final TreeType treeType) {
         Preconditions.checkNotNull(treeType);
         switch (treeType) {
@@ -71,7 +99,7 @@ public class DataTreeConfiguration implements Immutable {
         case OPERATIONAL:
             return DEFAULT_OPERATIONAL;
         default:
-            return new DataTreeConfiguration(treeType, false, true);
+            return new DataTreeConfiguration(treeType, false, true, 0, 0);
         }
     }
 
@@ -79,6 +107,8 @@ public class DataTreeConfiguration implements Immutable {
         private final TreeType treeType;
         private boolean uniqueIndexes;
         private boolean mandatoryNodesValidation;
+        private int parallelApplyThreshold;
+        private int persistentChildrenThreshold;
 
         public Builder(final TreeType treeType) {
             this.treeType = Preconditions.checkNotNull(treeType);
@@ -94,8 +124,22 @@ public class DataTreeConfiguration implements Immutable {
             return this;
         }
 
+        public Builder setParallelApplyThreshold(final int parallelApplyThreshold) {
+            Preconditions.checkArgument(parallelApplyThreshold >= 0, "Invalid threshold %s", parallelApplyThreshold);
+            this.parallelApplyThreshold = parallelApplyThreshold;
+            return this;
+        }
+
+        public Builder setPersistentChildrenThreshold(final int persistentChildrenThreshold) {
+            Preconditions.checkArgument(persistentChildrenThreshold >= 0, "Invalid threshold %s",
+                persistentChildrenThreshold);
+            this.persistentChildrenThreshold = persistentChildrenThreshold;
+            return this;
+        }
+
         public DataTreeConfiguration build() {
-            return new DataTreeConfiguration(treeType, uniqueIndexes, mandatoryNodesValidation);
+            return new DataTreeConfiguration(treeType, uniqueIndexes, mandatoryNodesValidation,
+                parallelApplyThreshold, persistentChildrenThreshold);
         }
     }
 }
\ No newline at end of file
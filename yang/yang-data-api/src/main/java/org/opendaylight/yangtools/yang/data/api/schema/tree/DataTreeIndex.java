@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+
+/**
+ * A secondary index registered with an {@link IndexedDataTree}. It maps the value of a leaf within each entry of
+ * a keyed list to the entries which hold that value. Instances are obtained from
+ * {@link IndexedDataTree#registerIndex(YangInstanceIdentifier, YangInstanceIdentifier)} and are used to query
+ * {@link IndexedDataTreeSnapshot}s.
+ */
+@Beta
+public interface DataTreeIndex {
+    /**
+     * Return the path to the indexed list.
+     *
+     * @return Path to the list, relative to the root of the data tree.
+     */
+    @Nonnull YangInstanceIdentifier getListPath();
+
+    /**
+     * Return the path to the indexed leaf.
+     *
+     * @return Path to the leaf, relative to a list entry.
+     */
+    @Nonnull YangInstanceIdentifier getLeafPath();
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+
+/**
+ * A {@link DataTree} which maintains secondary indexes over leaves of keyed lists. Indexes are updated as part of
+ * each commit, hence every {@link IndexedDataTreeSnapshot} sees indexes consistent with its data.
+ */
+@Beta
+public interface IndexedDataTree extends DataTree {
+    /**
+     * Register a secondary index. The index is populated from the current state of the tree and is available to
+     * all snapshots taken after this method returns.
+     *
+     * @param listPath Path to a keyed list, relative to the root of the tree
+     * @param leafPath Path to the indexed leaf, relative to a list entry
+     * @return Index handle
+     * @throws IllegalArgumentException if leafPath is empty
+     */
+    @Nonnull DataTreeIndex registerIndex(@Nonnull YangInstanceIdentifier listPath,
+            @Nonnull YangInstanceIdentifier leafPath);
+
+    /**
+     * Unregister a secondary index. Snapshots taken after this method returns will not have the index available.
+     *
+     * @param index Index to unregister
+     */
+    void unregisterIndex(@Nonnull DataTreeIndex index);
+
+    @Override
+    IndexedDataTreeSnapshot takeSnapshot();
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import java.util.Collection;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+
+/**
+ * A {@link DataTreeSnapshot} which can be queried via the secondary indexes of its {@link IndexedDataTree}.
+ */
+@Beta
+public interface IndexedDataTreeSnapshot extends DataTreeSnapshot {
+    /**
+     * Look up list entries whose indexed leaf has specified value. The lookup does not iterate over the list, its
+     * cost is proportional to the number of matching entries.
+     *
+     * @param index Index to query
+     * @param value Leaf value
+     * @return Matching list entries, empty if there are none.
+     * @throws IllegalArgumentException if the index was not registered when this snapshot was taken
+     */
+    @Nonnull Collection<MapEntryNode> lookup(@Nonnull DataTreeIndex index, @Nonnull Object value);
+}
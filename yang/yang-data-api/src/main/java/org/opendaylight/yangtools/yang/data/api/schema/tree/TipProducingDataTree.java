@@ -7,11 +7,45 @@
  */
 package org.opendaylight.yangtools.yang.data.api.schema.tree;
 
+import com.google.common.annotations.Beta;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * A {@link DataTree} which produces {@link DataTreeCandidateTip} candidates,
  * thus allowing existence of multiple candidates, which can be {@link #commit(DataTreeCandidate)}ed
  * in sequence.
  */
 public interface TipProducingDataTree extends DataTree, TipProducingDataTreeTip {
+    /**
+     * Validate, prepare and commit a batch of sealed modifications. Each modification is validated and prepared
+     * against the tip produced by its predecessor, the first one being prepared against the current state of
+     * this tree. If any of the modifications fails to validate, none of them are committed.
+     *
+     * <p>
+     * The default implementation commits the resulting candidates one by one. Implementations are encouraged to
+     * override it and publish the resulting state in a single step.
+     *
+     * @param modifications Sealed modifications, in the order in which they should be applied
+     * @return Candidates corresponding to the modifications, in the same order
+     * @throws DataValidationFailedException if any of the modifications fails to validate
+     */
+    @Beta
+    default List<DataTreeCandidateTip> commitBatch(final Collection<? extends DataTreeModification> modifications)
+            throws DataValidationFailedException {
+        final List<DataTreeCandidateTip> candidates = new ArrayList<>(modifications.size());
+        TipProducingDataTreeTip tip = this;
+        for (DataTreeModification mod : modifications) {
+            tip.validate(mod);
+            final DataTreeCandidateTip candidate = tip.prepare(mod);
+            candidates.add(candidate);
+            tip = candidate;
+        }
 
+        for (DataTreeCandidateTip candidate : candidates) {
+            commit(candidate);
+        }
+        return candidates;
+    }
 }
@@ -18,6 +18,11 @@ import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
  * A container node which has been modified. It tracks the subtree version and all modified children.
  */
 abstract class AbstractModifiedContainerNode extends AbstractContainerNode {
+    /**
+     * Adaptor shared by all container nodes, which snapshot and optimize each other's children maps.
+     */
+    static final MapAdaptor CHILDREN_ADAPTOR = MapAdaptor.getCallSiteInstance("tree-node-children");
+
     private final Map<PathArgument, TreeNode> children;
     private final Version subtreeVersion;
 
@@ -33,7 +38,10 @@ abstract class AbstractModifiedContainerNode extends AbstractContainerNode {
     }
 
     protected final Map<PathArgument, TreeNode> snapshotChildren() {
-        return MapAdaptor.getDefaultInstance().takeSnapshot(children);
+        if (children instanceof HashTrieMap) {
+            return ((HashTrieMap<PathArgument, TreeNode>) children).toMutable();
+        }
+        return CHILDREN_ADAPTOR.takeSnapshot(children);
     }
 
     @Override
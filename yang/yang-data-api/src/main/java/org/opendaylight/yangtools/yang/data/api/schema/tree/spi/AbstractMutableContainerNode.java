@@ -10,7 +10,6 @@ package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Verify;
 import java.util.Map;
-import org.opendaylight.yangtools.util.MapAdaptor;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
@@ -67,6 +66,11 @@ abstract class AbstractMutableContainerNode implements MutableTreeNode {
 
     @Override
     public final TreeNode seal() {
+        return seal(0);
+    }
+
+    @Override
+    public final TreeNode seal(final int persistentChildrenThreshold) {
         final TreeNode ret;
 
         /*
@@ -78,7 +82,7 @@ abstract class AbstractMutableContainerNode implements MutableTreeNode {
          * => more materialization can happen
          */
         if (!version.equals(subtreeVersion)) {
-            final Map<PathArgument, TreeNode> newChildren = MapAdaptor.getDefaultInstance().optimize(children);
+            final Map<PathArgument, TreeNode> newChildren = optimizeChildren(persistentChildrenThreshold);
             final int dataSize = getData().getValue().size();
             if (dataSize != newChildren.size()) {
                 Verify.verify(dataSize > newChildren.size(), "Detected %s modified children, data has only %s",
@@ -95,4 +99,18 @@ abstract class AbstractMutableContainerNode implements MutableTreeNode {
         children = null;
         return ret;
     }
+
+    private Map<PathArgument, TreeNode> optimizeChildren(final int persistentChildrenThreshold) {
+        final int size = children.size();
+        if (children instanceof MutableHashTrieMap) {
+            // Retain the persistent map unless the node has shrunk significantly, so we do not flip-flop
+            if (size >= persistentChildrenThreshold / 2) {
+                return ((MutableHashTrieMap<PathArgument, TreeNode>) children).toImmutable();
+            }
+        } else if (persistentChildrenThreshold != 0 && size >= persistentChildrenThreshold) {
+            return HashTrieMap.copyOf(children);
+        }
+
+        return AbstractModifiedContainerNode.CHILDREN_ADAPTOR.optimize(children);
+    }
 }
\ No newline at end of file
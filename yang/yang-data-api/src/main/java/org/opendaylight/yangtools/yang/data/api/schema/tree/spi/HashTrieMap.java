@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.yangtools.concepts.Immutable;
+
+/**
+ * An immutable map backed by a persistent hash array mapped trie. Unlike a {@link java.util.HashMap}, it can be
+ * turned into a {@link MutableHashTrieMap} in constant time and modifying a single entry costs O(log32 n) in both
+ * time and allocation, as the rest of the structure is shared.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class HashTrieMap<K, V> extends AbstractMap<K, V> implements Immutable {
+    private final HashTrieNode<K, V> root;
+    private final int size;
+
+    HashTrieMap(final HashTrieNode<K, V> root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    static <K, V> HashTrieMap<K, V> copyOf(final Map<K, V> map) {
+        if (map instanceof HashTrieMap) {
+            return (HashTrieMap<K, V>) map;
+        }
+        if (map instanceof MutableHashTrieMap) {
+            return ((MutableHashTrieMap<K, V>) map).toImmutable();
+        }
+
+        final MutableHashTrieMap<K, V> ret = new MutableHashTrieMap<>();
+        ret.putAll(map);
+        return ret.toImmutable();
+    }
+
+    MutableHashTrieMap<K, V> toMutable() {
+        return new MutableHashTrieMap<>(root, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public V get(final Object key) {
+        return root == null ? null : root.get(key, HashTrieNode.hash(key), 0);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return HashTrieNode.iterator(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+/**
+ * A node in a hash array mapped trie, which backs {@link HashTrieMap} and {@link MutableHashTrieMap}. Nodes are
+ * immutable unless they are owned by the editor performing the modification, in which case they are updated
+ * in place. This allows a single {@link MutableHashTrieMap} to perform a series of modifications without copying
+ * the nodes it has already copied.
+ *
+ * <p>
+ * Each node holds its entries in an array of key/value pairs. A {@link BitmapNode} indexes them by 5-bit slices of
+ * the key's hash code, a pair with a null key indicating the value is a child node. A {@link CollisionNode} holds
+ * keys whose hash codes are equal.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+abstract class HashTrieNode<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    // 7 bitmap levels cover 32 bits of hash, plus one collision level
+    private static final int MAX_DEPTH = 8;
+
+    final Object owner;
+
+    HashTrieNode(final Object owner) {
+        this.owner = owner;
+    }
+
+    abstract V get(Object key, int hash, int shift);
+
+    abstract HashTrieNode<K, V> put(MutableHashTrieMap<K, V> editor, K key, int hash, V value, int shift);
+
+    /**
+     * Remove a key from this node.
+     *
+     * @return Resulting node, or null if the node has become empty.
+     */
+    abstract HashTrieNode<K, V> remove(MutableHashTrieMap<K, V> editor, Object key, int hash, int shift);
+
+    abstract Object[] array();
+
+    static <K, V> HashTrieNode<K, V> create(final MutableHashTrieMap<K, V> editor, final K key, final int hash,
+            final V value) {
+        return new BitmapNode<>(editor.owner, bit(hash, 0), new Object[] { key, value });
+    }
+
+    static <K, V> Iterator<Entry<K, V>> iterator(final HashTrieNode<K, V> root) {
+        return new EntryIterator<>(root);
+    }
+
+    static int hash(final Object key) {
+        return key.hashCode();
+    }
+
+    private static int bit(final int hash, final int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static int index(final int bitmap, final int bit) {
+        return Integer.bitCount(bitmap & (bit - 1)) * 2;
+    }
+
+    private static <K, V> HashTrieNode<K, V> createNode(final Object owner, final K k1, final V v1, final K k2,
+            final int h2, final V v2, final int shift) {
+        final int h1 = hash(k1);
+        if (h1 == h2) {
+            return new CollisionNode<>(owner, h1, new Object[] { k1, v1, k2, v2 });
+        }
+
+        final int b1 = bit(h1, shift);
+        final int b2 = bit(h2, shift);
+        if (b1 == b2) {
+            return new BitmapNode<>(owner, b1, new Object[] { null, createNode(owner, k1, v1, k2, h2, v2,
+                shift + BITS) });
+        }
+
+        final Object[] array = ((h1 >>> shift) & MASK) < ((h2 >>> shift) & MASK) ? new Object[] { k1, v1, k2, v2 }
+            : new Object[] { k2, v2, k1, v1 };
+        return new BitmapNode<>(owner, b1 | b2, array);
+    }
+
+    private static Object[] insertPair(final Object[] array, final int idx, final Object key, final Object value) {
+        final Object[] ret = new Object[array.length + 2];
+        System.arraycopy(array, 0, ret, 0, idx);
+        ret[idx] = key;
+        ret[idx + 1] = value;
+        System.arraycopy(array, idx, ret, idx + 2, array.length - idx);
+        return ret;
+    }
+
+    private static Object[] removePair(final Object[] array, final int idx) {
+        final Object[] ret = new Object[array.length - 2];
+        System.arraycopy(array, 0, ret, 0, idx);
+        System.arraycopy(array, idx + 2, ret, idx, array.length - idx - 2);
+        return ret;
+    }
+
+    static final class BitmapNode<K, V> extends HashTrieNode<K, V> {
+        private int bitmap;
+        private Object[] array;
+
+        BitmapNode(final Object owner, final int bitmap, final Object[] array) {
+            super(owner);
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        Object[] array() {
+            return array;
+        }
+
+        boolean isSingleEntry() {
+            return array.length == 2 && array[0] != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V get(final Object key, final int hash, final int shift) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+
+            final int idx = index(bitmap, bit);
+            final Object k = array[idx];
+            final Object v = array[idx + 1];
+            if (k == null) {
+                return ((HashTrieNode<K, V>) v).get(key, hash, shift + BITS);
+            }
+            return key.equals(k) ? (V) v : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        HashTrieNode<K, V> put(final MutableHashTrieMap<K, V> editor, final K key, final int hash, final V value,
+                final int shift) {
+            final int bit = bit(hash, shift);
+            final int idx = index(bitmap, bit);
+            if ((bitmap & bit) == 0) {
+                editor.entryAdded();
+                return update(editor.owner, bitmap | bit, insertPair(array, idx, key, value));
+            }
+
+            final Object k = array[idx];
+            final Object v = array[idx + 1];
+            if (k == null) {
+                final HashTrieNode<K, V> child = (HashTrieNode<K, V>) v;
+                final HashTrieNode<K, V> newChild = child.put(editor, key, hash, value, shift + BITS);
+                return newChild == child ? this : updateSlot(editor.owner, idx, null, newChild);
+            }
+            if (key.equals(k)) {
+                editor.entryReplaced((V) v);
+                return v == value ? this : updateSlot(editor.owner, idx, k, value);
+            }
+
+            editor.entryAdded();
+            return updateSlot(editor.owner, idx, null, createNode(editor.owner, (K) k, (V) v, key, hash, value,
+                shift + BITS));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        HashTrieNode<K, V> remove(final MutableHashTrieMap<K, V> editor, final Object key, final int hash,
+                final int shift) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+
+            final int idx = index(bitmap, bit);
+            final Object k = array[idx];
+            final Object v = array[idx + 1];
+            if (k == null) {
+                final HashTrieNode<K, V> child = (HashTrieNode<K, V>) v;
+                final HashTrieNode<K, V> newChild = child.remove(editor, key, hash, shift + BITS);
+                if (newChild == child) {
+                    return this;
+                }
+                if (newChild == null) {
+                    return removeSlot(editor.owner, bit, idx);
+                }
+                if (newChild instanceof BitmapNode && ((BitmapNode<K, V>) newChild).isSingleEntry()) {
+                    // Pull the remaining entry up, so the trie does not contain single-entry chains
+                    final Object[] single = newChild.array();
+                    return updateSlot(editor.owner, idx, single[0], single[1]);
+                }
+                return updateSlot(editor.owner, idx, null, newChild);
+            }
+            if (!key.equals(k)) {
+                return this;
+            }
+
+            editor.entryRemoved((V) v);
+            return removeSlot(editor.owner, bit, idx);
+        }
+
+        private HashTrieNode<K, V> removeSlot(final Object editorOwner, final int bit, final int idx) {
+            return bitmap == bit ? null : update(editorOwner, bitmap ^ bit, removePair(array, idx));
+        }
+
+        private BitmapNode<K, V> update(final Object editorOwner, final int newBitmap, final Object[] newArray) {
+            if (owner == editorOwner) {
+                bitmap = newBitmap;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode<>(editorOwner, newBitmap, newArray);
+        }
+
+        private BitmapNode<K, V> updateSlot(final Object editorOwner, final int idx, final Object key,
+                final Object value) {
+            final BitmapNode<K, V> ret = owner == editorOwner ? this
+                    : new BitmapNode<>(editorOwner, bitmap, array.clone());
+            ret.array[idx] = key;
+            ret.array[idx + 1] = value;
+            return ret;
+        }
+    }
+
+    static final class CollisionNode<K, V> extends HashTrieNode<K, V> {
+        private final int hash;
+        private Object[] array;
+
+        CollisionNode(final Object owner, final int hash, final Object[] array) {
+            super(owner);
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        Object[] array() {
+            return array;
+        }
+
+        private int find(final Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V get(final Object key, final int keyHash, final int shift) {
+            if (keyHash != hash) {
+                return null;
+            }
+            final int idx = find(key);
+            return idx == -1 ? null : (V) array[idx + 1];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        HashTrieNode<K, V> put(final MutableHashTrieMap<K, V> editor, final K key, final int keyHash,
+                final V value, final int shift) {
+            if (keyHash != hash) {
+                // Hashes differ at a deeper level, nest this node into a bitmap node and retry
+                return new BitmapNode<K, V>(editor.owner, bit(hash, shift), new Object[] { null, this })
+                        .put(editor, key, keyHash, value, shift);
+            }
+
+            final int idx = find(key);
+            if (idx == -1) {
+                editor.entryAdded();
+                return update(editor.owner, insertPair(array, array.length, key, value));
+            }
+
+            final Object v = array[idx + 1];
+            editor.entryReplaced((V) v);
+            if (v == value) {
+                return this;
+            }
+            final Object[] newArray = owner == editor.owner ? array : array.clone();
+            newArray[idx + 1] = value;
+            return update(editor.owner, newArray);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        HashTrieNode<K, V> remove(final MutableHashTrieMap<K, V> editor, final Object key, final int keyHash,
+                final int shift) {
+            if (keyHash != hash) {
+                return this;
+            }
+            final int idx = find(key);
+            if (idx == -1) {
+                return this;
+            }
+
+            editor.entryRemoved((V) array[idx + 1]);
+            if (array.length == 4) {
+                // Single entry remains, turn it into a bitmap node, which our parent will inline
+                final int other = idx == 0 ? 2 : 0;
+                return new BitmapNode<>(editor.owner, bit(hash, shift), new Object[] { array[other],
+                    array[other + 1] });
+            }
+            return update(editor.owner, removePair(array, idx));
+        }
+
+        private CollisionNode<K, V> update(final Object editorOwner, final Object[] newArray) {
+            if (owner == editorOwner) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode<>(editorOwner, hash, newArray);
+        }
+    }
+
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] offsets = new int[MAX_DEPTH];
+        private int depth;
+        private Entry<K, V> next;
+
+        EntryIterator(final HashTrieNode<K, V> root) {
+            if (root != null) {
+                arrays[0] = root.array();
+                next = advance();
+            } else {
+                depth = -1;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Entry<K, V> advance() {
+            while (depth >= 0) {
+                final Object[] array = arrays[depth];
+                final int offset = offsets[depth];
+                if (offset >= array.length) {
+                    arrays[depth--] = null;
+                    continue;
+                }
+
+                offsets[depth] = offset + 2;
+                final Object key = array[offset];
+                if (key != null) {
+                    return new SimpleImmutableEntry<>((K) key, (V) array[offset + 1]);
+                }
+
+                depth++;
+                arrays[depth] = ((HashTrieNode<K, V>) array[offset + 1]).array();
+                offsets[depth] = 0;
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            final Entry<K, V> ret = next;
+            if (ret == null) {
+                throw new NoSuchElementException();
+            }
+            next = advance();
+            return ret;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -12,7 +12,6 @@ import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Collections2;
 import java.util.Map;
-import org.opendaylight.yangtools.util.MapAdaptor;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 
@@ -22,7 +21,7 @@ import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
  */
 final class LazyContainerNode extends AbstractModifiedContainerNode {
     LazyContainerNode(final NormalizedNode<?, ?> data, final Version version, final Version subtreeVersion) {
-        this(data, version, MapAdaptor.getDefaultInstance().<PathArgument, TreeNode>initialSnapshot(1), subtreeVersion);
+        this(data, version, CHILDREN_ADAPTOR.<PathArgument, TreeNode>initialSnapshot(1), subtreeVersion);
     }
 
     LazyContainerNode(final NormalizedNode<?, ?> data, final Version version, final Map<PathArgument, TreeNode> children,
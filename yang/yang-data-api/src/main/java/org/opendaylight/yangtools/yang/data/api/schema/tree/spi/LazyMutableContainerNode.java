@@ -9,7 +9,6 @@ package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
 
 import com.google.common.base.Optional;
 import java.util.Map;
-import org.opendaylight.yangtools.util.MapAdaptor;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 
 /**
@@ -18,7 +17,7 @@ import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgum
  */
 final class LazyMutableContainerNode extends AbstractMutableContainerNode {
     LazyMutableContainerNode(final AbstractContainerNode parent) {
-        this(parent, MapAdaptor.getDefaultInstance().<PathArgument, TreeNode>initialSnapshot(1));
+        this(parent, AbstractModifiedContainerNode.CHILDREN_ADAPTOR.<PathArgument, TreeNode>initialSnapshot(1));
     }
 
     LazyMutableContainerNode(final AbstractContainerNode parent, final Map<PathArgument, TreeNode> children) {
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
+
+import com.google.common.base.Preconditions;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * A mutable view of a {@link HashTrieMap}. Modifications copy only the trie nodes along the path to the modified
+ * entry, sharing the rest of the structure with the map this view was created from. Nodes copied by this view are
+ * updated in place, so a series of modifications pays for each path copy only once. Null keys and values are not
+ * supported.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class MutableHashTrieMap<K, V> extends AbstractMap<K, V> {
+    // Identifies nodes which this map may update in place. It changes whenever the nodes are shared.
+    Object owner = new Object();
+
+    private HashTrieNode<K, V> root;
+    private int size;
+    private V previous;
+
+    MutableHashTrieMap() {
+        this(null, 0);
+    }
+
+    MutableHashTrieMap(final HashTrieNode<K, V> root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    void entryAdded() {
+        size++;
+    }
+
+    void entryReplaced(final V value) {
+        previous = value;
+    }
+
+    void entryRemoved(final V value) {
+        previous = value;
+        size--;
+    }
+
+    /**
+     * Return an immutable copy of this map. This map remains usable, further modifications do not affect the
+     * returned map.
+     *
+     * @return Immutable copy of this map.
+     */
+    HashTrieMap<K, V> toImmutable() {
+        owner = new Object();
+        return new HashTrieMap<>(root, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public V get(final Object key) {
+        return root == null ? null : root.get(key, HashTrieNode.hash(key), 0);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        Preconditions.checkNotNull(value);
+        final int hash = HashTrieNode.hash(key);
+        if (root == null) {
+            root = HashTrieNode.create(this, key, hash, value);
+            size = 1;
+            return null;
+        }
+
+        root = root.put(this, key, hash, value, 0);
+        final V ret = previous;
+        previous = null;
+        return ret;
+    }
+
+    @Override
+    public V remove(final Object key) {
+        if (root == null) {
+            return null;
+        }
+
+        root = root.remove(this, key, HashTrieNode.hash(key), 0);
+        final V ret = previous;
+        previous = null;
+        return ret;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return HashTrieNode.iterator(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
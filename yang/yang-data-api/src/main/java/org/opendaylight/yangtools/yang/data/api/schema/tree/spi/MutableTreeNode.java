@@ -57,4 +57,17 @@ public interface MutableTreeNode extends StoreTreeNode<TreeNode> {
      * @return Read-only view of this node.
      */
     TreeNode seal();
+
+    /**
+     * Finish node modification and return a read-only view of this node, like {@link #seal()} does. If the node
+     * tracks at least specified number of children, the resulting node stores them in a persistent structure,
+     * which allows further modifications to share unmodified children instead of copying them.
+     *
+     * @param persistentChildrenThreshold Minimum number of children to store in a persistent structure, zero
+     *        indicates the choice is left to the implementation.
+     * @return Read-only view of this node.
+     */
+    default TreeNode seal(final int persistentChildrenThreshold) {
+        return seal();
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class HashTrieMapTest {
+    /**
+     * Key with a configurable hash code, so we can exercise collisions.
+     */
+    private static final class Key {
+        private final int hash;
+        private final int id;
+
+        Key(final int hash, final int id) {
+            this.hash = hash;
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Key && ((Key) obj).id == id;
+        }
+    }
+
+    @Test
+    public void testPutRemove() {
+        final MutableHashTrieMap<String, String> map = new MutableHashTrieMap<>();
+        assertTrue(map.isEmpty());
+        assertNull(map.put("a", "1"));
+        assertNull(map.put("b", "2"));
+        assertEquals("1", map.put("a", "3"));
+        assertEquals(2, map.size());
+        assertEquals("3", map.get("a"));
+
+        assertEquals("2", map.remove("b"));
+        assertNull(map.remove("b"));
+        assertEquals(1, map.size());
+        assertFalse(map.containsKey("b"));
+    }
+
+    @Test
+    public void testSnapshotIsolation() {
+        final MutableHashTrieMap<Integer, Integer> map = new MutableHashTrieMap<>();
+        for (int i = 0; i < 1000; ++i) {
+            map.put(i, i);
+        }
+
+        final HashTrieMap<Integer, Integer> first = map.toImmutable();
+        map.remove(0);
+        map.put(1, -1);
+
+        final MutableHashTrieMap<Integer, Integer> second = first.toMutable();
+        second.put(1000, 1000);
+
+        assertEquals(1000, first.size());
+        assertEquals(Integer.valueOf(0), first.get(0));
+        assertEquals(Integer.valueOf(1), first.get(1));
+        assertNull(first.get(1000));
+        assertEquals(999, map.size());
+        assertEquals(Integer.valueOf(-1), map.get(1));
+        assertEquals(1001, second.size());
+    }
+
+    @Test
+    public void testCopyOf() {
+        final Map<String, String> source = new HashMap<>();
+        source.put("a", "1");
+        source.put("b", "2");
+
+        final HashTrieMap<String, String> copy = HashTrieMap.copyOf(source);
+        assertEquals(source, copy);
+        assertEquals(copy, source);
+        assertEquals(source.hashCode(), copy.hashCode());
+        assertSame(copy, HashTrieMap.copyOf(copy));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        final Random random = new Random(0);
+
+        // Exercise well-distributed hashes, partial hash prefix collisions and full hash collisions
+        for (int mode = 0; mode < 3; ++mode) {
+            final Map<Key, Integer> expected = new HashMap<>();
+            final MutableHashTrieMap<Key, Integer> map = new MutableHashTrieMap<>();
+
+            for (int i = 0; i < 10000; ++i) {
+                final int id = random.nextInt(500);
+                final int hash = mode == 0 ? id : mode == 1 ? id << 20 : id % 7;
+                final Key key = new Key(hash, id);
+
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key), map.remove(key));
+                } else {
+                    final Integer value = random.nextInt();
+                    assertEquals(expected.put(key, value), map.put(key, value));
+                }
+                assertEquals(expected.size(), map.size());
+            }
+
+            assertEquals(expected, map);
+            assertEquals(expected, map.toImmutable());
+        }
+    }
+}
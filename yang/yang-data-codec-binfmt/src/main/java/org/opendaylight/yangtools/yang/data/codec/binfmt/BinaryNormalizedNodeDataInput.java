@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import static org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter.UNKNOWN_SIZE;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Reader side of the binary format. See {@link Tokens} for a description of the encoding.
+ */
+final class BinaryNormalizedNodeDataInput implements NormalizedNodeDataInput {
+    private static final DocumentBuilderFactory DOCUMENT_FACTORY;
+
+    static {
+        final DocumentBuilderFactory f = DocumentBuilderFactory.newInstance();
+        f.setNamespaceAware(true);
+        f.setCoalescing(true);
+        f.setIgnoringElementContentWhitespace(true);
+        f.setIgnoringComments(true);
+
+        // Anyxml content comes from the stream, do not let it reach for external resources or expand entities
+        f.setXIncludeAware(false);
+        f.setExpandEntityReferences(false);
+        try {
+            f.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            f.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            f.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        } catch (ParserConfigurationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        DOCUMENT_FACTORY = f;
+    }
+
+    private final List<QNameModule> modules = new ArrayList<>();
+    private final List<QName> qnames = new ArrayList<>();
+    private final List<AugmentationIdentifier> augmentations = new ArrayList<>();
+    private final List<NodeIdentifierWithPredicates> predicates = new ArrayList<>();
+    private final DataInput input;
+
+    private BinaryNormalizedNodeDataInput(final DataInput input) {
+        this.input = Preconditions.checkNotNull(input);
+    }
+
+    static BinaryNormalizedNodeDataInput create(final DataInput input) throws IOException {
+        final byte signature = input.readByte();
+        if (signature != Tokens.SIGNATURE) {
+            throw new InvalidNormalizedNodeStreamException(String.format("Invalid signature 0x%02x", signature));
+        }
+        final byte version = input.readByte();
+        if (version != Tokens.VERSION) {
+            throw new InvalidNormalizedNodeStreamException("Unsupported version " + version);
+        }
+        return new BinaryNormalizedNodeDataInput(input);
+    }
+
+    @Override
+    public NormalizedNode<?, ?> readNormalizedNode() throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        streamNormalizedNode(ImmutableNormalizedNodeStreamWriter.from(result));
+        return result.getResult();
+    }
+
+    @Override
+    public void streamNormalizedNode(final NormalizedNodeStreamWriter writer) throws IOException {
+        final byte nodeType = input.readByte();
+        if (nodeType == Tokens.END_NODE) {
+            throw new InvalidNormalizedNodeStreamException("Unexpected end of node");
+        }
+        streamNode(writer, nodeType);
+    }
+
+    private void streamNode(final NormalizedNodeStreamWriter writer, final byte nodeType) throws IOException {
+        switch (nodeType) {
+            case Tokens.LEAF:
+                writer.leafNode(readNodeIdentifier(), readValue());
+                return;
+            case Tokens.LEAF_SET_ENTRY:
+                writer.leafSetEntryNode(readQNameInternal(), readValue());
+                return;
+            case Tokens.ANYXML:
+                writer.anyxmlNode(readNodeIdentifier(), readDOMSource());
+                return;
+            case Tokens.LEAF_SET:
+                writer.startLeafSet(readNodeIdentifier(), UNKNOWN_SIZE);
+                break;
+            case Tokens.ORDERED_LEAF_SET:
+                writer.startOrderedLeafSet(readNodeIdentifier(), UNKNOWN_SIZE);
+                break;
+            case Tokens.CONTAINER:
+                writer.startContainerNode(readNodeIdentifier(), UNKNOWN_SIZE);
+                break;
+            case Tokens.UNKEYED_LIST:
+                writer.startUnkeyedList(readNodeIdentifier(), UNKNOWN_SIZE);
+                break;
+            case Tokens.UNKEYED_LIST_ITEM:
+                writer.startUnkeyedListItem(readNodeIdentifier(), UNKNOWN_SIZE);
+                break;
+            case Tokens.MAP:
+                writer.startMapNode(readNodeIdentifier(), UNKNOWN_SIZE);
+                break;
+            case Tokens.MAP_ENTRY:
+                writer.startMapEntryNode(readPredicates(), UNKNOWN_SIZE);
+                break;
+            case Tokens.ORDERED_MAP:
+                writer.startOrderedMapNode(readNodeIdentifier(), UNKNOWN_SIZE);
+                break;
+            case Tokens.CHOICE:
+                writer.startChoiceNode(readNodeIdentifier(), UNKNOWN_SIZE);
+                break;
+            case Tokens.AUGMENTATION:
+                writer.startAugmentationNode(readAugmentationIdentifier());
+                break;
+            default:
+                throw new InvalidNormalizedNodeStreamException("Invalid node type " + nodeType);
+        }
+
+        // Container node, stream children until we encounter its end
+        while (true) {
+            final byte childType = input.readByte();
+            if (childType == Tokens.END_NODE) {
+                writer.endNode();
+                return;
+            }
+            streamNode(writer, childType);
+        }
+    }
+
+    @Override
+    public PathArgument readPathArgument() throws IOException {
+        final byte type = input.readByte();
+        switch (type) {
+            case Tokens.NODE_IDENTIFIER:
+                return readNodeIdentifier();
+            case Tokens.NODE_IDENTIFIER_WITH_PREDICATES:
+                return readPredicates();
+            case Tokens.NODE_WITH_VALUE:
+                return new NodeWithValue<>(readQNameInternal(), readValue());
+            case Tokens.AUGMENTATION_IDENTIFIER:
+                return readAugmentationIdentifier();
+            default:
+                throw new InvalidNormalizedNodeStreamException("Invalid path argument type " + type);
+        }
+    }
+
+    @Override
+    public YangInstanceIdentifier readYangInstanceIdentifier() throws IOException {
+        final int size = readVarInt();
+        if (size == 0) {
+            return YangInstanceIdentifier.EMPTY;
+        }
+
+        final List<PathArgument> args = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            args.add(readPathArgument());
+        }
+        return YangInstanceIdentifier.create(args);
+    }
+
+    @Override
+    public QName readQName() throws IOException {
+        return readQNameInternal();
+    }
+
+    private NodeIdentifier readNodeIdentifier() throws IOException {
+        return NodeIdentifier.create(readQNameInternal());
+    }
+
+    private NodeIdentifierWithPredicates readPredicates() throws IOException {
+        final int code = readVarInt();
+        if (code != Tokens.DICTIONARY_DEFINE) {
+            return lookup(predicates, code);
+        }
+
+        final QName qname = readQNameInternal();
+        final int size = readVarInt();
+        final NodeIdentifierWithPredicates ret;
+        switch (size) {
+            case 0:
+                ret = new NodeIdentifierWithPredicates(qname, ImmutableMap.<QName, Object>of());
+                break;
+            case 1:
+                ret = new NodeIdentifierWithPredicates(qname, readQNameInternal(), readValue());
+                break;
+            default:
+                final ImmutableMap.Builder<QName, Object> builder = ImmutableMap.builder();
+                for (int i = 0; i < size; ++i) {
+                    builder.put(readQNameInternal(), readValue());
+                }
+                ret = new NodeIdentifierWithPredicates(qname, builder.build());
+        }
+        predicates.add(ret);
+        return ret;
+    }
+
+    private AugmentationIdentifier readAugmentationIdentifier() throws IOException {
+        final int code = readVarInt();
+        if (code != Tokens.DICTIONARY_DEFINE) {
+            return lookup(augmentations, code);
+        }
+
+        final int size = readVarInt();
+        final ImmutableSet.Builder<QName> builder = ImmutableSet.builder();
+        for (int i = 0; i < size; ++i) {
+            builder.add(readQNameInternal());
+        }
+        final AugmentationIdentifier ret = new AugmentationIdentifier(builder.build());
+        augmentations.add(ret);
+        return ret;
+    }
+
+    private QName readQNameInternal() throws IOException {
+        final int code = readVarInt();
+        if (code != Tokens.DICTIONARY_DEFINE) {
+            return lookup(qnames, code);
+        }
+
+        final QName ret = QName.create(readModule(), readString()).intern();
+        qnames.add(ret);
+        return ret;
+    }
+
+    private QNameModule readModule() throws IOException {
+        final int code = readVarInt();
+        if (code != Tokens.DICTIONARY_DEFINE) {
+            return lookup(modules, code);
+        }
+
+        final String namespace = readString();
+        final String revision = readString();
+        final QNameModule ret;
+        try {
+            ret = QNameModule.create(new URI(namespace), revision.isEmpty() ? null : QName.parseRevision(revision));
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new InvalidNormalizedNodeStreamException("Invalid module " + namespace + "@" + revision, e);
+        }
+        modules.add(ret);
+        return ret;
+    }
+
+    private static <T> T lookup(final List<T> dictionary, final int code) throws IOException {
+        final int index = code - 1;
+        if (index < 0 || index >= dictionary.size()) {
+            throw new InvalidNormalizedNodeStreamException("Invalid dictionary reference " + code);
+        }
+        return dictionary.get(index);
+    }
+
+    private Object readValue() throws IOException {
+        final byte type = input.readByte();
+        switch (type) {
+            case Tokens.NULL_VALUE:
+                return null;
+            case Tokens.STRING_VALUE:
+                return readString();
+            case Tokens.FALSE_VALUE:
+                return Boolean.FALSE;
+            case Tokens.TRUE_VALUE:
+                return Boolean.TRUE;
+            case Tokens.BYTE_VALUE:
+                return input.readByte();
+            case Tokens.SHORT_VALUE:
+                return input.readShort();
+            case Tokens.INT_VALUE:
+                return (int) unZigZag(readVarLong());
+            case Tokens.LONG_VALUE:
+                return unZigZag(readVarLong());
+            case Tokens.BIG_INTEGER_VALUE:
+                return new BigInteger(readBytes());
+            case Tokens.BIG_DECIMAL_VALUE:
+                final int scale = (int) unZigZag(readVarLong());
+                return new BigDecimal(new BigInteger(readBytes()), scale);
+            case Tokens.BINARY_VALUE:
+                return readBytes();
+            case Tokens.QNAME_VALUE:
+                return readQNameInternal();
+            case Tokens.BITS_VALUE:
+                final int size = readVarInt();
+                final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+                for (int i = 0; i < size; ++i) {
+                    builder.add(readString());
+                }
+                return builder.build();
+            case Tokens.YANG_IDENTIFIER_VALUE:
+                return readYangInstanceIdentifier();
+            default:
+                throw new InvalidNormalizedNodeStreamException("Invalid value type " + type);
+        }
+    }
+
+    private DOMSource readDOMSource() throws IOException {
+        final String xml = readString();
+        try {
+            final Document doc = DOCUMENT_FACTORY.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+            doc.normalize();
+            return new DOMSource(doc.getDocumentElement());
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new InvalidNormalizedNodeStreamException("Invalid anyxml value", e);
+        }
+    }
+
+    private String readString() throws IOException {
+        return new String(readBytes(), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes() throws IOException {
+        final byte[] bytes = new byte[readVarInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private int readVarInt() throws IOException {
+        final long value = readVarLong();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new InvalidNormalizedNodeStreamException("Invalid length " + value);
+        }
+        return (int) value;
+    }
+
+    private long readVarLong() throws IOException {
+        long ret = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = input.readByte();
+            ret |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return ret;
+            }
+        }
+        throw new InvalidNormalizedNodeStreamException("Malformed variable-length integer");
+    }
+}
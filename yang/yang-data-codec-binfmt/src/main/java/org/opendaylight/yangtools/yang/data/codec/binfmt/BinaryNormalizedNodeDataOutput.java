@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import com.google.common.base.Preconditions;
+import java.io.DataOutput;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+
+/**
+ * Writer side of the binary format. See {@link Tokens} for a description of the encoding.
+ */
+final class BinaryNormalizedNodeDataOutput implements NormalizedNodeDataOutput {
+    private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
+
+    private final Map<QNameModule, Integer> modules = new HashMap<>();
+    private final Map<QName, Integer> qnames = new HashMap<>();
+    private final Map<AugmentationIdentifier, Integer> augmentations = new HashMap<>();
+    private final Map<NodeIdentifierWithPredicates, Integer> predicates = new HashMap<>();
+    private final DataOutput output;
+
+    private NormalizedNodeWriter normalizedNodeWriter;
+    private boolean headerWritten;
+
+    BinaryNormalizedNodeDataOutput(final DataOutput output) {
+        this.output = Preconditions.checkNotNull(output);
+    }
+
+    private void ensureHeaderWritten() throws IOException {
+        if (!headerWritten) {
+            output.writeByte(Tokens.SIGNATURE);
+            output.writeByte(Tokens.VERSION);
+            headerWritten = true;
+        }
+    }
+
+    @Override
+    public void writeNormalizedNode(final NormalizedNode<?, ?> node) throws IOException {
+        if (normalizedNodeWriter == null) {
+            normalizedNodeWriter = NormalizedNodeWriter.forStreamWriter(this, false);
+        }
+        normalizedNodeWriter.write(node);
+    }
+
+    @Override
+    public void writePathArgument(final PathArgument pathArgument) throws IOException {
+        ensureHeaderWritten();
+        writePathArgumentInternal(pathArgument);
+    }
+
+    @Override
+    public void writeYangInstanceIdentifier(final YangInstanceIdentifier identifier) throws IOException {
+        ensureHeaderWritten();
+        writeYangInstanceIdentifierInternal(identifier);
+    }
+
+    @Override
+    public void writeQName(final QName qname) throws IOException {
+        ensureHeaderWritten();
+        writeQNameInternal(qname);
+    }
+
+    @Override
+    public void leafNode(final NodeIdentifier name, final Object value) throws IOException {
+        startNode(Tokens.LEAF, name);
+        writeValue(value);
+    }
+
+    @Override
+    public void startLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(Tokens.LEAF_SET, name);
+    }
+
+    @Override
+    public void startOrderedLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(Tokens.ORDERED_LEAF_SET, name);
+    }
+
+    @Override
+    public void leafSetEntryNode(final QName name, final Object value) throws IOException {
+        ensureHeaderWritten();
+        output.writeByte(Tokens.LEAF_SET_ENTRY);
+        writeQNameInternal(name);
+        writeValue(value);
+    }
+
+    @Override
+    public void startContainerNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(Tokens.CONTAINER, name);
+    }
+
+    @Override
+    public void startUnkeyedList(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(Tokens.UNKEYED_LIST, name);
+    }
+
+    @Override
+    public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(Tokens.UNKEYED_LIST_ITEM, name);
+    }
+
+    @Override
+    public void startMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(Tokens.MAP, name);
+    }
+
+    @Override
+    public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint)
+            throws IOException {
+        ensureHeaderWritten();
+        output.writeByte(Tokens.MAP_ENTRY);
+        writePredicates(identifier);
+    }
+
+    @Override
+    public void startOrderedMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(Tokens.ORDERED_MAP, name);
+    }
+
+    @Override
+    public void startChoiceNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startNode(Tokens.CHOICE, name);
+    }
+
+    @Override
+    public void startAugmentationNode(final AugmentationIdentifier identifier) throws IOException {
+        ensureHeaderWritten();
+        output.writeByte(Tokens.AUGMENTATION);
+        writeAugmentationIdentifier(identifier);
+    }
+
+    @Override
+    public void anyxmlNode(final NodeIdentifier name, final Object value) throws IOException {
+        Preconditions.checkArgument(value instanceof DOMSource, "Unsupported anyxml value %s", value);
+        startNode(Tokens.ANYXML, name);
+
+        final StringWriter writer = new StringWriter();
+        try {
+            final Transformer transformer = TRANSFORMER_FACTORY.newTransformer();
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            transformer.transform((DOMSource) value, new StreamResult(writer));
+        } catch (TransformerException e) {
+            throw new IOException("Failed to serialize anyxml " + name, e);
+        }
+        writeString(writer.toString());
+    }
+
+    @Override
+    public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint) {
+        throw new UnsupportedOperationException("Yang-modeled anyxml " + name
+            + " cannot be reconstructed without schema and is not supported");
+    }
+
+    @Override
+    public void endNode() throws IOException {
+        output.writeByte(Tokens.END_NODE);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (output instanceof Flushable) {
+            ((Flushable) output).flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void startNode(final byte nodeType, final NodeIdentifier name) throws IOException {
+        ensureHeaderWritten();
+        output.writeByte(nodeType);
+        writeQNameInternal(name.getNodeType());
+    }
+
+    private void writeYangInstanceIdentifierInternal(final YangInstanceIdentifier identifier) throws IOException {
+        final List<PathArgument> args = identifier.getPathArguments();
+        writeVarInt(args.size());
+        for (PathArgument arg : args) {
+            writePathArgumentInternal(arg);
+        }
+    }
+
+    private void writePathArgumentInternal(final PathArgument pathArgument) throws IOException {
+        if (pathArgument instanceof NodeIdentifier) {
+            output.writeByte(Tokens.NODE_IDENTIFIER);
+            writeQNameInternal(pathArgument.getNodeType());
+        } else if (pathArgument instanceof NodeIdentifierWithPredicates) {
+            output.writeByte(Tokens.NODE_IDENTIFIER_WITH_PREDICATES);
+            writePredicates((NodeIdentifierWithPredicates) pathArgument);
+        } else if (pathArgument instanceof NodeWithValue) {
+            output.writeByte(Tokens.NODE_WITH_VALUE);
+            writeQNameInternal(pathArgument.getNodeType());
+            writeValue(((NodeWithValue<?>) pathArgument).getValue());
+        } else if (pathArgument instanceof AugmentationIdentifier) {
+            output.writeByte(Tokens.AUGMENTATION_IDENTIFIER);
+            writeAugmentationIdentifier((AugmentationIdentifier) pathArgument);
+        } else {
+            throw new IllegalArgumentException("Unhandled path argument " + pathArgument);
+        }
+    }
+
+    private void writePredicates(final NodeIdentifierWithPredicates identifier) throws IOException {
+        final Integer code = predicates.get(identifier);
+        if (code != null) {
+            writeVarInt(code + 1);
+            return;
+        }
+
+        writeVarInt(Tokens.DICTIONARY_DEFINE);
+        writeQNameInternal(identifier.getNodeType());
+
+        final Map<QName, Object> keys = identifier.getKeyValues();
+        writeVarInt(keys.size());
+        for (Entry<QName, Object> e : keys.entrySet()) {
+            writeQNameInternal(e.getKey());
+            writeValue(e.getValue());
+        }
+        predicates.put(identifier, predicates.size());
+    }
+
+    private void writeAugmentationIdentifier(final AugmentationIdentifier identifier) throws IOException {
+        final Integer code = augmentations.get(identifier);
+        if (code != null) {
+            writeVarInt(code + 1);
+            return;
+        }
+
+        writeVarInt(Tokens.DICTIONARY_DEFINE);
+        final Set<QName> childNames = identifier.getPossibleChildNames();
+        writeVarInt(childNames.size());
+        for (QName qname : childNames) {
+            writeQNameInternal(qname);
+        }
+        augmentations.put(identifier, augmentations.size());
+    }
+
+    private void writeQNameInternal(final QName qname) throws IOException {
+        final Integer code = qnames.get(qname);
+        if (code != null) {
+            writeVarInt(code + 1);
+            return;
+        }
+
+        writeVarInt(Tokens.DICTIONARY_DEFINE);
+        writeModule(qname.getModule());
+        writeString(qname.getLocalName());
+        qnames.put(qname, qnames.size());
+    }
+
+    private void writeModule(final QNameModule module) throws IOException {
+        final Integer code = modules.get(module);
+        if (code != null) {
+            writeVarInt(code + 1);
+            return;
+        }
+
+        writeVarInt(Tokens.DICTIONARY_DEFINE);
+        writeString(module.getNamespace().toString());
+        final String revision = module.getFormattedRevision();
+        writeString(revision != null ? revision : "");
+        modules.put(module, modules.size());
+    }
+
+    private void writeValue(final Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(Tokens.NULL_VALUE);
+        } else if (value instanceof String) {
+            output.writeByte(Tokens.STRING_VALUE);
+            writeString((String) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? Tokens.TRUE_VALUE : Tokens.FALSE_VALUE);
+        } else if (value instanceof Byte) {
+            output.writeByte(Tokens.BYTE_VALUE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            output.writeByte(Tokens.SHORT_VALUE);
+            output.writeShort((Short) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(Tokens.INT_VALUE);
+            writeVarLong(zigZag((Integer) value));
+        } else if (value instanceof Long) {
+            output.writeByte(Tokens.LONG_VALUE);
+            writeVarLong(zigZag((Long) value));
+        } else if (value instanceof BigInteger) {
+            output.writeByte(Tokens.BIG_INTEGER_VALUE);
+            writeBytes(((BigInteger) value).toByteArray());
+        } else if (value instanceof BigDecimal) {
+            final BigDecimal decimal = (BigDecimal) value;
+            output.writeByte(Tokens.BIG_DECIMAL_VALUE);
+            writeVarLong(zigZag(decimal.scale()));
+            writeBytes(decimal.unscaledValue().toByteArray());
+        } else if (value instanceof byte[]) {
+            output.writeByte(Tokens.BINARY_VALUE);
+            writeBytes((byte[]) value);
+        } else if (value instanceof QName) {
+            output.writeByte(Tokens.QNAME_VALUE);
+            writeQNameInternal((QName) value);
+        } else if (value instanceof Set) {
+            final Collection<?> bits = (Set<?>) value;
+            output.writeByte(Tokens.BITS_VALUE);
+            writeVarInt(bits.size());
+            for (Object bit : bits) {
+                writeString((String) bit);
+            }
+        } else if (value instanceof YangInstanceIdentifier) {
+            output.writeByte(Tokens.YANG_IDENTIFIER_VALUE);
+            writeYangInstanceIdentifierInternal((YangInstanceIdentifier) value);
+        } else {
+            throw new IllegalArgumentException("Unhandled value " + value + " of " + value.getClass());
+        }
+    }
+
+    private void writeString(final String str) throws IOException {
+        writeBytes(str.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(final byte[] bytes) throws IOException {
+        writeVarInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void writeVarInt(final int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(final long value) throws IOException {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            output.writeByte((int) (v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        output.writeByte((int) v);
+    }
+}
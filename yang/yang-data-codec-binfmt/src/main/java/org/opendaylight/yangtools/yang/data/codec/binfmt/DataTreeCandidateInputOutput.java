@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import com.google.common.annotations.Beta;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+
+/**
+ * Serialization of {@link DataTreeCandidate}s using the binary format. Only the information needed to replay
+ * the candidate is retained: unmodified nodes are skipped, written nodes carry their after-image and no before-image
+ * is serialized. A candidate can be serialized once into a {@link ByteBuffer}, which can then be shared by any number
+ * of recipients, each of which operates on its own {@link ByteBuffer#duplicate()}.
+ *
+ * <p>
+ * Deserialized candidates can be applied to a {@link DataTreeModification} via
+ * {@link DataTreeCandidates#applyToModification(DataTreeModification, DataTreeCandidate)}.
+ */
+@Beta
+public final class DataTreeCandidateInputOutput {
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    /**
+     * A ByteArrayOutputStream which wraps its buffer instead of copying it.
+     */
+    private static final class WrappingOutputStream extends ByteArrayOutputStream {
+        WrappingOutputStream() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count).asReadOnlyBuffer();
+        }
+    }
+
+    private DataTreeCandidateInputOutput() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Write a {@link DataTreeCandidate}.
+     *
+     * @param out Output
+     * @param candidate Candidate to write
+     * @throws IOException if the output fails
+     */
+    public static void writeDataTreeCandidate(@Nonnull final DataOutput out,
+            @Nonnull final DataTreeCandidate candidate) throws IOException {
+        final NormalizedNodeDataOutput writer = NormalizedNodeInputOutput.newDataOutput(out);
+        writer.writeYangInstanceIdentifier(candidate.getRootPath());
+        // Root node does not have an identifier of its own, it is implied by the root path
+        writeNode(writer, out, candidate.getRootNode(), true);
+    }
+
+    /**
+     * Serialize a {@link DataTreeCandidate} into a read-only {@link ByteBuffer}, positioned at the start of
+     * the serialized data.
+     *
+     * @param candidate Candidate to serialize
+     * @return Read-only buffer holding the serialized candidate
+     * @throws IOException if the candidate cannot be serialized
+     */
+    @Nonnull public static ByteBuffer serializeDataTreeCandidate(@Nonnull final DataTreeCandidate candidate)
+            throws IOException {
+        final WrappingOutputStream bytes = new WrappingOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeDataTreeCandidate(out, candidate);
+        }
+        return bytes.toByteBuffer();
+    }
+
+    /**
+     * Write a candidate previously serialized by {@link #serializeDataTreeCandidate(DataTreeCandidate)} to
+     * a channel. The buffer itself is not modified, hence it can be written to multiple channels, even concurrently.
+     *
+     * @param channel Blocking channel to write to
+     * @param serialized Serialized candidate
+     * @throws IOException if the channel fails
+     */
+    public static void writeTo(@Nonnull final WritableByteChannel channel, @Nonnull final ByteBuffer serialized)
+            throws IOException {
+        final ByteBuffer buffer = serialized.duplicate();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Read a {@link DataTreeCandidate} written by {@link #writeDataTreeCandidate(DataOutput, DataTreeCandidate)}.
+     *
+     * @param in Input
+     * @return A candidate which does not carry before-images
+     * @throws IOException if the input fails or is not well-formed
+     */
+    @Nonnull public static DataTreeCandidate readDataTreeCandidate(@Nonnull final DataInput in) throws IOException {
+        final NormalizedNodeDataInput reader = NormalizedNodeInputOutput.newDataInput(in);
+        final YangInstanceIdentifier rootPath = reader.readYangInstanceIdentifier();
+        final PathArgument rootIdentifier = rootPath.isEmpty() ? null : rootPath.getLastPathArgument();
+        return DataTreeCandidates.newDataTreeCandidate(rootPath, readRootNode(reader, in, rootIdentifier));
+    }
+
+    /**
+     * Read a {@link DataTreeCandidate} from a buffer produced by
+     * {@link #serializeDataTreeCandidate(DataTreeCandidate)}. The buffer itself is not modified, hence it can be
+     * read multiple times, even concurrently.
+     *
+     * @param serialized Serialized candidate
+     * @return A candidate which does not carry before-images
+     * @throws IOException if the data is not well-formed
+     */
+    @Nonnull public static DataTreeCandidate readDataTreeCandidate(@Nonnull final ByteBuffer serialized)
+            throws IOException {
+        return readDataTreeCandidate(new ByteBufferDataInput(serialized.duplicate()));
+    }
+
+    /**
+     * Read a {@link DataTreeCandidate} and apply it to a modification.
+     *
+     * @param in Input
+     * @param modification Modification to which the candidate should be applied
+     * @throws IOException if the input fails or is not well-formed
+     */
+    public static void applyDataTreeCandidate(@Nonnull final DataInput in,
+            @Nonnull final DataTreeModification modification) throws IOException {
+        DataTreeCandidates.applyToModification(modification, readDataTreeCandidate(in));
+    }
+
+    private static void writeNode(final NormalizedNodeDataOutput writer, final DataOutput out,
+            final DataTreeCandidateNode node, final boolean root) throws IOException {
+        final ModificationType type = node.getModificationType();
+        switch (type) {
+            case UNMODIFIED:
+                out.writeByte(Tokens.CANDIDATE_UNMODIFIED);
+                writeIdentifier(writer, node, root);
+                break;
+            case DELETE:
+                out.writeByte(Tokens.CANDIDATE_DELETE);
+                writeIdentifier(writer, node, root);
+                break;
+            case WRITE:
+                out.writeByte(Tokens.CANDIDATE_WRITE);
+                writeIdentifier(writer, node, root);
+                writer.writeNormalizedNode(node.getDataAfter().get());
+                if (root) {
+                    // A written root can only be applied through its children. These cannot be derived from
+                    // the after-image alone, as it does not tell us which children have been removed.
+                    writeChildren(writer, out, node);
+                }
+                break;
+            case SUBTREE_MODIFIED:
+                out.writeByte(Tokens.CANDIDATE_SUBTREE_MODIFIED);
+                writeIdentifier(writer, node, root);
+                writeChildren(writer, out, node);
+                break;
+            case APPEARED:
+                out.writeByte(Tokens.CANDIDATE_APPEARED);
+                writeIdentifier(writer, node, root);
+                writeChildren(writer, out, node);
+                break;
+            case DISAPPEARED:
+                out.writeByte(Tokens.CANDIDATE_DISAPPEARED);
+                writeIdentifier(writer, node, root);
+                writeChildren(writer, out, node);
+                break;
+            default:
+                throw new IllegalArgumentException("Unhandled modification type " + type);
+        }
+    }
+
+    private static void writeIdentifier(final NormalizedNodeDataOutput writer, final DataTreeCandidateNode node,
+            final boolean root) throws IOException {
+        if (!root) {
+            writer.writePathArgument(node.getIdentifier());
+        }
+    }
+
+    private static void writeChildren(final NormalizedNodeDataOutput writer, final DataOutput out,
+            final DataTreeCandidateNode node) throws IOException {
+        // Unmodified children do not affect the outcome, skip them
+        final Collection<DataTreeCandidateNode> children = node.getChildNodes();
+        final List<DataTreeCandidateNode> modified = new ArrayList<>(children.size());
+        for (DataTreeCandidateNode child : children) {
+            if (child.getModificationType() != ModificationType.UNMODIFIED) {
+                modified.add(child);
+            }
+        }
+
+        out.writeInt(modified.size());
+        for (DataTreeCandidateNode child : modified) {
+            writeNode(writer, out, child, false);
+        }
+    }
+
+    private static DataTreeCandidateNode readNode(final NormalizedNodeDataInput reader, final DataInput in)
+            throws IOException {
+        final byte type = in.readByte();
+        return readNode(reader, in, type, reader.readPathArgument(), false);
+    }
+
+    private static DataTreeCandidateNode readRootNode(final NormalizedNodeDataInput reader, final DataInput in,
+            final PathArgument rootIdentifier) throws IOException {
+        return readNode(reader, in, in.readByte(), rootIdentifier, true);
+    }
+
+    private static DataTreeCandidateNode readNode(final NormalizedNodeDataInput reader, final DataInput in,
+            final byte type, final PathArgument identifier, final boolean root) throws IOException {
+        switch (type) {
+            case Tokens.CANDIDATE_UNMODIFIED:
+                return DeserializedDataTreeCandidateNode.createUnmodified(identifier);
+            case Tokens.CANDIDATE_DELETE:
+                return DeserializedDataTreeCandidateNode.createDeleted(identifier);
+            case Tokens.CANDIDATE_WRITE:
+                final NormalizedNode<?, ?> data = reader.readNormalizedNode();
+                return root ? DeserializedDataTreeCandidateNode.createWritten(identifier, data, readChildren(reader, in))
+                        : DeserializedDataTreeCandidateNode.createWritten(identifier, data);
+            case Tokens.CANDIDATE_SUBTREE_MODIFIED:
+                return DeserializedDataTreeCandidateNode.createModified(identifier, ModificationType.SUBTREE_MODIFIED,
+                    readChildren(reader, in));
+            case Tokens.CANDIDATE_APPEARED:
+                return DeserializedDataTreeCandidateNode.createModified(identifier, ModificationType.APPEARED,
+                    readChildren(reader, in));
+            case Tokens.CANDIDATE_DISAPPEARED:
+                return DeserializedDataTreeCandidateNode.createModified(identifier, ModificationType.DISAPPEARED,
+                    readChildren(reader, in));
+            default:
+                throw new InvalidNormalizedNodeStreamException("Invalid modification type " + type);
+        }
+    }
+
+    private static Collection<DataTreeCandidateNode> readChildren(final NormalizedNodeDataInput reader,
+            final DataInput in) throws IOException {
+        final int size = in.readInt();
+        if (size < 0) {
+            throw new InvalidNormalizedNodeStreamException("Invalid child count " + size);
+        }
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+
+        final List<DataTreeCandidateNode> ret = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            ret.add(readNode(reader, in));
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import com.google.common.base.Function;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Collections2;
+import java.util.Collection;
+import java.util.Collections;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+
+/**
+ * A {@link DataTreeCandidateNode} read by {@link DataTreeCandidateInputOutput}. It carries only the information
+ * needed to replay the modification: written nodes have their after-image, but no node has a before-image.
+ * Children of a written node are therefore derived from its after-image, unless they have been serialized, which
+ * is the case for the root node.
+ */
+final class DeserializedDataTreeCandidateNode implements DataTreeCandidateNode {
+    private static final Function<NormalizedNode<?, ?>, DataTreeCandidateNode> FACTORY_FUNCTION =
+            new Function<NormalizedNode<?, ?>, DataTreeCandidateNode>() {
+                @Override
+                public DataTreeCandidateNode apply(final NormalizedNode<?, ?> input) {
+                    return createWritten(input.getIdentifier(), input);
+                }
+            };
+
+    private final Collection<DataTreeCandidateNode> children;
+    private final Optional<NormalizedNode<?, ?>> dataAfter;
+    private final ModificationType type;
+    private final PathArgument identifier;
+
+    private DeserializedDataTreeCandidateNode(final PathArgument identifier, final ModificationType type,
+            final Optional<NormalizedNode<?, ?>> dataAfter, final Collection<DataTreeCandidateNode> children) {
+        // Null for the root node, whose identifier is implied by the candidate's root path
+        this.identifier = identifier;
+        this.type = Preconditions.checkNotNull(type);
+        this.dataAfter = Preconditions.checkNotNull(dataAfter);
+        this.children = Preconditions.checkNotNull(children);
+    }
+
+    static DataTreeCandidateNode createDeleted(final PathArgument identifier) {
+        return new DeserializedDataTreeCandidateNode(identifier, ModificationType.DELETE,
+            Optional.<NormalizedNode<?, ?>>absent(), Collections.<DataTreeCandidateNode>emptyList());
+    }
+
+    static DataTreeCandidateNode createUnmodified(final PathArgument identifier) {
+        return new DeserializedDataTreeCandidateNode(identifier, ModificationType.UNMODIFIED,
+            Optional.<NormalizedNode<?, ?>>absent(), Collections.<DataTreeCandidateNode>emptyList());
+    }
+
+    static DataTreeCandidateNode createWritten(final PathArgument identifier, final NormalizedNode<?, ?> data) {
+        final Collection<DataTreeCandidateNode> children;
+        if (data instanceof NormalizedNodeContainer) {
+            children = Collections2.transform(((NormalizedNodeContainer<?, ?, ?>) data).getValue(), FACTORY_FUNCTION);
+        } else {
+            children = Collections.emptyList();
+        }
+
+        return createWritten(identifier, data, children);
+    }
+
+    static DataTreeCandidateNode createWritten(final PathArgument identifier, final NormalizedNode<?, ?> data,
+            final Collection<DataTreeCandidateNode> children) {
+        return new DeserializedDataTreeCandidateNode(identifier, ModificationType.WRITE,
+            Optional.<NormalizedNode<?, ?>>of(data), children);
+    }
+
+    static DataTreeCandidateNode createModified(final PathArgument identifier, final ModificationType type,
+            final Collection<DataTreeCandidateNode> children) {
+        return new DeserializedDataTreeCandidateNode(identifier, type, Optional.<NormalizedNode<?, ?>>absent(),
+            children);
+    }
+
+    @Override
+    public PathArgument getIdentifier() {
+        Preconditions.checkState(identifier != null, "Attempted to get identifier of the root node");
+        return identifier;
+    }
+
+    @Override
+    public Collection<DataTreeCandidateNode> getChildNodes() {
+        return children;
+    }
+
+    @Override
+    public DataTreeCandidateNode getModifiedChild(final PathArgument childIdentifier) {
+        for (DataTreeCandidateNode child : children) {
+            if (childIdentifier.equals(child.getIdentifier())) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public ModificationType getModificationType() {
+        return type;
+    }
+
+    @Override
+    public Optional<NormalizedNode<?, ?>> getDataAfter() {
+        return dataAfter;
+    }
+
+    @Override
+    public Optional<NormalizedNode<?, ?>> getDataBefore() {
+        return Optional.absent();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("identifier", identifier).add("type", type)
+                .add("children", children.size()).toString();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import com.google.common.annotations.Beta;
+import java.io.IOException;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+
+/**
+ * Reader of data written by a {@link NormalizedNodeDataOutput}. Objects have to be read in the same order in which
+ * they were written. Data is read from the underlying input without any read-ahead, so users can freely interleave
+ * their own data with the data read through this interface.
+ */
+@Beta
+public interface NormalizedNodeDataInput {
+    /**
+     * Read a complete {@link NormalizedNode}.
+     *
+     * @return The node which was read
+     * @throws IOException if the underlying input fails or the data is not well-formed
+     */
+    @Nonnull NormalizedNode<?, ?> readNormalizedNode() throws IOException;
+
+    /**
+     * Read a complete {@link NormalizedNode}, emitting it into a {@link NormalizedNodeStreamWriter}. This allows
+     * the data to be consumed without the node being instantiated.
+     *
+     * @param writer Writer to which the node should be streamed
+     * @throws IOException if the underlying input fails or the data is not well-formed
+     */
+    void streamNormalizedNode(@Nonnull NormalizedNodeStreamWriter writer) throws IOException;
+
+    /**
+     * Read a single {@link PathArgument}.
+     *
+     * @return The path argument which was read
+     * @throws IOException if the underlying input fails or the data is not well-formed
+     */
+    @Nonnull PathArgument readPathArgument() throws IOException;
+
+    /**
+     * Read a {@link YangInstanceIdentifier}.
+     *
+     * @return The identifier which was read
+     * @throws IOException if the underlying input fails or the data is not well-formed
+     */
+    @Nonnull YangInstanceIdentifier readYangInstanceIdentifier() throws IOException;
+
+    /**
+     * Read a {@link QName}.
+     *
+     * @return The QName which was read
+     * @throws IOException if the underlying input fails or the data is not well-formed
+     */
+    @Nonnull QName readQName() throws IOException;
+}
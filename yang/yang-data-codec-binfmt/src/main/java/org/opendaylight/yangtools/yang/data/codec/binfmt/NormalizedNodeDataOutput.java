@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import com.google.common.annotations.Beta;
+import java.io.IOException;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+
+/**
+ * A {@link NormalizedNodeStreamWriter} emitting the compact binary format, which can be read back using
+ * a {@link NormalizedNodeDataInput}. All objects written through a single instance share a dictionary, hence
+ * they have to be read through a single {@link NormalizedNodeDataInput} in the same order.
+ *
+ * <p>
+ * Data is written through to the underlying output without any buffering, so users can freely interleave their
+ * own data with the data written through this interface. {@link #close()} does not close the underlying output.
+ */
+@Beta
+public interface NormalizedNodeDataOutput extends NormalizedNodeStreamWriter {
+    /**
+     * Write a complete {@link NormalizedNode}.
+     *
+     * @param node Node to write
+     * @throws IOException if the underlying output fails
+     */
+    void writeNormalizedNode(@Nonnull NormalizedNode<?, ?> node) throws IOException;
+
+    /**
+     * Write a single {@link PathArgument}.
+     *
+     * @param pathArgument Path argument to write
+     * @throws IOException if the underlying output fails
+     */
+    void writePathArgument(@Nonnull PathArgument pathArgument) throws IOException;
+
+    /**
+     * Write a {@link YangInstanceIdentifier}.
+     *
+     * @param identifier Identifier to write
+     * @throws IOException if the underlying output fails
+     */
+    void writeYangInstanceIdentifier(@Nonnull YangInstanceIdentifier identifier) throws IOException;
+
+    /**
+     * Write a {@link QName}.
+     *
+     * @param qname QName to write
+     * @throws IOException if the underlying output fails
+     */
+    void writeQName(@Nonnull QName qname) throws IOException;
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import com.google.common.annotations.Beta;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import javax.annotation.Nonnull;
+
+/**
+ * Entry point to the compact binary format.
+ */
+@Beta
+public final class NormalizedNodeInputOutput {
+    private NormalizedNodeInputOutput() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Create a new {@link NormalizedNodeDataOutput} writing to specified output. The stream header is written
+     * when the first object is written.
+     *
+     * @param output Underlying output
+     * @return A new {@link NormalizedNodeDataOutput}
+     */
+    @Nonnull public static NormalizedNodeDataOutput newDataOutput(@Nonnull final DataOutput output) {
+        return new BinaryNormalizedNodeDataOutput(output);
+    }
+
+    /**
+     * Create a new {@link NormalizedNodeDataInput} reading from specified input. The stream header is read and
+     * validated immediately.
+     *
+     * @param input Underlying input
+     * @return A new {@link NormalizedNodeDataInput}
+     * @throws IOException if the input does not start with a recognized stream header
+     */
+    @Nonnull public static NormalizedNodeDataInput newDataInput(@Nonnull final DataInput input) throws IOException {
+        return BinaryNormalizedNodeDataInput.create(input);
+    }
+}
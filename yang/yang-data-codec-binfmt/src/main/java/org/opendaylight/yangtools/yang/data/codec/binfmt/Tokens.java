@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+/**
+ * Constants used by the binary format.
+ *
+ * <p>
+ * A stream starts with {@link #SIGNATURE} and {@link #VERSION}. Nodes are encoded as a node type, followed by the
+ * node's identifier and either its value or its children terminated by {@link #END_NODE}. Identifiers are implied by
+ * the node type, hence a leaf is identified just by its QName.
+ *
+ * <p>
+ * QNameModules, QNames, AugmentationIdentifiers and NodeIdentifierWithPredicates are subject to a per-stream
+ * dictionary. Each of them is encoded as an unsigned variable-length integer, which is either
+ * {@link #DICTIONARY_DEFINE}, followed by the definition of the object, which is then assigned the next available
+ * code, or the code of a previously-defined object plus one. Hence the first 127 distinct objects of each kind take up
+ * a single byte when they are repeated. NodeIdentifierWithPredicates typically repeat when a list entry is referenced
+ * both by a path and by its data, as is the case in data tree candidates.
+ */
+final class Tokens {
+    static final byte SIGNATURE = (byte) 0xB7;
+    static final byte VERSION = 1;
+
+    static final int DICTIONARY_DEFINE = 0;
+
+    // Node types
+    static final byte END_NODE = 0;
+    static final byte LEAF = 1;
+    static final byte LEAF_SET = 2;
+    static final byte ORDERED_LEAF_SET = 3;
+    static final byte LEAF_SET_ENTRY = 4;
+    static final byte CONTAINER = 5;
+    static final byte UNKEYED_LIST = 6;
+    static final byte UNKEYED_LIST_ITEM = 7;
+    static final byte MAP = 8;
+    static final byte MAP_ENTRY = 9;
+    static final byte ORDERED_MAP = 10;
+    static final byte CHOICE = 11;
+    static final byte AUGMENTATION = 12;
+    static final byte ANYXML = 13;
+
+    // Path argument types
+    static final byte NODE_IDENTIFIER = 0;
+    static final byte NODE_IDENTIFIER_WITH_PREDICATES = 1;
+    static final byte NODE_WITH_VALUE = 2;
+    static final byte AUGMENTATION_IDENTIFIER = 3;
+
+    // Value types
+    static final byte NULL_VALUE = 0;
+    static final byte FALSE_VALUE = 1;
+    static final byte TRUE_VALUE = 2;
+    static final byte BYTE_VALUE = 3;
+    static final byte SHORT_VALUE = 4;
+    static final byte INT_VALUE = 5;
+    static final byte LONG_VALUE = 6;
+    static final byte BIG_INTEGER_VALUE = 7;
+    static final byte BIG_DECIMAL_VALUE = 8;
+    static final byte STRING_VALUE = 9;
+    static final byte BINARY_VALUE = 10;
+    static final byte QNAME_VALUE = 11;
+    static final byte BITS_VALUE = 12;
+    static final byte YANG_IDENTIFIER_VALUE = 13;
+
+    // Candidate node modification types
+    static final byte CANDIDATE_UNMODIFIED = 0;
+    static final byte CANDIDATE_SUBTREE_MODIFIED = 1;
+    static final byte CANDIDATE_WRITE = 2;
+    static final byte CANDIDATE_DELETE = 3;
+    static final byte CANDIDATE_APPEARED = 4;
+    static final byte CANDIDATE_DISAPPEARED = 5;
+
+    private Tokens() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Collections;
+import java.util.Iterator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+
+public class DataTreeCandidateInputOutputTest {
+    private static final QName TOP = QName.create("urn:opendaylight:test:binfmt", "2016-06-01", "top");
+    private static final QName LIST = QName.create(TOP, "list");
+    private static final QName ID = QName.create(TOP, "id");
+    private static final QName NAME = QName.create(TOP, "name");
+    private static final YangInstanceIdentifier TOP_PATH = YangInstanceIdentifier.of(TOP);
+
+    private static SchemaContext schemaContext;
+
+    @BeforeClass
+    public static void beforeClass() throws ReactorException {
+        schemaContext = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(Collections.singletonList(
+            DataTreeCandidateInputOutputTest.class.getResourceAsStream("/binfmt-test.yang")));
+    }
+
+    private static NodeIdentifierWithPredicates entryId(final int id) {
+        return new NodeIdentifierWithPredicates(LIST, ID, id);
+    }
+
+    private static MapEntryNode entry(final int id, final String name) {
+        return ImmutableNodes.mapEntryBuilder(LIST, ID, id).withChild(ImmutableNodes.leafNode(NAME, name)).build();
+    }
+
+    private static DataTree createDataTree() throws Exception {
+        final DataTree tree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(schemaContext);
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TOP_PATH, ImmutableNodes.containerNode(TOP));
+        mod.write(TOP_PATH.node(LIST), ImmutableNodes.mapNodeBuilder(LIST)
+            .withChild(entry(1, "one")).withChild(entry(2, "two")).withChild(entry(3, "three")).build());
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+        return tree;
+    }
+
+    private static DataTreeCandidate roundTrip(final DataTreeCandidate candidate) throws IOException {
+        return DataTreeCandidateInputOutput.readDataTreeCandidate(
+            DataTreeCandidateInputOutput.serializeDataTreeCandidate(candidate));
+    }
+
+    private static DataTreeCandidate createCandidate() {
+        final MapEntryNode written = ImmutableNodes.mapEntryBuilder(LIST, ID, 1)
+                .withChild(ImmutableNodes.leafNode(NAME, "one")).build();
+
+        final DataTreeCandidateNode list = DeserializedDataTreeCandidateNode.createModified(new NodeIdentifier(LIST),
+            ModificationType.SUBTREE_MODIFIED, ImmutableList.of(
+                DeserializedDataTreeCandidateNode.createWritten(entryId(1), written),
+                DeserializedDataTreeCandidateNode.createUnmodified(entryId(2)),
+                DeserializedDataTreeCandidateNode.createDeleted(entryId(3))));
+
+        return DataTreeCandidates.newDataTreeCandidate(TOP_PATH, DeserializedDataTreeCandidateNode.createModified(
+            new NodeIdentifier(TOP), ModificationType.SUBTREE_MODIFIED, ImmutableList.of(list)));
+    }
+
+    private static void assertCandidate(final DataTreeCandidate candidate) {
+        assertEquals(TOP_PATH, candidate.getRootPath());
+
+        final DataTreeCandidateNode root = candidate.getRootNode();
+        assertEquals(new NodeIdentifier(TOP), root.getIdentifier());
+        assertEquals(ModificationType.SUBTREE_MODIFIED, root.getModificationType());
+        assertEquals(1, root.getChildNodes().size());
+
+        final DataTreeCandidateNode list = root.getModifiedChild(new NodeIdentifier(LIST));
+        assertEquals(ModificationType.SUBTREE_MODIFIED, list.getModificationType());
+        assertFalse(list.getDataBefore().isPresent());
+
+        // Unmodified entry is not transferred
+        assertEquals(2, list.getChildNodes().size());
+        assertNull(list.getModifiedChild(entryId(2)));
+
+        final Iterator<DataTreeCandidateNode> it = list.getChildNodes().iterator();
+        final DataTreeCandidateNode written = it.next();
+        assertEquals(entryId(1), written.getIdentifier());
+        assertEquals(ModificationType.WRITE, written.getModificationType());
+        assertEquals(ImmutableNodes.mapEntryBuilder(LIST, ID, 1).withChild(ImmutableNodes.leafNode(NAME, "one"))
+            .build(), written.getDataAfter().get());
+        // Children of a written node are derived from its data
+        assertEquals(2, written.getChildNodes().size());
+        assertEquals(ModificationType.WRITE, written.getModifiedChild(new NodeIdentifier(NAME)).getModificationType());
+
+        final DataTreeCandidateNode deleted = it.next();
+        assertEquals(entryId(3), deleted.getIdentifier());
+        assertEquals(ModificationType.DELETE, deleted.getModificationType());
+        assertFalse(deleted.getDataAfter().isPresent());
+    }
+
+    @Test
+    public void testByteBufferRoundTrip() throws IOException {
+        final ByteBuffer buffer = DataTreeCandidateInputOutput.serializeDataTreeCandidate(createCandidate());
+        final int remaining = buffer.remaining();
+
+        // The buffer can be read multiple times
+        assertCandidate(DataTreeCandidateInputOutput.readDataTreeCandidate(buffer));
+        assertCandidate(DataTreeCandidateInputOutput.readDataTreeCandidate(buffer));
+        assertEquals(remaining, buffer.remaining());
+    }
+
+    @Test
+    public void testChannel() throws IOException {
+        final ByteBuffer buffer = DataTreeCandidateInputOutput.serializeDataTreeCandidate(createCandidate());
+
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        final ByteArrayOutputStream second = new ByteArrayOutputStream();
+        DataTreeCandidateInputOutput.writeTo(Channels.newChannel(first), buffer);
+        DataTreeCandidateInputOutput.writeTo(Channels.newChannel(second), buffer);
+
+        assertEquals(buffer.remaining(), first.size());
+        assertCandidate(DataTreeCandidateInputOutput.readDataTreeCandidate(ByteBuffer.wrap(second.toByteArray())));
+    }
+
+    @Test
+    public void testPreparedCandidate() throws Exception {
+        final DataTree source = createDataTree();
+        final DataTreeModification mod = source.takeSnapshot().newModification();
+        mod.write(TOP_PATH.node(LIST).node(entryId(1)), entry(1, "uno"));
+        mod.delete(TOP_PATH.node(LIST).node(entryId(3)));
+        mod.ready();
+        source.validate(mod);
+        final DataTreeCandidate candidate = source.prepare(mod);
+
+        // Root node of a prepared candidate does not have an identifier
+        final DataTreeCandidate read = roundTrip(candidate);
+        assertEquals(YangInstanceIdentifier.EMPTY, read.getRootPath());
+        assertEquals(candidate.getRootNode().getModificationType(), read.getRootNode().getModificationType());
+
+        final DataTree target = createDataTree();
+        final DataTreeModification replay = target.takeSnapshot().newModification();
+        DataTreeCandidates.applyToModification(replay, read);
+        replay.ready();
+        target.validate(replay);
+        target.commit(target.prepare(replay));
+        source.commit(candidate);
+
+        assertEquals(source.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY),
+            target.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY));
+    }
+
+    private static void assertRootWrite(final ContainerNode root) throws Exception {
+        final DataTree source = createDataTree();
+        final DataTreeModification mod = source.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.EMPTY, root);
+        mod.ready();
+        source.validate(mod);
+        final DataTreeCandidate candidate = source.prepare(mod);
+
+        final DataTreeCandidate read = roundTrip(candidate);
+        assertEquals(YangInstanceIdentifier.EMPTY, read.getRootPath());
+        assertEquals(ModificationType.WRITE, read.getRootNode().getModificationType());
+        assertEquals(root, read.getRootNode().getDataAfter().get());
+        assertFalse(read.getRootNode().getChildNodes().isEmpty());
+
+        // A root write is applied through its children
+        final DataTree target = createDataTree();
+        final DataTreeModification replay = target.takeSnapshot().newModification();
+        DataTreeCandidates.applyToModification(replay, read);
+        replay.ready();
+        target.validate(replay);
+        target.commit(target.prepare(replay));
+        source.commit(candidate);
+
+        assertEquals(source.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY),
+            target.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY));
+    }
+
+    @Test
+    public void testRootWriteCandidate() throws Exception {
+        assertRootWrite(ImmutableContainerNodeBuilder.create().withNodeIdentifier(new NodeIdentifier(SchemaContext.NAME))
+            .withChild(ImmutableContainerNodeBuilder.create().withNodeIdentifier(new NodeIdentifier(TOP))
+                .withChild(ImmutableNodes.mapNodeBuilder(LIST).withChild(entry(1, "uno")).build()).build())
+            .build());
+    }
+
+    @Test
+    public void testRootWriteRemovingChildren() throws Exception {
+        assertRootWrite(ImmutableContainerNodeBuilder.create().withNodeIdentifier(new NodeIdentifier(SchemaContext.NAME))
+            .build());
+    }
+
+    @Test
+    public void testUnmodifiedCandidate() throws Exception {
+        final DataTree tree = createDataTree();
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.ready();
+        tree.validate(mod);
+
+        final DataTreeCandidate read = roundTrip(tree.prepare(mod));
+        assertEquals(YangInstanceIdentifier.EMPTY, read.getRootPath());
+        assertEquals(ModificationType.UNMODIFIED, read.getRootNode().getModificationType());
+        assertEquals(0, read.getRootNode().getChildNodes().size());
+    }
+}
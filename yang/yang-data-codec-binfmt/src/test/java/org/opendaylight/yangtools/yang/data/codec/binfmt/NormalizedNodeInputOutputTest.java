@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+
+public class NormalizedNodeInputOutputTest {
+    private static final String NAMESPACE = "urn:opendaylight:test:binfmt";
+    private static final QName TOP = QName.create(NAMESPACE, "2016-06-01", "top");
+    private static final QName LIST = QName.create(TOP, "list");
+    private static final QName ID = QName.create(TOP, "id");
+    private static final QName NAME = QName.create(TOP, "name");
+    private static final QName LEAF_LIST = QName.create(TOP, "leaf-list");
+    private static final QName CHOICE = QName.create(TOP, "choice");
+    private static final QName AUGMENTED = QName.create("urn:opendaylight:test:augment", "augmented");
+
+    private static ContainerNode createContainer(final int listSize) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = ImmutableNodes.mapNodeBuilder(LIST);
+        for (int i = 0; i < listSize; ++i) {
+            list.withChild(ImmutableNodes.mapEntryBuilder(LIST, ID, i)
+                .withChild(ImmutableNodes.leafNode(NAME, "entry " + i)).build());
+        }
+
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TOP))
+            .withChild(list.build())
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "boolean"), Boolean.TRUE))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "byte"), (byte) -5))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "short"), (short) 300))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "int"), Integer.MIN_VALUE))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "long"), Long.MAX_VALUE))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "big-integer"),
+                new BigInteger("18446744073709551615")))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "decimal"), new BigDecimal("-12.345")))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "binary"), new byte[] { 1, 2, 3 }))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "identityref"), AUGMENTED))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "bits"), ImmutableSet.of("one", "two")))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "empty"), null))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "instance-identifier"),
+                YangInstanceIdentifier.builder().node(TOP).node(LIST).nodeWithKey(LIST, ID, 5).build()))
+            .withChild(Builders.leafSetBuilder().withNodeIdentifier(new NodeIdentifier(LEAF_LIST))
+                .withChild(Builders.leafSetEntryBuilder().withNodeIdentifier(new NodeWithValue<>(LEAF_LIST, "a"))
+                    .withValue("a").build()).build())
+            .withChild(Builders.choiceBuilder().withNodeIdentifier(new NodeIdentifier(CHOICE))
+                .withChild(ImmutableNodes.leafNode(QName.create(TOP, "case-leaf"), "žluťoučký"))
+                .build())
+            .withChild(Builders.augmentationBuilder()
+                .withNodeIdentifier(new AugmentationIdentifier(ImmutableSet.of(AUGMENTED)))
+                .withChild(ImmutableNodes.leafNode(AUGMENTED, 42L)).build())
+            .build();
+    }
+
+    private static byte[] write(final NormalizedNode<?, ?> node) throws IOException {
+        final ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        NormalizedNodeInputOutput.newDataOutput(out).writeNormalizedNode(node);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testNormalizedNodeRoundTrip() throws IOException {
+        final ContainerNode container = createContainer(10);
+        final byte[] bytes = write(container);
+        assertEquals(container, NormalizedNodeInputOutput.newDataInput(ByteStreams.newDataInput(bytes))
+            .readNormalizedNode());
+    }
+
+    @Test
+    public void testDictionary() throws IOException {
+        /*
+         * Once QNames have been defined, each additional entry is encoded as 24 bytes: 7 bytes for the entry
+         * and its predicate definition, 4 bytes for the key leaf, 12 bytes for the name leaf and the end marker.
+         */
+        final int small = write(createContainer(10)).length;
+        final int large = write(createContainer(20)).length;
+        assertEquals(10 * 24, large - small);
+    }
+
+    @Test
+    public void testPredicatesDictionary() throws IOException {
+        final YangInstanceIdentifier path = YangInstanceIdentifier.builder().node(TOP).node(LIST)
+                .node(new NodeIdentifierWithPredicates(LIST, ID, 1)).node(NAME).build();
+
+        final ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        final NormalizedNodeDataOutput output = NormalizedNodeInputOutput.newDataOutput(out);
+        output.writeYangInstanceIdentifier(path);
+        final int first = out.toByteArray().length;
+        output.writeYangInstanceIdentifier(path);
+        // Size, then type and back-reference for each of the four path arguments
+        assertEquals(9, out.toByteArray().length - first);
+        output.writePathArgument(new NodeIdentifierWithPredicates(LIST, ID, 1));
+
+        final NormalizedNodeDataInput input = NormalizedNodeInputOutput.newDataInput(
+            ByteStreams.newDataInput(out.toByteArray()));
+        assertEquals(path, input.readYangInstanceIdentifier());
+        assertEquals(path, input.readYangInstanceIdentifier());
+        assertEquals(new NodeIdentifierWithPredicates(LIST, ID, 1), input.readPathArgument());
+    }
+
+    @Test(expected = InvalidNormalizedNodeStreamException.class)
+    public void testAnyXmlDoctypeRejected() throws IOException {
+        final ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeByte(Tokens.SIGNATURE);
+        out.writeByte(Tokens.VERSION);
+        out.writeByte(Tokens.ANYXML);
+        out.writeByte(Tokens.DICTIONARY_DEFINE);
+        out.writeByte(Tokens.DICTIONARY_DEFINE);
+        writeString(out, NAMESPACE);
+        writeString(out, "");
+        writeString(out, "anyxml");
+        writeString(out, "<!DOCTYPE foo [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]><foo>&xxe;</foo>");
+
+        NormalizedNodeInputOutput.newDataInput(ByteStreams.newDataInput(out.toByteArray())).readNormalizedNode();
+    }
+
+    private static void writeString(final ByteArrayDataOutput out, final String str) {
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        // All strings used here are shorter than 128 bytes, hence their length fits into a single byte
+        out.writeByte(bytes.length);
+        out.write(bytes);
+    }
+
+    @Test
+    public void testPathArguments() throws IOException {
+        final YangInstanceIdentifier path = YangInstanceIdentifier.builder().node(TOP).node(LIST)
+                .node(new NodeIdentifierWithPredicates(LIST, ID, 1))
+                .node(new AugmentationIdentifier(ImmutableSet.of(AUGMENTED))).node(AUGMENTED).build();
+
+        final ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        final NormalizedNodeDataOutput output = NormalizedNodeInputOutput.newDataOutput(out);
+        output.writeYangInstanceIdentifier(path);
+        output.writeYangInstanceIdentifier(YangInstanceIdentifier.EMPTY);
+        output.writePathArgument(new NodeWithValue<>(LEAF_LIST, "a"));
+        output.writeQName(NAME);
+        output.writeNormalizedNode(ImmutableNodes.leafNode(NAME, "name"));
+
+        final NormalizedNodeDataInput input = NormalizedNodeInputOutput.newDataInput(
+            ByteStreams.newDataInput(out.toByteArray()));
+        assertEquals(path, input.readYangInstanceIdentifier());
+        assertEquals(YangInstanceIdentifier.EMPTY, input.readYangInstanceIdentifier());
+        assertEquals(new NodeWithValue<>(LEAF_LIST, "a"), input.readPathArgument());
+        assertEquals(NAME, input.readQName());
+        assertEquals(ImmutableNodes.leafNode(NAME, "name"), input.readNormalizedNode());
+    }
+
+    @Test(expected = InvalidNormalizedNodeStreamException.class)
+    public void testInvalidSignature() throws IOException {
+        NormalizedNodeInputOutput.newDataInput(ByteStreams.newDataInput(new byte[] { 0, 1 }));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testYangModeledAnyXml() throws IOException {
+        final NormalizedNodeStreamWriter writer = NormalizedNodeInputOutput.newDataOutput(
+            ByteStreams.newDataOutput());
+        writer.startYangModeledAnyXmlNode(new NodeIdentifier(TOP), 0);
+    }
+}
@@ -72,11 +72,12 @@ abstract class AbstractImmutableDataContainerNodeBuilder<I extends PathArgument,
 
     protected final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> buildValue() {
         if (value instanceof ModifiableMapPhase) {
-            return ((ModifiableMapPhase<PathArgument, DataContainerChild<? extends PathArgument, ?>>)value).toUnmodifiableMap();
+            return ScalarLeafChildrenMap.copyOf(
+                ((ModifiableMapPhase<PathArgument, DataContainerChild<? extends PathArgument, ?>>)value).toUnmodifiableMap());
         }
 
         dirty = true;
-        return value;
+        return ScalarLeafChildrenMap.copyOf(value);
     }
 
     private void checkDirty() {
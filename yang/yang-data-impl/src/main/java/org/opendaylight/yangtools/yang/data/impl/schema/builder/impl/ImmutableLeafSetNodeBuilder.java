@@ -28,6 +28,7 @@ import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableN
 import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableNormalizedValueNode;
 
 public class ImmutableLeafSetNodeBuilder<T> implements ListNodeBuilder<T, LeafSetEntryNode<T>> {
+    private static final MapAdaptor ADAPTOR = MapAdaptor.getCallSiteInstance("leaf-set-node");
     private static final int DEFAULT_CAPACITY = 4;
     private final Map<NodeWithValue, LeafSetEntryNode<T>> value;
     private NodeIdentifier nodeIdentifier;
@@ -46,7 +47,7 @@ public class ImmutableLeafSetNodeBuilder<T> implements ListNodeBuilder<T, LeafSe
 
     protected ImmutableLeafSetNodeBuilder(final ImmutableLeafSetNode<T> node) {
         nodeIdentifier = node.getIdentifier();
-        value = MapAdaptor.getDefaultInstance().takeSnapshot(node.children);
+        value = ADAPTOR.takeSnapshot(node.children);
     }
 
     public static <T> ListNodeBuilder<T, LeafSetEntryNode<T>> create() {
@@ -79,7 +80,7 @@ public class ImmutableLeafSetNodeBuilder<T> implements ListNodeBuilder<T, LeafSe
 
     @Override
     public LeafSetNode<T> build() {
-        return new ImmutableLeafSetNode<>(nodeIdentifier, MapAdaptor.getDefaultInstance().optimize(value));
+        return new ImmutableLeafSetNode<>(nodeIdentifier, ADAPTOR.optimize(value));
     }
 
     @Override
@@ -26,6 +26,7 @@ import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNo
 import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableNormalizedNode;
 
 public class ImmutableMapNodeBuilder implements CollectionNodeBuilder<MapEntryNode, MapNode> {
+    private static final MapAdaptor ADAPTOR = MapAdaptor.getCallSiteInstance("map-node");
     private static final int DEFAULT_CAPACITY = 4;
     private final Map<NodeIdentifierWithPredicates, MapEntryNode> value;
     private NodeIdentifier nodeIdentifier;
@@ -44,7 +45,7 @@ public class ImmutableMapNodeBuilder implements CollectionNodeBuilder<MapEntryNo
 
     protected ImmutableMapNodeBuilder(final ImmutableMapNode node) {
         this.nodeIdentifier = node.getIdentifier();
-        this.value = MapAdaptor.getDefaultInstance().takeSnapshot(node.children);
+        this.value = ADAPTOR.takeSnapshot(node.children);
     }
 
     public static CollectionNodeBuilder<MapEntryNode, MapNode> create() {
@@ -93,7 +94,7 @@ public class ImmutableMapNodeBuilder implements CollectionNodeBuilder<MapEntryNo
 
     @Override
     public MapNode build() {
-        return new ImmutableMapNode(nodeIdentifier, MapAdaptor.getDefaultInstance().optimize(value));
+        return new ImmutableMapNode(nodeIdentifier, ADAPTOR.optimize(value));
     }
 
     @Override
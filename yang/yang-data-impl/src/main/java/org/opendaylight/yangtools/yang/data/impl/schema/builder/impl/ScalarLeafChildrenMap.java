@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.UnmodifiableIterator;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.opendaylight.yangtools.util.ImmutableOffsetMap;
+import org.opendaylight.yangtools.util.ModifiableMapPhase;
+import org.opendaylight.yangtools.util.MutableOffsetMap;
+import org.opendaylight.yangtools.util.UnmodifiableMapPhase;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableLeafNodeBuilder.ImmutableLeafNode;
+
+/**
+ * Immutable children map of a data container, which stores leaves with Boolean, Byte, Short, Integer and Long values
+ * inline in a primitive array. Such leaves are not retained, but rather materialized on access, hence a container
+ * holding N such leaves saves N leaf objects and N boxed values, at the cost of allocating a leaf on each lookup.
+ * Other children are stored as is.
+ *
+ * <p>The key layout, which defines the position of each child and the type of each inlined value, is shared by all
+ * maps with the same layout.
+ */
+final class ScalarLeafChildrenMap extends AbstractMap<PathArgument, DataContainerChild<? extends PathArgument, ?>>
+        implements UnmodifiableMapPhase<PathArgument, DataContainerChild<? extends PathArgument, ?>>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Kinds of stored values
+    private static final byte OBJECT = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte BYTE = 2;
+    private static final byte SHORT = 3;
+    private static final byte INTEGER = 4;
+    private static final byte LONG = 5;
+
+    private static final Interner<Layout> LAYOUTS = Interners.newWeakInterner();
+
+    private static final class Layout {
+        final PathArgument[] keys;
+        final byte[] kinds;
+        final int[] slots;
+        final Map<PathArgument, Integer> offsets;
+        final int scalarCount;
+        final int objectCount;
+        private final int hashCode;
+
+        Layout(final PathArgument[] keys, final byte[] kinds) {
+            this.keys = keys;
+            this.kinds = kinds;
+            this.slots = new int[keys.length];
+
+            final ImmutableMap.Builder<PathArgument, Integer> b = ImmutableMap.builder();
+            int scalars = 0;
+            int objects = 0;
+            for (int i = 0; i < keys.length; ++i) {
+                b.put(keys[i], i);
+                slots[i] = kinds[i] == OBJECT ? objects++ : scalars++;
+            }
+
+            this.offsets = b.build();
+            this.scalarCount = scalars;
+            this.objectCount = objects;
+            this.hashCode = 31 * Arrays.hashCode(keys) + Arrays.hashCode(kinds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Layout)) {
+                return false;
+            }
+            final Layout other = (Layout) obj;
+            return Arrays.equals(kinds, other.kinds) && Arrays.equals(keys, other.keys);
+        }
+    }
+
+    private final transient Layout layout;
+    private final transient long[] scalars;
+    private final transient DataContainerChild<? extends PathArgument, ?>[] objects;
+    private transient int hashCode;
+
+    private ScalarLeafChildrenMap(final Layout layout, final long[] scalars,
+            final DataContainerChild<? extends PathArgument, ?>[] objects) {
+        this.layout = Preconditions.checkNotNull(layout);
+        this.scalars = Preconditions.checkNotNull(scalars);
+        this.objects = Preconditions.checkNotNull(objects);
+    }
+
+    /**
+     * Create an immutable copy of a children map, inlining eligible leaves. If the map does not contain any such
+     * leaves, it is returned unchanged.
+     *
+     * @param map Children map
+     * @return An immutable map, or the input map
+     */
+    static Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> copyOf(
+            final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> map) {
+        if (map instanceof ScalarLeafChildrenMap) {
+            return map;
+        }
+
+        final int size = map.size();
+        final PathArgument[] keys = new PathArgument[size];
+        final byte[] kinds = new byte[size];
+        boolean found = false;
+        int i = 0;
+        for (Entry<PathArgument, DataContainerChild<? extends PathArgument, ?>> e : map.entrySet()) {
+            keys[i] = e.getKey();
+            kinds[i] = kindOf(e.getKey(), e.getValue());
+            if (kinds[i] != OBJECT) {
+                found = true;
+            }
+            i++;
+        }
+        if (!found) {
+            return map;
+        }
+
+        final Layout layout = LAYOUTS.intern(new Layout(keys, kinds));
+        final long[] scalars = new long[layout.scalarCount];
+        @SuppressWarnings("unchecked")
+        final DataContainerChild<? extends PathArgument, ?>[] objects =
+                new DataContainerChild[layout.objectCount];
+        for (Entry<PathArgument, DataContainerChild<? extends PathArgument, ?>> e : map.entrySet()) {
+            final int offset = layout.offsets.get(e.getKey());
+            final int slot = layout.slots[offset];
+            if (layout.kinds[offset] == OBJECT) {
+                objects[slot] = e.getValue();
+            } else {
+                scalars[slot] = toLong(e.getValue().getValue());
+            }
+        }
+
+        return new ScalarLeafChildrenMap(layout, scalars, objects);
+    }
+
+    private static byte kindOf(final PathArgument key, final DataContainerChild<? extends PathArgument, ?> child) {
+        // Only plain leaves can be faithfully materialized
+        if (child.getClass() != ImmutableLeafNode.class || !(key instanceof NodeIdentifier)
+                || !((ImmutableLeafNode<?>) child).getAttributes().isEmpty()) {
+            return OBJECT;
+        }
+
+        final Object value = child.getValue();
+        if (value == null) {
+            return OBJECT;
+        }
+
+        final Class<?> type = value.getClass();
+        if (type == Boolean.class) {
+            return BOOLEAN;
+        }
+        if (type == Byte.class) {
+            return BYTE;
+        }
+        if (type == Short.class) {
+            return SHORT;
+        }
+        if (type == Integer.class) {
+            return INTEGER;
+        }
+        if (type == Long.class) {
+            return LONG;
+        }
+        return OBJECT;
+    }
+
+    private static long toLong(final Object value) {
+        if (value instanceof Boolean) {
+            return ((Boolean) value) ? 1 : 0;
+        }
+        return ((Number) value).longValue();
+    }
+
+    private static Object fromLong(final byte kind, final long value) {
+        switch (kind) {
+            case BOOLEAN:
+                return value != 0;
+            case BYTE:
+                return (byte) value;
+            case SHORT:
+                return (short) value;
+            case INTEGER:
+                return (int) value;
+            case LONG:
+                return value;
+            default:
+                throw new IllegalStateException("Unhandled value kind " + kind);
+        }
+    }
+
+    private DataContainerChild<? extends PathArgument, ?> valueAt(final int offset) {
+        final byte kind = layout.kinds[offset];
+        final int slot = layout.slots[offset];
+        if (kind == OBJECT) {
+            return objects[slot];
+        }
+
+        return new ImmutableLeafNode<>((NodeIdentifier) layout.keys[offset], fromLong(kind, scalars[slot]),
+                ImmutableMap.of());
+    }
+
+    @Override
+    public int size() {
+        return layout.keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return layout.keys.length == 0;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return layout.offsets.containsKey(key);
+    }
+
+    @Override
+    public DataContainerChild<? extends PathArgument, ?> get(final Object key) {
+        final Integer offset = layout.offsets.get(key);
+        return offset == null ? null : valueAt(offset);
+    }
+
+    @Override
+    public DataContainerChild<? extends PathArgument, ?> remove(final Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putAll(final Map<? extends PathArgument, ? extends DataContainerChild<? extends PathArgument, ?>> m) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<PathArgument> keySet() {
+        return layout.offsets.keySet();
+    }
+
+    @Override
+    public Set<Entry<PathArgument, DataContainerChild<? extends PathArgument, ?>>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public ModifiableMapPhase<PathArgument, DataContainerChild<? extends PathArgument, ?>> toModifiableMap() {
+        return MutableOffsetMap.unorderedCopyOf(this);
+    }
+
+    @Override
+    public int hashCode() {
+        if (hashCode != 0) {
+            return hashCode;
+        }
+
+        int result = 0;
+        for (int i = 0; i < layout.keys.length; ++i) {
+            result += layout.keys[i].hashCode() ^ valueAt(i).hashCode();
+        }
+
+        hashCode = result;
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof ScalarLeafChildrenMap) {
+            final ScalarLeafChildrenMap other = (ScalarLeafChildrenMap) obj;
+            if (layout == other.layout) {
+                // Same layout: compare the backing arrays, avoiding materialization
+                return Arrays.equals(scalars, other.scalars) && Arrays.equals(objects, other.objects);
+            }
+        }
+
+        return super.equals(obj);
+    }
+
+    private Object writeReplace() {
+        // Serialize as an ImmutableOffsetMap, which is what we would be without inlined leaves
+        return ImmutableOffsetMap.unorderedCopyOf(this);
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<PathArgument, DataContainerChild<? extends PathArgument, ?>>> {
+        @Override
+        public int size() {
+            return layout.keys.length;
+        }
+
+        @Override
+        public Iterator<Entry<PathArgument, DataContainerChild<? extends PathArgument, ?>>> iterator() {
+            return new UnmodifiableIterator<Entry<PathArgument, DataContainerChild<? extends PathArgument, ?>>>() {
+                private int offset;
+
+                @Override
+                public boolean hasNext() {
+                    return offset < layout.keys.length;
+                }
+
+                @Override
+                public Entry<PathArgument, DataContainerChild<? extends PathArgument, ?>> next() {
+                    if (offset >= layout.keys.length) {
+                        throw new NoSuchElementException();
+                    }
+
+                    final int i = offset++;
+                    return new SimpleImmutableEntry<PathArgument, DataContainerChild<? extends PathArgument, ?>>(
+                            layout.keys[i], valueAt(i));
+                }
+            };
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.util.Collection;
 import java.util.Map;
 import org.opendaylight.yangtools.concepts.Immutable;
 import org.opendaylight.yangtools.util.ImmutableOffsetMap;
+import org.opendaylight.yangtools.util.UnmodifiableMapPhase;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
 import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
@@ -25,7 +26,8 @@ public abstract class AbstractImmutableDataContainerNode<K extends PathArgument>
             final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> children, final K nodeIdentifier) {
         super(nodeIdentifier);
 
-        this.children = ImmutableOffsetMap.unorderedCopyOf(children);
+        // Retain specialized immutable maps as they are, as they are typically more compact
+        this.children = children instanceof UnmodifiableMapPhase ? children : ImmutableOffsetMap.unorderedCopyOf(children);
     }
 
     @Override
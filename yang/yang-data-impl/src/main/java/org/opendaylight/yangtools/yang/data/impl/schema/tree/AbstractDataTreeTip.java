@@ -17,6 +17,7 @@ import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeTip;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
 
 abstract class AbstractDataTreeTip implements DataTreeTip {
     private static final YangInstanceIdentifier PUBLIC_ROOT_PATH = YangInstanceIdentifier.create(Collections.emptyList());
@@ -32,27 +33,52 @@ abstract class AbstractDataTreeTip implements DataTreeTip {
     public final void validate(final DataTreeModification modification) throws DataValidationFailedException {
         Preconditions.checkArgument(modification instanceof InMemoryDataTreeModification, "Invalid modification class %s", modification.getClass());
         final InMemoryDataTreeModification m = (InMemoryDataTreeModification)modification;
-        Preconditions.checkArgument(m.isSealed(), "Attempted to verify unsealed modification %s", m);
+        validate(m, m.getVersion());
+    }
+
+    /**
+     * Validate a modification which is to be prepared with specified version.
+     *
+     * @param modification Sealed modification
+     * @param version Version of modified nodes
+     * @throws DataValidationFailedException if the modification is not applicable
+     */
+    final void validate(final InMemoryDataTreeModification modification, final Version version)
+            throws DataValidationFailedException {
+        Preconditions.checkArgument(modification.isSealed(), "Attempted to verify unsealed modification %s", modification);
 
-        m.getStrategy().checkApplicable(PUBLIC_ROOT_PATH, m.getRootModification(), Optional.of(getTipRoot()), m.getVersion());
+        modification.getStrategy().checkApplicable(PUBLIC_ROOT_PATH, modification.getRootModification(),
+            Optional.of(getTipRoot()), version);
     }
 
     @Override
     public final DataTreeCandidateTip prepare(final DataTreeModification modification) {
         Preconditions.checkArgument(modification instanceof InMemoryDataTreeModification, "Invalid modification class %s", modification.getClass());
         final InMemoryDataTreeModification m = (InMemoryDataTreeModification)modification;
-        Preconditions.checkArgument(m.isSealed(), "Attempted to prepare unsealed modification %s", m);
+        return prepare(m, m.getVersion());
+    }
+
+    /**
+     * Prepare a modification, stamping the nodes it modifies with specified version instead of the version the
+     * modification allocated when it was created. This is needed when a modification is applied on top of a root
+     * other than the one it was created from, as its own version may already be present in that root.
+     *
+     * @param modification Sealed modification
+     * @param version Version of modified nodes
+     * @return Prepared candidate
+     */
+    final AbstractDataTreeCandidate prepare(final InMemoryDataTreeModification modification, final Version version) {
+        Preconditions.checkArgument(modification.isSealed(), "Attempted to prepare unsealed modification %s", modification);
 
-        final ModifiedNode root = m.getRootModification();
+        final ModifiedNode root = modification.getRootModification();
 
         final TreeNode currentRoot = getTipRoot();
         if (root.getOperation() == LogicalOperation.NONE) {
             return new NoopDataTreeCandidate(PUBLIC_ROOT_PATH, root, currentRoot);
         }
 
-        final Optional<TreeNode> newRoot = m.getStrategy().apply(m.getRootModification(),
-            Optional.of(currentRoot), m.getVersion());
+        final Optional<TreeNode> newRoot = modification.getStrategy().apply(root, Optional.of(currentRoot), version);
         Preconditions.checkState(newRoot.isPresent(), "Apply strategy failed to produce root node for modification %s", modification);
-        return new InMemoryDataTreeCandidate(PUBLIC_ROOT_PATH, root, currentRoot, newRoot.get());
+        return new InMemoryDataTreeCandidate(PUBLIC_ROOT_PATH, modification, currentRoot, newRoot.get());
     }
 }
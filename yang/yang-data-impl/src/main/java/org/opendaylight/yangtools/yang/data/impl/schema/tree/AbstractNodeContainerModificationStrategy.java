@@ -12,7 +12,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Verify;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
@@ -33,11 +35,15 @@ abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareAppl
 
     private final Class<? extends NormalizedNode<?, ?>> nodeClass;
     private final boolean verifyChildrenStructure;
+    private final int parallelApplyThreshold;
+    private final int persistentChildrenThreshold;
 
     protected AbstractNodeContainerModificationStrategy(final Class<? extends NormalizedNode<?, ?>> nodeClass,
             final DataTreeConfiguration treeConfig) {
         this.nodeClass = Preconditions.checkNotNull(nodeClass , "nodeClass");
         this.verifyChildrenStructure = (treeConfig.getTreeType() == TreeType.CONFIGURATION);
+        this.parallelApplyThreshold = treeConfig.getParallelApplyThreshold();
+        this.persistentChildrenThreshold = treeConfig.getPersistentChildrenThreshold();
     }
 
     @SuppressWarnings("rawtypes")
@@ -121,6 +127,8 @@ abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareAppl
     /**
      * Applies write/remove diff operation for each modification child in modification subtree.
      * Operation also sets the Data tree references for each Tree Node (Index Node) in meta (MutableTreeNode) structure.
+     * If the number of modifications reaches configured parallel apply threshold, they are applied in parallel and
+     * only the results are assembled sequentially.
      *
      * @param meta MutableTreeNode (IndexTreeNode)
      * @param data DataBuilder
@@ -130,7 +138,28 @@ abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareAppl
      */
     @SuppressWarnings({ "rawtypes", "unchecked" })
     private TreeNode mutateChildren(final MutableTreeNode meta, final NormalizedNodeContainerBuilder data,
-            final Version nodeVersion, final Iterable<ModifiedNode> modifications) {
+            final Version nodeVersion, final Collection<ModifiedNode> modifications) {
+
+        if (parallelApplyThreshold != 0 && modifications.size() >= parallelApplyThreshold) {
+            final List<ModifiedNode> mods = new ArrayList<>(modifications);
+            final Optional<TreeNode>[] results = ParallelApplyTask.apply(this, mods, meta, nodeVersion,
+                parallelApplyThreshold);
+
+            for (int i = 0; i < results.length; ++i) {
+                if (results[i].isPresent()) {
+                    final TreeNode tn = results[i].get();
+                    meta.addChild(tn);
+                    data.addChild(tn.getData());
+                } else {
+                    final PathArgument id = mods.get(i).getIdentifier();
+                    meta.removeChild(id);
+                    data.removeChild(id);
+                }
+            }
+
+            meta.setData(data.build());
+            return meta.seal(persistentChildrenThreshold);
+        }
 
         for (final ModifiedNode mod : modifications) {
             final YangInstanceIdentifier.PathArgument id = mod.getIdentifier();
@@ -148,7 +177,7 @@ abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareAppl
         }
 
         meta.setData(data.build());
-        return meta.seal();
+        return meta.seal(persistentChildrenThreshold);
     }
 
     @Override
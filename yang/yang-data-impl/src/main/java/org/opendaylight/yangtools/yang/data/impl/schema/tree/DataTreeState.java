@@ -9,7 +9,15 @@ package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
@@ -19,6 +27,7 @@ import org.opendaylight.yangtools.yang.model.api.SchemaContext;
  * multiple fields in one go.
  */
 final class DataTreeState {
+    private final ImmutableMap<InMemoryDataTreeIndex, Map<Object, Set<NodeIdentifierWithPredicates>>> indexes;
     private final LatestOperationHolder holder;
     private final SchemaContext schemaContext;
     private final TreeNode root;
@@ -27,13 +36,16 @@ final class DataTreeState {
         this.root = Preconditions.checkNotNull(root);
         holder = new LatestOperationHolder();
         schemaContext = null;
+        indexes = ImmutableMap.of();
     }
 
-    private DataTreeState(final TreeNode root, final LatestOperationHolder holder, final SchemaContext schemaContext) {
+    private DataTreeState(final TreeNode root, final LatestOperationHolder holder, final SchemaContext schemaContext,
+            final ImmutableMap<InMemoryDataTreeIndex, Map<Object, Set<NodeIdentifierWithPredicates>>> indexes) {
         // It should be impossible to instantiate a new root without a SchemaContext
         this.schemaContext = Preconditions.checkNotNull(schemaContext);
         this.holder = Preconditions.checkNotNull(holder);
         this.root = Preconditions.checkNotNull(root);
+        this.indexes = Preconditions.checkNotNull(indexes);
     }
 
     static DataTreeState createInitial(final TreeNode root) {
@@ -45,16 +57,80 @@ final class DataTreeState {
     }
 
     InMemoryDataTreeSnapshot newSnapshot() {
-        return new InMemoryDataTreeSnapshot(schemaContext, root, holder.newSnapshot());
+        return new InMemoryDataTreeSnapshot(schemaContext, root, holder.newSnapshot(), indexes);
     }
 
     DataTreeState withSchemaContext(final SchemaContext newSchemaContext, final ModificationApplyOperation operation) {
         holder.setCurrent(operation);
-        return new DataTreeState(root, holder, newSchemaContext);
+        return new DataTreeState(root, holder, newSchemaContext, indexes);
     }
 
-    DataTreeState withRoot(final TreeNode newRoot) {
-        return new DataTreeState(newRoot, holder, schemaContext);
+    /**
+     * Create a new state with a committed candidate applied, updating any secondary indexes.
+     *
+     * @param candidate Committed candidate
+     * @return New state
+     */
+    DataTreeState withCandidate(final AbstractDataTreeCandidate candidate) {
+        return new DataTreeState(candidate.getTipRoot(), holder, schemaContext, updateIndexes(candidate));
+    }
+
+    /**
+     * Create a new state with a chain of committed candidates applied, updating any secondary indexes. This is
+     * equivalent to applying each candidate in turn, but results in a single new state.
+     *
+     * @param candidates Committed candidates, each based on the previous one
+     * @return New state
+     */
+    DataTreeState withCandidates(final List<? extends AbstractDataTreeCandidate> candidates) {
+        Preconditions.checkArgument(!candidates.isEmpty(), "At least one candidate is required");
+        final AbstractDataTreeCandidate last = candidates.get(candidates.size() - 1);
+        return new DataTreeState(last.getTipRoot(), holder, schemaContext, updateIndexes(candidates));
+    }
+
+    DataTreeState withIndex(final InMemoryDataTreeIndex index) {
+        Preconditions.checkState(schemaContext != null, "Indexes cannot be registered without a SchemaContext");
+        return new DataTreeState(root, holder, schemaContext,
+            ImmutableMap.<InMemoryDataTreeIndex, Map<Object, Set<NodeIdentifierWithPredicates>>>builder()
+                .putAll(indexes).put(index, index.build(root)).build());
+    }
+
+    DataTreeState withoutIndex(final InMemoryDataTreeIndex index) {
+        if (!indexes.containsKey(index)) {
+            return this;
+        }
+
+        final ImmutableMap.Builder<InMemoryDataTreeIndex, Map<Object, Set<NodeIdentifierWithPredicates>>> builder =
+                ImmutableMap.builder();
+        for (Entry<InMemoryDataTreeIndex, Map<Object, Set<NodeIdentifierWithPredicates>>> e : indexes.entrySet()) {
+            if (!index.equals(e.getKey())) {
+                builder.put(e);
+            }
+        }
+        return new DataTreeState(root, holder, schemaContext, builder.build());
+    }
+
+    private ImmutableMap<InMemoryDataTreeIndex, Map<Object, Set<NodeIdentifierWithPredicates>>> updateIndexes(
+            final DataTreeCandidate candidate) {
+        return updateIndexes(Collections.singletonList(candidate));
+    }
+
+    private ImmutableMap<InMemoryDataTreeIndex, Map<Object, Set<NodeIdentifierWithPredicates>>> updateIndexes(
+            final List<? extends DataTreeCandidate> candidates) {
+        if (indexes.isEmpty()) {
+            return indexes;
+        }
+
+        final ImmutableMap.Builder<InMemoryDataTreeIndex, Map<Object, Set<NodeIdentifierWithPredicates>>> builder =
+                ImmutableMap.builder();
+        for (Entry<InMemoryDataTreeIndex, Map<Object, Set<NodeIdentifierWithPredicates>>> e : indexes.entrySet()) {
+            Map<Object, Set<NodeIdentifierWithPredicates>> index = e.getValue();
+            for (DataTreeCandidate candidate : candidates) {
+                index = e.getKey().update(index, candidate);
+            }
+            builder.put(e.getKey(), index);
+        }
+        return builder.build();
     }
 
     @Override
@@ -62,4 +138,4 @@ final class DataTreeState {
         final TreeNode r = root;
         return MoreObjects.toStringHelper(this).add("data", NormalizedNodes.toStringTree(r.getData())).toString();
     }
-}
\ No newline at end of file
+}
@@ -9,15 +9,25 @@ package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
-import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateTip;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeIndex;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.IndexedDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextNode;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextTree;
 import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
@@ -30,7 +40,7 @@ import org.slf4j.LoggerFactory;
 /**
  * Read-only snapshot of the data tree.
  */
-final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducingDataTree {
+final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducingDataTree, IndexedDataTree {
     private static final AtomicReferenceFieldUpdater<InMemoryDataTree, DataTreeState> STATE_UPDATER =
             AtomicReferenceFieldUpdater.newUpdater(InMemoryDataTree.class, DataTreeState.class, "state");
     private static final Logger LOG = LoggerFactory.getLogger(InMemoryDataTree.class);
@@ -125,9 +135,118 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducing
                 throw new IllegalStateException("Store tree " + currentStr + " and candidate base " + oldStr + " differ.");
             }
 
-            newState = currentState.withRoot(newRoot);
+            newState = currentState.withCandidate(c);
+            LOG.trace("Updated state from {} to {}", currentState, newState);
+        } while (!STATE_UPDATER.compareAndSet(this, currentState, newState));
+    }
+
+    /*
+     * Conflict detection is performed by re-validating the modification against the current root, which compares
+     * subtree versions only along the paths it touches. Disjoint changes, like writes to different list entries,
+     * therefore do not conflict and the modification is simply reapplied, sharing all untouched subtrees with
+     * the current root.
+     */
+    @Override
+    public DataTreeCandidate rebaseAndCommit(final DataTreeCandidate candidate) throws DataValidationFailedException {
+        if (candidate instanceof NoopDataTreeCandidate) {
+            return candidate;
+        }
+        Preconditions.checkArgument(candidate instanceof InMemoryDataTreeCandidate, "Invalid candidate class %s", candidate.getClass());
+        final InMemoryDataTreeCandidate c = (InMemoryDataTreeCandidate)candidate;
+        final InMemoryDataTreeModification mod = c.getModification();
+
+        AbstractDataTreeCandidate result = c;
+        TreeNode baseRoot = c.getBeforeRoot();
+        DataTreeState currentState, newState;
+        do {
+            currentState = state;
+            final TreeNode currentRoot = currentState.getRoot();
+            if (baseRoot != currentRoot) {
+                LOG.debug("Rebasing candidate {} from {} onto {}", c, simpleToString(baseRoot),
+                    simpleToString(currentRoot));
+
+                // The modification's own version is already visible to modifications chained on top of it, as
+                // it was used to stamp their snapshot. Reusing it would make the nodes we rebase look unchanged
+                // to them, hence we need a fresh version.
+                final Version version = currentRoot.getSubtreeVersion().next();
+                final AbstractDataTreeTip base = new FixedDataTreeTip(currentRoot);
+                base.validate(mod, version);
+                result = base.prepare(mod, version);
+                baseRoot = currentRoot;
+            }
+
+            newState = currentState.withCandidate(result);
             LOG.trace("Updated state from {} to {}", currentState, newState);
         } while (!STATE_UPDATER.compareAndSet(this, currentState, newState));
+
+        return result;
+    }
+
+    /*
+     * Modifications are chained onto each other starting from a fixed snapshot of the current root, so that
+     * the entire batch results in a single state transition. If we race with a concurrent commit, the chain
+     * is rebuilt on top of the new root. Each modification is applied on top of a root it was not created from,
+     * hence, just as with rebaseAndCommit(), it is stamped with a fresh version.
+     */
+    @Override
+    public List<DataTreeCandidateTip> commitBatch(final Collection<? extends DataTreeModification> modifications)
+            throws DataValidationFailedException {
+        if (modifications.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        DataTreeState currentState, newState;
+        List<AbstractDataTreeCandidate> candidates;
+        do {
+            currentState = state;
+            candidates = new ArrayList<>(modifications.size());
+
+            AbstractDataTreeTip tip = new FixedDataTreeTip(currentState.getRoot());
+            for (DataTreeModification mod : modifications) {
+                Preconditions.checkArgument(mod instanceof InMemoryDataTreeModification,
+                    "Invalid modification class %s", mod.getClass());
+                final InMemoryDataTreeModification m = (InMemoryDataTreeModification) mod;
+                final Version version = tip.getTipRoot().getSubtreeVersion().next();
+
+                tip.validate(m, version);
+                final AbstractDataTreeCandidate candidate = tip.prepare(m, version);
+                candidates.add(candidate);
+                tip = candidate;
+            }
+
+            newState = currentState.withCandidates(candidates);
+            LOG.trace("Updated state from {} to {} with {} modifications", currentState, newState,
+                candidates.size());
+        } while (!STATE_UPDATER.compareAndSet(this, currentState, newState));
+
+        return Collections.unmodifiableList(candidates);
+    }
+
+    @Override
+    public DataTreeIndex registerIndex(final YangInstanceIdentifier listPath, final YangInstanceIdentifier leafPath) {
+        final InMemoryDataTreeIndex index = new InMemoryDataTreeIndex(listPath, leafPath);
+
+        DataTreeState currentState, newState;
+        do {
+            currentState = state;
+            newState = currentState.withIndex(index);
+        } while (!STATE_UPDATER.compareAndSet(this, currentState, newState));
+
+        LOG.debug("Registered index {}", index);
+        return index;
+    }
+
+    @Override
+    public void unregisterIndex(final DataTreeIndex index) {
+        Preconditions.checkArgument(index instanceof InMemoryDataTreeIndex, "Invalid index class %s", index.getClass());
+
+        DataTreeState currentState, newState;
+        do {
+            currentState = state;
+            newState = currentState.withoutIndex((InMemoryDataTreeIndex) index);
+        } while (!STATE_UPDATER.compareAndSet(this, currentState, newState));
+
+        LOG.debug("Unregistered index {}", index);
     }
 
     private static String simpleToString(final Object o) {
@@ -153,4 +272,21 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducing
     protected TreeNode getTipRoot() {
         return state.getRoot();
     }
+
+    /**
+     * A tip anchored at a particular root, used as the base of a modification batch.
+     */
+    private static final class FixedDataTreeTip extends AbstractDataTreeTip {
+        private final TreeNode root;
+
+        FixedDataTreeTip(final TreeNode root) {
+            this.root = Preconditions.checkNotNull(root);
+        }
+
+        @Override
+        @Nonnull
+        protected TreeNode getTipRoot() {
+            return root;
+        }
+    }
 }
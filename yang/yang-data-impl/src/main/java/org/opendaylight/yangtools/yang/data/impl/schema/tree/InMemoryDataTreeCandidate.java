@@ -8,6 +8,7 @@
 package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
@@ -28,12 +29,14 @@ final class InMemoryDataTreeCandidate extends AbstractDataTreeCandidate {
         }
     }
 
+    private final InMemoryDataTreeModification modification;
     private final RootNode root;
 
-    InMemoryDataTreeCandidate(final YangInstanceIdentifier rootPath, final ModifiedNode modificationRoot,
+    InMemoryDataTreeCandidate(final YangInstanceIdentifier rootPath, final InMemoryDataTreeModification modification,
             final TreeNode beforeRoot, final TreeNode afterRoot) {
         super(rootPath);
-        this.root = new RootNode(modificationRoot, beforeRoot, afterRoot);
+        this.modification = Preconditions.checkNotNull(modification);
+        this.root = new RootNode(modification.getRootModification(), beforeRoot, afterRoot);
     }
 
     @Override
@@ -46,6 +49,10 @@ final class InMemoryDataTreeCandidate extends AbstractDataTreeCandidate {
         return root.getOldMeta();
     }
 
+    InMemoryDataTreeModification getModification() {
+        return modification;
+    }
+
     @Override
     public DataTreeCandidateNode getRootNode() {
         return root;
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.util.MapAdaptor;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeIndex;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+
+/**
+ * A secondary index over an {@link InMemoryDataTree}. This class holds only the definition of the index, its content
+ * is an immutable map from leaf values to the keys of list entries holding them, which is tracked by
+ * {@link DataTreeState}, so that each state and each snapshot has the content consistent with its data.
+ *
+ * <p>
+ * Index content is managed via {@link MapAdaptor}, hence large indexes are backed by a persistent map and updating
+ * them with a candidate costs time proportional to the number of modified list entries.
+ */
+final class InMemoryDataTreeIndex implements DataTreeIndex {
+    private static final MapAdaptor ADAPTOR = MapAdaptor.getCallSiteInstance("data-tree-index");
+    private final YangInstanceIdentifier listPath;
+    private final YangInstanceIdentifier leafPath;
+
+    InMemoryDataTreeIndex(final YangInstanceIdentifier listPath, final YangInstanceIdentifier leafPath) {
+        this.listPath = Preconditions.checkNotNull(listPath);
+        this.leafPath = Preconditions.checkNotNull(leafPath);
+        Preconditions.checkArgument(!leafPath.isEmpty(), "Leaf path must not be empty");
+    }
+
+    @Override
+    @Nonnull
+    public YangInstanceIdentifier getListPath() {
+        return listPath;
+    }
+
+    @Override
+    @Nonnull
+    public YangInstanceIdentifier getLeafPath() {
+        return leafPath;
+    }
+
+    /**
+     * Create the index content from a data tree root.
+     *
+     * @param root Data tree root
+     * @return Immutable index content
+     */
+    Map<Object, Set<NodeIdentifierWithPredicates>> build(final TreeNode root) {
+        final Optional<NormalizedNode<?, ?>> maybeList = NormalizedNodes.findNode(root.getData(), listPath);
+        if (!maybeList.isPresent()) {
+            return ImmutableMap.of();
+        }
+
+        final NormalizedNode<?, ?> list = maybeList.get();
+        Preconditions.checkArgument(list instanceof MapNode, "Path %s does not identify a keyed list, but %s",
+            listPath, list);
+
+        final MapNode map = (MapNode) list;
+        final Map<Object, Set<NodeIdentifierWithPredicates>> ret =
+                ADAPTOR.initialSnapshot(map.getValue().size());
+        for (MapEntryNode entry : map.getValue()) {
+            final Object value = leafValue(entry);
+            if (value != null) {
+                add(ret, value, entry.getIdentifier());
+            }
+        }
+        return ADAPTOR.optimize(ret);
+    }
+
+    /**
+     * Update index content with a committed candidate.
+     *
+     * @param content Current index content
+     * @param candidate Candidate, rooted at the root of the data tree
+     * @return Updated index content, or the current content if the candidate did not affect the index
+     */
+    Map<Object, Set<NodeIdentifierWithPredicates>> update(final Map<Object, Set<NodeIdentifierWithPredicates>> content,
+            final DataTreeCandidate candidate) {
+        DataTreeCandidateNode node = candidate.getRootNode();
+        for (PathArgument arg : listPath.getPathArguments()) {
+            if (node.getModificationType() == ModificationType.UNMODIFIED) {
+                return content;
+            }
+            node = node.getModifiedChild(arg);
+            if (node == null) {
+                return content;
+            }
+        }
+        if (node.getModificationType() == ModificationType.UNMODIFIED) {
+            return content;
+        }
+
+        Map<Object, Set<NodeIdentifierWithPredicates>> ret = null;
+        for (DataTreeCandidateNode entry : node.getChildNodes()) {
+            if (entry.getModificationType() == ModificationType.UNMODIFIED) {
+                continue;
+            }
+
+            final Object before = leafValue(entry.getDataBefore());
+            final Object after = leafValue(entry.getDataAfter());
+            if (before == null ? after == null : before.equals(after)) {
+                continue;
+            }
+
+            if (ret == null) {
+                ret = ADAPTOR.takeSnapshot(content);
+            }
+            final NodeIdentifierWithPredicates key = (NodeIdentifierWithPredicates) entry.getIdentifier();
+            if (before != null) {
+                remove(ret, before, key);
+            }
+            if (after != null) {
+                add(ret, after, key);
+            }
+        }
+
+        return ret == null ? content : ADAPTOR.optimize(ret);
+    }
+
+    private Object leafValue(final Optional<NormalizedNode<?, ?>> entry) {
+        return entry.isPresent() ? leafValue(entry.get()) : null;
+    }
+
+    private Object leafValue(final NormalizedNode<?, ?> entry) {
+        final Optional<NormalizedNode<?, ?>> leaf = NormalizedNodes.findNode(entry, leafPath.getPathArguments());
+        if (leaf.isPresent() && leaf.get() instanceof LeafNode) {
+            return leaf.get().getValue();
+        }
+        return null;
+    }
+
+    private static void add(final Map<Object, Set<NodeIdentifierWithPredicates>> content, final Object value,
+            final NodeIdentifierWithPredicates key) {
+        final Set<NodeIdentifierWithPredicates> keys = content.get(value);
+        if (keys == null) {
+            content.put(value, ImmutableSet.of(key));
+        } else {
+            content.put(value, ImmutableSet.<NodeIdentifierWithPredicates>builder().addAll(keys).add(key).build());
+        }
+    }
+
+    private static void remove(final Map<Object, Set<NodeIdentifierWithPredicates>> content, final Object value,
+            final NodeIdentifierWithPredicates key) {
+        final Set<NodeIdentifierWithPredicates> keys = content.get(value);
+        if (keys == null || !keys.contains(key)) {
+            return;
+        }
+
+        if (keys.size() == 1) {
+            content.remove(value);
+        } else {
+            final ImmutableSet.Builder<NodeIdentifierWithPredicates> builder = ImmutableSet.builder();
+            for (NodeIdentifierWithPredicates k : keys) {
+                if (!key.equals(k)) {
+                    builder.add(k);
+                }
+            }
+            content.put(value, builder.build());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("list", listPath).add("leaf", leafPath).toString();
+    }
+}
@@ -7,28 +7,50 @@
  */
 package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
-import javax.annotation.Nonnull;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.CursorAwareDataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeIndex;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshotCursor;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.IndexedDataTreeSnapshot;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
-final class InMemoryDataTreeSnapshot extends AbstractCursorAware implements CursorAwareDataTreeSnapshot {
+final class InMemoryDataTreeSnapshot extends AbstractCursorAware implements CursorAwareDataTreeSnapshot,
+        IndexedDataTreeSnapshot {
+    private final Map<InMemoryDataTreeIndex, Map<Object, Set<NodeIdentifierWithPredicates>>> indexes;
     private final RootModificationApplyOperation applyOper;
     private final SchemaContext schemaContext;
     private final TreeNode rootNode;
 
     InMemoryDataTreeSnapshot(final SchemaContext schemaContext, final TreeNode rootNode,
             final RootModificationApplyOperation applyOper) {
+        this(schemaContext, rootNode, applyOper,
+            ImmutableMap.<InMemoryDataTreeIndex, Map<Object, Set<NodeIdentifierWithPredicates>>>of());
+    }
+
+    InMemoryDataTreeSnapshot(final SchemaContext schemaContext, final TreeNode rootNode,
+            final RootModificationApplyOperation applyOper,
+            final Map<InMemoryDataTreeIndex, Map<Object, Set<NodeIdentifierWithPredicates>>> indexes) {
         this.schemaContext = Preconditions.checkNotNull(schemaContext);
         this.rootNode = Preconditions.checkNotNull(rootNode);
         this.applyOper = Preconditions.checkNotNull(applyOper);
+        this.indexes = Preconditions.checkNotNull(indexes);
     }
 
     TreeNode getRootNode() {
@@ -44,6 +66,25 @@ final class InMemoryDataTreeSnapshot extends AbstractCursorAware implements Curs
         return NormalizedNodes.findNode(rootNode.getData(), path);
     }
 
+    @Override
+    public Collection<MapEntryNode> lookup(@Nonnull final DataTreeIndex index, @Nonnull final Object value) {
+        final Map<Object, Set<NodeIdentifierWithPredicates>> content = indexes.get(index);
+        Preconditions.checkArgument(content != null, "Index %s is not registered", index);
+
+        final Set<NodeIdentifierWithPredicates> keys = content.get(Preconditions.checkNotNull(value));
+        if (keys == null) {
+            return Collections.emptyList();
+        }
+
+        // Non-empty index content implies the list exists
+        final MapNode list = (MapNode) NormalizedNodes.findNode(rootNode.getData(), index.getListPath()).get();
+        final List<MapEntryNode> ret = new ArrayList<>(keys.size());
+        for (NodeIdentifierWithPredicates key : keys) {
+            ret.add(list.getChild(key).get());
+        }
+        return ret;
+    }
+
     @Override
     public InMemoryDataTreeModification newModification() {
         return new InMemoryDataTreeModification(this, applyOper);
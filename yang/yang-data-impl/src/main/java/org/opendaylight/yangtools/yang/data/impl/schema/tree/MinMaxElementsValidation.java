@@ -82,10 +82,11 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
         // Everything passed. We now have a snapshot of the result node, it would be too bad if we just threw it out.
         // We know what the result of an apply operation is going to be *if* the following are kept unchanged:
         // - the 'current' node
+        // - the version the result is stamped with
         // - the schemacontext (therefore, the fact this object is associated with the modification)
         //
         // So let's stash the result. We will pick it up during apply operation.
-        modification.setValidatedNode(this, current, applied);
+        modification.setValidatedNode(this, current, version, applied);
     }
 
     private static int numOfChildrenFromValue(final NormalizedNode<?, ?> value) {
@@ -133,7 +134,7 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
 
     @Override
     protected TreeNode applyMerge(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
-        final TreeNode validated = modification.getValidatedNode(this, Optional.of(currentMeta));
+        final TreeNode validated = modification.getValidatedNode(this, Optional.of(currentMeta), version);
         if (validated != null) {
             return validated;
         }
@@ -144,7 +145,7 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
 
     @Override
     protected TreeNode applyTouch(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
-        final TreeNode validated = modification.getValidatedNode(this, Optional.of(currentMeta));
+        final TreeNode validated = modification.getValidatedNode(this, Optional.of(currentMeta), version);
         if (validated != null) {
             return validated;
         }
@@ -156,7 +157,7 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
     @Override
     protected TreeNode applyWrite(final ModifiedNode modification, final Optional<TreeNode> currentMeta,
             final Version version) {
-        final TreeNode validated = modification.getValidatedNode(this, currentMeta);
+        final TreeNode validated = modification.getValidatedNode(this, currentMeta, version);
         if (validated != null) {
             return validated;
         }
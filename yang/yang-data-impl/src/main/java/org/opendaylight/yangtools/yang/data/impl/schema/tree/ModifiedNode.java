@@ -70,6 +70,7 @@ final class ModifiedNode extends NodeModification implements StoreTreeNode<Modif
     // Internal cache for TreeNodes created as part of validation
     private SchemaAwareApplyOperation validatedOp;
     private Optional<TreeNode> validatedCurrent;
+    private Version validatedVersion;
     private TreeNode validatedNode;
 
     private ModifiedNode(final PathArgument identifier, final Optional<TreeNode> original, final ChildTrackingPolicy childPolicy) {
@@ -353,13 +354,17 @@ final class ModifiedNode extends NodeModification implements StoreTreeNode<Modif
         return new ModifiedNode(metadataTree.getIdentifier(), Optional.of(metadataTree), childPolicy);
     }
 
-    void setValidatedNode(final SchemaAwareApplyOperation op, final Optional<TreeNode> current, final TreeNode node) {
+    void setValidatedNode(final SchemaAwareApplyOperation op, final Optional<TreeNode> current, final Version version,
+            final TreeNode node) {
         this.validatedOp = Preconditions.checkNotNull(op);
         this.validatedCurrent = Preconditions.checkNotNull(current);
+        this.validatedVersion = Preconditions.checkNotNull(version);
         this.validatedNode = Preconditions.checkNotNull(node);
     }
 
-    TreeNode getValidatedNode(final SchemaAwareApplyOperation op, final Optional<TreeNode> current) {
-        return op.equals(validatedOp) && current.equals(validatedCurrent) ? validatedNode : null;
+    TreeNode getValidatedNode(final SchemaAwareApplyOperation op, final Optional<TreeNode> current,
+            final Version version) {
+        return op.equals(validatedOp) && current.equals(validatedCurrent) && version.equals(validatedVersion)
+                ? validatedNode : null;
     }
 }
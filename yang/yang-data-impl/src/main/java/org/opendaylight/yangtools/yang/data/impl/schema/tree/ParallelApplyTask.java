@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.Optional;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.StoreTreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+
+/**
+ * Fork/join task applying a range of sibling {@link ModifiedNode}s. Siblings do not share any mutable state, hence
+ * each of them can be applied independently. The task only reads the parent node and records the
+ * results into a shared array, each slot being written by exactly one subtask. Assembling the results into
+ * the parent node is left to the caller.
+ */
+final class ParallelApplyTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient SchemaAwareApplyOperation parent;
+    private final transient List<ModifiedNode> modifications;
+    private final transient Optional<TreeNode>[] results;
+    private final transient StoreTreeNode<TreeNode> meta;
+    private final transient Version version;
+    private final int granularity;
+    private final int from;
+    private final int to;
+
+    private ParallelApplyTask(final SchemaAwareApplyOperation parent, final List<ModifiedNode> modifications,
+            final Optional<TreeNode>[] results, final StoreTreeNode<TreeNode> meta, final Version version,
+            final int granularity, final int from, final int to) {
+        this.parent = parent;
+        this.modifications = modifications;
+        this.results = results;
+        this.meta = meta;
+        this.version = version;
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Apply specified modifications to the children of a node.
+     *
+     * @param parent Operation of the parent node
+     * @param modifications Child modifications
+     * @param meta Parent node, must not be modified while this method executes
+     * @param version Version of resulting nodes
+     * @param granularity Maximum number of modifications applied by a single subtask
+     * @return Results of individual modifications, in the order of modifications
+     */
+    static Optional<TreeNode>[] apply(final SchemaAwareApplyOperation parent, final List<ModifiedNode> modifications,
+            final StoreTreeNode<TreeNode> meta, final Version version, final int granularity) {
+        @SuppressWarnings("unchecked")
+        final Optional<TreeNode>[] results = new Optional[modifications.size()];
+        final ParallelApplyTask task = new ParallelApplyTask(parent, modifications, results, meta, version,
+            granularity, 0, results.length);
+
+        // Nested invocations are executed by the worker thread, allowing it to participate in work stealing
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.invoke();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+        return results;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from > granularity) {
+            final int mid = (from + to) >>> 1;
+            invokeAll(new ParallelApplyTask(parent, modifications, results, meta, version, granularity, from, mid),
+                new ParallelApplyTask(parent, modifications, results, meta, version, granularity, mid, to));
+            return;
+        }
+
+        for (int i = from; i < to; ++i) {
+            final ModifiedNode mod = modifications.get(i);
+            results[i] = parent.resolveChildOperation(mod.getIdentifier()).apply(mod, meta.getChild(
+                mod.getIdentifier()), version);
+        }
+    }
+}
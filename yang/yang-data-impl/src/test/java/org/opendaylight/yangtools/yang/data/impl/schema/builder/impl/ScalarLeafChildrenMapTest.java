@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.opendaylight.yangtools.util.ImmutableOffsetMap;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableDataContainerNode;
+
+public class ScalarLeafChildrenMapTest {
+    private static final QName CONTAINER = QName.create("urn:test", "2016-01-01", "container");
+    private static final NodeIdentifier BOOL = new NodeIdentifier(QName.create(CONTAINER, "bool"));
+    private static final NodeIdentifier BYTE = new NodeIdentifier(QName.create(CONTAINER, "byte"));
+    private static final NodeIdentifier SHORT = new NodeIdentifier(QName.create(CONTAINER, "short"));
+    private static final NodeIdentifier INT = new NodeIdentifier(QName.create(CONTAINER, "int"));
+    private static final NodeIdentifier LONG = new NodeIdentifier(QName.create(CONTAINER, "long"));
+    private static final NodeIdentifier STRING = new NodeIdentifier(QName.create(CONTAINER, "string"));
+
+    private static ContainerNode container(final int intValue) {
+        return ImmutableContainerNodeBuilder.create().withNodeIdentifier(new NodeIdentifier(CONTAINER))
+                .withChild(ImmutableNodes.leafNode(BOOL, Boolean.TRUE))
+                .withChild(ImmutableNodes.leafNode(BYTE, (byte) -1))
+                .withChild(ImmutableNodes.leafNode(SHORT, (short) 1000))
+                .withChild(ImmutableNodes.leafNode(INT, intValue))
+                .withChild(ImmutableNodes.leafNode(LONG, Long.MIN_VALUE))
+                .withChild(ImmutableNodes.leafNode(STRING, "foo"))
+                .build();
+    }
+
+    private static Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> children(
+            final ContainerNode node) {
+        return ((AbstractImmutableDataContainerNode<?>) node).getChildren();
+    }
+
+    @Test
+    public void testInlinedLeaves() {
+        final ContainerNode node = container(42);
+        final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> children = children(node);
+        assertTrue(children instanceof ScalarLeafChildrenMap);
+        assertEquals(6, children.size());
+
+        assertEquals(ImmutableNodes.leafNode(BOOL, Boolean.TRUE), node.getChild(BOOL).get());
+        assertEquals(ImmutableNodes.leafNode(BYTE, (byte) -1), node.getChild(BYTE).get());
+        assertEquals(ImmutableNodes.leafNode(SHORT, (short) 1000), node.getChild(SHORT).get());
+        assertEquals(ImmutableNodes.leafNode(INT, 42), node.getChild(INT).get());
+        assertEquals(ImmutableNodes.leafNode(LONG, Long.MIN_VALUE), node.getChild(LONG).get());
+        assertEquals(Long.class, ((LeafNode<?>) node.getChild(LONG).get()).getValue().getClass());
+        assertEquals(ImmutableNodes.leafNode(STRING, "foo"), node.getChild(STRING).get());
+        assertFalse(node.getChild(new NodeIdentifier(QName.create(CONTAINER, "missing"))).isPresent());
+        assertEquals(6, node.getValue().size());
+    }
+
+    @Test
+    public void testMapContract() {
+        final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> children = children(container(42));
+        final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> expected = new HashMap<>(children);
+
+        assertEquals(expected, children);
+        assertEquals(children, expected);
+        assertEquals(expected.hashCode(), children.hashCode());
+        assertEquals(expected.keySet(), children.keySet());
+        assertTrue(children.containsKey(INT));
+        assertNull(children.get(CONTAINER));
+
+        // Same layout, compared via backing arrays
+        assertEquals(children, children(container(42)));
+        assertFalse(children.equals(children(container(43))));
+        assertEquals(container(42), container(42));
+    }
+
+    @Test
+    public void testModification() {
+        final ContainerNode node = container(42);
+        final ContainerNode modified = ImmutableContainerNodeBuilder.create(node)
+                .withChild(ImmutableNodes.leafNode(INT, 43)).build();
+
+        assertEquals(ImmutableNodes.leafNode(INT, 42), node.getChild(INT).get());
+        assertEquals(ImmutableNodes.leafNode(INT, 43), modified.getChild(INT).get());
+        assertEquals(container(43), modified);
+
+        // Unmodified copy retains the map
+        assertSame(children(node), children(ImmutableContainerNodeBuilder.create(node).build()));
+    }
+
+    @Test
+    public void testNoScalarLeaves() {
+        final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> input =
+                ImmutableMap.<PathArgument, DataContainerChild<? extends PathArgument, ?>>of(STRING,
+                    ImmutableNodes.leafNode(STRING, "foo"));
+        assertSame(input, ScalarLeafChildrenMap.copyOf(input));
+
+        final ContainerNode node = ImmutableContainerNodeBuilder.create().withNodeIdentifier(
+            new NodeIdentifier(CONTAINER)).withChild(ImmutableNodes.leafNode(STRING, "foo")).build();
+        assertFalse(children(node) instanceof ScalarLeafChildrenMap);
+    }
+
+    @Test
+    public void testSerializedForm() {
+        final Object replaced = ImmutableOffsetMap.unorderedCopyOf(children(container(42)));
+        assertTrue(replaced instanceof ImmutableOffsetMap);
+        assertEquals(children(container(42)), replaced);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntryBuilder;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateTip;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class BatchCommitTest {
+    private static final Short ONE_ID = 1;
+    private static final Short TWO_ID = 2;
+
+    private static final YangInstanceIdentifier OUTER_LIST_1_PATH = YangInstanceIdentifier.builder(
+        TestModel.OUTER_LIST_PATH).nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, ONE_ID).build();
+    private static final YangInstanceIdentifier OUTER_LIST_2_PATH = YangInstanceIdentifier.builder(
+        TestModel.OUTER_LIST_PATH).nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, TWO_ID).build();
+
+    private static final MapEntryNode FOO_NODE = mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME,
+        ONE_ID).withChild(mapNodeBuilder(TestModel.INNER_LIST_QNAME).build()).build();
+    private static final MapEntryNode BAR_NODE = mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME,
+        TWO_ID).withChild(mapNodeBuilder(TestModel.INNER_LIST_QNAME).build()).build();
+
+    private InMemoryDataTree tree;
+
+    @Before
+    public void setUp() throws ReactorException {
+        tree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(TestModel.createTestContext());
+    }
+
+    @Test
+    public void testEmptyBatch() throws DataValidationFailedException {
+        final InMemoryDataTreeSnapshot before = tree.takeSnapshot();
+        assertTrue(tree.commitBatch(Collections.emptyList()).isEmpty());
+        assertSame(before.getRootNode(), tree.takeSnapshot().getRootNode());
+    }
+
+    @Test
+    public void testIndependentModifications() throws DataValidationFailedException {
+        final DataTreeModification initial = tree.takeSnapshot().newModification();
+        initial.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        initial.ready();
+        tree.commit(tree.prepare(initial));
+
+        final InMemoryDataTreeSnapshot snapshot = tree.takeSnapshot();
+        final DataTreeModification mod1 = snapshot.newModification();
+        mod1.write(OUTER_LIST_1_PATH, FOO_NODE);
+        mod1.ready();
+        final DataTreeModification mod2 = snapshot.newModification();
+        mod2.write(OUTER_LIST_2_PATH, BAR_NODE);
+        mod2.ready();
+
+        final List<DataTreeCandidateTip> candidates = tree.commitBatch(ImmutableList.of(mod1, mod2));
+        assertEquals(2, candidates.size());
+
+        final InMemoryDataTreeSnapshot after = tree.takeSnapshot();
+        assertEquals(FOO_NODE, after.readNode(OUTER_LIST_1_PATH).get());
+        assertEquals(BAR_NODE, after.readNode(OUTER_LIST_2_PATH).get());
+    }
+
+    @Test
+    public void testConflictingModifications() throws DataValidationFailedException {
+        final InMemoryDataTreeSnapshot snapshot = tree.takeSnapshot();
+        final DataTreeModification mod1 = snapshot.newModification();
+        mod1.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        mod1.ready();
+        final DataTreeModification mod2 = snapshot.newModification();
+        mod2.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        mod2.ready();
+
+        try {
+            tree.commitBatch(ImmutableList.of(mod1, mod2));
+            fail("Batch should have failed to validate");
+        } catch (ConflictingModificationAppliedException e) {
+            // Expected
+        }
+
+        assertFalse(tree.takeSnapshot().readNode(TestModel.TEST_PATH).isPresent());
+    }
+
+    @Test
+    public void testConflictWithBatchedModification() throws DataValidationFailedException {
+        final DataTreeModification initial = tree.takeSnapshot().newModification();
+        initial.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        initial.ready();
+        tree.commit(tree.prepare(initial));
+
+        final InMemoryDataTreeSnapshot snapshot = tree.takeSnapshot();
+        final DataTreeModification mod1 = snapshot.newModification();
+        mod1.write(OUTER_LIST_1_PATH, FOO_NODE);
+        mod1.ready();
+        final DataTreeModification mod2 = snapshot.newModification();
+        mod2.write(OUTER_LIST_2_PATH, BAR_NODE);
+        mod2.ready();
+
+        // Chained on top of the second modification, hence it is not aware of the first one
+        final DataTreeModification chained = mod2.newModification();
+        chained.write(TestModel.OUTER_LIST_PATH, mapNodeBuilder(TestModel.OUTER_LIST_QNAME).withChild(BAR_NODE).build());
+        chained.ready();
+
+        final List<DataTreeCandidateTip> candidates = tree.commitBatch(ImmutableList.of(mod1, mod2));
+        final Version version1 = ((AbstractDataTreeCandidate) candidates.get(0)).getTipRoot().getSubtreeVersion();
+        final Version version2 = ((AbstractDataTreeCandidate) candidates.get(1)).getTipRoot().getSubtreeVersion();
+        assertNotEquals(version1, version2);
+        assertNotEquals(((InMemoryDataTreeModification) mod2).getVersion(), version2);
+
+        try {
+            tree.validate(chained);
+            fail("Modification overwriting the batched change should have been rejected");
+        } catch (ConflictingModificationAppliedException e) {
+            // Expected
+        }
+    }
+}
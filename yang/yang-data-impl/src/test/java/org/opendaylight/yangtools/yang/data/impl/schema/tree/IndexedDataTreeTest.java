@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeIndex;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.IndexedDataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class IndexedDataTreeTest {
+    private static final YangInstanceIdentifier TWO_PATH = YangInstanceIdentifier.create(
+        new NodeIdentifier(TestModel.OUTER_CHOICE_QNAME), new NodeIdentifier(TestModel.TWO_QNAME));
+
+    private InMemoryDataTree tree;
+
+    private static YangInstanceIdentifier outerListPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    private static MapEntryNode outerListEntry(final int id, final String two) {
+        return ImmutableNodes.mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id)
+                .withChild(Builders.choiceBuilder().withNodeIdentifier(new NodeIdentifier(TestModel.OUTER_CHOICE_QNAME))
+                    .withChild(ImmutableNodes.leafNode(TestModel.TWO_QNAME, two)).build())
+                .build();
+    }
+
+    private static Set<Object> lookupIds(final IndexedDataTreeSnapshot snapshot, final DataTreeIndex index,
+            final String value) {
+        final Collection<MapEntryNode> entries = snapshot.lookup(index, value);
+        final Set<Object> ret = new HashSet<>();
+        for (MapEntryNode entry : entries) {
+            ret.add(entry.getIdentifier().getKeyValues().get(TestModel.ID_QNAME));
+        }
+        assertEquals(entries.size(), ret.size());
+        return ret;
+    }
+
+    private void commit(final DataTreeModification mod) throws DataValidationFailedException {
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+
+    @Before
+    public void setUp() throws ReactorException, DataValidationFailedException {
+        tree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+                .withChild(outerListEntry(1, "a"))
+                .withChild(outerListEntry(2, "b"))
+                .withChild(outerListEntry(3, "a"))
+                .build())
+            .build());
+        commit(mod);
+    }
+
+    @Test
+    public void testRegisterPopulatesIndex() {
+        final DataTreeIndex index = tree.registerIndex(TestModel.OUTER_LIST_PATH, TWO_PATH);
+        final IndexedDataTreeSnapshot snapshot = tree.takeSnapshot();
+
+        assertEquals(ImmutableSet.<Object>of(1, 3), lookupIds(snapshot, index, "a"));
+        assertEquals(ImmutableSet.<Object>of(2), lookupIds(snapshot, index, "b"));
+        assertTrue(snapshot.lookup(index, "c").isEmpty());
+    }
+
+    @Test
+    public void testIncrementalUpdate() throws DataValidationFailedException {
+        final DataTreeIndex index = tree.registerIndex(TestModel.OUTER_LIST_PATH, TWO_PATH);
+        final IndexedDataTreeSnapshot before = tree.takeSnapshot();
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(outerListPath(1), outerListEntry(1, "b"));
+        mod.delete(outerListPath(3));
+        mod.merge(outerListPath(4), outerListEntry(4, "c"));
+        commit(mod);
+
+        final IndexedDataTreeSnapshot after = tree.takeSnapshot();
+        assertTrue(after.lookup(index, "a").isEmpty());
+        assertEquals(ImmutableSet.<Object>of(1, 2), lookupIds(after, index, "b"));
+        assertEquals(ImmutableSet.<Object>of(4), lookupIds(after, index, "c"));
+
+        // The old snapshot is not affected
+        assertEquals(ImmutableSet.<Object>of(1, 3), lookupIds(before, index, "a"));
+        assertEquals(ImmutableSet.<Object>of(2), lookupIds(before, index, "b"));
+        assertTrue(before.lookup(index, "c").isEmpty());
+    }
+
+    @Test
+    public void testListReplaced() throws DataValidationFailedException {
+        final DataTreeIndex index = tree.registerIndex(TestModel.OUTER_LIST_PATH, TWO_PATH);
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+            .withChild(outerListEntry(5, "a")).build());
+        commit(mod);
+
+        final IndexedDataTreeSnapshot snapshot = tree.takeSnapshot();
+        assertEquals(ImmutableSet.<Object>of(5), lookupIds(snapshot, index, "a"));
+        assertTrue(snapshot.lookup(index, "b").isEmpty());
+
+        final DataTreeModification delete = tree.takeSnapshot().newModification();
+        delete.delete(TestModel.TEST_PATH);
+        commit(delete);
+        assertTrue(tree.takeSnapshot().lookup(index, "a").isEmpty());
+    }
+
+    @Test
+    public void testBatchCommit() throws DataValidationFailedException {
+        final DataTreeIndex index = tree.registerIndex(TestModel.OUTER_LIST_PATH, TWO_PATH);
+
+        final DataTreeModification mod1 = tree.takeSnapshot().newModification();
+        mod1.write(outerListPath(2), outerListEntry(2, "a"));
+        mod1.ready();
+        final DataTreeModification mod2 = tree.takeSnapshot().newModification();
+        mod2.delete(outerListPath(1));
+        mod2.ready();
+        tree.commitBatch(ImmutableList.of(mod1, mod2));
+
+        assertEquals(ImmutableSet.<Object>of(2, 3), lookupIds(tree.takeSnapshot(), index, "a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnregisteredIndex() {
+        final DataTreeIndex index = tree.registerIndex(TestModel.OUTER_LIST_PATH, TWO_PATH);
+        tree.unregisterIndex(index);
+        tree.takeSnapshot().lookup(index, "a");
+    }
+}
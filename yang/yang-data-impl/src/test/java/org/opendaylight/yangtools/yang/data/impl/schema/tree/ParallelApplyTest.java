@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntryBuilder;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class ParallelApplyTest {
+    private static final int ENTRY_COUNT = 1000;
+
+    private SchemaContext schemaContext;
+
+    @Before
+    public void setUp() throws ReactorException {
+        schemaContext = TestModel.createTestContext();
+    }
+
+    private InMemoryDataTree createTree(final int threshold) throws DataValidationFailedException {
+        final InMemoryDataTree tree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(
+            new DataTreeConfiguration.Builder(TreeType.OPERATIONAL).setParallelApplyThreshold(threshold).build());
+        tree.setSchemaContext(schemaContext);
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+        return tree;
+    }
+
+    private static YangInstanceIdentifier entryPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    private static void writeAndDelete(final InMemoryDataTree tree) throws DataValidationFailedException {
+        DataTreeModification mod = tree.takeSnapshot().newModification();
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            mod.write(entryPath(i), mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i)
+                .withChild(mapNodeBuilder(TestModel.INNER_LIST_QNAME).build()).build());
+        }
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+
+        mod = tree.takeSnapshot().newModification();
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            mod.delete(entryPath(i));
+        }
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws DataValidationFailedException {
+        final InMemoryDataTree sequential = createTree(0);
+        final InMemoryDataTree parallel = createTree(16);
+
+        writeAndDelete(sequential);
+        writeAndDelete(parallel);
+
+        assertEquals(sequential.takeSnapshot().readNode(TestModel.TEST_PATH),
+            parallel.takeSnapshot().readNode(TestModel.TEST_PATH));
+        assertFalse(parallel.takeSnapshot().readNode(entryPath(0)).isPresent());
+        assertEquals(entryPath(1).getLastPathArgument(),
+            parallel.takeSnapshot().readNode(entryPath(1)).get().getIdentifier());
+    }
+}
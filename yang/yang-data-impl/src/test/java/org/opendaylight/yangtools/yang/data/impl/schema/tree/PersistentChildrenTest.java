@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntryBuilder;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+/**
+ * Checks that a data tree storing large children maps in a persistent hash trie behaves exactly like one using
+ * the default configuration.
+ */
+public class PersistentChildrenTest {
+    private static final int ENTRY_COUNT = 100;
+    private static final int THRESHOLD = 16;
+
+    private SchemaContext schemaContext;
+    private InMemoryDataTree defaultTree;
+    private InMemoryDataTree persistentTree;
+
+    @Before
+    public void setUp() throws ReactorException, DataValidationFailedException {
+        schemaContext = TestModel.createTestContext();
+        defaultTree = createTree(new DataTreeConfiguration.Builder(TreeType.OPERATIONAL).build());
+        persistentTree = createTree(new DataTreeConfiguration.Builder(TreeType.OPERATIONAL)
+            .setPersistentChildrenThreshold(THRESHOLD).build());
+    }
+
+    private InMemoryDataTree createTree(final DataTreeConfiguration config) throws DataValidationFailedException {
+        final InMemoryDataTree tree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(config);
+        tree.setSchemaContext(schemaContext);
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+        return tree;
+    }
+
+    private static YangInstanceIdentifier entryPath(final int id) {
+        return YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH)
+                .nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id).build();
+    }
+
+    private static YangInstanceIdentifier innerEntryPath(final int id, final int name) {
+        return YangInstanceIdentifier.builder(entryPath(id)).node(TestModel.INNER_LIST_QNAME)
+                .nodeWithKey(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, name).build();
+    }
+
+    private interface Modifier {
+        void apply(DataTreeModification mod);
+    }
+
+    /**
+     * Apply the same modification to both trees, check the resulting candidates match and commit them.
+     */
+    private void applyToBoth(final Modifier modifier) throws DataValidationFailedException {
+        final DataTreeCandidate expected = apply(defaultTree, modifier);
+        final DataTreeCandidate actual = apply(persistentTree, modifier);
+
+        assertEquals(expected.getRootPath(), actual.getRootPath());
+        assertCandidateNode(expected.getRootNode(), actual.getRootNode());
+
+        defaultTree.commit(expected);
+        persistentTree.commit(actual);
+        assertEquals(defaultTree.takeSnapshot().readNode(TestModel.TEST_PATH),
+            persistentTree.takeSnapshot().readNode(TestModel.TEST_PATH));
+    }
+
+    private static DataTreeCandidate apply(final InMemoryDataTree tree, final Modifier modifier)
+            throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        modifier.apply(mod);
+        mod.ready();
+        tree.validate(mod);
+        return tree.prepare(mod);
+    }
+
+    private static void assertCandidateNode(final DataTreeCandidateNode expected, final DataTreeCandidateNode actual) {
+        // Identifiers are matched by the caller, as the root node does not have one
+        assertEquals(expected.getModificationType(), actual.getModificationType());
+        assertEquals(expected.getDataBefore(), actual.getDataBefore());
+        assertEquals(expected.getDataAfter(), actual.getDataAfter());
+
+        // Iteration order depends on the children map implementation, hence look up children by identifier
+        assertEquals(expected.getChildNodes().size(), actual.getChildNodes().size());
+        for (DataTreeCandidateNode expectedChild : expected.getChildNodes()) {
+            final DataTreeCandidateNode actualChild = actual.getModifiedChild(expectedChild.getIdentifier());
+            assertNotNull("Missing child " + expectedChild.getIdentifier(), actualChild);
+            assertCandidateNode(expectedChild, actualChild);
+        }
+    }
+
+    @Test
+    public void testPersistentMatchesDefault() throws DataValidationFailedException {
+        // Grow the list well above the threshold
+        applyToBoth(new Modifier() {
+            @Override
+            public void apply(final DataTreeModification mod) {
+                for (int i = 0; i < ENTRY_COUNT; ++i) {
+                    mod.write(entryPath(i), mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i)
+                        .withChild(mapNodeBuilder(TestModel.INNER_LIST_QNAME).build()).build());
+                }
+            }
+        });
+
+        final DataTreeSnapshot defaultSnapshot = defaultTree.takeSnapshot();
+        final DataTreeSnapshot persistentSnapshot = persistentTree.takeSnapshot();
+
+        // Delete half of the entries and modify a nested list in one of the survivors
+        applyToBoth(new Modifier() {
+            @Override
+            public void apply(final DataTreeModification mod) {
+                for (int i = 0; i < ENTRY_COUNT; i += 2) {
+                    mod.delete(entryPath(i));
+                }
+                mod.write(innerEntryPath(1, 1), mapEntryBuilder(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, 1)
+                    .withChild(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "one")).build());
+            }
+        });
+
+        assertFalse(persistentTree.takeSnapshot().readNode(entryPath(0)).isPresent());
+        assertEquals(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "one"), persistentTree.takeSnapshot()
+            .readNode(innerEntryPath(1, 1).node(TestModel.VALUE_QNAME)).get());
+
+        // Snapshots taken before the modification must not observe it
+        assertTrue(persistentSnapshot.readNode(entryPath(0)).isPresent());
+        assertFalse(persistentSnapshot.readNode(innerEntryPath(1, 1)).isPresent());
+        assertEquals(defaultSnapshot.readNode(TestModel.TEST_PATH), persistentSnapshot.readNode(TestModel.TEST_PATH));
+
+        // Merge a few entries and shrink the list below half of the threshold
+        applyToBoth(new Modifier() {
+            @Override
+            public void apply(final DataTreeModification mod) {
+                mod.merge(entryPath(ENTRY_COUNT), mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME,
+                    ENTRY_COUNT).build());
+                for (int i = 5; i < ENTRY_COUNT; i += 2) {
+                    mod.delete(entryPath(i));
+                }
+            }
+        });
+
+        // Grow it back above the threshold
+        applyToBoth(new Modifier() {
+            @Override
+            public void apply(final DataTreeModification mod) {
+                for (int i = 0; i < ENTRY_COUNT; i += 3) {
+                    mod.write(entryPath(i), mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i)
+                        .build());
+                }
+            }
+        });
+
+        assertEquals(persistentSnapshot.readNode(TestModel.TEST_PATH),
+            defaultSnapshot.readNode(TestModel.TEST_PATH));
+    }
+}
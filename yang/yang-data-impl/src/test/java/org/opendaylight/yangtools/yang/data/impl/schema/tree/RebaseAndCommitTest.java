@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntryBuilder;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class RebaseAndCommitTest {
+    private static final Short ONE_ID = 1;
+    private static final Short TWO_ID = 2;
+
+    private static final YangInstanceIdentifier OUTER_LIST_1_PATH = YangInstanceIdentifier.builder(
+        TestModel.OUTER_LIST_PATH).nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, ONE_ID).build();
+    private static final YangInstanceIdentifier OUTER_LIST_2_PATH = YangInstanceIdentifier.builder(
+        TestModel.OUTER_LIST_PATH).nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, TWO_ID).build();
+
+    private static final MapEntryNode FOO_NODE = mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME,
+        ONE_ID).withChild(mapNodeBuilder(TestModel.INNER_LIST_QNAME).build()).build();
+    private static final MapEntryNode BAR_NODE = mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME,
+        TWO_ID).withChild(mapNodeBuilder(TestModel.INNER_LIST_QNAME).build()).build();
+
+    private InMemoryDataTree tree;
+
+    @Before
+    public void setUp() throws ReactorException, DataValidationFailedException {
+        tree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification initial = tree.takeSnapshot().newModification();
+        initial.write(TestModel.TEST_PATH, ImmutableContainerNodeBuilder.create()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        initial.ready();
+        tree.validate(initial);
+        tree.commit(tree.prepare(initial));
+    }
+
+    private DataTreeCandidate prepareWrite(final YangInstanceIdentifier path, final MapEntryNode data)
+            throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(path, data);
+        mod.ready();
+        tree.validate(mod);
+        return tree.prepare(mod);
+    }
+
+    @Test
+    public void testCurrentCandidate() throws DataValidationFailedException {
+        final DataTreeCandidate candidate = prepareWrite(OUTER_LIST_1_PATH, FOO_NODE);
+        assertSame(candidate, tree.rebaseAndCommit(candidate));
+        assertEquals(FOO_NODE, tree.takeSnapshot().readNode(OUTER_LIST_1_PATH).get());
+    }
+
+    @Test
+    public void testDisjointCandidates() throws DataValidationFailedException {
+        final DataTreeCandidate first = prepareWrite(OUTER_LIST_1_PATH, FOO_NODE);
+        final DataTreeCandidate second = prepareWrite(OUTER_LIST_2_PATH, BAR_NODE);
+
+        tree.commit(first);
+        final DataTreeCandidate rebased = tree.rebaseAndCommit(second);
+        assertNotSame(second, rebased);
+
+        final InMemoryDataTreeSnapshot snapshot = tree.takeSnapshot();
+        assertEquals(FOO_NODE, snapshot.readNode(OUTER_LIST_1_PATH).get());
+        assertEquals(BAR_NODE, snapshot.readNode(OUTER_LIST_2_PATH).get());
+    }
+
+    @Test
+    public void testConflictingCandidates() throws DataValidationFailedException {
+        final DataTreeCandidate first = prepareWrite(OUTER_LIST_1_PATH, FOO_NODE);
+        final DataTreeCandidate second = prepareWrite(OUTER_LIST_1_PATH, FOO_NODE);
+
+        tree.commit(first);
+        final InMemoryDataTreeSnapshot before = tree.takeSnapshot();
+        try {
+            tree.rebaseAndCommit(second);
+            fail("Conflicting candidate should not have been rebased");
+        } catch (ConflictingModificationAppliedException e) {
+            // Expected
+        }
+
+        assertSame(before.getRootNode(), tree.takeSnapshot().getRootNode());
+    }
+
+    @Test
+    public void testConflictWithRebasedCandidate() throws DataValidationFailedException {
+        final DataTreeCandidate first = prepareWrite(OUTER_LIST_1_PATH, FOO_NODE);
+        final DataTreeModification second = tree.takeSnapshot().newModification();
+        second.write(OUTER_LIST_2_PATH, BAR_NODE);
+        second.ready();
+        tree.validate(second);
+        final DataTreeCandidate secondCandidate = tree.prepare(second);
+
+        // Chained on top of the second modification, hence it is not aware of the first one. Its view of the list
+        // carries the version allocated by the second modification.
+        final DataTreeModification third = second.newModification();
+        third.write(TestModel.OUTER_LIST_PATH, mapNodeBuilder(TestModel.OUTER_LIST_QNAME).withChild(BAR_NODE).build());
+        third.ready();
+
+        tree.commit(first);
+        tree.rebaseAndCommit(secondCandidate);
+        try {
+            tree.validate(third);
+            fail("Modification overwriting the concurrent change should have been rejected");
+        } catch (ConflictingModificationAppliedException e) {
+            // Expected
+        }
+        assertEquals(FOO_NODE, tree.takeSnapshot().readNode(OUTER_LIST_1_PATH).get());
+        assertEquals(BAR_NODE, tree.takeSnapshot().readNode(OUTER_LIST_2_PATH).get());
+    }
+}
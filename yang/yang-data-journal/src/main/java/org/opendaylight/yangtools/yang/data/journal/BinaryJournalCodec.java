@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.annotations.Beta;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.codec.binfmt.DataTreeCandidateInputOutput;
+import org.opendaylight.yangtools.yang.data.codec.binfmt.NormalizedNodeInputOutput;
+
+/**
+ * A {@link JournalCodec} using the compact binary format provided by yang-data-codec-binfmt.
+ */
+@Beta
+public final class BinaryJournalCodec implements JournalCodec {
+    private static final BinaryJournalCodec INSTANCE = new BinaryJournalCodec();
+
+    private BinaryJournalCodec() {
+        // Hidden on purpose
+    }
+
+    public static BinaryJournalCodec getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void writeCandidate(final DataOutput out, final DataTreeCandidate candidate) throws IOException {
+        DataTreeCandidateInputOutput.writeDataTreeCandidate(out, candidate);
+    }
+
+    @Override
+    public void applyCandidate(final DataInput in, final DataTreeModification modification) throws IOException {
+        DataTreeCandidateInputOutput.applyDataTreeCandidate(in, modification);
+    }
+
+    @Override
+    public void writeNode(final DataOutput out, final NormalizedNode<?, ?> node) throws IOException {
+        NormalizedNodeInputOutput.newDataOutput(out).writeNormalizedNode(node);
+    }
+
+    @Override
+    public NormalizedNode<?, ?> readNode(final DataInput in) throws IOException {
+        return NormalizedNodeInputOutput.newDataInput(in).readNormalizedNode();
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Durable journal of {@link DataTreeCandidate}s committed to a {@link DataTree}, complemented by periodic snapshots
+ * of the entire tree. Candidates are appended to memory-mapped segment files, which are synced to disk in batches.
+ * Each entry is identified by its sequence number, starting at 1. A snapshot records the sequence number of the last
+ * entry it covers, allowing the segments it covers to be deleted.
+ *
+ * <p>
+ * Recovery loads the most recent valid snapshot and folds all subsequent entries into a single modification, which
+ * is committed to the tree in one go. See {@link JournalingDataTree} for a way of journaling all commits made to
+ * a tree.
+ */
+@Beta
+public final class DataTreeJournal implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(DataTreeJournal.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".jnl";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snp";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int SNAPSHOT_MAGIC = 0x59534E50;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    /**
+     * A ByteArrayOutputStream which exposes its buffer, so we can append it to a segment without copying.
+     */
+    private static final class EntryOutputStream extends ByteArrayOutputStream {
+        EntryOutputStream() {
+            super(4096);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+
+    private final EntryOutputStream entryBytes = new EntryOutputStream();
+    private final DataOutputStream entryOutput = new DataOutputStream(entryBytes);
+    private final List<JournalSegment> segments;
+    private final JournalConfiguration config;
+    private final JournalCodec codec;
+
+    private long nextSequence;
+    private long snapshotSequence;
+    private int unsyncedEntries;
+    private boolean closed;
+
+    private DataTreeJournal(final JournalConfiguration config, final JournalCodec codec,
+            final List<JournalSegment> segments, final long nextSequence, final long snapshotSequence) {
+        this.config = Preconditions.checkNotNull(config);
+        this.codec = Preconditions.checkNotNull(codec);
+        this.segments = Preconditions.checkNotNull(segments);
+        this.nextSequence = nextSequence;
+        this.snapshotSequence = snapshotSequence;
+    }
+
+    /**
+     * Open a journal, creating it if it does not exist.
+     *
+     * @param config Journal configuration
+     * @param codec Codec used to encode journal entries and snapshots
+     * @return An open journal
+     * @throws IOException if the journal cannot be opened
+     */
+    public static DataTreeJournal open(@Nonnull final JournalConfiguration config, @Nonnull final JournalCodec codec)
+            throws IOException {
+        final Path dir = config.getDirectory();
+        Files.createDirectories(dir);
+
+        final Long lastSnapshot = lastKey(listFiles(dir, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX));
+        final long snapshotSequence = lastSnapshot != null ? lastSnapshot : 0;
+
+        final List<JournalSegment> segments = new ArrayList<>();
+        try {
+            for (Path file : listFiles(dir, SEGMENT_PREFIX, SEGMENT_SUFFIX).values()) {
+                final JournalSegment segment = JournalSegment.open(file);
+                if (!segments.isEmpty()) {
+                    final long expected = segments.get(segments.size() - 1).getNextSequence();
+                    // A gap is acceptable if the missing entries are covered by the snapshot, see below
+                    final long first = segment.getFirstSequence();
+                    if (first < expected || first > expected && first > snapshotSequence + 1) {
+                        segment.close();
+                        throw new IOException("Segment " + file + " starts at " + segment.getFirstSequence()
+                            + ", expected " + expected);
+                    }
+                }
+                segments.add(segment);
+            }
+        } catch (IOException e) {
+            for (JournalSegment segment : segments) {
+                segment.close();
+            }
+            throw e;
+        }
+
+        /*
+         * The tail of the last segment may have been lost in a crash. If it included entries covered by the snapshot,
+         * we must not reuse their sequence numbers, as recovery would skip the new entries. Appends will start a new
+         * segment in that case.
+         */
+        final long nextSequence = segments.isEmpty() ? snapshotSequence + 1
+                : Math.max(segments.get(segments.size() - 1).getNextSequence(), snapshotSequence + 1);
+
+        final DataTreeJournal ret = new DataTreeJournal(config, codec, segments, nextSequence, snapshotSequence);
+        LOG.debug("Opened journal {}", ret);
+        return ret;
+    }
+
+    private static TreeMap<Long, Path> listFiles(final Path dir, final String prefix, final String suffix)
+            throws IOException {
+        final TreeMap<Long, Path> ret = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, prefix + "*" + suffix)) {
+            for (Path file : stream) {
+                final String name = file.getFileName().toString();
+                try {
+                    ret.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()), 16),
+                        file);
+                } catch (NumberFormatException e) {
+                    LOG.warn("Ignoring unrecognized file {}", file, e);
+                }
+            }
+        }
+        return ret;
+    }
+
+    private static Long lastKey(final TreeMap<Long, Path> map) {
+        return map.isEmpty() ? null : map.lastKey();
+    }
+
+    private Path segmentFile(final long firstSequence) {
+        return config.getDirectory().resolve(String.format("%s%016x%s", SEGMENT_PREFIX, firstSequence,
+            SEGMENT_SUFFIX));
+    }
+
+    private Path snapshotFile(final long sequence) {
+        return config.getDirectory().resolve(String.format("%s%016x%s", SNAPSHOT_PREFIX, sequence,
+            SNAPSHOT_SUFFIX));
+    }
+
+    public JournalConfiguration getConfiguration() {
+        return config;
+    }
+
+    /**
+     * Return the sequence number of the last entry in this journal.
+     *
+     * @return Last sequence number, zero if the journal is empty.
+     */
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Return the number of entries appended since the last snapshot.
+     *
+     * @return Number of entries not covered by a snapshot.
+     */
+    public synchronized long getEntriesSinceSnapshot() {
+        return nextSequence - 1 - snapshotSequence;
+    }
+
+    /**
+     * Append a committed candidate to the journal. The entry is guaranteed to be on disk once the configured number
+     * of unsynced entries is reached, or when {@link #sync()} is invoked.
+     *
+     * @param candidate Committed candidate
+     * @return Sequence number assigned to the candidate
+     * @throws IOException if the journal fails
+     */
+    public synchronized long append(@Nonnull final DataTreeCandidate candidate) throws IOException {
+        Preconditions.checkState(!closed, "Journal %s is closed", this);
+
+        entryBytes.reset();
+        codec.writeCandidate(entryOutput, candidate);
+        entryOutput.flush();
+        final int length = entryBytes.size();
+
+        JournalSegment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        long sequence = segment != null && segment.getNextSequence() == nextSequence
+                ? segment.append(entryBytes.buffer(), length) : -1;
+        if (sequence == -1) {
+            if (segment != null) {
+                syncSegment(segment);
+            }
+            segment = JournalSegment.create(segmentFile(nextSequence), nextSequence,
+                JournalSegment.sizeFor(length, config.getSegmentSize()));
+            segments.add(segment);
+            LOG.debug("Started new segment {}", segment);
+
+            sequence = segment.append(entryBytes.buffer(), length);
+            Preconditions.checkState(sequence != -1, "Failed to append %s bytes to new segment %s", length, segment);
+        }
+
+        nextSequence = sequence + 1;
+        if (++unsyncedEntries >= config.getMaxUnsyncedEntries()) {
+            syncSegment(segment);
+        }
+        return sequence;
+    }
+
+    /**
+     * Make sure all appended entries are on disk.
+     */
+    public synchronized void sync() {
+        if (unsyncedEntries != 0 && !segments.isEmpty()) {
+            syncSegment(segments.get(segments.size() - 1));
+        }
+    }
+
+    /**
+     * Make sure all entries up to and including the specified sequence number are on disk.
+     *
+     * @param sequence Sequence number
+     */
+    private synchronized void sync(final long sequence) {
+        // Unsynced entries are always the last ones appended
+        if (unsyncedEntries != 0 && sequence >= nextSequence - unsyncedEntries) {
+            sync();
+        }
+    }
+
+    private void syncSegment(final JournalSegment segment) {
+        segment.force();
+        unsyncedEntries = 0;
+    }
+
+    /**
+     * Persist a snapshot of the data tree. Once the snapshot is on disk, older snapshots and segments holding only
+     * entries covered by it are deleted. Entries covered by the snapshot are synced before it is written, so that
+     * a snapshot never refers to entries which could be lost. This method can be invoked concurrently with
+     * {@link #append(DataTreeCandidate)}.
+     *
+     * @param sequence Sequence number of the last entry reflected in the snapshot
+     * @param root Root node of the data tree
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void writeSnapshot(final long sequence, @Nonnull final NormalizedNode<?, ?> root) throws IOException {
+        Preconditions.checkArgument(sequence <= getLastSequence(), "Snapshot sequence %s is beyond journal end",
+            sequence);
+        sync(sequence);
+
+        final Path target = snapshotFile(sequence);
+        final Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            final CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file), new CRC32());
+            final DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(sequence);
+            codec.writeNode(out, root);
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            file.getChannel().force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        LOG.debug("Written snapshot {} at sequence {}", target, sequence);
+
+        prune(sequence);
+    }
+
+    private synchronized void prune(final long sequence) throws IOException {
+        if (sequence <= snapshotSequence) {
+            // A newer snapshot has been written in the meantime
+            Files.deleteIfExists(snapshotFile(sequence));
+            return;
+        }
+        snapshotSequence = sequence;
+
+        for (Path file : listFiles(config.getDirectory(), SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headMap(sequence)
+                .values()) {
+            Files.deleteIfExists(file);
+        }
+
+        // Delete all segments except the last one, as long as the following segment starts at or before the snapshot
+        while (segments.size() > 1 && segments.get(1).getFirstSequence() <= sequence + 1) {
+            final JournalSegment segment = segments.remove(0);
+            segment.delete();
+            LOG.debug("Deleted segment {}", segment);
+        }
+    }
+
+    /**
+     * Recover the contents of the journal into a data tree. The most recent valid snapshot is loaded and all
+     * entries following it are replayed in a single modification.
+     *
+     * @param tree Data tree into which to recover. It is expected to be empty.
+     * @return Sequence number of the last recovered entry, zero if there was nothing to recover.
+     * @throws IOException if the journal cannot be read
+     * @throws DataValidationFailedException if the recovered data fails to validate
+     */
+    public long recover(@Nonnull final DataTree tree) throws IOException, DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+
+        final List<JournalSegment> toReplay;
+        final long startSequence;
+        synchronized (this) {
+            toReplay = new ArrayList<>(segments);
+            startSequence = loadSnapshot(mod) + 1;
+        }
+
+        if (!toReplay.isEmpty() && toReplay.get(0).getFirstSequence() > startSequence) {
+            throw new IOException("Journal is missing entries " + startSequence + " to "
+                + (toReplay.get(0).getFirstSequence() - 1));
+        }
+
+        final long[] lastSequence = { startSequence - 1 };
+        final JournalSegment.EntryVisitor visitor = new JournalSegment.EntryVisitor() {
+            @Override
+            public void visitEntry(final long sequence, final ByteBuffer payload) throws IOException {
+                if (sequence != lastSequence[0] + 1) {
+                    throw new IOException("Journal is missing entries " + (lastSequence[0] + 1) + " to "
+                        + (sequence - 1));
+                }
+                final byte[] bytes = new byte[payload.remaining()];
+                payload.get(bytes);
+                codec.applyCandidate(ByteStreams.newDataInput(bytes), mod);
+                lastSequence[0] = sequence;
+            }
+        };
+        for (JournalSegment segment : toReplay) {
+            segment.readEntries(startSequence, visitor);
+        }
+
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+        LOG.info("Recovered journal {} up to sequence {}", config.getDirectory(), lastSequence[0]);
+        return lastSequence[0];
+    }
+
+    /**
+     * Load the most recent valid snapshot into a modification.
+     *
+     * @return Sequence number of the snapshot, zero if no valid snapshot was found
+     */
+    private long loadSnapshot(final DataTreeModification mod) throws IOException {
+        final List<Path> files = new ArrayList<>(listFiles(config.getDirectory(), SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)
+            .values());
+        Collections.reverse(files);
+
+        for (Path file : files) {
+            try (DataInputStream raw = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                final CheckedInputStream checked = new CheckedInputStream(raw, new CRC32());
+                final DataInputStream in = new DataInputStream(checked);
+                if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                    LOG.warn("Ignoring snapshot {} with unrecognized header", file);
+                    continue;
+                }
+
+                final long sequence = in.readLong();
+                final NormalizedNode<?, ?> root = codec.readNode(in);
+                final long expected = checked.getChecksum().getValue();
+                if (raw.readLong() != expected) {
+                    LOG.warn("Ignoring snapshot {} with invalid checksum", file);
+                    continue;
+                }
+
+                mod.write(YangInstanceIdentifier.EMPTY, root);
+                LOG.debug("Loaded snapshot {} at sequence {}", file, sequence);
+                return sequence;
+            } catch (IOException | IllegalArgumentException e) {
+                LOG.warn("Ignoring unreadable snapshot {}", file, e);
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            for (JournalSegment segment : segments) {
+                segment.close();
+            }
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return MoreObjects.toStringHelper(this).add("directory", config.getDirectory()).add("segments",
+            segments.size()).add("nextSequence", nextSequence).add("snapshotSequence", snapshotSequence).toString();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.annotations.Beta;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+
+/**
+ * Encoding used by {@link DataTreeJournal} to persist journal entries and snapshots. Implementations are expected
+ * to be stateless, as each entry has to be decodable on its own.
+ */
+@Beta
+public interface JournalCodec {
+    /**
+     * Write a committed candidate.
+     *
+     * @param out Output to which the candidate should be written
+     * @param candidate Committed candidate
+     * @throws IOException if the output fails
+     */
+    void writeCandidate(@Nonnull DataOutput out, @Nonnull DataTreeCandidate candidate) throws IOException;
+
+    /**
+     * Read a candidate previously written by {@link #writeCandidate(DataOutput, DataTreeCandidate)} and apply it
+     * to a modification.
+     *
+     * @param in Input from which the candidate should be read
+     * @param modification Modification to which the candidate should be applied
+     * @throws IOException if the input fails or is not well-formed
+     */
+    void applyCandidate(@Nonnull DataInput in, @Nonnull DataTreeModification modification) throws IOException;
+
+    /**
+     * Write a snapshot of the data tree.
+     *
+     * @param out Output to which the node should be written
+     * @param node Root node of the data tree
+     * @throws IOException if the output fails
+     */
+    void writeNode(@Nonnull DataOutput out, @Nonnull NormalizedNode<?, ?> node) throws IOException;
+
+    /**
+     * Read a snapshot previously written by {@link #writeNode(DataOutput, NormalizedNode)}.
+     *
+     * @param in Input from which the node should be read
+     * @return Root node of the data tree
+     * @throws IOException if the input fails or is not well-formed
+     */
+    @Nonnull NormalizedNode<?, ?> readNode(@Nonnull DataInput in) throws IOException;
+}
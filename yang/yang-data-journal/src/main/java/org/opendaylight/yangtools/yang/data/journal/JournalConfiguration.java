@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.nio.file.Path;
+import org.opendaylight.yangtools.concepts.Immutable;
+
+/**
+ * {@link DataTreeJournal} configuration. It supports the following options:
+ * <ul>
+ * <li>directory holding journal segments and snapshots</li>
+ * <li>size of a journal segment</li>
+ * <li>maximum number of entries appended before the journal is synced to disk</li>
+ * <li>number of entries after which a snapshot is taken</li>
+ * </ul>
+ */
+@Beta
+public final class JournalConfiguration implements Immutable {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final int DEFAULT_MAX_UNSYNCED_ENTRIES = 128;
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 100000;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxUnsyncedEntries;
+    private final int snapshotInterval;
+
+    private JournalConfiguration(final Path directory, final int segmentSize, final int maxUnsyncedEntries,
+            final int snapshotInterval) {
+        this.directory = Preconditions.checkNotNull(directory);
+        this.segmentSize = segmentSize;
+        this.maxUnsyncedEntries = maxUnsyncedEntries;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Return the maximum number of entries which can be appended without syncing the journal to disk. A value of
+     * one means every entry is synced as soon as it is appended.
+     *
+     * @return Maximum number of unsynced entries, positive.
+     */
+    public int getMaxUnsyncedEntries() {
+        return maxUnsyncedEntries;
+    }
+
+    /**
+     * Return the number of entries after which a {@link JournalingDataTree} takes a snapshot. A value of zero
+     * indicates snapshots are taken only on request.
+     *
+     * @return Snapshot interval, non-negative.
+     */
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("directory", directory).add("segmentSize", segmentSize)
+                .add("maxUnsyncedEntries", maxUnsyncedEntries).add("snapshotInterval", snapshotInterval).toString();
+    }
+
+    public static class Builder {
+        private final Path directory;
+        private int segmentSize = DEFAULT_SEGMENT_SIZE;
+        private int maxUnsyncedEntries = DEFAULT_MAX_UNSYNCED_ENTRIES;
+        private int snapshotInterval = DEFAULT_SNAPSHOT_INTERVAL;
+
+        public Builder(final Path directory) {
+            this.directory = Preconditions.checkNotNull(directory);
+        }
+
+        public Builder setSegmentSize(final int segmentSize) {
+            Preconditions.checkArgument(segmentSize >= JournalSegment.MIN_SIZE, "Segment size %s is too small",
+                segmentSize);
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        public Builder setMaxUnsyncedEntries(final int maxUnsyncedEntries) {
+            Preconditions.checkArgument(maxUnsyncedEntries > 0, "Invalid number of entries %s", maxUnsyncedEntries);
+            this.maxUnsyncedEntries = maxUnsyncedEntries;
+            return this;
+        }
+
+        public Builder setSnapshotInterval(final int snapshotInterval) {
+            Preconditions.checkArgument(snapshotInterval >= 0, "Invalid interval %s", snapshotInterval);
+            this.snapshotInterval = snapshotInterval;
+            return this;
+        }
+
+        public JournalConfiguration build() {
+            return new JournalConfiguration(directory, segmentSize, maxUnsyncedEntries, snapshotInterval);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * A single memory-mapped journal segment file. The file starts with a header, which is followed by entries. Each
+ * entry is prefixed by its length and the CRC32 of its payload. Sequence numbers are implied by the position of an
+ * entry within the segment and the segment's first sequence number.
+ *
+ * <p>
+ * Since pages of a mapping can reach the disk in any order, a crash may leave a torn entry followed by well-formed
+ * ones. When a segment is opened, it is scanned up to the first entry which fails to validate and everything past
+ * that point is cleared.
+ */
+final class JournalSegment implements AutoCloseable {
+    static final int MIN_SIZE = 4096;
+
+    private static final int MAGIC = 0x594A524E;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_HEADER_SIZE = 8;
+
+    interface EntryVisitor {
+        void visitEntry(long sequence, ByteBuffer payload) throws IOException;
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long firstSequence;
+    private int entryCount;
+    private int writePosition;
+
+    private JournalSegment(final Path file, final FileChannel channel, final MappedByteBuffer buffer,
+            final long firstSequence, final int entryCount, final int writePosition) {
+        this.file = Preconditions.checkNotNull(file);
+        this.channel = Preconditions.checkNotNull(channel);
+        this.buffer = Preconditions.checkNotNull(buffer);
+        this.firstSequence = firstSequence;
+        this.entryCount = entryCount;
+        this.writePosition = writePosition;
+    }
+
+    static int sizeFor(final int payloadLength, final int segmentSize) {
+        return Math.max(segmentSize, HEADER_SIZE + ENTRY_HEADER_SIZE + payloadLength);
+    }
+
+    static JournalSegment create(final Path file, final long firstSequence, final int size) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(8, firstSequence);
+            buffer.force();
+            return new JournalSegment(file, channel, buffer, firstSequence, 0, HEADER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static JournalSegment open(final Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Segment " + file + " has invalid size " + size);
+            }
+
+            final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Segment " + file + " has invalid magic");
+            }
+            final int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Segment " + file + " has unsupported version " + version);
+            }
+            final long firstSequence = buffer.getLong(8);
+
+            int position = HEADER_SIZE;
+            int count = 0;
+            while (true) {
+                final int length = validEntryLength(buffer, position);
+                if (length < 0) {
+                    break;
+                }
+                position += ENTRY_HEADER_SIZE + length;
+                count++;
+            }
+
+            // Clear anything past the last valid entry, so it cannot be mistaken for an entry in the future
+            for (int i = position; i < buffer.capacity(); ++i) {
+                if (buffer.get(i) != 0) {
+                    buffer.put(i, (byte) 0);
+                }
+            }
+
+            return new JournalSegment(file, channel, buffer, firstSequence, count, position);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static int validEntryLength(final ByteBuffer buffer, final int position) {
+        if (position + ENTRY_HEADER_SIZE > buffer.capacity()) {
+            return -1;
+        }
+        final int length = buffer.getInt(position);
+        if (length <= 0 || length > buffer.capacity() - position - ENTRY_HEADER_SIZE) {
+            return -1;
+        }
+
+        final int offset = position + ENTRY_HEADER_SIZE;
+        return buffer.getInt(position + 4) == checksum(buffer, offset, length) ? length : -1;
+    }
+
+    private static int checksum(final ByteBuffer buffer, final int offset, final int length) {
+        final ByteBuffer slice = buffer.duplicate();
+        slice.limit(offset + length).position(offset);
+        final CRC32 crc = new CRC32();
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    long getNextSequence() {
+        return firstSequence + entryCount;
+    }
+
+    /**
+     * Append an entry to this segment.
+     *
+     * @param bytes Array holding the payload
+     * @param length Length of the payload
+     * @return Sequence number of the entry, or -1 if the entry does not fit into this segment
+     */
+    long append(final byte[] bytes, final int length) {
+        Preconditions.checkArgument(length > 0);
+        if (buffer.capacity() - writePosition < ENTRY_HEADER_SIZE + length) {
+            return -1;
+        }
+
+        final int offset = writePosition + ENTRY_HEADER_SIZE;
+        final ByteBuffer slice = buffer.duplicate();
+        slice.position(offset);
+        slice.put(bytes, 0, length);
+
+        // Length goes last, as a non-zero length marks the entry as present
+        buffer.putInt(writePosition + 4, checksum(buffer, offset, length));
+        buffer.putInt(writePosition, length);
+        writePosition = offset + length;
+        return firstSequence + entryCount++;
+    }
+
+    void readEntries(final long fromSequence, final EntryVisitor visitor) throws IOException {
+        int position = HEADER_SIZE;
+        for (int i = 0; i < entryCount; ++i) {
+            final int length = buffer.getInt(position);
+            final long sequence = firstSequence + i;
+            if (sequence >= fromSequence) {
+                final ByteBuffer payload = buffer.duplicate();
+                payload.limit(position + ENTRY_HEADER_SIZE + length).position(position + ENTRY_HEADER_SIZE);
+                visitor.visitEntry(sequence, payload.slice());
+            }
+            position += ENTRY_HEADER_SIZE + length;
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        Files.delete(file);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("file", file).add("firstSequence", firstSequence)
+                .add("entries", entryCount).toString();
+    }
+}
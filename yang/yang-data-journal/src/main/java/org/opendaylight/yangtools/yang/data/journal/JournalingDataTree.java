@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateTip;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTreeTip;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link TipProducingDataTree} which records every committed candidate in a {@link DataTreeJournal}. Validation
+ * and preparation are passed directly to the backing tree, so only commits pay the cost of journaling. Commits are
+ * serialized, so that the order of entries in the journal matches the order in which the candidates were applied.
+ * Each candidate is appended to the journal, and synced as configured by
+ * {@link JournalConfiguration#getMaxUnsyncedEntries()}, before it is committed to the backing tree.
+ *
+ * <p>
+ * Once the configured number of entries has been appended since the last snapshot, a snapshot of the tree is taken
+ * and written out using the supplied executor. A snapshot can also be requested explicitly via
+ * {@link #writeSnapshot()}.
+ */
+@Beta
+public final class JournalingDataTree implements TipProducingDataTree {
+    private static final Logger LOG = LoggerFactory.getLogger(JournalingDataTree.class);
+
+    private final AtomicBoolean snapshotInProgress = new AtomicBoolean();
+    private final TipProducingDataTree delegate;
+    private final DataTreeJournal journal;
+    private final Executor snapshotExecutor;
+
+    private JournalingDataTree(final TipProducingDataTree delegate, final DataTreeJournal journal,
+            final Executor snapshotExecutor) {
+        this.delegate = Preconditions.checkNotNull(delegate);
+        this.journal = Preconditions.checkNotNull(journal);
+        this.snapshotExecutor = Preconditions.checkNotNull(snapshotExecutor);
+    }
+
+    /**
+     * Recover the contents of a journal into a data tree and start journaling all commits made to it. Snapshots
+     * are written by the committing thread.
+     *
+     * @param delegate Empty data tree, with schema context already set
+     * @param journal Journal to recover from and append to
+     * @return A journaling data tree
+     * @throws IOException if the journal cannot be read
+     * @throws DataValidationFailedException if the recovered data does not validate
+     */
+    public static JournalingDataTree recover(@Nonnull final TipProducingDataTree delegate,
+            @Nonnull final DataTreeJournal journal) throws IOException, DataValidationFailedException {
+        return recover(delegate, journal, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Recover the contents of a journal into a data tree and start journaling all commits made to it.
+     *
+     * @param delegate Empty data tree, with schema context already set
+     * @param journal Journal to recover from and append to
+     * @param snapshotExecutor Executor used to write snapshots
+     * @return A journaling data tree
+     * @throws IOException if the journal cannot be read
+     * @throws DataValidationFailedException if the recovered data does not validate
+     */
+    public static JournalingDataTree recover(@Nonnull final TipProducingDataTree delegate,
+            @Nonnull final DataTreeJournal journal, @Nonnull final Executor snapshotExecutor)
+                    throws IOException, DataValidationFailedException {
+        journal.recover(delegate);
+        return new JournalingDataTree(delegate, journal, snapshotExecutor);
+    }
+
+    public DataTreeJournal getJournal() {
+        return journal;
+    }
+
+    @Override
+    public DataTreeSnapshot takeSnapshot() {
+        return delegate.takeSnapshot();
+    }
+
+    @Override
+    public void setSchemaContext(final SchemaContext newSchemaContext) {
+        delegate.setSchemaContext(newSchemaContext);
+    }
+
+    @Override
+    public YangInstanceIdentifier getRootPath() {
+        return delegate.getRootPath();
+    }
+
+    @Override
+    public void validate(final DataTreeModification modification) throws DataValidationFailedException {
+        delegate.validate(modification);
+    }
+
+    @Override
+    public DataTreeCandidateTip prepare(final DataTreeModification modification) {
+        return delegate.prepare(modification);
+    }
+
+    @Override
+    public synchronized void commit(final DataTreeCandidate candidate) {
+        // The backing tree would reject a stale candidate only after we have journaled it, which would make recovery
+        // replay a change which has never been applied. Unmodified candidates are always accepted.
+        Preconditions.checkState(candidate.getRootNode().getModificationType() == ModificationType.UNMODIFIED
+                || isCurrent(candidate), "Candidate %s is not based on the current state of %s", candidate, delegate);
+
+        // Write-ahead: the candidate has to be in the journal before it becomes visible
+        append(candidate);
+        delegate.commit(candidate);
+        maybeSnapshot();
+    }
+
+    /*
+     * The batch is prepared as a chain of candidates on top of the current state, which is stable as long as we hold
+     * the lock. All candidates are journaled before any of them is committed.
+     */
+    @Override
+    public synchronized List<DataTreeCandidateTip> commitBatch(
+            final Collection<? extends DataTreeModification> modifications) throws DataValidationFailedException {
+        final List<DataTreeCandidateTip> ret = new ArrayList<>(modifications.size());
+        TipProducingDataTreeTip tip = delegate;
+        for (DataTreeModification mod : modifications) {
+            tip.validate(mod);
+            final DataTreeCandidateTip candidate = tip.prepare(mod);
+            ret.add(candidate);
+            tip = candidate;
+        }
+
+        for (DataTreeCandidateTip candidate : ret) {
+            append(candidate);
+        }
+        for (DataTreeCandidateTip candidate : ret) {
+            delegate.commit(candidate);
+        }
+        maybeSnapshot();
+        return ret;
+    }
+
+    /*
+     * If the candidate is based on the current state, there is nothing to rebase and it is journaled before it is
+     * committed. Otherwise the rebased candidate is not known until the backing tree has committed it, hence it can
+     * only be journaled afterwards.
+     */
+    @Override
+    public synchronized DataTreeCandidate rebaseAndCommit(final DataTreeCandidate candidate)
+            throws DataValidationFailedException {
+        if (isCurrent(candidate)) {
+            commit(candidate);
+            return candidate;
+        }
+
+        final DataTreeCandidate ret = delegate.rebaseAndCommit(candidate);
+        append(ret);
+        maybeSnapshot();
+        return ret;
+    }
+
+    private boolean isCurrent(final DataTreeCandidate candidate) {
+        final Optional<NormalizedNode<?, ?>> current = delegate.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY);
+        return current.orNull() == candidate.getRootNode().getDataBefore().orNull();
+    }
+
+    private void append(final DataTreeCandidate candidate) {
+        try {
+            journal.append(candidate);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to journal candidate " + candidate, e);
+        }
+    }
+
+    private void maybeSnapshot() {
+        final long interval = journal.getConfiguration().getSnapshotInterval();
+        if (interval != 0 && journal.getEntriesSinceSnapshot() >= interval
+                && snapshotInProgress.compareAndSet(false, true)) {
+            scheduleSnapshot();
+        }
+    }
+
+    /**
+     * Write a snapshot of the current state of the tree. The state is captured immediately, the snapshot itself
+     * is written by the snapshot executor.
+     *
+     * @return False if a snapshot is already being written, true otherwise.
+     */
+    public boolean writeSnapshot() {
+        if (!snapshotInProgress.compareAndSet(false, true)) {
+            return false;
+        }
+
+        synchronized (this) {
+            scheduleSnapshot();
+        }
+        return true;
+    }
+
+    private void scheduleSnapshot() {
+        // Invoked with the lock held, hence the sequence and the root are consistent
+        final long sequence = journal.getLastSequence();
+        final Optional<NormalizedNode<?, ?>> root = delegate.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY);
+
+        try {
+            snapshotExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (root.isPresent()) {
+                            journal.writeSnapshot(sequence, root.get());
+                        }
+                    } catch (IOException e) {
+                        LOG.error("Failed to write snapshot at sequence {}", sequence, e);
+                    } finally {
+                        snapshotInProgress.set(false);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            snapshotInProgress.set(false);
+            LOG.error("Failed to schedule snapshot at sequence {}", sequence, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JournalSegmentTest {
+    private static final int SEGMENT_SIZE = 4096;
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("segment-", ".jnl");
+        Files.delete(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static byte[] entry(final int num) {
+        return ("entry " + num).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> readAll(final JournalSegment segment, final long from) throws IOException {
+        final List<String> ret = new ArrayList<>();
+        segment.readEntries(from, new JournalSegment.EntryVisitor() {
+            @Override
+            public void visitEntry(final long sequence, final ByteBuffer payload) {
+                final byte[] bytes = new byte[payload.remaining()];
+                payload.get(bytes);
+                ret.add(sequence + ":" + new String(bytes, StandardCharsets.UTF_8));
+            }
+        });
+        return ret;
+    }
+
+    @Test
+    public void testAppendAndReopen() throws IOException {
+        try (JournalSegment segment = JournalSegment.create(file, 10, SEGMENT_SIZE)) {
+            for (int i = 0; i < 3; ++i) {
+                final byte[] bytes = entry(i);
+                assertEquals(10 + i, segment.append(bytes, bytes.length));
+            }
+            assertEquals(13, segment.getNextSequence());
+        }
+
+        try (JournalSegment segment = JournalSegment.open(file)) {
+            assertEquals(10, segment.getFirstSequence());
+            assertEquals(13, segment.getNextSequence());
+            assertEquals(Arrays.asList("11:entry 1", "12:entry 2"), readAll(segment, 11));
+        }
+    }
+
+    @Test
+    public void testSegmentFull() throws IOException {
+        try (JournalSegment segment = JournalSegment.create(file, 1, SEGMENT_SIZE)) {
+            final byte[] bytes = new byte[SEGMENT_SIZE];
+            assertEquals(-1, segment.append(bytes, bytes.length));
+            assertEquals(-1, segment.append(bytes, SEGMENT_SIZE - 16 - 8 + 1));
+            assertEquals(1, segment.append(bytes, SEGMENT_SIZE - 16 - 8));
+        }
+    }
+
+    @Test
+    public void testTornEntry() throws IOException {
+        long secondOffset = 0;
+        try (JournalSegment segment = JournalSegment.create(file, 1, SEGMENT_SIZE)) {
+            for (int i = 0; i < 3; ++i) {
+                final byte[] bytes = entry(i);
+                segment.append(bytes, bytes.length);
+                if (i == 0) {
+                    secondOffset = 16 + 8 + bytes.length;
+                }
+            }
+        }
+
+        // Corrupt the payload of the second entry, the third one has to be discarded as well
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(secondOffset + 8);
+            raf.write('X');
+        }
+
+        try (JournalSegment segment = JournalSegment.open(file)) {
+            assertEquals(2, segment.getNextSequence());
+            assertEquals(Arrays.asList("1:entry 0"), readAll(segment, 1));
+
+            final byte[] bytes = entry(5);
+            assertEquals(2, segment.append(bytes, bytes.length));
+        }
+
+        try (JournalSegment segment = JournalSegment.open(file)) {
+            assertArrayEquals(new Object[] { "1:entry 0", "2:entry 5" }, readAll(segment, 1).toArray());
+        }
+    }
+}
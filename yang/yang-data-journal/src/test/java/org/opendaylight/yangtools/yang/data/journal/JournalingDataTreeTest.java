@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Optional;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+
+public class JournalingDataTreeTest {
+    private static final QName TOP = QName.create("urn:opendaylight:test:journal", "2016-06-01", "top");
+    private static final QName LIST = QName.create(TOP, "list");
+    private static final QName ID = QName.create(TOP, "id");
+    private static final QName NAME = QName.create(TOP, "name");
+    private static final YangInstanceIdentifier TOP_PATH = YangInstanceIdentifier.of(TOP);
+    private static final YangInstanceIdentifier LIST_PATH = TOP_PATH.node(LIST);
+
+    /**
+     * Codec which can be made to fail, so we can observe what happens when the journal cannot be written.
+     */
+    private static final class FailingCodec implements JournalCodec {
+        private final JournalCodec delegate = BinaryJournalCodec.getInstance();
+        private boolean failing;
+
+        @Override
+        public void writeCandidate(final DataOutput out, final DataTreeCandidate candidate) throws IOException {
+            if (failing) {
+                throw new IOException("Injected failure");
+            }
+            delegate.writeCandidate(out, candidate);
+        }
+
+        @Override
+        public void applyCandidate(final DataInput in, final DataTreeModification modification) throws IOException {
+            delegate.applyCandidate(in, modification);
+        }
+
+        @Override
+        public void writeNode(final DataOutput out, final NormalizedNode<?, ?> node) throws IOException {
+            delegate.writeNode(out, node);
+        }
+
+        @Override
+        public NormalizedNode<?, ?> readNode(final DataInput in) throws IOException {
+            return delegate.readNode(in);
+        }
+    }
+
+    private static SchemaContext schemaContext;
+
+    private Path directory;
+    private JournalConfiguration config;
+
+    @BeforeClass
+    public static void beforeClass() throws ReactorException {
+        schemaContext = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(Collections.singletonList(
+            JournalingDataTreeTest.class.getResourceAsStream("/journal-test.yang")));
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-");
+        // Small segments and no automatic snapshots, so tests control when segments roll and snapshots are taken
+        config = new JournalConfiguration.Builder(directory).setSegmentSize(JournalSegment.MIN_SIZE)
+                .setMaxUnsyncedEntries(4).setSnapshotInterval(0).build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static TipProducingDataTree newDataTree() {
+        final TipProducingDataTree tree = InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        tree.setSchemaContext(schemaContext);
+        return tree;
+    }
+
+    private static DataTreeModification writeEntry(final JournalingDataTree tree, final int id) {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        if (!tree.takeSnapshot().readNode(TOP_PATH).isPresent()) {
+            mod.write(TOP_PATH, ImmutableNodes.containerNode(TOP));
+            mod.write(LIST_PATH, ImmutableNodes.mapNodeBuilder(LIST).build());
+        }
+        mod.write(LIST_PATH.node(new NodeIdentifierWithPredicates(LIST, ID, id)), ImmutableNodes.mapEntryBuilder(
+            LIST, ID, id).withChild(ImmutableNodes.leafNode(NAME, "entry " + id)).build());
+        mod.ready();
+        return mod;
+    }
+
+    private static void commitEntry(final JournalingDataTree tree, final int id) throws Exception {
+        final DataTreeModification mod = writeEntry(tree, id);
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+
+    private static Optional<NormalizedNode<?, ?>> readRoot(final TipProducingDataTree tree) {
+        return tree.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        final List<Path> ret = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "segment-*.jnl")) {
+            for (Path file : stream) {
+                ret.add(file);
+            }
+        }
+        Collections.sort(ret);
+        return ret;
+    }
+
+    private JournalingDataTree reopen(final TipProducingDataTree tree) throws Exception {
+        return JournalingDataTree.recover(tree, DataTreeJournal.open(config, BinaryJournalCodec.getInstance()));
+    }
+
+    @Test
+    public void testRecoverWithSnapshot() throws Exception {
+        final JournalingDataTree tree = reopen(newDataTree());
+        for (int i = 0; i < 100; ++i) {
+            commitEntry(tree, i);
+        }
+        assertTrue(tree.writeSnapshot());
+        for (int i = 100; i < 150; ++i) {
+            commitEntry(tree, i);
+        }
+
+        final long lastSequence = tree.getJournal().getLastSequence();
+        assertEquals(150, lastSequence);
+        assertEquals(50, tree.getJournal().getEntriesSinceSnapshot());
+        tree.getJournal().close();
+
+        final TipProducingDataTree recovered = newDataTree();
+        final DataTreeJournal journal = DataTreeJournal.open(config, BinaryJournalCodec.getInstance());
+        assertEquals(lastSequence, journal.recover(recovered));
+        assertEquals(readRoot(tree), readRoot(recovered));
+        journal.close();
+    }
+
+    @Test
+    public void testCommitBatch() throws Exception {
+        final JournalingDataTree tree = reopen(newDataTree());
+        commitEntry(tree, 0);
+        tree.commitBatch(Arrays.asList(writeEntry(tree, 1), writeEntry(tree, 2)));
+        assertEquals(3, tree.getJournal().getLastSequence());
+        tree.getJournal().close();
+
+        final JournalingDataTree recovered = reopen(newDataTree());
+        assertEquals(readRoot(tree), readRoot(recovered));
+        recovered.getJournal().close();
+    }
+
+    @Test
+    public void testFailedAppendIsNotCommitted() throws Exception {
+        final FailingCodec codec = new FailingCodec();
+        final JournalingDataTree tree = JournalingDataTree.recover(newDataTree(), DataTreeJournal.open(config, codec));
+        commitEntry(tree, 0);
+        final Optional<NormalizedNode<?, ?>> before = readRoot(tree);
+
+        codec.failing = true;
+        try {
+            commitEntry(tree, 1);
+            fail("Commit should have failed");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+
+        // The journal is written ahead, hence the tree must not have observed the candidate
+        assertEquals(before, readRoot(tree));
+        assertEquals(1, tree.getJournal().getLastSequence());
+        tree.getJournal().close();
+    }
+
+    @Test
+    public void testStaleCandidateIsNotJournaled() throws Exception {
+        final JournalingDataTree tree = reopen(newDataTree());
+        commitEntry(tree, 0);
+
+        final DataTreeModification first = writeEntry(tree, 1);
+        final DataTreeModification second = writeEntry(tree, 2);
+        tree.validate(first);
+        final DataTreeCandidate firstCandidate = tree.prepare(first);
+        tree.validate(second);
+        final DataTreeCandidate staleCandidate = tree.prepare(second);
+        tree.commit(firstCandidate);
+
+        try {
+            tree.commit(staleCandidate);
+            fail("Stale candidate should have been rejected");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        assertEquals(2, tree.getJournal().getLastSequence());
+
+        // The tree remains usable and recovery does not replay the rejected candidate
+        commitEntry(tree, 3);
+        assertEquals(3, tree.getJournal().getLastSequence());
+        tree.getJournal().close();
+
+        final JournalingDataTree recovered = reopen(newDataTree());
+        assertEquals(readRoot(tree), readRoot(recovered));
+        assertFalse(recovered.takeSnapshot().readNode(LIST_PATH.node(new NodeIdentifierWithPredicates(LIST, ID, 2)))
+            .isPresent());
+        recovered.getJournal().close();
+    }
+
+    @Test
+    public void testTruncatedTailSegment() throws Exception {
+        final JournalingDataTree tree = reopen(newDataTree());
+        for (int i = 0; i < 10; ++i) {
+            commitEntry(tree, i);
+        }
+        assertTrue(tree.writeSnapshot());
+        final Optional<NormalizedNode<?, ?>> snapshot = readRoot(tree);
+        tree.getJournal().close();
+
+        // Simulate a crash which lost all entries of the last segment, including those covered by the snapshot
+        final List<Path> segments = segmentFiles();
+        assertFalse(segments.isEmpty());
+        try (RandomAccessFile raf = new RandomAccessFile(segments.get(segments.size() - 1).toFile(), "rw")) {
+            raf.seek(16);
+            raf.write(new byte[(int) raf.length() - 16]);
+        }
+
+        // Recovery comes from the snapshot and the journal continues after it
+        final JournalingDataTree recovered = reopen(newDataTree());
+        assertEquals(snapshot, readRoot(recovered));
+        assertEquals(10, recovered.getJournal().getLastSequence());
+        commitEntry(recovered, 10);
+        assertEquals(11, recovered.getJournal().getLastSequence());
+        recovered.getJournal().close();
+
+        final JournalingDataTree again = reopen(newDataTree());
+        assertEquals(readRoot(recovered), readRoot(again));
+        assertEquals(11, again.getJournal().getLastSequence());
+        again.getJournal().close();
+    }
+}
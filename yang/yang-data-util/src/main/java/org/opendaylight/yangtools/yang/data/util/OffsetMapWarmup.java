@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.ImmutableSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.util.OffsetMapCache;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
+import org.opendaylight.yangtools.yang.model.api.AugmentationTarget;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
+import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility class for pre-populating {@link OffsetMapCache} with children key sets of data containers defined by a
+ * {@link SchemaContext}, so that immutable data containers share their offsets from startup.
+ *
+ * <p>Each container, list entry, case, augmentation, notification and RPC input/output contributes the set of all its
+ * possible children. This set matches only fully-populated instances, hence the warm-up benefits mostly containers
+ * which tend to have all their children present, such as list entries made up of mandatory leaves.
+ */
+@Beta
+public final class OffsetMapWarmup {
+    private static final Logger LOG = LoggerFactory.getLogger(OffsetMapWarmup.class);
+
+    private OffsetMapWarmup() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Pre-populate {@link OffsetMapCache} with children key sets of all data containers in a {@link SchemaContext}.
+     *
+     * @param context Schema context
+     * @return Number of key sets added to the cache
+     */
+    public static int warmUp(@Nonnull final SchemaContext context) {
+        final Set<Set<PathArgument>> keySets = childrenKeySets(context);
+        final int ret = OffsetMapCache.warmUp(keySets);
+        LOG.debug("Added {} of {} children key sets of {} to the offset cache", ret, keySets.size(), context);
+        return ret;
+    }
+
+    /**
+     * Collect children key sets of all data containers in a {@link SchemaContext}.
+     *
+     * @param context Schema context
+     * @return Set of children key sets
+     */
+    @Nonnull public static Set<Set<PathArgument>> childrenKeySets(@Nonnull final SchemaContext context) {
+        final Set<Set<PathArgument>> ret = new LinkedHashSet<>();
+        addContainer(ret, context);
+        for (NotificationDefinition notification : context.getNotifications()) {
+            addContainer(ret, notification);
+        }
+        for (RpcDefinition rpc : context.getOperations()) {
+            if (rpc.getInput() != null) {
+                addContainer(ret, rpc.getInput());
+            }
+            if (rpc.getOutput() != null) {
+                addContainer(ret, rpc.getOutput());
+            }
+        }
+        return ret;
+    }
+
+    private static void addContainer(final Set<Set<PathArgument>> keySets, final DataNodeContainer container) {
+        // Children introduced by augmentations are wrapped in an AugmentationNode
+        final Set<QName> augmented = new HashSet<>();
+        final ImmutableSet.Builder<PathArgument> keys = ImmutableSet.builder();
+        if (container instanceof AugmentationTarget) {
+            for (AugmentationSchema augmentation : ((AugmentationTarget) container).getAvailableAugmentations()) {
+                keys.add(DataSchemaContextNode.augmentationIdentifierFrom(augmentation));
+
+                // Children of the AugmentationNode itself. Their subtrees are covered by the loop below.
+                final ImmutableSet.Builder<PathArgument> augmentationKeys = ImmutableSet.builder();
+                for (DataSchemaNode child : augmentation.getChildNodes()) {
+                    augmented.add(child.getQName());
+                    augmentationKeys.add(new NodeIdentifier(child.getQName()));
+                }
+                keySets.add(augmentationKeys.build());
+            }
+        }
+
+        for (DataSchemaNode child : container.getChildNodes()) {
+            if (!augmented.contains(child.getQName())) {
+                keys.add(new NodeIdentifier(child.getQName()));
+            }
+        }
+
+        keySets.add(keys.build());
+        addChildren(keySets, container);
+    }
+
+    private static void addChildren(final Set<Set<PathArgument>> keySets, final DataNodeContainer container) {
+        for (DataSchemaNode child : container.getChildNodes()) {
+            if (child instanceof ContainerSchemaNode || child instanceof ListSchemaNode) {
+                addContainer(keySets, (DataNodeContainer) child);
+            } else if (child instanceof ChoiceSchemaNode) {
+                for (ChoiceCaseNode caze : ((ChoiceSchemaNode) child).getCases()) {
+                    addContainer(keySets, caze);
+                }
+            }
+        }
+    }
+}
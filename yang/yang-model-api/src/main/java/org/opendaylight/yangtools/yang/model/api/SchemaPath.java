@@ -11,6 +11,8 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.MoreObjects.ToStringHelper;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.UnmodifiableIterator;
@@ -67,6 +69,8 @@ public abstract class SchemaPath implements Immutable {
         }
     }
 
+    private static final Interner<SchemaPath> INTERNER = Interners.newWeakInterner();
+
     @SuppressWarnings("rawtypes")
     private static final AtomicReferenceFieldUpdater<SchemaPath, ImmutableList> LEGACYPATH_UPDATER =
             AtomicReferenceFieldUpdater.newUpdater(SchemaPath.class, ImmutableList.class, "legacyPath");
@@ -276,6 +280,16 @@ public abstract class SchemaPath implements Immutable {
         };
     }
 
+    /**
+     * Return an interned reference to an equivalent SchemaPath. Only this instance is interned, hence callers
+     * should create children only from interned parents to share entire paths.
+     *
+     * @return Interned reference, or this object if it was interned.
+     */
+    public SchemaPath intern() {
+        return parent == null ? this : INTERNER.intern(this);
+    }
+
     /**
      * Returns the immediate parent SchemaPath.
      *
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.model.repo.api.IfFeaturePredicates;
+import org.opendaylight.yangtools.yang.model.repo.api.StatementParserMode;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.CompiledStatementSource;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent cache of compiled YANG sources, which allows a {@link SchemaContext} to be assembled without lexing and
+ * parsing YANG text when the same set of models is encountered again, for example on process restart.
+ *
+ * <p>Each set of sources is stored in a single file named after a SHA-256 digest of the sorted source identifiers,
+ * their contents, the set of supported features and the {@link StatementParserMode}. The file holds the statement
+ * trees of all sources in the form produced by {@link CompiledStatementSource}. Files which cannot be read are
+ * discarded and recreated from source text.
+ */
+@Beta
+public final class CompiledSchemaContextCache {
+    private static final Logger LOG = LoggerFactory.getLogger(CompiledSchemaContextCache.class);
+    private static final int MAGIC = 0x59414e47;
+    private static final String SUFFIX = ".compiled";
+
+    private final File directory;
+
+    private CompiledSchemaContextCache(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Create a cache storing its files in the specified directory. The directory is created if it does not exist.
+     *
+     * @param directory Storage directory
+     * @return A new cache
+     * @throws IllegalArgumentException if the directory cannot be created or is not writable
+     */
+    public static CompiledSchemaContextCache create(final File directory) {
+        Preconditions.checkNotNull(directory);
+        Preconditions.checkArgument(directory.isDirectory() || directory.mkdirs(), "Failed to create directory %s",
+            directory);
+        Preconditions.checkArgument(directory.canWrite(), "Directory %s is not writable", directory);
+        return new CompiledSchemaContextCache(directory);
+    }
+
+    /**
+     * Assemble a schema context from specified sources, using compiled sources stored in this cache if available.
+     * If they are not available, sources are parsed and their compiled form is stored for subsequent invocations.
+     *
+     * @param sources YANG text sources
+     * @param statementParserMode Statement parser mode
+     * @param supportedFeatures Supported features, absent if all features are supported
+     * @return Assembled schema context
+     * @throws IOException if a source cannot be read
+     * @throws YangSyntaxErrorException if a source is not syntactically valid
+     * @throws ReactorException if the sources cannot be assembled into a schema context
+     */
+    public SchemaContext getSchemaContext(final Collection<? extends YangTextSchemaSource> sources,
+            final StatementParserMode statementParserMode, final Optional<Set<QName>> supportedFeatures)
+                    throws IOException, YangSyntaxErrorException, ReactorException {
+        final List<YangTextSchemaSource> sorted = new ArrayList<>(sources);
+        sorted.sort(Comparator.comparing(source -> source.getIdentifier().toYangFilename()));
+
+        final List<byte[]> contents = new ArrayList<>(sorted.size());
+        for (YangTextSchemaSource source : sorted) {
+            contents.add(source.read());
+        }
+
+        final File file = new File(directory, computeKey(sorted, contents, statementParserMode, supportedFeatures)
+            + SUFFIX);
+        List<CompiledStatementSource> compiled = null;
+        if (file.isFile()) {
+            try {
+                compiled = readFile(file);
+                LOG.debug("Loaded {} compiled sources from {}", compiled.size(), file);
+            } catch (IOException e) {
+                LOG.warn("Failed to read compiled sources from {}, discarding it", file, e);
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+
+        if (compiled == null) {
+            compiled = new ArrayList<>(sorted.size());
+            for (int i = 0; i < sorted.size(); ++i) {
+                final String text = new String(contents.get(i), StandardCharsets.UTF_8);
+                compiled.add(CompiledStatementSource.fromAST(sorted.get(i).getIdentifier().getName(),
+                    YangStatementSourceImpl.parseYangText(text)));
+            }
+        }
+
+        final Predicate<QName> isFeatureSupported = supportedFeatures.isPresent()
+                ? supportedFeatures.get()::contains : IfFeaturePredicates.ALL_FEATURES;
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild(
+            statementParserMode, isFeatureSupported);
+        for (CompiledStatementSource source : compiled) {
+            reactor.addSource(source);
+        }
+        final SchemaContext result = reactor.buildEffective();
+
+        // Store only sources which resulted in a valid context
+        if (!file.isFile()) {
+            try {
+                writeFile(file, compiled);
+                LOG.debug("Stored {} compiled sources in {}", compiled.size(), file);
+            } catch (IOException e) {
+                LOG.warn("Failed to store compiled sources in {}", file, e);
+            }
+        }
+        return result;
+    }
+
+    static String computeKey(final List<YangTextSchemaSource> sorted, final List<byte[]> contents,
+            final StatementParserMode statementParserMode, final Optional<Set<QName>> supportedFeatures) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(statementParserMode.name(), StandardCharsets.UTF_8);
+        if (supportedFeatures.isPresent()) {
+            final Set<String> features = ImmutableSortedSet.copyOf(
+                supportedFeatures.get().stream().map(QName::toString).iterator());
+            hasher.putInt(features.size());
+            for (String feature : features) {
+                hasher.putString(feature, StandardCharsets.UTF_8).putByte((byte) 0);
+            }
+        } else {
+            hasher.putInt(-1);
+        }
+
+        hasher.putInt(sorted.size());
+        for (int i = 0; i < sorted.size(); ++i) {
+            final byte[] content = contents.get(i);
+            hasher.putString(sorted.get(i).getIdentifier().toYangFilename(), StandardCharsets.UTF_8).putByte((byte) 0);
+            hasher.putInt(content.length).putBytes(content);
+        }
+        return hasher.hash().toString();
+    }
+
+    private static List<CompiledStatementSource> readFile(final File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Unrecognized file format");
+            }
+
+            final int count = in.readInt();
+            final List<CompiledStatementSource> ret = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i) {
+                ret.add(CompiledStatementSource.readFrom(in));
+            }
+            if (in.read() != -1) {
+                throw new IOException("Trailing data encountered");
+            }
+            return ret;
+        }
+    }
+
+    private void writeFile(final File file, final List<CompiledStatementSource> sources) throws IOException {
+        final File tmp = File.createTempFile("compiled", ".tmp", directory);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(sources.size());
+                for (CompiledStatementSource source : sources) {
+                    source.writeTo(out);
+                }
+            }
+
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                LOG.debug("Atomic move not supported, falling back to replace", e);
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.meta.DeclaredStatement;
+import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.repo.SchemaContextAssembly.SourceInfo;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.EffectiveSchemaContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Weak interner of root effective statements, which allows schema contexts assembled from overlapping sets of sources
+ * to share effective statement trees of modules which are common to them.
+ *
+ * <p>The effective statement tree of a module is fully determined by the sources which can influence it: the sources
+ * it depends on and the sources which modify it through augment, deviation or identity derivation, transitively,
+ * and by the set of supported features. Two trees built from the same set of influencing sources and the same
+ * feature predicate instance are therefore interchangeable. This relies on the repository serving the same content
+ * for a particular {@link SourceIdentifier}, just as caching of whole contexts does.
+ */
+final class EffectiveModuleInterner {
+    private static final class Key {
+        private final SourceIdentifier id;
+        private final Set<SourceIdentifier> sources;
+        private final Predicate<QName> isFeatureSupported;
+        private final int hash;
+
+        Key(final SourceIdentifier id, final Set<SourceIdentifier> sources,
+                final Predicate<QName> isFeatureSupported) {
+            this.id = Preconditions.checkNotNull(id);
+            this.sources = ImmutableSet.copyOf(sources);
+            this.isFeatureSupported = Preconditions.checkNotNull(isFeatureSupported);
+            this.hash = Objects.hash(id, this.sources) * 31 + System.identityHashCode(isFeatureSupported);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            // Predicates do not have a notion of equality, hence we need to compare instances
+            return isFeatureSupported == other.isFeatureSupported && id.equals(other.id)
+                    && sources.equals(other.sources);
+        }
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(EffectiveModuleInterner.class);
+
+    private final ConcurrentMap<Key, EffectiveStatement<?, ?>> roots =
+            CacheBuilder.newBuilder().weakValues().<Key, EffectiveStatement<?, ?>>build().asMap();
+
+    /**
+     * Return a schema context equivalent to the specified one, which shares module trees with previously interned
+     * contexts where possible.
+     *
+     * @param isFeatureSupported Feature predicate used to build the context
+     * @param sources Sources of the context
+     * @param context Schema context
+     * @return Schema context sharing module trees, or the specified context if no trees could be shared
+     */
+    SchemaContext intern(final Predicate<QName> isFeatureSupported, final Map<SourceIdentifier, SourceInfo> sources,
+            final SchemaContext context) {
+        if (!(context instanceof EffectiveSchemaContext)) {
+            return context;
+        }
+
+        final Map<SourceIdentifier, EffectiveStatement<?, ?>> matched = SchemaContextAssembly.matchRoots(sources,
+            ((EffectiveSchemaContext) context).getRootEffectiveStatements());
+        if (matched == null || matched.size() != sources.size()) {
+            LOG.debug("Failed to match root statements to sources {}, not interning context", sources.keySet());
+            return context;
+        }
+
+        final Map<String, List<SourceIdentifier>> byName = new HashMap<>();
+        final Map<String, List<SourceIdentifier>> byTarget = new HashMap<>();
+        index(sources, byName, byTarget);
+
+        final List<DeclaredStatement<?>> declared = new ArrayList<>(sources.size());
+        final List<EffectiveStatement<?, ?>> effective = new ArrayList<>(sources.size());
+        int shared = 0;
+        for (SourceIdentifier id : sources.keySet()) {
+            final EffectiveStatement<?, ?> root = matched.get(id);
+            final Key key = new Key(id, influencingSources(sources, byName, byTarget, id), isFeatureSupported);
+            final EffectiveStatement<?, ?> existing = roots.putIfAbsent(key, root);
+            if (existing != null && existing != root) {
+                declared.add(existing.getDeclared());
+                effective.add(existing);
+                shared++;
+            } else {
+                declared.add(root.getDeclared());
+                effective.add(root);
+            }
+        }
+
+        if (shared == 0) {
+            return context;
+        }
+
+        LOG.debug("Shared {} of {} module trees", shared, sources.size());
+        return new EffectiveSchemaContext(declared, effective);
+    }
+
+    /**
+     * Compute the set of sources which influence the effective statement tree of a source, including the source
+     * itself.
+     *
+     * @param sources All sources
+     * @param id Source identifier
+     * @return Influencing sources
+     */
+    static Set<SourceIdentifier> influencingSources(final Map<SourceIdentifier, SourceInfo> sources,
+            final SourceIdentifier id) {
+        final Map<String, List<SourceIdentifier>> byName = new HashMap<>();
+        final Map<String, List<SourceIdentifier>> byTarget = new HashMap<>();
+        index(sources, byName, byTarget);
+        return influencingSources(sources, byName, byTarget, id);
+    }
+
+    private static void index(final Map<SourceIdentifier, SourceInfo> sources,
+            final Map<String, List<SourceIdentifier>> byName, final Map<String, List<SourceIdentifier>> byTarget) {
+        for (Entry<SourceIdentifier, SourceInfo> e : sources.entrySet()) {
+            byName.computeIfAbsent(e.getValue().getName(), k -> new ArrayList<>(1)).add(e.getKey());
+            for (String target : e.getValue().getTargets()) {
+                byTarget.computeIfAbsent(target, k -> new ArrayList<>()).add(e.getKey());
+            }
+        }
+    }
+
+    private static Set<SourceIdentifier> influencingSources(final Map<SourceIdentifier, SourceInfo> sources,
+            final Map<String, List<SourceIdentifier>> byName, final Map<String, List<SourceIdentifier>> byTarget,
+            final SourceIdentifier id) {
+        final Set<SourceIdentifier> ret = new HashSet<>();
+        ret.add(id);
+        final Queue<SourceIdentifier> work = new ArrayDeque<>();
+        work.add(id);
+        while (!work.isEmpty()) {
+            final SourceInfo info = sources.get(work.remove());
+            for (String dep : info.getDependencies()) {
+                addAll(ret, work, byName.getOrDefault(dep, ImmutableList.of()));
+            }
+            addAll(ret, work, byTarget.getOrDefault(info.getName(), ImmutableList.of()));
+        }
+        return ret;
+    }
+
+    private static void addAll(final Set<SourceIdentifier> set, final Queue<SourceIdentifier> work,
+            final List<SourceIdentifier> ids) {
+        for (SourceIdentifier id : ids) {
+            if (set.add(id)) {
+                work.add(id);
+            }
+        }
+    }
+}
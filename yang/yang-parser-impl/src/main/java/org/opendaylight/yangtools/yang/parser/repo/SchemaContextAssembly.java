@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.SimpleDateFormatUtil;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.ModuleImport;
+import org.opendaylight.yangtools.yang.model.api.Rfc6020Mapping;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.meta.DeclaredStatement;
+import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
+import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo.SubmoduleDependencyInfo;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.Utils;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.EffectiveSchemaContext;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+
+/**
+ * Record of the root effective statements of a successfully assembled {@link SchemaContext}, indexed by the source
+ * which produced them. It allows a context for a slightly different set of sources to be assembled by running the
+ * reactor only on sources which are affected by the difference, reusing effective statements of all other sources.
+ *
+ * <p>A source is affected if it is added or removed, if it depends on an affected source or if it is modified by an
+ * affected source through a top-level augment or deviation, or through an identity derived from one of its identities.
+ * Dependencies are tracked by module name, hence any revision of a module counts as a dependency.
+ */
+final class SchemaContextAssembly {
+    /**
+     * Summary of a single source: its name and revision, names of modules it depends on and names of modules it
+     * modifies.
+     */
+    static final class SourceInfo {
+        private final String name;
+        private final String revision;
+        private final Set<String> dependencies;
+        private final Set<String> targets;
+
+        SourceInfo(final String name, @Nullable final String revision, final Set<String> dependencies,
+                final Set<String> targets) {
+            this.name = Preconditions.checkNotNull(name);
+            this.revision = revision;
+            this.dependencies = ImmutableSet.copyOf(dependencies);
+            this.targets = ImmutableSet.copyOf(targets);
+        }
+
+        static SourceInfo create(final ASTSchemaSource source) {
+            final YangModelDependencyInfo depInfo = source.getDependencyInformation();
+            final Set<String> dependencies = new HashSet<>();
+            for (ModuleImport dep : depInfo.getDependencies()) {
+                dependencies.add(dep.getModuleName());
+            }
+            if (depInfo instanceof SubmoduleDependencyInfo) {
+                dependencies.add(((SubmoduleDependencyInfo) depInfo).getParentModule());
+            }
+
+            final ParserRuleContext ast = source.getAST();
+            return new SourceInfo(depInfo.getName(), depInfo.getFormattedRevision(), dependencies,
+                ast instanceof StatementContext ? findTargets((StatementContext) ast) : ImmutableSet.of());
+        }
+
+        String getName() {
+            return name;
+        }
+
+        @Nullable
+        String getRevision() {
+            return revision;
+        }
+
+        Set<String> getDependencies() {
+            return dependencies;
+        }
+
+        Set<String> getTargets() {
+            return targets;
+        }
+
+        private static Set<String> findTargets(final StatementContext root) {
+            final Map<String, String> prefixes = new HashMap<>();
+            for (StatementContext stmt : root.statement()) {
+                if (isKeyword(stmt, Rfc6020Mapping.IMPORT)) {
+                    final StatementContext prefix = findSubstatement(stmt, Rfc6020Mapping.PREFIX);
+                    if (prefix != null && prefix.argument() != null) {
+                        prefixes.put(Utils.stringFromStringContext(prefix.argument()),
+                            Utils.stringFromStringContext(stmt.argument()));
+                    }
+                }
+            }
+
+            final Set<String> ret = new HashSet<>();
+            for (StatementContext stmt : root.statement()) {
+                if (isKeyword(stmt, Rfc6020Mapping.AUGMENT) || isKeyword(stmt, Rfc6020Mapping.DEVIATION)) {
+                    addTarget(ret, prefixes, stmt);
+                } else if (isKeyword(stmt, Rfc6020Mapping.IDENTITY)) {
+                    final StatementContext base = findSubstatement(stmt, Rfc6020Mapping.BASE);
+                    if (base != null) {
+                        addTarget(ret, prefixes, base);
+                    }
+                }
+            }
+            return ret;
+        }
+
+        private static void addTarget(final Set<String> targets, final Map<String, String> prefixes,
+                final StatementContext stmt) {
+            if (stmt.argument() == null) {
+                return;
+            }
+
+            // Absolute schema node identifier or identity reference, we are interested in the first prefix
+            final String arg = Utils.stringFromStringContext(stmt.argument()).trim();
+            final int start = arg.startsWith("/") ? 1 : 0;
+            final int colon = arg.indexOf(':', start);
+            if (colon != -1) {
+                final String target = prefixes.get(arg.substring(start, colon).trim());
+                if (target != null) {
+                    targets.add(target);
+                }
+            }
+        }
+
+        private static boolean isKeyword(final StatementContext stmt, final Rfc6020Mapping keyword) {
+            return keyword.getStatementName().getLocalName().equals(stmt.keyword().getText());
+        }
+
+        @Nullable
+        private static StatementContext findSubstatement(final StatementContext stmt, final Rfc6020Mapping keyword) {
+            for (StatementContext sub : stmt.statement()) {
+                if (isKeyword(sub, keyword)) {
+                    return sub;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Predicate<QName> isFeatureSupported;
+    private final Map<SourceIdentifier, SourceInfo> sources;
+    private final Map<SourceIdentifier, EffectiveStatement<?, ?>> roots;
+
+    SchemaContextAssembly(final Predicate<QName> isFeatureSupported,
+            final Map<SourceIdentifier, SourceInfo> sources, final Map<SourceIdentifier, EffectiveStatement<?, ?>> roots) {
+        this.isFeatureSupported = Preconditions.checkNotNull(isFeatureSupported);
+        this.sources = ImmutableMap.copyOf(sources);
+        this.roots = ImmutableMap.copyOf(roots);
+    }
+
+    /**
+     * Create an assembly record for a schema context.
+     *
+     * @param isFeatureSupported Feature predicate used to build the context
+     * @param sources Sources of the context
+     * @param context Assembled schema context
+     * @return Assembly record, or null if the context's root statements cannot be matched with sources
+     */
+    @Nullable
+    static SchemaContextAssembly create(final Predicate<QName> isFeatureSupported,
+            final Map<SourceIdentifier, SourceInfo> sources, final SchemaContext context) {
+        if (!(context instanceof EffectiveSchemaContext)) {
+            return null;
+        }
+
+        final Map<SourceIdentifier, EffectiveStatement<?, ?>> roots = matchRoots(sources,
+            ((EffectiveSchemaContext) context).getRootEffectiveStatements());
+        if (roots == null || roots.size() != sources.size()) {
+            return null;
+        }
+        return new SchemaContextAssembly(isFeatureSupported, sources, roots);
+    }
+
+    /**
+     * Match root effective statements to the sources which produced them.
+     *
+     * @param sources Sources
+     * @param statements Root effective statements
+     * @return Statements indexed by source, or null if a statement does not match exactly one source
+     */
+    @Nullable
+    static Map<SourceIdentifier, EffectiveStatement<?, ?>> matchRoots(final Map<SourceIdentifier, SourceInfo> sources,
+            final List<? extends EffectiveStatement<?, ?>> statements) {
+        final Map<String, SourceIdentifier> keys = new HashMap<>();
+        for (Entry<SourceIdentifier, SourceInfo> e : sources.entrySet()) {
+            if (keys.put(rootKey(e.getValue().getName(), e.getValue().getRevision()), e.getKey()) != null) {
+                return null;
+            }
+        }
+
+        final Map<SourceIdentifier, EffectiveStatement<?, ?>> ret = new HashMap<>();
+        for (EffectiveStatement<?, ?> stmt : statements) {
+            if (!(stmt instanceof Module)) {
+                return null;
+            }
+
+            final Module module = (Module) stmt;
+            final Date revision = module.getRevision();
+            final SourceIdentifier id = keys.get(rootKey(module.getName(),
+                revision == null || SimpleDateFormatUtil.DEFAULT_DATE_REV.equals(revision) ? null
+                        : SimpleDateFormatUtil.getRevisionFormat().format(revision)));
+            if (id == null || ret.put(id, stmt) != null) {
+                return null;
+            }
+        }
+        return ret;
+    }
+
+    private static String rootKey(final String name, @Nullable final String revision) {
+        return revision == null ? name : name + '@' + revision;
+    }
+
+    boolean isCompatible(final Predicate<QName> isFeatureSupported) {
+        return this.isFeatureSupported == isFeatureSupported;
+    }
+
+    /**
+     * Return the number of sources which need to be added or removed to get the specified set of sources.
+     *
+     * @param ids Source identifiers
+     * @return Number of differing sources
+     */
+    int difference(final Set<SourceIdentifier> ids) {
+        return Sets.symmetricDifference(sources.keySet(), ids).size();
+    }
+
+    /**
+     * Compute the sources which need to be rebuilt when this assembly is changed to the specified sources.
+     *
+     * @param newSources Summary of new sources
+     * @return Affected sources, all of which are present in newSources
+     */
+    Set<SourceIdentifier> affectedSources(final Map<SourceIdentifier, SourceInfo> newSources) {
+        // Names of modules which have changed or have been modified by a changed module
+        final Set<String> dirty = new HashSet<>();
+        for (Entry<SourceIdentifier, SourceInfo> e : sources.entrySet()) {
+            if (!newSources.containsKey(e.getKey())) {
+                dirty.add(e.getValue().getName());
+                dirty.addAll(e.getValue().getTargets());
+            }
+        }
+
+        final Set<SourceIdentifier> affected = new LinkedHashSet<>();
+        for (Entry<SourceIdentifier, SourceInfo> e : newSources.entrySet()) {
+            if (!sources.containsKey(e.getKey())) {
+                affected.add(e.getKey());
+                dirty.add(e.getValue().getName());
+                dirty.addAll(e.getValue().getTargets());
+            }
+        }
+
+        boolean changed;
+        do {
+            changed = false;
+            for (Entry<SourceIdentifier, SourceInfo> e : newSources.entrySet()) {
+                final SourceInfo info = e.getValue();
+                if (!affected.contains(e.getKey()) && (dirty.contains(info.getName())
+                        || !Sets.intersection(dirty, info.getDependencies()).isEmpty())) {
+                    affected.add(e.getKey());
+                    dirty.add(info.getName());
+                    dirty.addAll(info.getTargets());
+                    changed = true;
+                }
+            }
+        } while (changed);
+
+        return affected;
+    }
+
+    /**
+     * Compute the sources which need to be present in the reactor to build the specified sources, e.g. the specified
+     * sources and everything they transitively depend on.
+     *
+     * @param newSources Summary of new sources
+     * @param affected Sources to be built
+     * @return Required sources
+     */
+    static Set<SourceIdentifier> requiredSources(final Map<SourceIdentifier, SourceInfo> newSources,
+            final Set<SourceIdentifier> affected) {
+        final Map<String, List<SourceIdentifier>> byName = new HashMap<>();
+        for (Entry<SourceIdentifier, SourceInfo> e : newSources.entrySet()) {
+            byName.computeIfAbsent(e.getValue().getName(), k -> new ArrayList<>(1)).add(e.getKey());
+        }
+
+        final Set<SourceIdentifier> ret = new LinkedHashSet<>(affected);
+        final Queue<SourceIdentifier> work = new ArrayDeque<>(affected);
+        while (!work.isEmpty()) {
+            for (String dep : newSources.get(work.remove()).getDependencies()) {
+                for (SourceIdentifier id : byName.getOrDefault(dep, ImmutableList.of())) {
+                    if (ret.add(id)) {
+                        work.add(id);
+                    }
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Assemble a new schema context from root statements of rebuilt sources and root statements of this assembly for
+     * all remaining sources.
+     *
+     * @param ids All sources of the new context
+     * @param rebuilt Root effective statements of rebuilt sources
+     * @return A new schema context, or null if a root statement is missing
+     */
+    @Nullable
+    EffectiveSchemaContext assemble(final Set<SourceIdentifier> ids,
+            final Map<SourceIdentifier, EffectiveStatement<?, ?>> rebuilt) {
+        final List<DeclaredStatement<?>> declared = new ArrayList<>(ids.size());
+        final List<EffectiveStatement<?, ?>> effective = new ArrayList<>(ids.size());
+        for (SourceIdentifier id : ids) {
+            EffectiveStatement<?, ?> root = rebuilt.get(id);
+            if (root == null) {
+                root = roots.get(id);
+                if (root == null) {
+                    return null;
+                }
+            }
+
+            declared.add(root.getDeclared());
+            effective.add(root);
+        }
+        return new EffectiveSchemaContext(declared, effective);
+    }
+}
@@ -7,6 +7,7 @@
  */
 package org.opendaylight.yangtools.yang.parser.repo;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
@@ -14,6 +15,7 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.AsyncFunction;
@@ -28,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nullable;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
@@ -35,17 +38,20 @@ import org.opendaylight.yangtools.util.concurrent.ExceptionMapper;
 import org.opendaylight.yangtools.util.concurrent.ReflectiveExceptionMapper;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaResolutionException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceFilter;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.StatementParserMode;
 import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
+import org.opendaylight.yangtools.yang.parser.repo.SchemaContextAssembly.SourceInfo;
 import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
 import org.opendaylight.yangtools.yang.parser.spi.source.SourceException;
 import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.EffectiveSchemaContext;
 import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +60,17 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
     private static final ExceptionMapper<SchemaResolutionException> MAPPER = ReflectiveExceptionMapper.create("resolve sources", SchemaResolutionException.class);
     private static final Logger LOG = LoggerFactory.getLogger(SharedSchemaContextFactory.class);
 
+    /**
+     * Maximum number of assemblies considered when looking for a base for incremental assembly.
+     */
+    private static final int MAX_ASSEMBLIES = 16;
+
+    /**
+     * A context is assembled incrementally only if at most 1/DELTA_RATIO of its sources differ from the base assembly
+     * and at most 1/DELTA_RATIO of its sources are affected by the difference.
+     */
+    private static final int DELTA_RATIO = 4;
+
     private final Function<SourceIdentifier, ListenableFuture<ASTSchemaSource>> requestSources = new Function<SourceIdentifier, ListenableFuture<ASTSchemaSource>>() {
         @Override
         public ListenableFuture<ASTSchemaSource> apply(final SourceIdentifier input) {
@@ -62,6 +79,10 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
     };
     private final Cache<Collection<SourceIdentifier>, SchemaContext> cache = CacheBuilder.newBuilder().weakValues().build();
     private final Cache<Collection<SourceIdentifier>, SchemaContext> semVerCache = CacheBuilder.newBuilder().weakValues().build();
+    // Assemblies of contexts which are still in use, serving as base for incremental assembly
+    private final Cache<SchemaContext, SchemaContextAssembly> assemblies = CacheBuilder.newBuilder().weakKeys()
+            .maximumSize(MAX_ASSEMBLIES).build();
+    private final AtomicInteger incrementalAssemblies = new AtomicInteger();
     private final SharedSchemaRepository repository;
     // FIXME: ignored right now
     private final SchemaSourceFilter filter;
@@ -78,7 +99,20 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
             final java.util.function.Predicate<QName> isFeatureSupported) {
         return createSchemaContext(requiredSources,
                 statementParserMode == StatementParserMode.SEMVER_MODE ? this.semVerCache : this.cache,
-                new AssembleSources(isFeatureSupported, statementParserMode));
+                statementParserMode == StatementParserMode.SEMVER_MODE
+                    ? new AssembleSources(isFeatureSupported, statementParserMode, null, null, null)
+                    : new AssembleSources(isFeatureSupported, statementParserMode, this.assemblies,
+                        repository.getModuleInterner(), this.incrementalAssemblies));
+    }
+
+    /**
+     * Return the number of schema contexts which have been assembled incrementally by this factory.
+     *
+     * @return Number of incremental assemblies
+     */
+    @VisibleForTesting
+    int getIncrementalAssemblies() {
+        return incrementalAssemblies.get();
     }
 
     private CheckedFuture<SchemaContext, SchemaResolutionException> createSchemaContext(final Collection<SourceIdentifier> requiredSources, final Cache<Collection<SourceIdentifier>, SchemaContext> cache, final AsyncFunction<List<ASTSchemaSource>, SchemaContext> assembleSources) {
@@ -176,11 +210,20 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
         private final java.util.function.Predicate<QName> isFeatureSupported;
         private final StatementParserMode statementParserMode;
         private final Function<ASTSchemaSource, SourceIdentifier> getIdentifier;
+        private final Cache<SchemaContext, SchemaContextAssembly> assemblies;
+        private final EffectiveModuleInterner moduleInterner;
+        private final AtomicInteger incrementalAssemblies;
 
         private AssembleSources(final java.util.function.Predicate<QName> isFeatureSupported,
-                final StatementParserMode statementParserMode) {
+                final StatementParserMode statementParserMode,
+                @Nullable final Cache<SchemaContext, SchemaContextAssembly> assemblies,
+                @Nullable final EffectiveModuleInterner moduleInterner,
+                @Nullable final AtomicInteger incrementalAssemblies) {
             this.isFeatureSupported = Preconditions.checkNotNull(isFeatureSupported);
             this.statementParserMode = Preconditions.checkNotNull(statementParserMode);
+            this.assemblies = assemblies;
+            this.moduleInterner = moduleInterner;
+            this.incrementalAssemblies = incrementalAssemblies;
             switch (statementParserMode) {
             case SEMVER_MODE:
                 this.getIdentifier = ASTSchemaSource.GET_SEMVER_IDENTIFIER;
@@ -207,6 +250,46 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
                         res.getResolvedSources(), res.getUnsatisfiedImports());
             }
 
+            if (assemblies == null) {
+                return Futures.immediateCheckedFuture(buildFully(srcs));
+            }
+
+            final Map<SourceIdentifier, SourceInfo> infos = ImmutableMap.copyOf(
+                Maps.transformValues(srcs, SourceInfo::create));
+            SchemaContext schemaContext = null;
+            final SchemaContextAssembly base = findBase(infos.keySet());
+            if (base != null) {
+                schemaContext = buildIncrementally(base, srcs, infos);
+                if (schemaContext != null && incrementalAssemblies != null) {
+                    incrementalAssemblies.incrementAndGet();
+                }
+            }
+            if (schemaContext == null) {
+                schemaContext = buildFully(srcs);
+            }
+            if (moduleInterner != null) {
+                schemaContext = moduleInterner.intern(isFeatureSupported, infos, schemaContext);
+            }
+
+            final SchemaContextAssembly assembly = SchemaContextAssembly.create(isFeatureSupported, infos,
+                schemaContext);
+            if (assembly != null) {
+                assemblies.put(schemaContext, assembly);
+            }
+            return Futures.immediateCheckedFuture(schemaContext);
+        }
+
+        private SchemaContext buildFully(final Map<SourceIdentifier, ASTSchemaSource> srcs)
+                throws SchemaResolutionException {
+            try {
+                return buildEffective(srcs);
+            } catch (ReactorException ex) {
+                throw new SchemaResolutionException("Failed to resolve required models", ex.getSourceIdentifier(), ex);
+            }
+        }
+
+        private EffectiveSchemaContext buildEffective(final Map<SourceIdentifier, ASTSchemaSource> srcs)
+                throws ReactorException {
             final Map<SourceIdentifier, ParserRuleContext> asts = Maps.transformValues(srcs, ASTSchemaSource.GET_AST);
             final CrossSourceStatementReactor.BuildAction reactor =
                     YangInferencePipeline.RFC6020_REACTOR.newBuild(statementParserMode, isFeatureSupported);
@@ -219,14 +302,64 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
                 reactor.addSource(new YangStatementSourceImpl(e.getKey(), (StatementContext) parserRuleCtx));
             }
 
-            final SchemaContext schemaContext;
-            try {
-                schemaContext = reactor.buildEffective();
-            } catch (ReactorException ex) {
-                throw new SchemaResolutionException("Failed to resolve required models", ex.getSourceIdentifier(), ex);
+            return reactor.buildEffective();
+        }
+
+        @Nullable
+        private SchemaContextAssembly findBase(final Set<SourceIdentifier> ids) {
+            SchemaContextAssembly ret = null;
+            int difference = ids.size() / DELTA_RATIO + 1;
+            for (SchemaContextAssembly assembly : assemblies.asMap().values()) {
+                if (assembly.isCompatible(isFeatureSupported)) {
+                    final int diff = assembly.difference(ids);
+                    if (diff < difference) {
+                        ret = assembly;
+                        difference = diff;
+                    }
+                }
             }
+            return ret;
+        }
 
-            return Futures.immediateCheckedFuture(schemaContext);
+        /**
+         * Build a schema context by running the reactor only on sources affected by the difference from the base
+         * assembly and on sources they depend on. Effective statements of the remaining sources are reused.
+         *
+         * @return Assembled schema context, or null if it cannot be assembled incrementally
+         */
+        @Nullable
+        private SchemaContext buildIncrementally(final SchemaContextAssembly base,
+                final Map<SourceIdentifier, ASTSchemaSource> srcs, final Map<SourceIdentifier, SourceInfo> infos) {
+            final Set<SourceIdentifier> affected = base.affectedSources(infos);
+            if (affected.size() > infos.size() / DELTA_RATIO) {
+                LOG.debug("Difference affects {} of {} sources, not assembling incrementally", affected.size(),
+                    infos.size());
+                return null;
+            }
+
+            Map<SourceIdentifier, EffectiveStatement<?, ?>> rebuilt = ImmutableMap.of();
+            if (!affected.isEmpty()) {
+                final Set<SourceIdentifier> required = SchemaContextAssembly.requiredSources(infos, affected);
+                LOG.debug("Rebuilding sources {} using {}", affected, required);
+
+                final EffectiveSchemaContext partial;
+                try {
+                    partial = buildEffective(Maps.filterKeys(srcs, required::contains));
+                } catch (ReactorException e) {
+                    LOG.debug("Failed to rebuild sources {}, falling back to full assembly", affected, e);
+                    return null;
+                }
+
+                final Map<SourceIdentifier, EffectiveStatement<?, ?>> roots = SchemaContextAssembly.matchRoots(
+                    Maps.filterKeys(infos, required::contains), partial.getRootEffectiveStatements());
+                if (roots == null) {
+                    LOG.debug("Failed to match rebuilt statements to sources {}", required);
+                    return null;
+                }
+                rebuilt = Maps.filterKeys(roots, affected::contains);
+            }
+
+            return base.assemble(infos.keySet(), rebuilt);
         }
     }
 }
@@ -37,6 +37,7 @@ public final class SharedSchemaRepository extends AbstractSchemaRepository imple
                     return new SharedSchemaContextFactory(SharedSchemaRepository.this, key);
                 }
             });
+    private final EffectiveModuleInterner moduleInterner = new EffectiveModuleInterner();
     private final String id;
 
     public SharedSchemaRepository(final String id) {
@@ -53,6 +54,10 @@ public final class SharedSchemaRepository extends AbstractSchemaRepository imple
         return cache.getUnchecked(filter);
     }
 
+    EffectiveModuleInterner getModuleInterner() {
+        return moduleInterner;
+    }
+
     @Override
     public String toString() {
         return "SchemaRepository: " + id;
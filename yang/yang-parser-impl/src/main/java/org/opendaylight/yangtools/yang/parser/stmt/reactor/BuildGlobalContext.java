@@ -16,13 +16,19 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Predicate;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.model.api.meta.DeclaredStatement;
 import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
@@ -70,9 +76,21 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
 
     private final boolean enabledSemanticVersions;
 
+    /**
+     * Pool used to process individual sources concurrently, null if sources are processed sequentially.
+     */
+    private final ForkJoinPool executor;
+
+    /**
+     * Lock guarding state shared by sources, null if sources are processed sequentially.
+     */
+    private final Object reactorLock;
+
     public BuildGlobalContext(final Map<ModelProcessingPhase, StatementSupportBundle> supports,
             StatementParserMode statementParserMode, final Predicate<QName> isFeatureSupported) {
         super();
+        this.executor = null;
+        this.reactorLock = null;
         this.supports = Preconditions.checkNotNull(supports, "BuildGlobalContext#supports cannot be null");
         Preconditions.checkNotNull(statementParserMode, "Statement parser mode must not be null.");
         this.enabledSemanticVersions = statementParserMode == StatementParserMode.SEMVER_MODE;
@@ -84,7 +102,21 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
     public BuildGlobalContext(final Map<ModelProcessingPhase, StatementSupportBundle> supports,
             final Map<ValidationBundleType, Collection<?>> supportedValidation,
             StatementParserMode statementParserMode, final Predicate<QName> isFeatureSupported) {
+        this(supports, supportedValidation, statementParserMode, isFeatureSupported, null);
+    }
+
+    /**
+     * Creates a new context. If an executor is specified, statements of individual sources are loaded concurrently
+     * in each phase and effective statements of individual sources are built concurrently. Inference actions are
+     * always executed sequentially, as they routinely cross source boundaries.
+     */
+    public BuildGlobalContext(final Map<ModelProcessingPhase, StatementSupportBundle> supports,
+            final Map<ValidationBundleType, Collection<?>> supportedValidation,
+            StatementParserMode statementParserMode, final Predicate<QName> isFeatureSupported,
+            @Nullable final ForkJoinPool executor) {
         super();
+        this.executor = executor;
+        this.reactorLock = executor == null ? null : this;
         this.supports = Preconditions.checkNotNull(supports, "BuildGlobalContext#supports cannot be null");
         Preconditions.checkNotNull(statementParserMode, "Statement parser mode must not be null.");
         this.enabledSemanticVersions = statementParserMode == StatementParserMode.SEMVER_MODE;
@@ -124,9 +156,30 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
         return this;
     }
 
+    @Override
+    Object getReactorLock() {
+        return reactorLock;
+    }
+
+    @Override
+    protected <K, V> Map<K, V> createNamespaceMap() {
+        // Global namespaces are handed out to sources, which may be iterating over them while they are being updated
+        return executor == null ? super.createNamespaceMap() : new ConcurrentHashMap<>();
+    }
+
     @Override
     public <K, V, N extends IdentifierNamespace<K, V>> NamespaceBehaviourWithListeners<K, V, N> getNamespaceBehaviour(
             final Class<N> type) {
+        if (reactorLock == null) {
+            return loadNamespaceBehaviour(type);
+        }
+        synchronized (reactorLock) {
+            return loadNamespaceBehaviour(type);
+        }
+    }
+
+    private <K, V, N extends IdentifierNamespace<K, V>> NamespaceBehaviourWithListeners<K, V, N> loadNamespaceBehaviour(
+            final Class<N> type) {
         NamespaceBehaviourWithListeners<?, ?, ?> potential = supportedNamespaces.get(type);
         if (potential == null) {
             NamespaceBehaviour<K, V, N> potentialRaw = supports.get(currentPhase).getNamespaceBehaviour(type);
@@ -161,6 +214,15 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
     }
 
     public StatementDefinitionContext<?, ?, ?> getStatementDefinition(final QName name) {
+        if (reactorLock == null) {
+            return loadStatementDefinition(name);
+        }
+        synchronized (reactorLock) {
+            return loadStatementDefinition(name);
+        }
+    }
+
+    private StatementDefinitionContext<?, ?, ?> loadStatementDefinition(final QName name) {
         StatementDefinitionContext<?, ?, ?> potential = definitions.get(name);
         if (potential == null) {
             StatementSupport<?, ?, ?> potentialRaw = supports.get(currentPhase).getStatementDefinition(name);
@@ -207,6 +269,10 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
         List<EffectiveStatement<?, ?>> rootEffectiveStatements = new ArrayList<>(sources.size());
         SourceIdentifier sourceId = null;
 
+        if (executor != null) {
+            buildEffectiveConcurrently();
+        }
+
         try {
             for (SourceSpecificContext source : sources) {
                 final RootStatementContext<?, ?, ?> root = source.getRoot();
@@ -229,8 +295,21 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
         currentPhase = phase;
     }
 
+    private void buildEffectiveConcurrently() throws ReactorException {
+        throwFirstSourceException(submitSourceTasks(source -> {
+            final RootStatementContext<?, ?, ?> root = source.getRoot();
+            root.buildDeclared();
+            root.buildEffective();
+        }));
+    }
+
     private void loadPhaseStatements() throws ReactorException {
         Preconditions.checkState(currentPhase != null);
+        if (executor != null) {
+            throwFirstSourceException(submitSourceTasks(SourceSpecificContext::loadStatements));
+            return;
+        }
+
         for (SourceSpecificContext source : sources) {
             try {
                 source.loadStatements();
@@ -241,6 +320,47 @@ class BuildGlobalContext extends NamespaceStorageSupport implements NamespaceBeh
         }
     }
 
+    @FunctionalInterface
+    private interface SourceTask {
+        void run(SourceSpecificContext source) throws SourceException;
+    }
+
+    /**
+     * Runs a task for each source in the executor and waits for all of them to complete. Each resulting
+     * {@link ForkJoinTask} yields the {@link SourceException} raised by its source, or null.
+     */
+    private Map<SourceSpecificContext, ForkJoinTask<SourceException>> submitSourceTasks(final SourceTask task) {
+        final Map<SourceSpecificContext, ForkJoinTask<SourceException>> tasks = new LinkedHashMap<>();
+        for (SourceSpecificContext source : sources) {
+            tasks.put(source, executor.submit((Callable<SourceException>) () -> {
+                try {
+                    task.run(source);
+                    return null;
+                } catch (SourceException e) {
+                    return e;
+                }
+            }));
+        }
+
+        // Wait for all tasks, so nothing is touching shared state by the time we report a failure
+        for (ForkJoinTask<SourceException> f : tasks.values()) {
+            f.quietlyJoin();
+        }
+        return tasks;
+    }
+
+    private void throwFirstSourceException(final Map<SourceSpecificContext, ForkJoinTask<SourceException>> tasks)
+            throws ReactorException {
+        for (Entry<SourceSpecificContext, ForkJoinTask<SourceException>> e : tasks.entrySet()) {
+            // Rethrows unexpected runtime exceptions
+            final SourceException ex = e.getValue().join();
+            if (ex != null) {
+                final SourceIdentifier sourceId = Utils.createSourceIdentifier(e.getKey().getRoot());
+                throw new SomeModifiersUnresolvedException(currentPhase, sourceId, ex);
+            }
+        }
+    }
+
     private SomeModifiersUnresolvedException addSourceExceptions(final List<SourceSpecificContext> sourcesToProgress) {
         boolean addedCause = false;
         SomeModifiersUnresolvedException buildFailure = null;
@@ -7,6 +7,8 @@
  */
 package org.opendaylight.yangtools.yang.parser.stmt.reactor;
 
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.ByteSource;
 import java.io.IOException;
@@ -15,6 +17,7 @@ import java.util.Collection;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
@@ -65,6 +68,22 @@ public class CrossSourceStatementReactor {
         return new BuildAction(statementParserMode, isFeatureSupported);
     }
 
+    /**
+     * Start a new build, which processes individual sources concurrently in the specified pool. Statements of each
+     * source are loaded in parallel within each processing phase and effective statements of each source are built
+     * in parallel, while inference actions are executed sequentially.
+     *
+     * @param statementParserMode Parser mode
+     * @param isFeatureSupported Feature support predicate
+     * @param executor Pool in which to process sources
+     * @return A new build action
+     */
+    @Beta
+    public final BuildAction newParallelBuild(final StatementParserMode statementParserMode,
+            final Predicate<QName> isFeatureSupported, final ForkJoinPool executor) {
+        return new BuildAction(statementParserMode, isFeatureSupported, Preconditions.checkNotNull(executor));
+    }
+
     public static class Builder implements org.opendaylight.yangtools.concepts.Builder<CrossSourceStatementReactor> {
 
         final Map<ModelProcessingPhase, StatementSupportBundle> bundles = new EnumMap<>(ModelProcessingPhase.class);
@@ -102,8 +121,13 @@ public class CrossSourceStatementReactor {
         }
 
         public BuildAction(final StatementParserMode statementParserMode, final Predicate<QName> isFeatureSupported) {
+            this(statementParserMode, isFeatureSupported, null);
+        }
+
+        BuildAction(final StatementParserMode statementParserMode, final Predicate<QName> isFeatureSupported,
+                final ForkJoinPool executor) {
             this.context = new BuildGlobalContext(supportedTerminology, supportedValidation, statementParserMode,
-                    isFeatureSupported);
+                    isFeatureSupported, executor);
         }
 
         public void addSource(final StatementStreamSource source) {
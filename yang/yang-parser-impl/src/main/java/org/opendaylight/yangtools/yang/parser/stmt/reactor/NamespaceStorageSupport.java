@@ -11,6 +11,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.yang.model.api.ModuleIdentifier;
 import org.opendaylight.yangtools.yang.model.api.meta.IdentifierNamespace;
 import org.opendaylight.yangtools.yang.parser.spi.meta.NamespaceBehaviour;
@@ -38,13 +39,43 @@ abstract class NamespaceStorageSupport implements NamespaceStorageNode {
         // NOOP
     }
 
+    /**
+     * Creates a map backing a local namespace.
+     *
+     * @return A new empty map
+     */
+    protected <K, V> Map<K, V> createNamespaceMap() {
+        return new HashMap<>();
+    }
+
+    /**
+     * Returns the object guarding namespace storage and listener state shared by all sources processed by a reactor.
+     * Implementations are expected to resolve the lock once and cache it, as it is consulted on each namespace access.
+     *
+     * @return Reactor-wide lock object, null if the reactor processes sources sequentially and no locking is needed
+     */
+    @Nullable
+    abstract Object getReactorLock();
+
     public final <K,V, KT extends K, N extends IdentifierNamespace<K, V>> V getFromNamespace(final Class<N> type, final KT key)
             throws NamespaceNotAvailableException {
-        return getBehaviourRegistry().getNamespaceBehaviour(type).getFrom(this,key);
+        final Object lock = getReactorLock();
+        if (lock == null) {
+            return getBehaviourRegistry().getNamespaceBehaviour(type).getFrom(this,key);
+        }
+        synchronized (lock) {
+            return getBehaviourRegistry().getNamespaceBehaviour(type).getFrom(this,key);
+        }
     }
 
     public final <K, V, N extends IdentifierNamespace<K, V>> Map<K, V> getAllFromNamespace(final Class<N> type){
-        return getBehaviourRegistry().getNamespaceBehaviour(type).getAllFrom(this);
+        final Object lock = getReactorLock();
+        if (lock == null) {
+            return getBehaviourRegistry().getNamespaceBehaviour(type).getAllFrom(this);
+        }
+        synchronized (lock) {
+            return getBehaviourRegistry().getNamespaceBehaviour(type).getAllFrom(this);
+        }
     }
 
     public final <K, V, N extends IdentifierNamespace<K, V>> Map<K, V> getAllFromCurrentStmtCtxNamespace(final Class<N> type){
@@ -53,13 +84,27 @@ abstract class NamespaceStorageSupport implements NamespaceStorageNode {
 
     public final <K,V, KT extends K, VT extends V,N extends IdentifierNamespace<K, V>> void addToNs(final Class<N> type, final KT key, final VT value)
             throws NamespaceNotAvailableException {
-        getBehaviourRegistry().getNamespaceBehaviour(type).addTo(this,key,value);
+        final Object lock = getReactorLock();
+        if (lock == null) {
+            getBehaviourRegistry().getNamespaceBehaviour(type).addTo(this,key,value);
+            return;
+        }
+        synchronized (lock) {
+            getBehaviourRegistry().getNamespaceBehaviour(type).addTo(this,key,value);
+        }
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public final <K, N extends StatementNamespace<K, ?,?>> void addContextToNamespace(final Class<N> type, final K key, final StmtContext<?, ?, ?> value)
             throws NamespaceNotAvailableException {
-        getBehaviourRegistry().getNamespaceBehaviour((Class)type).addTo(this, key, value);
+        final Object lock = getReactorLock();
+        if (lock == null) {
+            getBehaviourRegistry().getNamespaceBehaviour((Class)type).addTo(this, key, value);
+            return;
+        }
+        synchronized (lock) {
+            getBehaviourRegistry().getNamespaceBehaviour((Class)type).addTo(this, key, value);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -110,7 +155,7 @@ abstract class NamespaceStorageSupport implements NamespaceStorageNode {
         Map<K, V> localNamespace = (Map<K,V>) namespaces.get(type);
         if (localNamespace == null) {
             checkLocalNamespaceAllowed(type);
-            localNamespace = new HashMap<>();
+            localNamespace = createNamespaceMap();
             namespaces.put(type, localNamespace);
         }
         localNamespace.put(key,value);
@@ -31,12 +31,14 @@ public class RootStatementContext<A, D extends DeclaredStatement<A>, E extends E
         StatementContextBase<A, D, E> {
 
     private final SourceSpecificContext sourceContext;
+    private final Object reactorLock;
     private final Collection<NamespaceStorageNode> includedContexts = new ArrayList<>();
     private final A argument;
 
     RootStatementContext(final ContextBuilder<A, D, E> builder, final SourceSpecificContext sourceContext) {
         super(builder);
         this.sourceContext = sourceContext;
+        this.reactorLock = sourceContext.getReactorLock();
         this.argument = builder.getDefinition().parseArgumentValue(this, builder.getRawArgument());
     }
 
@@ -45,6 +47,7 @@ public class RootStatementContext<A, D extends DeclaredStatement<A>, E extends E
         super(original);
 
         sourceContext = original.sourceContext;
+        this.reactorLock = original.reactorLock;
         this.argument = original.argument;
 
         copyDeclaredStmts(original, newQNameModule, typeOfCopy);
@@ -110,6 +113,11 @@ public class RootStatementContext<A, D extends DeclaredStatement<A>, E extends E
         return sourceContext;
     }
 
+    @Override
+    Object getReactorLock() {
+        return reactorLock;
+    }
+
     @Override
     public StorageNodeType getStorageNodeType() {
         return StorageNodeType.ROOT_STATEMENT_LOCAL;
@@ -241,6 +241,10 @@ public class SourceSpecificContext implements NamespaceStorageNode, NamespaceBeh
         return currentContext;
     }
 
+    Object getReactorLock() {
+        return currentContext.getReactorLock();
+    }
+
     PhaseCompletionProgress tryToCompletePhase(final ModelProcessingPhase phase) throws SourceException {
         final Collection<ModifierImpl> currentPhaseModifiers = modifiers.get(phase);
 
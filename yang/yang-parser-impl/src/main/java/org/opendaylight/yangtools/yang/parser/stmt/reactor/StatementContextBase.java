@@ -99,8 +99,8 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
     private final Multimap<ModelProcessingPhase, ContextMutation> phaseMutation =
             Multimaps.newListMultimap(new EnumMap<>(ModelProcessingPhase.class), () -> new ArrayList<>());
 
-    private D declaredInstance;
-    private E effectiveInstance;
+    private volatile D declaredInstance;
+    private volatile E effectiveInstance;
 
     private StatementContextBase<?, ?, ?> originalCtx;
     private final List<TypeOfCopy> copyHistory = new ArrayList<>(1);
@@ -372,10 +372,17 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
     public D buildDeclared() {
         Preconditions.checkArgument(completedPhase == ModelProcessingPhase.FULL_DECLARATION
                 || completedPhase == ModelProcessingPhase.EFFECTIVE_MODEL);
-        if (declaredInstance == null) {
-            declaredInstance = definition().getFactory().createDeclared(this);
+        D local = declaredInstance;
+        if (local == null) {
+            synchronized (this) {
+                local = declaredInstance;
+                if (local == null) {
+                    local = definition().getFactory().createDeclared(this);
+                    declaredInstance = local;
+                }
+            }
         }
-        return declaredInstance;
+        return local;
     }
 
     /**
@@ -383,10 +390,18 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
      */
     @Override
     public E buildEffective() {
-        if (effectiveInstance == null) {
-            effectiveInstance = definition().getFactory().createEffective(this);
+        E local = effectiveInstance;
+        if (local == null) {
+            // Roots may be built concurrently by the reactor, which can end up referencing the same statement
+            synchronized (this) {
+                local = effectiveInstance;
+                if (local == null) {
+                    local = definition().getFactory().createEffective(this);
+                    effectiveInstance = local;
+                }
+            }
         }
-        return effectiveInstance;
+        return local;
     }
 
     /**
@@ -491,6 +506,18 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
 
     <K, V, N extends IdentifierNamespace<K, V>> void onNamespaceItemAddedAction(final Class<N> type, final K key,
             final OnNamespaceItemAdded listener) throws SourceException {
+        final Object lock = getReactorLock();
+        if (lock == null) {
+            addNamespaceItemListener(type, key, listener);
+            return;
+        }
+        synchronized (lock) {
+            addNamespaceItemListener(type, key, listener);
+        }
+    }
+
+    private <K, V, N extends IdentifierNamespace<K, V>> void addNamespaceItemListener(final Class<N> type, final K key,
+            final OnNamespaceItemAdded listener) throws SourceException {
         final Object potential = getFromNamespace(type, key);
         if (potential != null) {
             listener.namespaceItemAdded(this, type, key, potential);
@@ -540,6 +567,17 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
         Preconditions.checkNotNull(listener, "Statement context phase listener cannot be null at: %s",
                 getStatementSourceReference());
 
+        final Object lock = getReactorLock();
+        if (lock == null) {
+            addOrFirePhaseListener(phase, listener);
+            return;
+        }
+        synchronized (lock) {
+            addOrFirePhaseListener(phase, listener);
+        }
+    }
+
+    private void addOrFirePhaseListener(final ModelProcessingPhase phase, final OnPhaseFinished listener) {
         ModelProcessingPhase finishedPhase = completedPhase;
         while (finishedPhase != null) {
             if (phase.equals(finishedPhase)) {
@@ -558,6 +596,17 @@ public abstract class StatementContextBase<A, D extends DeclaredStatement<A>, E
      *             when the mutation was registered after phase was completed
      */
     void addMutation(final ModelProcessingPhase phase, final ContextMutation mutation) {
+        final Object lock = getReactorLock();
+        if (lock == null) {
+            putMutation(phase, mutation);
+            return;
+        }
+        synchronized (lock) {
+            putMutation(phase, mutation);
+        }
+    }
+
+    private void putMutation(final ModelProcessingPhase phase, final ContextMutation mutation) {
         ModelProcessingPhase finishedPhase = completedPhase;
         while (finishedPhase != null) {
             if (phase.equals(finishedPhase)) {
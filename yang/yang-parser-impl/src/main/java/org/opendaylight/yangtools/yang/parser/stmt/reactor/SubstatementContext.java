@@ -40,12 +40,14 @@ final class SubstatementContext<A, D extends DeclaredStatement<A>, E extends Eff
         StatementContextBase<A, D, E> {
 
     private final StatementContextBase<?, ?, ?> parent;
+    private final Object reactorLock;
     private final A argument;
     private volatile SchemaPath schemaPath;
 
     SubstatementContext(final StatementContextBase<?, ?, ?> parent, final ContextBuilder<A, D, E> builder) {
         super(builder);
         this.parent = Preconditions.checkNotNull(parent, "Parent must not be null");
+        this.reactorLock = parent.getReactorLock();
         this.argument = builder.getDefinition().parseArgumentValue(this, builder.getRawArgument());
     }
 
@@ -54,6 +56,7 @@ final class SubstatementContext<A, D extends DeclaredStatement<A>, E extends Eff
             final StatementContextBase<?, ?, ?> newParent, final TypeOfCopy typeOfCopy) {
         super(original);
         this.parent = newParent;
+        this.reactorLock = newParent.getReactorLock();
 
         if (newQNameModule != null) {
             if (original.argument instanceof QName) {
@@ -117,6 +120,11 @@ final class SubstatementContext<A, D extends DeclaredStatement<A>, E extends Eff
         return parent.getBehaviourRegistry();
     }
 
+    @Override
+    Object getReactorLock() {
+        return reactorLock;
+    }
+
     @Override
     public RootStatementContext<?, ?, ?> getRoot() {
         return parent.getRoot();
@@ -209,7 +217,11 @@ final class SubstatementContext<A, D extends DeclaredStatement<A>, E extends Eff
             synchronized (this) {
                 local = schemaPath;
                 if (local == null) {
+                    // Parent paths are interned as well, hence identical paths are shared across contexts
                     local = createSchemaPath();
+                    if (local != null) {
+                        local = local.intern();
+                    }
                     schemaPath = local;
                 }
             }
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.stmt.rfc6020;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Verify;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.ArgumentContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.KeywordContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.YangConstants;
+import org.opendaylight.yangtools.yang.model.api.Rfc6020Mapping;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ModelProcessingPhase;
+import org.opendaylight.yangtools.yang.parser.spi.source.DeclarationInTextSource;
+import org.opendaylight.yangtools.yang.parser.spi.source.PrefixToModule;
+import org.opendaylight.yangtools.yang.parser.spi.source.QNameToStatementDefinition;
+import org.opendaylight.yangtools.yang.parser.spi.source.SourceException;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementSourceReference;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementStreamSource;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link StatementStreamSource} which replays a YANG statement tree captured from a parsed source. The tree is held
+ * in flat arrays in pre-order, each statement recording its keyword, unquoted argument, position and the index past
+ * its last descendant. It can be written to and read from a compact binary form, which allows models to be fed into
+ * the reactor without being lexed and parsed again.
+ *
+ * <p>Statements are emitted exactly as {@link YangStatementSourceImpl} would emit them.
+ */
+@Beta
+public final class CompiledStatementSource implements StatementStreamSource {
+    private static final Logger LOG = LoggerFactory.getLogger(CompiledStatementSource.class);
+    private static final int FORMAT_VERSION = 1;
+
+    private final String sourceName;
+    private final String[] keywords;
+    private final String[] arguments;
+    private final int[] lines;
+    private final int[] columns;
+    private final int[] ends;
+
+    private CompiledStatementSource(final String sourceName, final String[] keywords, final String[] arguments,
+            final int[] lines, final int[] columns, final int[] ends) {
+        this.sourceName = sourceName;
+        this.keywords = keywords;
+        this.arguments = arguments;
+        this.lines = lines;
+        this.columns = columns;
+        this.ends = ends;
+    }
+
+    /**
+     * Capture the statement tree of a parsed source.
+     *
+     * @param sourceName Name of the source, used in statement source references
+     * @param root Root statement of the source
+     * @return A new compiled source
+     */
+    public static CompiledStatementSource fromAST(final String sourceName, final StatementContext root) {
+        final Builder builder = new Builder();
+        builder.add(Preconditions.checkNotNull(root));
+        return builder.build(sourceName);
+    }
+
+    /**
+     * Read a compiled source previously written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in Input
+     * @return A new compiled source
+     * @throws IOException if an I/O error occurs or the input is not a compiled source
+     */
+    public static CompiledStatementSource readFrom(final DataInput in) throws IOException {
+        final int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported format version " + version);
+        }
+
+        final String sourceName = in.readBoolean() ? in.readUTF() : null;
+        final String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; ++i) {
+            strings[i] = in.readUTF();
+        }
+
+        final int size = in.readInt();
+        final String[] keywords = new String[size];
+        final String[] arguments = new String[size];
+        final int[] lines = new int[size];
+        final int[] columns = new int[size];
+        final int[] ends = new int[size];
+        try {
+            for (int i = 0; i < size; ++i) {
+                keywords[i] = strings[in.readInt()];
+                final int arg = in.readInt();
+                arguments[i] = arg < 0 ? null : strings[arg];
+                lines[i] = in.readInt();
+                columns[i] = in.readInt();
+                ends[i] = in.readInt();
+                if (ends[i] <= i || ends[i] > size) {
+                    throw new IOException("Invalid statement end " + ends[i] + " at " + i);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Invalid string reference", e);
+        }
+
+        return new CompiledStatementSource(sourceName, keywords, arguments, lines, columns, ends);
+    }
+
+    /**
+     * Write this source in a compact binary form. Keywords and arguments are stored in a string table, hence repeated
+     * strings are written only once.
+     *
+     * @param out Output
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(final DataOutput out) throws IOException {
+        final Map<String, Integer> indices = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        final int[] keywordRefs = new int[keywords.length];
+        final int[] argumentRefs = new int[keywords.length];
+        for (int i = 0; i < keywords.length; ++i) {
+            keywordRefs[i] = stringIndex(indices, strings, keywords[i]);
+            argumentRefs[i] = arguments[i] == null ? -1 : stringIndex(indices, strings, arguments[i]);
+        }
+
+        out.writeInt(FORMAT_VERSION);
+        out.writeBoolean(sourceName != null);
+        if (sourceName != null) {
+            out.writeUTF(sourceName);
+        }
+        out.writeInt(strings.size());
+        for (String str : strings) {
+            out.writeUTF(str);
+        }
+        out.writeInt(keywords.length);
+        for (int i = 0; i < keywords.length; ++i) {
+            out.writeInt(keywordRefs[i]);
+            out.writeInt(argumentRefs[i]);
+            out.writeInt(lines[i]);
+            out.writeInt(columns[i]);
+            out.writeInt(ends[i]);
+        }
+    }
+
+    private static int stringIndex(final Map<String, Integer> indices, final List<String> strings, final String str) {
+        final Integer existing = indices.get(str);
+        if (existing != null) {
+            return existing;
+        }
+
+        final int index = strings.size();
+        strings.add(str);
+        indices.put(str, index);
+        return index;
+    }
+
+    /**
+     * Return the number of statements in this source.
+     *
+     * @return Number of statements
+     */
+    public int size() {
+        return keywords.length;
+    }
+
+    @Override
+    public void writePreLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef) {
+        replay(writer, stmtDef, null);
+    }
+
+    @Override
+    public void writeLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final PrefixToModule preLinkagePrefixes) {
+        replay(writer, stmtDef, preLinkagePrefixes);
+    }
+
+    @Override
+    public void writeLinkageAndStatementDefinitions(final StatementWriter writer,
+            final QNameToStatementDefinition stmtDef, final PrefixToModule prefixes) {
+        replay(writer, stmtDef, prefixes);
+    }
+
+    @Override
+    public void writeFull(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final PrefixToModule prefixes) {
+        replay(writer, stmtDef, prefixes);
+    }
+
+    private void replay(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final PrefixToModule prefixes) {
+        if (keywords.length != 0) {
+            replay(writer, stmtDef, prefixes, 0);
+        }
+    }
+
+    private void replay(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final PrefixToModule prefixes, final int index) {
+        final StatementSourceReference ref = DeclarationInTextSource.atPosition(sourceName, lines[index],
+            columns[index]);
+        final QName identifier = QName.create(YangConstants.RFC6020_YIN_MODULE, keywords[index]);
+        final QName validStatementDefinition = Utils.getValidStatementDefinition(prefixes, stmtDef, identifier);
+        if (stmtDef == null || validStatementDefinition == null) {
+            // Not known in this phase: YangStatementSourceImpl skips the entire subtree
+            Preconditions.checkArgument(writer.getPhase() != ModelProcessingPhase.FULL_DECLARATION,
+                "%s is not a YANG statement or use of extension. Source: %s", identifier.getLocalName(), ref);
+            return;
+        }
+
+        final String argument = arguments[index];
+        // FIXME: Refactor/clean up this special case
+        if (identifier.equals(Rfc6020Mapping.TYPE.getStatementName())) {
+            Preconditions.checkArgument(argument != null);
+            if (TypeUtils.isYangTypeBodyStmtString(argument)) {
+                writer.startStatement(QName.create(YangConstants.RFC6020_YIN_MODULE, argument), ref);
+            } else {
+                writer.startStatement(QName.create(YangConstants.RFC6020_YIN_MODULE, Rfc6020Mapping
+                    .TYPE.getStatementName().getLocalName()), ref);
+            }
+            writer.argumentValue(argument, ref);
+        } else {
+            writer.startStatement(validStatementDefinition, ref);
+            if (argument != null) {
+                writer.argumentValue(argument, ref);
+            }
+        }
+
+        for (int child = index + 1; child < ends[index]; child = ends[child]) {
+            replay(writer, stmtDef, prefixes, child);
+        }
+
+        try {
+            writer.endStatement(ref);
+        } catch (SourceException e) {
+            LOG.warn(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return sourceName;
+    }
+
+    private static final class Builder {
+        private final List<String> keywords = new ArrayList<>();
+        private final List<String> arguments = new ArrayList<>();
+        private final List<Integer> lines = new ArrayList<>();
+        private final List<Integer> columns = new ArrayList<>();
+        private final List<Integer> ends = new ArrayList<>();
+
+        void add(final StatementContext ctx) {
+            final KeywordContext keywordCtx = Verify.verifyNotNull(ctx.getChild(KeywordContext.class, 0));
+            final ArgumentContext argumentCtx = ctx.getChild(ArgumentContext.class, 0);
+
+            final int index = keywords.size();
+            keywords.add(keywordCtx.getText());
+            arguments.add(argumentCtx != null ? Utils.stringFromStringContext(argumentCtx) : null);
+            lines.add(ctx.getStart().getLine());
+            columns.add(ctx.getStart().getCharPositionInLine());
+            ends.add(null);
+
+            for (StatementContext child : ctx.statement()) {
+                add(child);
+            }
+            ends.set(index, keywords.size());
+        }
+
+        CompiledStatementSource build(final String sourceName) {
+            final int size = keywords.size();
+            final int[] l = new int[size];
+            final int[] c = new int[size];
+            final int[] e = new int[size];
+            for (int i = 0; i < size; ++i) {
+                l[i] = lines.get(i);
+                c[i] = columns.get(i);
+                e[i] = ends.get(i);
+            }
+            return new CompiledStatementSource(sourceName, keywords.toArray(new String[size]),
+                arguments.toArray(new String[size]), l, c, e);
+        }
+    }
+}
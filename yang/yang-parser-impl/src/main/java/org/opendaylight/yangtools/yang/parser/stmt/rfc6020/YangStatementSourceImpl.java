@@ -107,7 +107,31 @@ public final class YangStatementSourceImpl implements StatementStreamSource {
 
     private YangStatementParser.StatementContext parseYangSource(final InputStream stream) throws IOException,
             YangSyntaxErrorException {
-        final YangStatementLexer lexer = new YangStatementLexer(new ANTLRInputStream(stream));
+        if (stream instanceof NamedFileInputStream) {
+            sourceName = stream.toString();
+        } else {
+            sourceName = null;
+        }
+
+        return parse(new ANTLRInputStream(stream));
+    }
+
+    /**
+     * Parse YANG text into its AST. Lexer and parser DFA caches are kept in static fields of the generated classes,
+     * hence they are shared by all threads invoking this method concurrently.
+     *
+     * @param text YANG text
+     * @return Root statement context
+     * @throws YangSyntaxErrorException if the text is not syntactically valid
+     */
+    public static YangStatementParser.StatementContext parseYangText(final String text)
+            throws YangSyntaxErrorException {
+        return parse(new ANTLRInputStream(text));
+    }
+
+    private static YangStatementParser.StatementContext parse(final ANTLRInputStream input)
+            throws YangSyntaxErrorException {
+        final YangStatementLexer lexer = new YangStatementLexer(input);
         final CommonTokenStream tokens = new CommonTokenStream(lexer);
         final YangStatementParser parser = new YangStatementParser(tokens);
         //disconnect from console error output
@@ -116,12 +140,6 @@ public final class YangStatementSourceImpl implements StatementStreamSource {
         final YangErrorListener errorListener = new YangErrorListener();
         parser.addErrorListener(errorListener);
 
-        if (stream instanceof NamedFileInputStream) {
-            sourceName = stream.toString();
-        } else {
-            sourceName = null;
-        }
-
         final StatementContext result = parser.statement();
         errorListener.validate();
 
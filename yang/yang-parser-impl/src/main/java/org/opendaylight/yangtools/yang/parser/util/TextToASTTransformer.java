@@ -9,11 +9,20 @@
 package org.opendaylight.yangtools.yang.parser.util;
 
 import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
@@ -35,22 +44,111 @@ public final class TextToASTTransformer extends SchemaSourceTransformer<YangText
     public static final class TextToASTTransformation implements Transformation<YangTextSchemaSource, ASTSchemaSource> {
         @Override
         public CheckedFuture<ASTSchemaSource, SchemaSourceException> apply(final YangTextSchemaSource input) throws IOException, YangSyntaxErrorException {
-            try (InputStream is = input.openStream()) {
-                final ParserRuleContext ctx = new YangStatementSourceImpl(is).getYangAST();
-                LOG.debug("Model {} parsed successfully", input);
+            return Futures.immediateCheckedFuture(transform(input));
+        }
+    }
+
+    public static final TextToASTTransformation TRANSFORMATION = new TextToASTTransformation();
+    private static final Logger LOG = LoggerFactory.getLogger(TextToASTTransformer.class);
+
+    private static ASTSchemaSource transform(final YangTextSchemaSource input) throws IOException,
+            YangSyntaxErrorException {
+        // Read the text only once, it is both fed to the lexer and retained for backwards compatibility
+        final String text = input.asCharSource(StandardCharsets.UTF_8).read();
+        final ParserRuleContext ctx = YangStatementSourceImpl.parseYangText(text);
+        LOG.debug("Model {} parsed successfully", input);
 
-                //:TODO missing validation (YangModelBasicValidationListener should be re-implemented to new parser)
+        //:TODO missing validation (YangModelBasicValidationListener should be re-implemented to new parser)
 
-                // Backwards compatibility
-                final String text = input.asCharSource(StandardCharsets.UTF_8).read();
+        return ASTSchemaSource.create(input.getIdentifier(), ctx, text);
+    }
+
+    /**
+     * Transform multiple sources concurrently, using at most one thread per available processor. See
+     * {@link #transformAll(Collection, Executor, int)} for details.
+     *
+     * @param sources Sources to transform
+     * @param executor Executor to run the transformations
+     * @return Future completing with transformed sources, in the order of input sources
+     */
+    public static ListenableFuture<List<ASTSchemaSource>> transformAll(
+            final Collection<? extends YangTextSchemaSource> sources, final Executor executor) {
+        return transformAll(sources, executor, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Transform multiple sources concurrently. At most <code>parallelism</code> tasks are submitted to the executor,
+     * each of them picking up sources until all of them have been processed. Lexer and parser DFA caches are shared
+     * by all threads, hence later sources benefit from predictions computed while processing earlier ones. Tasks which
+     * are rejected by the executor are run by the calling thread.
+     *
+     * <p>The returned future fails with the first {@link IOException} or {@link YangSyntaxErrorException} encountered,
+     * in which case the remaining sources are not processed.
+     *
+     * @param sources Sources to transform
+     * @param executor Executor to run the transformations
+     * @param parallelism Maximum number of sources processed concurrently
+     * @return Future completing with transformed sources, in the order of input sources
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public static ListenableFuture<List<ASTSchemaSource>> transformAll(
+            final Collection<? extends YangTextSchemaSource> sources, final Executor executor, final int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "Parallelism has to be positive, not %s", parallelism);
+        Preconditions.checkNotNull(executor);
+
+        final BulkTransformation bulk = new BulkTransformation(sources);
+        if (bulk.inputs.length == 0) {
+            return Futures.immediateFuture(Collections.emptyList());
+        }
 
-                return Futures.immediateCheckedFuture(ASTSchemaSource.create(input.getIdentifier(), ctx, text));
+        final int tasks = Math.min(parallelism, bulk.inputs.length);
+        for (int i = 0; i < tasks; ++i) {
+            try {
+                executor.execute(bulk);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Executor {} rejected transformation, running it in caller", executor, e);
+                bulk.run();
             }
         }
+        return bulk.future;
     }
 
-    public static final TextToASTTransformation TRANSFORMATION = new TextToASTTransformation();
-    private static final Logger LOG = LoggerFactory.getLogger(TextToASTTransformer.class);
+    private static final class BulkTransformation implements Runnable {
+        private final SettableFuture<List<ASTSchemaSource>> future = SettableFuture.create();
+        private final AtomicInteger nextInput = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final YangTextSchemaSource[] inputs;
+        private final ASTSchemaSource[] outputs;
+
+        BulkTransformation(final Collection<? extends YangTextSchemaSource> sources) {
+            inputs = sources.toArray(new YangTextSchemaSource[sources.size()]);
+            outputs = new ASTSchemaSource[inputs.length];
+            remaining = new AtomicInteger(inputs.length);
+        }
+
+        @Override
+        public void run() {
+            while (!future.isDone()) {
+                final int index = nextInput.getAndIncrement();
+                if (index >= inputs.length) {
+                    return;
+                }
+
+                try {
+                    outputs[index] = transform(inputs[index]);
+                } catch (IOException | YangSyntaxErrorException | RuntimeException e) {
+                    LOG.debug("Failed to transform {}", inputs[index], e);
+                    future.setException(e);
+                    return;
+                }
+
+                // The decrement publishes our output to whoever completes the future
+                if (remaining.decrementAndGet() == 0) {
+                    future.set(Arrays.asList(outputs));
+                }
+            }
+        }
+    }
 
     private TextToASTTransformer(final SchemaRepository provider, final SchemaSourceRegistry consumer) {
         super(provider, YangTextSchemaSource.class, consumer, ASTSchemaSource.class, TRANSFORMATION);
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.StatementParserMode;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+
+public class CompiledSchemaContextCacheTest {
+    private static final ImmutableList<ResourceYangSource> SOURCES = ImmutableList.of(
+        new ResourceYangSource("/ietf/network-topology@2013-10-21.yang"),
+        new ResourceYangSource("/ietf/ietf-inet-types@2010-09-24.yang"));
+
+    private static void assertSameModules(final SchemaContext expected, final SchemaContext actual) {
+        assertEquals(expected.getModules().size(), actual.getModules().size());
+        for (Module module : expected.getModules()) {
+            final Module other = actual.findModuleByNamespaceAndRevision(module.getNamespace(),
+                module.getRevision());
+            assertEquals(module.getName(), other.getName());
+            assertEquals(module.getChildNodes().size(), other.getChildNodes().size());
+            assertEquals(module.getTypeDefinitions().size(), other.getTypeDefinitions().size());
+        }
+    }
+
+    @Test
+    public void testStoreAndLoad() throws Exception {
+        final File dir = Files.createTempDir();
+        final CompiledSchemaContextCache cache = CompiledSchemaContextCache.create(dir);
+
+        final SchemaContext first = cache.getSchemaContext(SOURCES, StatementParserMode.DEFAULT_MODE,
+            Optional.absent());
+        assertEquals(2, first.getModules().size());
+        assertEquals(1, dir.listFiles().length);
+
+        final SchemaContext second = cache.getSchemaContext(SOURCES.reverse(), StatementParserMode.DEFAULT_MODE,
+            Optional.absent());
+        assertEquals(1, dir.listFiles().length);
+        assertSameModules(first, second);
+    }
+
+    @Test
+    public void testCorruptedFile() throws Exception {
+        final File dir = Files.createTempDir();
+        final CompiledSchemaContextCache cache = CompiledSchemaContextCache.create(dir);
+        final SchemaContext first = cache.getSchemaContext(SOURCES, StatementParserMode.DEFAULT_MODE,
+            Optional.absent());
+
+        final File file = dir.listFiles()[0];
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] { 1, 2, 3 });
+        }
+
+        final SchemaContext second = cache.getSchemaContext(SOURCES, StatementParserMode.DEFAULT_MODE,
+            Optional.absent());
+        assertSameModules(first, second);
+        assertNotEquals(3, file.length());
+    }
+
+    @Test
+    public void testKey() throws IOException {
+        final List<YangTextSchemaSource> sources = new ArrayList<>(SOURCES);
+        final List<byte[]> contents = new ArrayList<>();
+        for (YangTextSchemaSource source : sources) {
+            contents.add(source.read());
+        }
+
+        final Optional<Set<QName>> features = Optional.<Set<QName>>of(ImmutableSet.of(QName.create("foo", "bar")));
+        final String all = CompiledSchemaContextCache.computeKey(sources, contents,
+            StatementParserMode.DEFAULT_MODE, Optional.absent());
+        assertEquals(all, CompiledSchemaContextCache.computeKey(sources, contents,
+            StatementParserMode.DEFAULT_MODE, Optional.absent()));
+        assertNotEquals(all, CompiledSchemaContextCache.computeKey(sources, contents,
+            StatementParserMode.SEMVER_MODE, Optional.absent()));
+        assertNotEquals(all, CompiledSchemaContextCache.computeKey(sources, contents,
+            StatementParserMode.DEFAULT_MODE, features));
+
+        contents.set(0, new byte[0]);
+        assertNotEquals(all, CompiledSchemaContextCache.computeKey(sources, contents,
+            StatementParserMode.DEFAULT_MODE, Optional.absent()));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import java.util.Map;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceFilter;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.repo.SchemaContextAssembly.SourceInfo;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+
+public class EffectiveModuleInternerTest {
+    private static final SourceIdentifier TYPES = RevisionSourceIdentifier.create("types");
+    private static final SourceIdentifier BASE = RevisionSourceIdentifier.create("base");
+    private static final SourceIdentifier USER = RevisionSourceIdentifier.create("user");
+    private static final SourceIdentifier AUG = RevisionSourceIdentifier.create("aug");
+
+    private static final Map<SourceIdentifier, SourceInfo> SOURCES = ImmutableMap.of(
+        TYPES, new SourceInfo("types", null, ImmutableSet.of(), ImmutableSet.of()),
+        BASE, new SourceInfo("base", null, ImmutableSet.of("types"), ImmutableSet.of()),
+        USER, new SourceInfo("user", null, ImmutableSet.of("base"), ImmutableSet.of()),
+        AUG, new SourceInfo("aug", null, ImmutableSet.of("types", "base"), ImmutableSet.of("base")));
+
+    private static Module findModule(final SchemaContext context, final String name) {
+        for (Module module : context.getModules()) {
+            if (name.equals(module.getName())) {
+                return module;
+            }
+        }
+        throw new AssertionError("Module " + name + " not found in " + context);
+    }
+
+    @Test
+    public void testInfluencingSources() {
+        assertEquals(ImmutableSet.of(TYPES), EffectiveModuleInterner.influencingSources(SOURCES, TYPES));
+        assertEquals(ImmutableSet.of(BASE, TYPES, AUG), EffectiveModuleInterner.influencingSources(SOURCES, BASE));
+        assertEquals(ImmutableSet.of(USER, BASE, TYPES, AUG),
+            EffectiveModuleInterner.influencingSources(SOURCES, USER));
+        assertEquals(ImmutableSet.of(AUG, BASE, TYPES), EffectiveModuleInterner.influencingSources(SOURCES, AUG));
+    }
+
+    @Test
+    public void testSchemaPathIntern() {
+        final QName foo = QName.create("foo", "foo");
+        final QName bar = QName.create("foo", "bar");
+        final SchemaPath first = SchemaPath.ROOT.createChild(foo).intern().createChild(bar).intern();
+        final SchemaPath second = SchemaPath.create(true, foo, bar);
+        assertNotSame(first, second);
+        assertSame(first, second.intern());
+        assertSame(SchemaPath.ROOT, SchemaPath.ROOT.intern());
+    }
+
+    @Test
+    public void testSharedModuleTrees() throws Exception {
+        final SharedSchemaRepository repository = new SharedSchemaRepository("netconf-mounts");
+        final SettableSchemaProvider<ASTSchemaSource> inetTypes = SharedSchemaRepositoryTest
+                .getImmediateYangSourceProviderFromResource("/ietf/ietf-inet-types@2010-09-24.yang");
+        inetTypes.register(repository);
+        inetTypes.setResult();
+        final SettableSchemaProvider<ASTSchemaSource> topology = SharedSchemaRepositoryTest
+                .getImmediateYangSourceProviderFromResource("/ietf/network-topology@2013-10-21.yang");
+        topology.register(repository);
+        topology.setResult();
+        final SettableSchemaProvider<ASTSchemaSource> timezones = SharedSchemaRepositoryTest
+                .getImmediateYangSourceProviderFromResource("/ietf/iana-timezones@2012-07-09.yang");
+        timezones.register(repository);
+        timezones.setResult();
+
+        final SchemaContextFactory factory = repository.createSchemaContextFactory(SchemaSourceFilter.ALWAYS_ACCEPT);
+        final SchemaContext first = factory.createSchemaContext(
+            Lists.newArrayList(inetTypes.getId(), topology.getId())).checkedGet();
+        final SchemaContext second = factory.createSchemaContext(
+            Lists.newArrayList(inetTypes.getId(), timezones.getId())).checkedGet();
+        assertNotSame(first, second);
+
+        assertSame(findModule(first, "ietf-inet-types"), findModule(second, "ietf-inet-types"));
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.IdentitySchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.IfFeaturePredicates;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceFilter;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.repo.SchemaContextAssembly.SourceInfo;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+
+public class SchemaContextAssemblyTest {
+    private static final SourceIdentifier TYPES = RevisionSourceIdentifier.create("types");
+    private static final SourceIdentifier BASE = RevisionSourceIdentifier.create("base");
+    private static final SourceIdentifier USER = RevisionSourceIdentifier.create("user");
+    private static final SourceIdentifier OTHER = RevisionSourceIdentifier.create("other");
+    private static final SourceIdentifier AUG = RevisionSourceIdentifier.create("aug");
+
+    private static final SourceInfo TYPES_INFO = new SourceInfo("types", null, ImmutableSet.of(), ImmutableSet.of());
+    private static final SourceInfo BASE_INFO = new SourceInfo("base", null, ImmutableSet.of("types"),
+        ImmutableSet.of());
+    private static final SourceInfo USER_INFO = new SourceInfo("user", null, ImmutableSet.of("base"),
+        ImmutableSet.of());
+    private static final SourceInfo OTHER_INFO = new SourceInfo("other", null, ImmutableSet.of("types"),
+        ImmutableSet.of());
+    private static final SourceInfo AUG_INFO = new SourceInfo("aug", null, ImmutableSet.of("base", "types"),
+        ImmutableSet.of("base"));
+
+    private static final Map<SourceIdentifier, SourceInfo> INITIAL = ImmutableMap.of(TYPES, TYPES_INFO,
+        BASE, BASE_INFO, USER, USER_INFO, OTHER, OTHER_INFO);
+
+    private static final String RESOURCE_DIR = "/incremental-assembly/";
+    private static final List<String> BASE_MODULES = ImmutableList.of("types", "base", "user", "filler-1", "filler-2",
+        "filler-3", "filler-4", "filler-5", "filler-6", "filler-7", "filler-8", "filler-9");
+
+    private static SchemaContextAssembly assembly(final Map<SourceIdentifier, SourceInfo> sources) {
+        return new SchemaContextAssembly(IfFeaturePredicates.ALL_FEATURES, sources, ImmutableMap.of());
+    }
+
+    private static Map<SourceIdentifier, SourceInfo> with(final Map<SourceIdentifier, SourceInfo> sources,
+            final SourceIdentifier id, final SourceInfo info) {
+        final Map<SourceIdentifier, SourceInfo> ret = new LinkedHashMap<>(sources);
+        ret.put(id, info);
+        return ret;
+    }
+
+    @Test
+    public void testAddLeafModule() {
+        final SourceInfo leaf = new SourceInfo("leaf", null, ImmutableSet.of("types"), ImmutableSet.of());
+        final SourceIdentifier leafId = RevisionSourceIdentifier.create("leaf");
+        final Map<SourceIdentifier, SourceInfo> sources = with(INITIAL, leafId, leaf);
+
+        final SchemaContextAssembly assembly = assembly(INITIAL);
+        assertEquals(1, assembly.difference(sources.keySet()));
+        assertEquals(ImmutableSet.of(leafId), assembly.affectedSources(sources));
+        assertEquals(ImmutableSet.of(leafId, TYPES),
+            SchemaContextAssembly.requiredSources(sources, ImmutableSet.of(leafId)));
+    }
+
+    @Test
+    public void testAddAugmentingModule() {
+        final Map<SourceIdentifier, SourceInfo> sources = with(INITIAL, AUG, AUG_INFO);
+
+        // Augmented module and its dependents need to be rebuilt, but not its dependencies
+        assertEquals(ImmutableSet.of(AUG, BASE, USER), assembly(INITIAL).affectedSources(sources));
+        assertEquals(ImmutableSet.of(AUG, BASE, USER, TYPES),
+            SchemaContextAssembly.requiredSources(sources, ImmutableSet.of(AUG, BASE, USER)));
+    }
+
+    @Test
+    public void testRemoveAugmentingModule() {
+        final SchemaContextAssembly assembly = assembly(with(INITIAL, AUG, AUG_INFO));
+        assertEquals(1, assembly.difference(INITIAL.keySet()));
+        assertEquals(ImmutableSet.of(BASE, USER), assembly.affectedSources(INITIAL));
+    }
+
+    @Test
+    public void testChangeRevision() {
+        final SourceIdentifier newTypes = RevisionSourceIdentifier.create("types", "2016-01-01");
+        final Map<SourceIdentifier, SourceInfo> sources = new LinkedHashMap<>(INITIAL);
+        sources.remove(TYPES);
+        sources.put(newTypes, new SourceInfo("types", "2016-01-01", ImmutableSet.of(), ImmutableSet.of()));
+
+        // Everything depends on the changed module
+        final SchemaContextAssembly assembly = assembly(INITIAL);
+        assertEquals(2, assembly.difference(sources.keySet()));
+        assertEquals(sources.keySet(), assembly.affectedSources(sources));
+    }
+
+    @Test
+    public void testNoChange() {
+        assertEquals(ImmutableSet.of(), assembly(INITIAL).affectedSources(INITIAL));
+    }
+
+    /**
+     * Create a factory backed by a new repository, which holds all test sources.
+     */
+    private static SharedSchemaContextFactory createFactory(final Map<String, SourceIdentifier> ids)
+            throws Exception {
+        final SharedSchemaRepository repository = new SharedSchemaRepository("incremental-assembly");
+        for (String name : ImmutableList.<String>builder().addAll(BASE_MODULES).add("aug", "extra").build()) {
+            final SettableSchemaProvider<ASTSchemaSource> provider = SharedSchemaRepositoryTest
+                    .getImmediateYangSourceProviderFromResource(RESOURCE_DIR + name + ".yang");
+            provider.register(repository);
+            provider.setResult();
+            ids.put(name, provider.getId());
+        }
+        return (SharedSchemaContextFactory) repository.createSchemaContextFactory(SchemaSourceFilter.ALWAYS_ACCEPT);
+    }
+
+    private static List<SourceIdentifier> sources(final Map<String, SourceIdentifier> ids,
+            final Collection<String> names) {
+        final List<SourceIdentifier> ret = new ArrayList<>(names.size());
+        for (String name : names) {
+            ret.add(ids.get(name));
+        }
+        return ret;
+    }
+
+    private static List<String> plus(final List<String> names, final String name) {
+        return ImmutableList.<String>builder().addAll(names).add(name).build();
+    }
+
+    /**
+     * Assemble the base set of sources followed by the delta set using a single factory, so that the delta is
+     * assembled incrementally, and compare the result with the delta set assembled from scratch.
+     */
+    private static void assertIncremental(final List<String> base, final List<String> delta) throws Exception {
+        final Map<String, SourceIdentifier> ids = new HashMap<>();
+        final SharedSchemaContextFactory factory = createFactory(ids);
+        final SchemaContext baseContext = factory.createSchemaContext(sources(ids, base)).checkedGet();
+        assertEquals(0, factory.getIncrementalAssemblies());
+
+        final SchemaContext incremental = factory.createSchemaContext(sources(ids, delta)).checkedGet();
+        assertEquals("Delta was not assembled incrementally", 1, factory.getIncrementalAssemblies());
+        // Keep the base context reachable, as it is what the incremental assembly is based on
+        assertNotSame(baseContext, incremental);
+
+        final SharedSchemaContextFactory fullFactory = createFactory(ids);
+        final SchemaContext full = fullFactory.createSchemaContext(sources(ids, delta)).checkedGet();
+        assertEquals(0, fullFactory.getIncrementalAssemblies());
+
+        assertEquivalent(full, incremental);
+    }
+
+    private static void assertEquivalent(final SchemaContext expected, final SchemaContext actual) {
+        assertEquals(describeModules(expected), describeModules(actual));
+        for (Module module : expected.getModules()) {
+            final Module other = actual.findModuleByNamespaceAndRevision(module.getNamespace(),
+                module.getRevision());
+            assertNotNull("Missing module " + module.getName(), other);
+            assertEquals(describeNodes(module), describeNodes(other));
+            assertEquals(describeAugmentations(module), describeAugmentations(other));
+            assertEquals(describeIdentities(module), describeIdentities(other));
+        }
+    }
+
+    private static Set<String> describeModules(final SchemaContext context) {
+        final Set<String> ret = new TreeSet<>();
+        for (Module module : context.getModules()) {
+            ret.add(module.getName() + "@" + module.getRevision() + " " + module.getNamespace());
+        }
+        return ret;
+    }
+
+    private static Set<String> describeNodes(final DataNodeContainer container) {
+        final Set<String> ret = new TreeSet<>();
+        addNodes(ret, container.getChildNodes());
+        return ret;
+    }
+
+    private static void addNodes(final Set<String> set, final Collection<DataSchemaNode> nodes) {
+        for (DataSchemaNode node : nodes) {
+            set.add(node.getPath() + " " + node.getClass().getSimpleName() + " augmenting=" + node.isAugmenting());
+            if (node instanceof DataNodeContainer) {
+                addNodes(set, ((DataNodeContainer) node).getChildNodes());
+            }
+        }
+    }
+
+    private static Set<String> describeAugmentations(final Module module) {
+        final Set<String> ret = new TreeSet<>();
+        for (AugmentationSchema augmentation : module.getAugmentations()) {
+            ret.add(augmentation.getTargetPath() + " " + describeNodes(augmentation));
+        }
+        return ret;
+    }
+
+    private static Set<String> describeIdentities(final Module module) {
+        final Set<String> ret = new TreeSet<>();
+        for (IdentitySchemaNode identity : module.getIdentities()) {
+            final IdentitySchemaNode base = identity.getBaseIdentity();
+            ret.add(identity.getQName() + " base=" + (base == null ? null : base.getQName()) + " derived="
+                + describeDerived(identity));
+        }
+        return ret;
+    }
+
+    private static Set<String> describeDerived(final IdentitySchemaNode identity) {
+        final Set<String> ret = new TreeSet<>();
+        for (IdentitySchemaNode derived : identity.getDerivedIdentities()) {
+            ret.add(derived.getQName().toString());
+        }
+        return ret;
+    }
+
+    @Test
+    public void testIncrementalAddLeafModule() throws Exception {
+        assertIncremental(BASE_MODULES, plus(BASE_MODULES, "extra"));
+    }
+
+    @Test
+    public void testIncrementalAddAugmentingModule() throws Exception {
+        assertIncremental(BASE_MODULES, plus(BASE_MODULES, "aug"));
+    }
+
+    @Test
+    public void testIncrementalRemoveAugmentingModule() throws Exception {
+        assertIncremental(plus(BASE_MODULES, "aug"), BASE_MODULES);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.parser.util.ASTSchemaSource;
+import org.opendaylight.yangtools.yang.parser.util.TextToASTTransformer;
+
+public class TextToASTTransformerTest {
+    private static final List<ResourceYangSource> SOURCES = ImmutableList.of(
+        new ResourceYangSource("/ietf/ietf-inet-types@2010-09-24.yang"),
+        new ResourceYangSource("/ietf/iana-timezones@2012-07-09.yang"),
+        new ResourceYangSource("/ietf/ietf-yang-types@2010-09-24.yang"),
+        new ResourceYangSource("/ietf/network-topology@2013-10-21.yang"));
+
+    @Test
+    public void testTransformAll() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<ASTSchemaSource> result = TextToASTTransformer.transformAll(SOURCES, executor, 2).get();
+            assertEquals(SOURCES.size(), result.size());
+            for (int i = 0; i < SOURCES.size(); ++i) {
+                final ASTSchemaSource expected = TextToASTTransformer.TRANSFORMATION.apply(SOURCES.get(i)).get();
+                assertEquals(expected.getIdentifier(), result.get(i).getIdentifier());
+                assertEquals(expected.getDependencyInformation(), result.get(i).getDependencyInformation());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTransformAllEmpty() throws Exception {
+        assertTrue(TextToASTTransformer.transformAll(Collections.<ResourceYangSource>emptyList(),
+            MoreExecutors.directExecutor()).get().isEmpty());
+    }
+
+    @Test
+    public void testTransformAllFailure() throws Exception {
+        final List<ResourceYangSource> sources = ImmutableList.<ResourceYangSource>builder().addAll(SOURCES)
+                .add(new ResourceYangSource("/negative-scenario/syntax-error.yang")).build();
+        try {
+            TextToASTTransformer.transformAll(sources, MoreExecutors.directExecutor(), 3).get();
+            fail("Transformation should have failed");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            assertTrue("Unexpected failure " + cause, cause instanceof YangSyntaxErrorException);
+            assertEquals("syntax-error", ((YangSyntaxErrorException) cause).getModule());
+        }
+    }
+}
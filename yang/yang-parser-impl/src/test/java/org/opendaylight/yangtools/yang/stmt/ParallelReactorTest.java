@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.stmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Throwables;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.meta.DeclaredStatement;
+import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
+import org.opendaylight.yangtools.yang.model.api.stmt.TypeDefinitionAware;
+import org.opendaylight.yangtools.yang.model.repo.api.IfFeaturePredicates;
+import org.opendaylight.yangtools.yang.model.repo.api.StatementParserMode;
+import org.opendaylight.yangtools.yang.parser.spi.meta.InferenceException;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.spi.meta.SomeModifiersUnresolvedException;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor.BuildAction;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.util.NamedFileInputStream;
+
+public class ParallelReactorTest {
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void setup() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void teardown() {
+        pool.shutdown();
+    }
+
+    private static void addSource(final BuildAction reactor, final File file) throws Exception {
+        reactor.addSource(new YangStatementSourceImpl(new NamedFileInputStream(file, file.getPath())));
+    }
+
+    private static SchemaContext parse(final BuildAction reactor, final String directory) throws Exception {
+        final File dir = new File(ParallelReactorTest.class.getResource(directory).toURI());
+        for (File file : dir.listFiles(StmtTestUtils.YANG_FILE_FILTER)) {
+            addSource(reactor, file);
+        }
+        return reactor.buildEffective();
+    }
+
+    private static BuildAction newParallelBuild() {
+        return YangInferencePipeline.RFC6020_REACTOR.newParallelBuild(StatementParserMode.DEFAULT_MODE,
+            IfFeaturePredicates.ALL_FEATURES, pool);
+    }
+
+    /**
+     * Describe the complete effective statement tree of each module, keyed by module name and revision. Substatements
+     * are described in a canonical order, as the order in which sources are processed is not specified.
+     */
+    private static Map<QName, String> describeModules(final SchemaContext context) {
+        final Map<QName, String> ret = new HashMap<>();
+        for (Module m : context.getModules()) {
+            ret.put(QName.create(m.getQNameModule(), m.getName()), describe((EffectiveStatement<?, ?>) m));
+        }
+        return ret;
+    }
+
+    private static String describe(final EffectiveStatement<?, ?> stmt) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(stmt.statementDefinition().getStatementName().getLocalName());
+        if (stmt instanceof TypeDefinitionAware) {
+            sb.append(" type=").append(((TypeDefinitionAware) stmt).getTypeDefinition().getPath());
+        }
+        final DeclaredStatement<?> declared = stmt.getDeclared();
+        if (declared == null) {
+            // Type statements synthesized by the reactor, which are fully described by their type definition
+            return sb.toString();
+        }
+        sb.append(" \"").append(declared.rawArgument()).append('"');
+        if (stmt instanceof SchemaNode) {
+            sb.append(' ').append(((SchemaNode) stmt).getPath());
+        }
+        if (stmt instanceof DataSchemaNode) {
+            final DataSchemaNode node = (DataSchemaNode) stmt;
+            sb.append(" augmenting=").append(node.isAugmenting()).append(" addedByUses=")
+                .append(node.isAddedByUses()).append(" config=").append(node.isConfiguration());
+        }
+
+        final List<String> children = new ArrayList<>();
+        for (EffectiveStatement<?, ?> child : stmt.effectiveSubstatements()) {
+            children.add(describe(child));
+        }
+        Collections.sort(children);
+        return sb.append(' ').append(children).toString();
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws Exception {
+        final Map<QName, String> expected = describeModules(
+            parse(YangInferencePipeline.RFC6020_REACTOR.newBuild(), "/ietf"));
+
+        // Repeat a few times to give interleavings a chance
+        for (int i = 0; i < 5; ++i) {
+            assertEquals(expected, describeModules(parse(newParallelBuild(), "/ietf")));
+        }
+    }
+
+    @Test
+    public void testParallelReportsFailure() throws Exception {
+        BuildAction reactor = newParallelBuild();
+        addSource(reactor, new File(getClass().getResource("/negative-scenario/duplicity/container.yang").toURI()));
+        addSource(reactor, new File(getClass().getResource("/ietf/ietf-inet-types@2010-09-24.yang").toURI()));
+        try {
+            reactor.buildEffective();
+            fail("ReactorException should be thrown");
+        } catch (ReactorException e) {
+            assertTrue(e.getCause().getMessage().contains("Node name collision"));
+        }
+
+        reactor = newParallelBuild();
+        addSource(reactor, new File(getClass().getResource("/negative-scenario/testfile1.yang").toURI()));
+        try {
+            reactor.buildEffective();
+            fail("SomeModifiersUnresolvedException should be thrown");
+        } catch (SomeModifiersUnresolvedException e) {
+            final Throwable rootCause = Throwables.getRootCause(e);
+            assertTrue(rootCause instanceof InferenceException);
+            assertTrue(rootCause.getMessage().startsWith("Imported module"));
+        }
+    }
+}